@@ -0,0 +1,30 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_prereg
+-- Table Name 	: prereg.anonymous_profile_daily
+-- Purpose    	: Anonymous Profile Daily: daily counts of anonymous profiles per profile dimension for analytics
+--
+-- Created Date	: Oct-2026
+--
+-- Modified Date        Modified By         Comments / Remarks
+-- ------------------------------------------------------------------------------------------
+--
+-- ------------------------------------------------------------------------------------------
+-- object: prereg.anonymous_profile_daily | type: TABLE --
+-- DROP TABLE IF EXISTS prereg.anonymous_profile_daily CASCADE;
+CREATE TABLE IF NOT EXISTS prereg.anonymous_profile_daily(
+	profile_date date NOT NULL,
+	yob_bucket character varying(16) NOT NULL,
+	gender character varying(64) NOT NULL,
+	location character varying(512) NOT NULL,
+	channel character varying(64) NOT NULL,
+	regcntr_id character varying(10) NOT NULL,
+	documents character varying(512) NOT NULL,
+	profile_count integer NOT NULL,
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp without time zone NOT NULL,
+	CONSTRAINT pk_anoprfdly PRIMARY KEY (profile_date, yob_bucket, gender, location, channel, regcntr_id, documents)
+
+);
+-- ddl-end --
+
+CREATE INDEX IF NOT EXISTS idx_anoprfl_cr_dtimes ON prereg.anonymous_profile USING btree (cr_dtimes);
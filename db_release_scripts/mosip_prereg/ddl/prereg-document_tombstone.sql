@@ -0,0 +1,30 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_prereg
+-- Table Name 	: prereg.document_tombstone
+-- Purpose    	: Document Tombstone: object store keys of deleted documents waiting to be removed from the object store
+--
+-- Created Date	: Oct-2026
+--
+-- Modified Date        Modified By         Comments / Remarks
+-- ------------------------------------------------------------------------------------------
+--
+-- ------------------------------------------------------------------------------------------
+-- object: prereg.document_tombstone | type: TABLE --
+-- DROP TABLE IF EXISTS prereg.document_tombstone CASCADE;
+CREATE TABLE IF NOT EXISTS prereg.document_tombstone(
+	id character varying(36) NOT NULL,
+	prereg_id character varying(36) NOT NULL,
+	object_name character varying(128) NOT NULL,
+	attempt_count smallint NOT NULL DEFAULT 0,
+	next_attempt_dtimes timestamp without time zone NOT NULL,
+	last_error character varying(1024),
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp without time zone NOT NULL,
+	upd_by character varying(256),
+	upd_dtimes timestamp without time zone,
+	CONSTRAINT pk_doctmb_id PRIMARY KEY (id)
+
+);
+-- ddl-end --
+
+CREATE INDEX IF NOT EXISTS idx_doctmb_next_attempt ON prereg.document_tombstone USING btree (next_attempt_dtimes);
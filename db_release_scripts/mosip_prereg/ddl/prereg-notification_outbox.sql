@@ -0,0 +1,36 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_prereg
+-- Table Name 	: prereg.notification_outbox
+-- Purpose    	: Notification Outbox: rendered SMS and email notifications waiting to be delivered to the notifier
+--
+-- Created Date	: Oct-2026
+--
+-- Modified Date        Modified By         Comments / Remarks
+-- ------------------------------------------------------------------------------------------
+--
+-- ------------------------------------------------------------------------------------------
+-- object: prereg.notification_outbox | type: TABLE --
+-- DROP TABLE IF EXISTS prereg.notification_outbox CASCADE;
+CREATE TABLE IF NOT EXISTS prereg.notification_outbox(
+	id character varying(36) NOT NULL,
+	prereg_id character varying(36),
+	channel character varying(16) NOT NULL,
+	recipient character varying(256),
+	subject character varying(1024),
+	content character varying,
+	status_code character varying(36) NOT NULL,
+	attempt_count smallint NOT NULL DEFAULT 0,
+	next_attempt_dtimes timestamp without time zone NOT NULL,
+	last_error character varying(1024),
+	sent_dtimes timestamp without time zone,
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp without time zone NOT NULL,
+	upd_by character varying(256),
+	upd_dtimes timestamp without time zone,
+	CONSTRAINT pk_ntfob_id PRIMARY KEY (id)
+
+);
+-- ddl-end --
+
+CREATE INDEX IF NOT EXISTS idx_ntfob_status_next_attempt ON prereg.notification_outbox USING btree (status_code, next_attempt_dtimes);
+CREATE INDEX IF NOT EXISTS idx_ntfob_status_upd ON prereg.notification_outbox USING btree (status_code, upd_dtimes);
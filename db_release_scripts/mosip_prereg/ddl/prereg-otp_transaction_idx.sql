@@ -0,0 +1,20 @@
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_prereg
+-- Table Name 	: prereg.otp_transaction
+-- Purpose    	: OTP Transaction indexes: lookup of the active OTP of a user and at most one active OTP per user
+--
+-- Created Date	: Oct-2026
+--
+-- Modified Date        Modified By         Comments / Remarks
+-- ------------------------------------------------------------------------------------------
+--
+-- ------------------------------------------------------------------------------------------
+
+-- Only the latest active OTP of a user stays active, the older ones were never used and are expired.
+UPDATE prereg.otp_transaction t SET status_code = 'expired', upd_by = 'sysadmin', upd_dtimes = now()
+WHERE t.status_code = 'active' AND EXISTS (SELECT 1 FROM prereg.otp_transaction n
+	WHERE n.ref_id = t.ref_id AND n.status_code = 'active' AND (n.cr_dtimes, n.id) > (t.cr_dtimes, t.id));
+
+CREATE INDEX IF NOT EXISTS idx_otpt_ref_status_expiry ON prereg.otp_transaction USING btree (ref_id, status_code, expiry_dtimes);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_otpt_active_ref_id ON prereg.otp_transaction USING btree (ref_id) WHERE status_code = 'active';
+-- ddl-end --
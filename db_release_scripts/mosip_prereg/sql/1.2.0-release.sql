@@ -8,6 +8,10 @@
 -- Modified Date        Modified By         Comments / Remarks
 -- -------------------------------------------------------------------------------------------------
 -- Sept-2021		Ram Bhatt 	    Creation of Anonymous Profile Table
+-- Oct-2026					    Creation of Notification Outbox Table
+-- Oct-2026					    Creation of Anonymous Profile Daily Table
+-- Oct-2026					    Creation of OTP Transaction indexes
+-- Oct-2026					    Creation of Document Tombstone Table
 ----------------------------------------------------------------------------------------------------
 
 \c mosip_prereg sysadmin
@@ -17,6 +21,14 @@
 
 \ir  ../ddl/prereg-anonymous_profile.sql
 
+\ir  ../ddl/prereg-notification_outbox.sql
+
+\ir  ../ddl/prereg-anonymous_profile_daily.sql
+
+\ir  ../ddl/prereg-otp_transaction_idx.sql
+
+\ir  ../ddl/prereg-document_tombstone.sql
+
 ALTER TABLE prereg.reg_appointment DROP CONSTRAINT IF EXISTS fk_rappmnt_id CASCADE;
 
 -----------------------------------------------------------------------------------------------------
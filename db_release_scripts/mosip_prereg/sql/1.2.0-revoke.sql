@@ -12,6 +12,12 @@
 
 DROP TABLE IF EXISTS prereg-applications;
 DROP TABLE IF EXISTS prereg-anonymous_profile;
+DROP TABLE IF EXISTS prereg.notification_outbox;
+DROP TABLE IF EXISTS prereg.anonymous_profile_daily;
+DROP INDEX IF EXISTS prereg.idx_anoprfl_cr_dtimes;
+DROP INDEX IF EXISTS prereg.idx_otpt_ref_status_expiry;
+DROP INDEX IF EXISTS prereg.uk_otpt_active_ref_id;
+DROP TABLE IF EXISTS prereg.document_tombstone;
 
 ALTER TABLE prereg.reg_appointment ADD CONSTRAINT fk_rappmnt_id FOREIGN KEY (prereg_id)
 REFERENCES prereg.applicant_demographic(prereg_id) MATCH SIMPLE
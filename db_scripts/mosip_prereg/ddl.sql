@@ -20,3 +20,6 @@
 \ir ddl/fk.sql
 \ir ddl/batch-fk.sql
 \ir ddl/anonymous_profile.sql
+\ir ddl/notification_outbox.sql
+\ir ddl/anonymous_profile_daily.sql
+\ir ddl/document_tombstone.sql
@@ -0,0 +1,29 @@
+-- This table holds the anonymous profiles of pre-registration applications rolled up into daily counts per profile dimension, so that analytics dashboards do not scan and parse the profile JSON of prereg.anonymous_profile.
+
+CREATE TABLE prereg.anonymous_profile_daily(
+	profile_date date NOT NULL,
+	yob_bucket character varying(16) NOT NULL,
+	gender character varying(64) NOT NULL,
+	location character varying(512) NOT NULL,
+	channel character varying(64) NOT NULL,
+	regcntr_id character varying(10) NOT NULL,
+	documents character varying(512) NOT NULL,
+	profile_count integer NOT NULL,
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp NOT NULL,
+	CONSTRAINT pk_anoprfdly PRIMARY KEY (profile_date, yob_bucket, gender, location, channel, regcntr_id, documents)
+);
+
+CREATE INDEX IF NOT EXISTS idx_anoprfl_cr_dtimes ON prereg.anonymous_profile USING btree (cr_dtimes);
+
+COMMENT ON TABLE prereg.anonymous_profile_daily IS 'Daily counts of anonymous profiles per year of birth bucket, gender, location, channel, registration center and documents, rolled up by the batch job.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.profile_date IS 'UTC date on which the anonymous profiles were created.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.yob_bucket IS 'Range of the year of birth of the applicants, like 1990-1999. Empty when not available.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.gender IS 'Gender of the applicants. Empty when not available.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.location IS 'Location hierarchy of the applicants joined with commas. Empty when not available.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.channel IS 'Sorted communication channels of the applicants joined with commas. Empty when not available.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.regcntr_id IS 'Registration center where the appointments are booked. Empty when not booked.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.documents IS 'Sorted types of documents uploaded by the applicants joined with commas. Empty when not available.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.profile_count IS 'Number of anonymous profiles created on the day with these values.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.cr_by IS 'ID or name of the user who create / insert record.';
+COMMENT ON COLUMN prereg.anonymous_profile_daily.cr_dtimes IS 'Date and Timestamp when the record is created/inserted';
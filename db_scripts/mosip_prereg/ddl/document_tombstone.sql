@@ -0,0 +1,29 @@
+-- This table holds the object store keys of deleted application documents until the objects are removed from the object store by the application service purge workers.
+
+CREATE TABLE prereg.document_tombstone(
+	id character varying(36) NOT NULL,
+	prereg_id character varying(36) NOT NULL,
+	object_name character varying(128) NOT NULL,
+	attempt_count smallint NOT NULL DEFAULT 0,
+	next_attempt_dtimes timestamp NOT NULL,
+	last_error character varying(1024),
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp NOT NULL,
+	upd_by character varying(256),
+	upd_dtimes timestamp,
+	CONSTRAINT pk_doctmb_id PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_doctmb_next_attempt ON prereg.document_tombstone USING btree (next_attempt_dtimes);
+
+COMMENT ON TABLE prereg.document_tombstone IS 'Object store keys of deleted application documents waiting to be removed from the object store.';
+COMMENT ON COLUMN prereg.document_tombstone.id IS 'Id of the deleted document, refers to the id of prereg.applicant_document.';
+COMMENT ON COLUMN prereg.document_tombstone.prereg_id IS 'Id of the pre-registration application of the deleted document, the object store container of the document.';
+COMMENT ON COLUMN prereg.document_tombstone.object_name IS 'Name of the document object in the object store container.';
+COMMENT ON COLUMN prereg.document_tombstone.attempt_count IS 'Number of failed attempts to remove the object so far.';
+COMMENT ON COLUMN prereg.document_tombstone.next_attempt_dtimes IS 'Date and Time from when the object can be picked up for the next removal attempt.';
+COMMENT ON COLUMN prereg.document_tombstone.last_error IS 'Error of the last failed removal attempt.';
+COMMENT ON COLUMN prereg.document_tombstone.cr_by IS 'ID or name of the user who create / insert record.';
+COMMENT ON COLUMN prereg.document_tombstone.cr_dtimes IS 'Date and Timestamp when the record is created/inserted';
+COMMENT ON COLUMN prereg.document_tombstone.upd_by IS 'ID or name of the user who update the record with new values';
+COMMENT ON COLUMN prereg.document_tombstone.upd_dtimes IS 'Date and Timestamp when any of the fields in the record is updated with new values.';
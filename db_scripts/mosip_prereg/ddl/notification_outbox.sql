@@ -0,0 +1,40 @@
+-- This table holds the rendered SMS and email notifications of pre-registration applications until they are delivered to the kernel notifier by the application service workers.
+
+CREATE TABLE prereg.notification_outbox(
+	id character varying(36) NOT NULL,
+	prereg_id character varying(36),
+	channel character varying(16) NOT NULL,
+	recipient character varying(256),
+	subject character varying(1024),
+	content character varying,
+	status_code character varying(36) NOT NULL,
+	attempt_count smallint NOT NULL DEFAULT 0,
+	next_attempt_dtimes timestamp NOT NULL,
+	last_error character varying(1024),
+	sent_dtimes timestamp,
+	cr_by character varying(256) NOT NULL,
+	cr_dtimes timestamp NOT NULL,
+	upd_by character varying(256),
+	upd_dtimes timestamp,
+	CONSTRAINT pk_ntfob_id PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ntfob_status_next_attempt ON prereg.notification_outbox USING btree (status_code, next_attempt_dtimes);
+CREATE INDEX IF NOT EXISTS idx_ntfob_status_upd ON prereg.notification_outbox USING btree (status_code, upd_dtimes);
+
+COMMENT ON TABLE prereg.notification_outbox IS 'Outbox of rendered SMS and email notifications waiting to be delivered to the kernel notifier.';
+COMMENT ON COLUMN prereg.notification_outbox.id IS 'Unique identifier (UUID) of the notification.';
+COMMENT ON COLUMN prereg.notification_outbox.prereg_id IS 'Pre-registration id the notification was triggered for.';
+COMMENT ON COLUMN prereg.notification_outbox.channel IS 'Delivery channel of the notification, sms or email.';
+COMMENT ON COLUMN prereg.notification_outbox.recipient IS 'Mobile number or email address the notification is sent to, cleared once the notification is sent or has failed.';
+COMMENT ON COLUMN prereg.notification_outbox.subject IS 'Rendered subject of an email notification.';
+COMMENT ON COLUMN prereg.notification_outbox.content IS 'Rendered message of the notification in all the languages of the application, cleared once the notification is sent or has failed.';
+COMMENT ON COLUMN prereg.notification_outbox.status_code IS 'Delivery status of the notification: PENDING, IN_PROGRESS, SENT or FAILED.';
+COMMENT ON COLUMN prereg.notification_outbox.attempt_count IS 'Number of delivery attempts made so far.';
+COMMENT ON COLUMN prereg.notification_outbox.next_attempt_dtimes IS 'Date and Time from when the notification can be picked up for the next delivery attempt.';
+COMMENT ON COLUMN prereg.notification_outbox.last_error IS 'Error of the last failed delivery attempt.';
+COMMENT ON COLUMN prereg.notification_outbox.sent_dtimes IS 'Date and Time when the notification was delivered to the notifier.';
+COMMENT ON COLUMN prereg.notification_outbox.cr_by IS 'ID or name of the user who create / insert record.';
+COMMENT ON COLUMN prereg.notification_outbox.cr_dtimes IS 'Date and Timestamp when the record is created/inserted';
+COMMENT ON COLUMN prereg.notification_outbox.upd_by IS 'ID or name of the user who update the record with new values';
+COMMENT ON COLUMN prereg.notification_outbox.upd_dtimes IS 'Date and Timestamp when any of the fields in the record is updated with new values.';
@@ -18,6 +18,9 @@ CREATE TABLE prereg.otp_transaction(
 	CONSTRAINT pk_otpt_id PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_otpt_ref_status_expiry ON prereg.otp_transaction USING btree (ref_id, status_code, expiry_dtimes);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_otpt_active_ref_id ON prereg.otp_transaction USING btree (ref_id) WHERE status_code = 'active';
+
 COMMENT ON TABLE prereg.otp_transaction IS 'All OTP related data and validation details are maintained here for Pre Registration module.';
 COMMENT ON COLUMN prereg.otp_transaction.id IS 'OTP id is a unique identifier (UUID) used as an unique key to identify the OTP transaction';
 COMMENT ON COLUMN prereg.otp_transaction.ref_id IS 'Reference ID is a reference information received from OTP requester which can be used while validating the OTP. AM: please give examples of ref_id';
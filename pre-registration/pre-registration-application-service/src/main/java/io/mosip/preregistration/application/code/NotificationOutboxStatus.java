@@ -0,0 +1,41 @@
+package io.mosip.preregistration.application.code;
+
+/**
+ * 
+ * This Enum provides the delivery status codes of the notification outbox.
+ * 
+ * @since 1.2.0
+ */
+public enum NotificationOutboxStatus {
+
+	/* Waiting for the next delivery attempt */
+	PENDING("PENDING"),
+
+	/* Claimed by a delivery worker */
+	IN_PROGRESS("IN_PROGRESS"),
+
+	/* Delivered to the notifier */
+	SENT("SENT"),
+
+	/* Delivery attempts exhausted */
+	FAILED("FAILED");
+
+	/**
+	 * @param code
+	 */
+	private NotificationOutboxStatus(String code) {
+		this.code = code;
+	}
+
+	/**
+	 * Code
+	 */
+	private final String code;
+
+	/**
+	 * @return the code
+	 */
+	public String getCode() {
+		return code;
+	}
+}
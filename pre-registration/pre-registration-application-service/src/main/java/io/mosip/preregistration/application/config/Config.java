@@ -9,16 +9,14 @@ import java.util.Map;
 
 import javax.net.ssl.SSLContext;
 
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustStrategy;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.mosip.preregistration.core.config.PooledHttpClientFactory;
+
 /**
  * @author Raj Jha
  * 
@@ -52,8 +50,13 @@ public class Config {
 		return Collections.unmodifiableMap(id);
 	}
 
+	/**
+	 * Rest template of the service calls, on the restTemplateConfig pool of the
+	 * shared HTTP client factory trusting the certificates of the downstream
+	 * services.
+	 */
 	@Bean
-	public RestTemplate restTemplateConfig()
+	public RestTemplate restTemplateConfig(PooledHttpClientFactory httpClientFactory)
 			throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
 		
 			TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
@@ -61,13 +64,7 @@ public class Config {
 			SSLContext sslContext = org.apache.http.ssl.SSLContexts.custom()
 					.loadTrustMaterial(null, acceptingTrustStrategy).build();
 
-			SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext);
-
-			CloseableHttpClient httpClient = HttpClients.custom().setSSLSocketFactory(csf).build();
-			HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-
-			requestFactory.setHttpClient(httpClient);
-			return new RestTemplate(requestFactory);
+			return new RestTemplate(httpClientFactory.requestFactory("restTemplateConfig", sslContext));
 	}
 
 }
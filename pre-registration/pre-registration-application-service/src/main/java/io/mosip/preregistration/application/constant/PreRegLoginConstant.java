@@ -16,6 +16,7 @@ public class PreRegLoginConstant {
 	public static final String MOSIP_KERNEL_OTP_EXPIRY_TIME = "mosip.kernel.otp.expiry-time";
 	public static final String MOSIP_PRE_REG_CLIENTID = "mosip.pre.reg.clientId";
 	public static final String USED_STATUS = "used";
+	public static final String EXPIRED_STATUS = "expired";
 	public static final String SUCCESS = "success";
 	public static final String SMS_SUCCESS = "Sms Request Sent";
 	public static final String EMAIL_SUCCESS = "Email Request submitted";
@@ -5,6 +5,7 @@
 package io.mosip.preregistration.application.controller;
 
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.application.dto.DocumentContentDTO;
 import io.mosip.preregistration.application.dto.DocumentResponseDTO;
 import io.mosip.preregistration.application.service.DocumentServiceIntf;
 import io.mosip.preregistration.core.common.dto.DocumentDTO;
@@ -19,13 +20,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 /**
@@ -117,6 +130,37 @@ public class DocumentController {
 				.body(documentUploadService.copyDocument(catCode, sourcePreId, preRegistrationId));
 	}
 
+	/**
+	 * 
+	 * Put API to copy the document of a source Preregistration Id to several
+	 * destination Preregistration Ids
+	 * 
+	 * @param catCode           pass cat_type
+	 * @param sourcePreId       pass source_prId
+	 * @param destinationPreIds pass destination_preIds
+	 * 
+	 * @return response in a format specified in API document
+	 */
+	@PreAuthorize("hasAnyRole(@authorizedRoles.getPutdocumentspreregistrationid())")
+	@PutMapping(path = "/documents/copies", produces = MediaType.APPLICATION_JSON_VALUE)
+	@Operation(summary = "copyDocumentToApplications", description = "Copy uploaded document to several applications", tags = "document-controller")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Document successfully copied"),
+			@ApiResponse(responseCode = "401", description = "Unauthorized" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found" ,content = @Content(schema = @Schema(hidden = true)))})
+	public ResponseEntity<MainResponseDTO<List<DocumentResponseDTO>>> copyDocumentToApplications(
+			@Valid @RequestParam(required = true) String catCode,
+			@Valid @RequestParam(required = true) String sourcePreId,
+			@Valid @RequestParam(required = true) List<String> destinationPreIds) {
+
+		log.info("sessionId", "idType", "id",
+				"In copyDocumentToApplications method of document controller to copy the document for request "
+						+ catCode + "," + sourcePreId + "," + destinationPreIds);
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(documentUploadService.copyDocumentToApplications(catCode, sourcePreId, destinationPreIds));
+	}
+
 	/**
 	 * Get API to fetch all the documents for a Preregistration Id
 	 * 
@@ -167,6 +211,153 @@ public class DocumentController {
 				.body(documentUploadService.getDocumentForDocId(documentId, preRegistrationId));
 	}
 
+	/**
+	 * Get API to download the content of a document for a document Id. The
+	 * decrypted document is streamed as it is, with its hash as ETag for
+	 * conditional requests. A single closed byte range is cut out of the
+	 * decrypted stream; open and suffix ranges get the whole document, since the
+	 * decrypted length is only known once the document is decrypted and the
+	 * range to keep has to be known before.
+	 * 
+	 * @param documentId        pass documentId as path variable
+	 * @param preRegistrationId pass preRegistrationId as request param
+	 */
+	@PreAuthorize("hasAnyRole(@authorizedRoles.getGetdocumentsdocumentid())")
+	@GetMapping(path = "/documents/{documentId}/content")
+	@Operation(summary = "getDocumentContent", description = "Download the content of a document for Document Id", tags = "document-controller")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Document content sent"),
+			@ApiResponse(responseCode = "206", description = "Partial document content sent" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "304", description = "Not Modified" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "401", description = "Unauthorized" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "416", description = "Range Not Satisfiable" ,content = @Content(schema = @Schema(hidden = true)))})
+	public void getDocumentContent(@PathVariable(required = true) String documentId,
+			@RequestParam(required = true, value = "preRegistrationId") String preRegistrationId,
+			ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+		log.info("sessionId", "idType", "id",
+				"In getDocumentContent method of document controller to download the document for documentId "
+						+ documentId);
+		DocumentContentDTO documentContent = documentUploadService.getDocumentContent(documentId, preRegistrationId);
+		String eTag = "\"" + documentContent.getDocHash() + "\"";
+		if (webRequest.checkNotModified(eTag)) {
+			return;
+		}
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				ContentDisposition.builder("inline").filename(documentContent.getDocName()).build().toString());
+		response.setContentType(MediaTypeFactory.getMediaType(documentContent.getDocName())
+				.orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+		HttpRange range = requestedRange(webRequest, eTag);
+		try {
+			if (range == null) {
+				documentUploadService.writeDocumentContent(documentContent, response.getOutputStream());
+			} else {
+				writeDocumentRange(documentContent, range, response);
+			}
+		} catch (RuntimeException ex) {
+			// nothing sent yet, so the error is sent instead of the document
+			if (!response.isCommitted()) {
+				response.reset();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * @return the single closed range to send, null to send the whole document
+	 */
+	private HttpRange requestedRange(ServletWebRequest webRequest, String eTag) {
+		String rangeHeader = webRequest.getHeader(HttpHeaders.RANGE);
+		String ifRange = webRequest.getHeader(HttpHeaders.IF_RANGE);
+		if (rangeHeader == null || (ifRange != null && !ifRange.equals(eTag))) {
+			return null;
+		}
+		try {
+			List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+			// several ranges are rare for documents, the whole document is sent instead
+			if (ranges.size() != 1) {
+				return null;
+			}
+			// against an unbounded length only a closed range keeps its end
+			HttpRange range = ranges.get(0);
+			return range.getRangeEnd(Long.MAX_VALUE) < Long.MAX_VALUE - 1 ? range : null;
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Cuts the range out of the decrypted document. Only the bytes of the range
+	 * are kept, and they are sent once the whole document is decrypted, so the
+	 * Content-Range gives the end actually sent and the length of the
+	 * document. A range starting past the end of the document is answered with
+	 * 416.
+	 */
+	private void writeDocumentRange(DocumentContentDTO documentContent, HttpRange range, HttpServletResponse response)
+			throws IOException {
+		long start = range.getRangeStart(Long.MAX_VALUE);
+		long end = range.getRangeEnd(Long.MAX_VALUE);
+		RangeOutputStream output = new RangeOutputStream(start, end);
+		documentUploadService.writeDocumentContent(documentContent, output);
+		long length = output.getPosition();
+		if (start >= length) {
+			response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+			return;
+		}
+		response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+		response.setHeader(HttpHeaders.CONTENT_RANGE,
+				"bytes " + start + "-" + (start + output.getRange().size() - 1) + "/" + length);
+		response.setContentLength(output.getRange().size());
+		output.getRange().writeTo(response.getOutputStream());
+	}
+
+	/**
+	 * Output keeping the bytes of a range of the written stream and dropping
+	 * the others, while counting all of them.
+	 */
+	private static final class RangeOutputStream extends OutputStream {
+
+		private final long start;
+
+		private final long end;
+
+		private final ByteArrayOutputStream range = new ByteArrayOutputStream();
+
+		private long position;
+
+		private RangeOutputStream(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			long from = Math.max(position, start);
+			long to = Math.min(position + len - 1, end);
+			if (from <= to) {
+				range.write(b, off + (int) (from - position), (int) (to - from + 1));
+			}
+			position += len;
+		}
+
+		private ByteArrayOutputStream getRange() {
+			return range;
+		}
+
+		private long getPosition() {
+			return position;
+		}
+	}
+
 	/**
 	 * Delete API to delete the document for a Document Id
 	 * 
@@ -221,6 +412,29 @@ public class DocumentController {
 		return ResponseEntity.status(HttpStatus.OK).body(documentUploadService.deleteAllByPreId(preRegistrationId));
 	}
 
+	/**
+	 * Delete API to delete all the documents of several preregistrationIds
+	 * 
+	 * @param preRegistrationIds pass preregistrationIds
+	 * @return response in a format specified in API document
+	 */
+	@PreAuthorize("hasAnyRole(@authorizedRoles.getDeletedocumentspreregistrationid())")
+	@DeleteMapping(path = "/documents/preregistration", produces = MediaType.APPLICATION_JSON_VALUE)
+	@Operation(summary = "deleteAllByPreIds", description = "Delete all documents of several pre-registration Ids", tags = "document-controller")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Documents successfully deleted"),
+			@ApiResponse(responseCode = "204", description = "No Content" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "401", description = "Unauthorized" ,content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden" ,content = @Content(schema = @Schema(hidden = true))),
+	})
+	public ResponseEntity<MainResponseDTO<DocumentDeleteResponseDTO>> deleteAllByPreIds(
+			@Valid @RequestParam(required = true) List<String> preRegistrationIds) {
+		log.info("sessionId", "idType", "id",
+				"In deleteAllByPreIds method of document controller to delete all the documents of "
+						+ preRegistrationIds.size() + " applications");
+		return ResponseEntity.status(HttpStatus.OK).body(documentUploadService.deleteAllByPreIds(preRegistrationIds));
+	}
+
 	//@PreAuthorize("hasAnyRole('INDIVIDUAL','REGISTRATION_OFFICER','REGISTRATION_SUPERVISOR','REGISTRATION_ ADMIN')")
 	@PreAuthorize("hasAnyRole(@authorizedRoles.getPutdocumentsdocumentid())")
 	@PutMapping(path = "/documents/document/{documentId}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,28 @@
+package io.mosip.preregistration.application.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Owner and status of an application, read without its demographic details.
+ * 
+ * @since 1.2.0
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationOwnershipDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String preRegistrationId;
+
+	private String createdBy;
+
+	private String statusCode;
+
+}
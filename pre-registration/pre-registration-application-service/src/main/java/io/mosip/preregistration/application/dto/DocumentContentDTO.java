@@ -0,0 +1,38 @@
+package io.mosip.preregistration.application.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored document of an application, as needed to send its content.
+ * 
+ * @since 1.2.0
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentContentDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String documentId;
+
+	private String preRegistrationId;
+
+	private String docName;
+
+	private String docCatCode;
+
+	/**
+	 * Hash of the stored encrypted document
+	 */
+	private String docHash;
+
+	private LocalDateTime encryptedDateTime;
+
+}
@@ -0,0 +1,55 @@
+package io.mosip.preregistration.application.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This entity class defines the database table details for the object store
+ * keys of deleted documents waiting to be removed from the object store.
+ * 
+ * @since 1.2.0
+ *
+ */
+@NoArgsConstructor
+@Data
+@Table(name = "document_tombstone", schema = "prereg")
+@Entity
+public class DocumentTombstone {
+
+	@Id
+	private String id;
+
+	@Column(name = "prereg_id")
+	private String preRegistrationId;
+
+	@Column(name = "object_name")
+	private String objectName;
+
+	@Column(name = "attempt_count")
+	private Integer attemptCount;
+
+	@Column(name = "next_attempt_dtimes")
+	private LocalDateTime nextAttemptDtimes;
+
+	@Column(name = "last_error")
+	private String lastError;
+
+	@Column(name = "cr_by")
+	private String crBy;
+
+	@Column(name = "cr_dtimes")
+	private LocalDateTime crDtimes;
+
+	@Column(name = "upd_by")
+	private String updBy;
+
+	@Column(name = "upd_dtimes")
+	private LocalDateTime updDtimes;
+}
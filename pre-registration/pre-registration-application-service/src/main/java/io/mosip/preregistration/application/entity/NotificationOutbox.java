@@ -0,0 +1,70 @@
+package io.mosip.preregistration.application.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This entity class defines the database table details for the rendered
+ * notifications waiting to be delivered to the notifier.
+ * 
+ * @since 1.2.0
+ *
+ */
+@NoArgsConstructor
+@Data
+@Table(name = "notification_outbox", schema = "prereg")
+@Entity
+public class NotificationOutbox {
+
+	@Id
+	private String id;
+
+	@Column(name = "prereg_id")
+	private String preRegistrationId;
+
+	@Column(name = "channel")
+	private String channel;
+
+	@Column(name = "recipient")
+	private String recipient;
+
+	@Column(name = "subject")
+	private String subject;
+
+	@Column(name = "content")
+	private String content;
+
+	@Column(name = "status_code")
+	private String statusCode;
+
+	@Column(name = "attempt_count")
+	private Integer attemptCount;
+
+	@Column(name = "next_attempt_dtimes")
+	private LocalDateTime nextAttemptDtimes;
+
+	@Column(name = "last_error")
+	private String lastError;
+
+	@Column(name = "sent_dtimes")
+	private LocalDateTime sentDtimes;
+
+	@Column(name = "cr_by")
+	private String crBy;
+
+	@Column(name = "cr_dtimes")
+	private LocalDateTime crDtimes;
+
+	@Column(name = "upd_by")
+	private String updBy;
+
+	@Column(name = "upd_dtimes")
+	private LocalDateTime updDtimes;
+}
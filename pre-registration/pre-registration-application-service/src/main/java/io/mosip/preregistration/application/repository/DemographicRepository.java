@@ -7,14 +7,19 @@ package io.mosip.preregistration.application.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import javax.persistence.QueryHint;
 import javax.transaction.Transactional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.mosip.kernel.core.dataaccess.spi.repository.BaseRepository;
+import io.mosip.preregistration.application.dto.ApplicationOwnershipDTO;
 import io.mosip.preregistration.core.common.entity.DemographicEntity;
 
 /**
@@ -43,6 +48,22 @@ public interface DemographicRepository extends BaseRepository<DemographicEntity,
 	public List<DemographicEntity> findByCreatedBy(@Param("userId") String userId,
 			@Param("statusCode") String statusCode);
 
+	/**
+	 * Same as {@link #findByCreatedBy(String, String)}, but fetches the document
+	 * collection of every application in the same query.
+	 * 
+	 * @param userId
+	 *            pass userId
+	 * @param statusCode
+	 *            pass statusCode
+	 * @return list of preregistration data with their documents for the created
+	 *         user
+	 */
+	@EntityGraph("DemographicEntity.documentEntity")
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+	@Query("SELECT DISTINCT e FROM DemographicEntity e WHERE e.createdBy=?1 and e.statusCode <> ?2 order by e.createDateTime desc")
+	public List<DemographicEntity> findByCreatedByWithDocuments(String userId, String statusCode);
+
 	/**
 	 * @param userId
 	 *            pass userId
@@ -62,6 +83,17 @@ public interface DemographicRepository extends BaseRepository<DemographicEntity,
 	 */
 	public DemographicEntity findBypreRegistrationId(@Param("preRegId") String preRegId);
 
+	/**
+	 * Reads only the owner and status of an application, without loading its
+	 * demographic details.
+	 * 
+	 * @param preRegId
+	 *            pass preRegId
+	 * @return the owner and status of the pre-id, null if there is no application
+	 */
+	@Query("SELECT new io.mosip.preregistration.application.dto.ApplicationOwnershipDTO(e.preRegistrationId, e.createdBy, e.statusCode) FROM DemographicEntity e WHERE e.preRegistrationId=?1")
+	public ApplicationOwnershipDTO findOwnershipByPreRegistrationId(String preRegId);
+
 	/**
 	 * @param preId
 	 *            pass preId
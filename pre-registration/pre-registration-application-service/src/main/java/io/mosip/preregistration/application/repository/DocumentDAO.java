@@ -1,5 +1,6 @@
 package io.mosip.preregistration.application.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -104,6 +105,26 @@ public class DocumentDAO {
 		}
 	}
 
+	public int deleteAllBypreregIds(Collection<String> preregIds) {
+		try {
+			return documentRepository.deleteAllByPreRegistrationIds(preregIds);
+		} catch (DataAccessLayerException ex) {
+			log.error("sessionId", "idType", "id", "In deleteAllBypreregIds method of DocumnetDAO - " + ex);
+			throw new TableNotAccessibleException(DocumentErrorCodes.PRG_PAM_DOC_012.toString(),
+					DocumentErrorMessages.DOCUMENT_TABLE_NOTACCESSIBLE.getMessage(), ex.getCause());
+		}
+	}
+
+	public int deleteAllBydocumentIds(Collection<String> documentIds) {
+		try {
+			return documentRepository.deleteAllByDocumentIds(documentIds);
+		} catch (DataAccessLayerException ex) {
+			log.error("sessionId", "idType", "id", "In deleteAllBydocumentIds method of DocumnetDAO - " + ex);
+			throw new TableNotAccessibleException(DocumentErrorCodes.PRG_PAM_DOC_012.toString(),
+					DocumentErrorMessages.DOCUMENT_TABLE_NOTACCESSIBLE.getMessage(), ex.getCause());
+		}
+	}
+
 	public boolean existsByPreregId(String preregId) {
 		return documentRepository.existsByDemographicEntityPreRegistrationId(preregId);
 	}
@@ -4,10 +4,12 @@
  */
 package io.mosip.preregistration.application.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.transaction.Transactional;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -67,6 +69,24 @@ public interface DocumentRepository extends BaseRepository<DocumentEntity, Strin
 	 */
 	public int deleteAllByDemographicEntityPreRegistrationId(String preregId);
 
+	/**
+	 * @param preRegIds pass preRegistrationIds
+	 * @return the number of records deleted for the preRegistrationIds, in one
+	 *         statement
+	 */
+	@Modifying
+	@Query("DELETE FROM DocumentEntity d WHERE d.demographicEntity.preRegistrationId IN :preRegIds")
+	public int deleteAllByPreRegistrationIds(@Param("preRegIds") Collection<String> preRegIds);
+
+	/**
+	 * @param documentIds pass documentIds
+	 * @return the number of records deleted for the documentIds, in one
+	 *         statement
+	 */
+	@Modifying
+	@Query("DELETE FROM DocumentEntity d WHERE d.documentId IN :documentIds")
+	public int deleteAllByDocumentIds(@Param("documentIds") Collection<String> documentIds);
+
 	@Query("SELECT d.demographicEntity FROM DocumentEntity d WHERE d.demographicEntity.preRegistrationId= ?1")
 	public DemographicEntity getDemographicEntityForPreRegistrationId(String preregId);
 
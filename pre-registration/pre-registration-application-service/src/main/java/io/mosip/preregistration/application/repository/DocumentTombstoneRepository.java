@@ -0,0 +1,79 @@
+package io.mosip.preregistration.application.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.mosip.kernel.core.dataaccess.spi.repository.BaseRepository;
+import io.mosip.preregistration.application.entity.DocumentTombstone;
+
+/**
+ * This repository interface is used to record and claim the object store keys
+ * of deleted documents.
+ * 
+ * @since 1.2.0
+ *
+ */
+@Repository
+public interface DocumentTombstoneRepository extends BaseRepository<DocumentTombstone, String> {
+
+	/**
+	 * Records a tombstone for every document of the applications, in one
+	 * statement. Must be called in the transaction deleting the documents,
+	 * before they are deleted.
+	 * 
+	 * @param preRegIds the pre-registration ids
+	 * @param userId    the user deleting the documents
+	 * @param now       the current time
+	 * @return the number of tombstones recorded
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO prereg.document_tombstone (id, prereg_id, object_name, attempt_count, "
+			+ "next_attempt_dtimes, cr_by, cr_dtimes) SELECT id, prereg_id, doc_cat_code || '_' || id, 0, :now, "
+			+ ":userId, :now FROM prereg.applicant_document WHERE prereg_id IN (:preRegIds) "
+			+ "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+	public int insertForApplications(@Param("preRegIds") Collection<String> preRegIds,
+			@Param("userId") String userId, @Param("now") LocalDateTime now);
+
+	/**
+	 * Records a tombstone for each of the documents, in one statement. Must be
+	 * called in the transaction deleting the documents, before they are deleted.
+	 * 
+	 * @param documentIds the document ids
+	 * @param userId      the user deleting the documents
+	 * @param now         the current time
+	 * @return the number of tombstones recorded
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO prereg.document_tombstone (id, prereg_id, object_name, attempt_count, "
+			+ "next_attempt_dtimes, cr_by, cr_dtimes) SELECT id, prereg_id, doc_cat_code || '_' || id, 0, :now, "
+			+ ":userId, :now FROM prereg.applicant_document WHERE id IN (:documentIds) "
+			+ "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+	public int insertForDocuments(@Param("documentIds") Collection<String> documentIds,
+			@Param("userId") String userId, @Param("now") LocalDateTime now);
+
+	/**
+	 * Locks the tombstones that are due for removal, skipping the ones already
+	 * locked by another instance. Must be called in a transaction.
+	 * 
+	 * @param now   the current time
+	 * @param limit maximum number of tombstones
+	 * @return the claimed tombstones
+	 */
+	@Query(value = "SELECT * FROM prereg.document_tombstone WHERE next_attempt_dtimes <= :now "
+			+ "ORDER BY next_attempt_dtimes LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	public List<DocumentTombstone> findDueForPurge(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+	/**
+	 * @param ids the tombstone ids
+	 * @return the number of tombstones deleted
+	 */
+	@Modifying
+	@Query("DELETE FROM DocumentTombstone t WHERE t.id IN :ids")
+	public int deleteByIds(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,62 @@
+package io.mosip.preregistration.application.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.mosip.kernel.core.dataaccess.spi.repository.BaseRepository;
+import io.mosip.preregistration.application.entity.NotificationOutbox;
+
+/**
+ * This repository interface is used to claim and track the notifications of
+ * the outbox.
+ * 
+ * @since 1.2.0
+ *
+ */
+@Repository
+public interface NotificationOutboxRepository extends BaseRepository<NotificationOutbox, String> {
+
+	/**
+	 * Locks the notifications that are due for delivery, skipping the ones
+	 * already locked by another instance. Notifications left in progress by a
+	 * stopped instance are picked up again once they are stale. Must be called
+	 * in a transaction.
+	 * 
+	 * @param pendingStatus    the pending status code
+	 * @param inProgressStatus the in progress status code
+	 * @param now              the current time
+	 * @param staleBefore      in progress notifications updated before this
+	 *                         time are claimed again
+	 * @param limit            maximum number of notifications
+	 * @return the claimed notifications
+	 */
+	@Query(value = "SELECT * FROM prereg.notification_outbox WHERE (status_code = :pendingStatus AND "
+			+ "next_attempt_dtimes <= :now) OR (status_code = :inProgressStatus AND upd_dtimes < :staleBefore) "
+			+ "ORDER BY next_attempt_dtimes LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	public List<NotificationOutbox> findDueForDelivery(@Param("pendingStatus") String pendingStatus,
+			@Param("inProgressStatus") String inProgressStatus, @Param("now") LocalDateTime now,
+			@Param("staleBefore") LocalDateTime staleBefore, @Param("limit") int limit);
+
+	public long countByStatusCode(String statusCode);
+
+	/**
+	 * Deletes a chunk of the notifications in the given statuses that were last
+	 * updated before the given time. Must be called in a transaction.
+	 * 
+	 * @param statusCodes   the status codes of completed notifications
+	 * @param updatedBefore notifications updated before this time are deleted
+	 * @param limit         maximum number of notifications
+	 * @return the number of notifications deleted
+	 */
+	@Modifying
+	@Query(value = "DELETE FROM prereg.notification_outbox WHERE id IN (SELECT id FROM prereg.notification_outbox "
+			+ "WHERE status_code IN (:statusCodes) AND upd_dtimes < :updatedBefore LIMIT :limit)", nativeQuery = true)
+	public int deleteCompleted(@Param("statusCodes") Collection<String> statusCodes,
+			@Param("updatedBefore") LocalDateTime updatedBefore, @Param("limit") int limit);
+}
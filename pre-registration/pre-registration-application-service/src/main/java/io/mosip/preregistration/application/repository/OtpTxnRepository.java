@@ -1,20 +1,21 @@
 package io.mosip.preregistration.application.repository;
 
+import io.mosip.preregistration.application.constant.PreRegLoginConstant;
 import io.mosip.preregistration.application.entity.OtpTransaction;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.mosip.kernel.core.dataaccess.spi.repository.BaseRepository;
 
 public interface OtpTxnRepository extends BaseRepository<OtpTransaction, String> {
 
-	Boolean existsByOtpHashAndStatusCode(String otpHash, String statusCode);
-
-	OtpTransaction findByOtpHashAndStatusCode(String otpHash, String statusCode);
-
 	/**
 	 * Obtain the number of count of request_dTtimes for particular userId with
 	 * within the otpRequestDTime and oneMinuteBeforeTime.
@@ -33,4 +34,66 @@ public interface OtpTxnRepository extends BaseRepository<OtpTransaction, String>
 			+ "expiryDtimes > :currenttime")
 	int checkotpsent(@Param("refId") String userid, @Param("statusCode") String statusCode,
 			@Param("currenttime") LocalDateTime currenttime);
+
+	/**
+	 * Saves the OTP as the active OTP of the reference id in one statement,
+	 * unless the reference id already has an active OTP that has not expired. An
+	 * expired active OTP is replaced. The unique index on the active OTP of a
+	 * reference id decides between concurrent requests.
+	 *
+	 * @param id          the id of a new OTP transaction
+	 * @param refId       the ref id
+	 * @param otpHash     the otp hash
+	 * @param currentTime the current UTC time
+	 * @param expiryTime  the UTC time the OTP expires
+	 * @param crBy        the client id saving the OTP
+	 * @return 1 if the OTP is saved, 0 if an OTP is already active
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT INTO prereg.otp_transaction AS otp (id, ref_id, otp_hash, generated_dtimes, expiry_dtimes, "
+			+ "status_code, cr_by, cr_dtimes) VALUES (:id, :refId, :otpHash, :currentTime, :expiryTime, '"
+			+ PreRegLoginConstant.ACTIVE_STATUS + "', :crBy, :currentTime) ON CONFLICT (ref_id) WHERE status_code = '"
+			+ PreRegLoginConstant.ACTIVE_STATUS + "' DO UPDATE SET otp_hash = EXCLUDED.otp_hash, "
+			+ "generated_dtimes = EXCLUDED.generated_dtimes, expiry_dtimes = EXCLUDED.expiry_dtimes, "
+			+ "validation_retry_count = NULL, upd_by = EXCLUDED.cr_by, upd_dtimes = EXCLUDED.cr_dtimes "
+			+ "WHERE otp.expiry_dtimes <= EXCLUDED.generated_dtimes", nativeQuery = true)
+	int saveIfNoActiveOtp(@Param("id") String id, @Param("refId") String refId, @Param("otpHash") String otpHash,
+			@Param("currentTime") LocalDateTime currentTime, @Param("expiryTime") LocalDateTime expiryTime,
+			@Param("crBy") String crBy);
+
+	/**
+	 * Marks the active OTP of the reference id with the given hash as used in one
+	 * statement, so an OTP is consumed once even by concurrent requests.
+	 *
+	 * @param refId       the ref id
+	 * @param otpHash     the otp hash
+	 * @param updBy       the client id consuming the OTP
+	 * @param currentTime the current UTC time
+	 * @return the expiry time of the consumed OTP, null if no such OTP is active
+	 */
+	@Transactional
+	@Query(value = "UPDATE prereg.otp_transaction SET status_code = '" + PreRegLoginConstant.USED_STATUS + "', "
+			+ "upd_by = :updBy, upd_dtimes = :currentTime WHERE ref_id = :refId AND otp_hash = :otpHash "
+			+ "AND status_code = '" + PreRegLoginConstant.ACTIVE_STATUS + "' RETURNING expiry_dtimes", nativeQuery = true)
+	Timestamp consumeActiveOtp(@Param("refId") String refId, @Param("otpHash") String otpHash,
+			@Param("updBy") String updBy, @Param("currentTime") LocalDateTime currentTime);
+
+	/**
+	 * Expires the active OTPs of the reference ids, before the OTPs that replaced
+	 * them in memory are written. Must be called in a transaction.
+	 *
+	 * @param refIds        the ref ids
+	 * @param expiredStatus the expired status code
+	 * @param activeStatus  the active status code
+	 * @param updBy         the user expiring the OTPs
+	 * @param updDtimes     the update time
+	 * @return the number of OTPs expired
+	 */
+	@Modifying
+	@Query("UPDATE OtpTransaction SET statusCode = :expiredStatus, updBy = :updBy, updDTimes = :updDtimes "
+			+ "WHERE refId IN :refIds AND statusCode = :activeStatus")
+	int expireActiveOtps(@Param("refIds") Collection<String> refIds, @Param("expiredStatus") String expiredStatus,
+			@Param("activeStatus") String activeStatus, @Param("updBy") String updBy,
+			@Param("updDtimes") LocalDateTime updDtimes);
 }
@@ -20,10 +20,6 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
 import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
 import io.mosip.kernel.core.exception.ExceptionUtils;
@@ -49,6 +45,7 @@ import io.mosip.preregistration.application.exception.util.DemographicExceptionC
 import io.mosip.preregistration.application.repository.ApplicationRepostiory;
 import io.mosip.preregistration.application.service.util.DemographicServiceUtil;
 import io.mosip.preregistration.core.code.ApplicationStatusCode;
+import io.mosip.preregistration.core.code.AuditDispatchMode;
 import io.mosip.preregistration.core.code.AuditLogVariables;
 import io.mosip.preregistration.core.code.BookingTypeCodes;
 import io.mosip.preregistration.core.code.EventId;
@@ -65,6 +62,7 @@ import io.mosip.preregistration.core.exception.InvalidPreRegistrationIdException
 import io.mosip.preregistration.core.exception.InvalidRequestParameterException;
 import io.mosip.preregistration.core.exception.PreIdInvalidForUserIdException;
 import io.mosip.preregistration.core.util.AuditLogUtil;
+import io.mosip.preregistration.core.util.IdentityMapping;
 import io.mosip.preregistration.core.util.ValidationUtil;
 
 @Service
@@ -82,10 +80,6 @@ public class ApplicationService implements ApplicationServiceIntf {
 	@Autowired
 	ValidationUtil validationUtil;
 
-	/**
-	 * ObjectMapper global object creation
-	 */
-	private ObjectMapper mapper;
 	
 	/**
 	 * Reference for ${lostUinDeleteId} from property file
@@ -139,9 +133,7 @@ public class ApplicationService implements ApplicationServiceIntf {
 		response.setVersion(version);
 		try {
 			String description = auditRequest.getDescription();
-			mapper = JsonMapper.builder().addModule(new AfterburnerModule()).build();
-			mapper.registerModule(new JavaTimeModule());
-			JsonNode node = mapper.readTree(description);
+			JsonNode node = IdentityMapping.getMapper().readTree(description);
 			String template = node.get("template").toString();
 			String hashedDescription = node.get("description").asText().concat("  ")
 					.concat("Request_url :" + node.get("url").asText()).concat("  ")
@@ -149,7 +141,7 @@ public class ApplicationService implements ApplicationServiceIntf {
 			auditRequest.setDescription(hashedDescription);
 			AuditRequestDto auditRequestDto = setAuditValues(auditRequest);
 			log.info("In saveUIEventAudit method saving audit  details {}", auditRequestDto);
-			auditUtil.saveAuditDetails(auditRequestDto);
+			auditUtil.saveAuditDetails(auditRequestDto, AuditDispatchMode.SYNCHRONOUS);
 			log.info("Request audit logged successfully");
 			response.setResponse("Audit Logged Successfully");
 		} catch (Exception ex) {
@@ -29,9 +29,6 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
 import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
 import io.mosip.kernel.core.exception.BaseUncheckedException;
@@ -99,6 +96,7 @@ import io.mosip.preregistration.core.exception.RecordFailedToDeleteException;
 import io.mosip.preregistration.core.util.AuditLogUtil;
 import io.mosip.preregistration.core.util.CryptoUtil;
 import io.mosip.preregistration.core.util.HashUtill;
+import io.mosip.preregistration.core.util.IdentityMapping;
 import io.mosip.preregistration.core.util.ValidationUtil;
 import io.mosip.preregistration.demographic.exception.system.SystemFileIOException;
 
@@ -238,6 +236,11 @@ public class DemographicService implements DemographicServiceIntf {
 
 	private String getIdentityJsonString = "";
 
+	/**
+	 * Identity mapping parsed once from {@link #getIdentityJsonString}
+	 */
+	private IdentityMapping identityMapping;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -260,8 +263,14 @@ public class DemographicService implements DemographicServiceIntf {
 	public void setup() {
 		getIdentityJsonString = serviceUtil.getJson(preregistrationIdJson);
 		log.info("Fetched the identity json from config server" + getIdentityJsonString);
-		objectMapper = JsonMapper.builder().addModule(new AfterburnerModule()).build();
-		objectMapper.registerModule(new JavaTimeModule());
+		objectMapper = IdentityMapping.getMapper();
+		try {
+			identityMapping = IdentityMapping.parse(getIdentityJsonString);
+		} catch (IOException ex) {
+			log.error("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In setup method of pre-registration service to parse identity json- " + ex.getMessage());
+		}
 	}
 
 	/*
@@ -499,53 +508,56 @@ public class DemographicService implements DemographicServiceIntf {
 		try {
 			requestParamMap.put(DemographicRequestCodes.USER_ID.getCode(), userId);
 			if (validationUtil.requstParamValidator(requestParamMap)) {
-				log.info("sessionId", "idType", "id",
-						"get demographic details start time : " + DateUtils.getUTCCurrentDateTimeString());
-				List<DemographicEntity> demographicEntities = demographicRepository.findByCreatedBy(userId,
-						StatusCodes.CONSUMED.getCode());
-				log.info("sessionId", "idType", "id",
-						"get demographic details end time : " + DateUtils.getUTCCurrentDateTimeString());
-				if (!serviceUtil.isNull(demographicEntities)) {
+				/*
+				 * Fetch all the records for the user irrespective of page index and page size
+				 */
+				if (serviceUtil.isNull(pageIdx)) {
+					log.info("sessionId", "idType", "id",
+							"get demographic details start time : " + DateUtils.getUTCCurrentDateTimeString());
+					List<DemographicEntity> demographicEntities = demographicRepository
+							.findByCreatedByWithDocuments(userId, StatusCodes.CONSUMED.getCode());
+					log.info("sessionId", "idType", "id",
+							"get demographic details end time : " + DateUtils.getUTCCurrentDateTimeString());
+					if (serviceUtil.isNull(demographicEntities)) {
+						throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_005.getCode(),
+								DemographicErrorMessages.NO_RECORD_FOUND_FOR_USER_ID.getMessage());
+					}
+					prepareDemographicResponse(demographicMetadataDTO, demographicEntities);
+					demographicMetadataDTO.setNoOfRecords("0");
+					demographicMetadataDTO.setTotalRecords(Integer.toString(demographicEntities.size()));
+					demographicMetadataDTO.setPageIndex("0");
+					response.setResponse(demographicMetadataDTO);
+				} else {
 					/*
-					 * Fetch all the records for the user irrespective of page index and page size
+					 * Fetch all the pageable records for the user with respect to page index and
+					 * page size, the total count comes from the page's count query
 					 */
-					if (serviceUtil.isNull(pageIdx)) {
-						prepareDemographicResponse(demographicMetadataDTO, demographicEntities);
-						demographicMetadataDTO.setNoOfRecords("0");
-						demographicMetadataDTO.setTotalRecords(Integer.toString(demographicEntities.size()));
-						demographicMetadataDTO.setPageIndex("0");
+					log.info("sessionId", "idType", "id",
+							"pagination start time : " + DateUtils.getUTCCurrentDateTimeString());
+					@SuppressWarnings("static-access")
+					Page<DemographicEntity> demographicEntityPage = demographicRepository
+							.findByCreatedByOrderByCreateDateTime(userId, StatusCodes.CONSUMED.getCode(),
+									PageRequest.of(serviceUtil.parsePageIndex(pageIdx),
+											serviceUtil.parsePageSize(pageSize)));
+					log.info("sessionId", "idType", "id",
+							"pagination end time : " + DateUtils.getUTCCurrentDateTimeString());
+					if (demographicEntityPage.getTotalElements() == 0) {
+						throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_005.getCode(),
+								DemographicErrorMessages.NO_RECORD_FOUND_FOR_USER_ID.getMessage());
+					}
+					if (!serviceUtil.isNull(demographicEntityPage.getContent())) {
+						prepareDemographicResponse(demographicMetadataDTO, demographicEntityPage.getContent());
+						demographicMetadataDTO
+								.setNoOfRecords(Integer.toString(demographicEntityPage.getContent().size()));
+						demographicMetadataDTO
+								.setTotalRecords(Long.toString(demographicEntityPage.getTotalElements()));
+						demographicMetadataDTO.setPageIndex(pageIdx);
 						response.setResponse(demographicMetadataDTO);
-					} else {
-						/*
-						 * Fetch all the pageable records for the user with respect to page index and
-						 * page size
-						 */
-						log.info("sessionId", "idType", "id",
-								"pagination start time : " + DateUtils.getUTCCurrentDateTimeString());
-						@SuppressWarnings("static-access")
-						Page<DemographicEntity> demographicEntityPage = demographicRepository
-								.findByCreatedByOrderByCreateDateTime(userId, StatusCodes.CONSUMED.getCode(),
-										PageRequest.of(serviceUtil.parsePageIndex(pageIdx),
-												serviceUtil.parsePageSize(pageSize)));
-						log.info("sessionId", "idType", "id",
-								"pagination end time : " + DateUtils.getUTCCurrentDateTimeString());
-						if (!serviceUtil.isNull(demographicEntityPage)
-								&& !serviceUtil.isNull(demographicEntityPage.getContent())) {
-							prepareDemographicResponse(demographicMetadataDTO, demographicEntityPage.getContent());
-							demographicMetadataDTO
-									.setNoOfRecords(Integer.toString(demographicEntityPage.getContent().size()));
-							demographicMetadataDTO.setTotalRecords(Integer.toString(demographicEntities.size()));
-							demographicMetadataDTO.setPageIndex(pageIdx);
-							response.setResponse(demographicMetadataDTO);
 
-						} else {
-							throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_016.getCode(),
-									DemographicErrorMessages.PAGE_NOT_FOUND.getMessage());
-						}
+					} else {
+						throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_016.getCode(),
+								DemographicErrorMessages.PAGE_NOT_FOUND.getMessage());
 					}
-				} else {
-					throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_005.getCode(),
-							DemographicErrorMessages.NO_RECORD_FOUND_FOR_USER_ID.getMessage());
 				}
 			}
 			isRetrieveSuccess = true;
@@ -578,11 +590,16 @@ public class DemographicService implements DemographicServiceIntf {
 		long start = System.currentTimeMillis();
 		log.info("sessionId", "idType", "id", "for loop start time : " + DateUtils.getUTCCurrentDateTimeString());
 		JSONParser jsonParser = new JSONParser();
-		for (DemographicEntity demographicEntity : demographicEntities) {
-			log.info("sessionId", "idType", "id", "decryption start time : " + DateUtils.getUTCCurrentDateTimeString());
-			byte[] decryptedString = cryptoUtil.decrypt(demographicEntity.getApplicantDetailJson(),
-					DateUtils.getUTCCurrentDateTime());
-			log.info("sessionId", "idType", "id", "decryption end time : " + DateUtils.getUTCCurrentDateTimeString());
+		Map<String, ApplicationEntity> applicationEntities = serviceUtil.findApplicationsByIds(demographicEntities
+				.stream().map(DemographicEntity::getPreRegistrationId).collect(Collectors.toList()));
+		log.info("sessionId", "idType", "id", "decryption start time : " + DateUtils.getUTCCurrentDateTimeString());
+		List<byte[]> decryptedList = cryptoUtil.bulkDecrypt(demographicEntities.stream()
+				.map(DemographicEntity::getApplicantDetailJson).collect(Collectors.toList()),
+				DateUtils.getUTCCurrentDateTime());
+		log.info("sessionId", "idType", "id", "decryption end time : " + DateUtils.getUTCCurrentDateTimeString());
+		for (int index = 0; index < demographicEntities.size(); index++) {
+			DemographicEntity demographicEntity = demographicEntities.get(index);
+			byte[] decryptedString = decryptedList.get(index);
 			log.info("sessionId", "idType", "id",
 					"get document metadata start time : " + DateUtils.getUTCCurrentDateTimeString());
 			JSONObject documentJsonObject = getDocumentMetadata(demographicEntity,
@@ -591,18 +608,16 @@ public class DemographicService implements DemographicServiceIntf {
 					"get document metadata end time : " + DateUtils.getUTCCurrentDateTimeString());
 
 			JSONObject jsonObj = (JSONObject) jsonParser.parse(new String(decryptedString));
+			JSONObject identityObj = (JSONObject) jsonObj.get(DemographicRequestCodes.IDENTITY.getCode());
 			JSONObject demographicMetadata = new JSONObject();
-			String nameValue = getPreregistrationIdentityJson().getIdentity().getName().getValue();
-			String poaValue = getPreregistrationIdentityJson().getDocuments().getPoa().getValue();
-			String postalCodeValue = getPreregistrationIdentityJson().getIdentity().getDob().getValue();
-			String[] nameKeys = nameValue.split(",");
-			for (int i = 0; i < nameKeys.length; i++) {
-				demographicMetadata.put(nameKeys[i], serviceUtil.getValueFromIdentity(decryptedString, nameKeys[i]));
+			for (String nameKey : identityMapping.getName().getKeys()) {
+				demographicMetadata.put(nameKey, identityObj.get(nameKey));
 			}
 			Set<String> dataCaptureLang = serviceUtil.getDataCaptureLaanguage(jsonObj);
-			demographicMetadata.put(postalCodeValue,
-					serviceUtil.getIdJSONValue(jsonObj.toJSONString(), postalCodeValue));
-			demographicMetadata.put(poaValue, documentJsonObject);
+			String dobKey = identityMapping.getDob().getKey();
+			Object dobValue = identityObj.get(dobKey);
+			demographicMetadata.put(dobKey, dobValue != null ? dobValue.toString() : "");
+			demographicMetadata.put(identityMapping.getPoa().getKey(), documentJsonObject);
 			DemographicViewDTO viewDto = new DemographicViewDTO();
 			viewDto.setPreRegistrationId(demographicEntity.getPreRegistrationId());
 			viewDto.setStatusCode(demographicEntity.getStatusCode());
@@ -610,7 +625,8 @@ public class DemographicService implements DemographicServiceIntf {
 			viewDto.setDataCaptureLanguage(dataCaptureLang);
 			log.info("sessionId", "idType", "id",
 					"get booking details start time : " + DateUtils.getUTCCurrentDateTimeString());
-			BookingRegistrationDTO bookingRegistrationDTO = getAppointmentData(demographicEntity);
+			BookingRegistrationDTO bookingRegistrationDTO = getAppointmentData(demographicEntity,
+					applicationEntities);
 			log.info("sessionId", "idType", "id",
 					"get booking details end time : " + DateUtils.getUTCCurrentDateTimeString());
 			viewDto.setBookingMetadata(bookingRegistrationDTO);
@@ -622,11 +638,15 @@ public class DemographicService implements DemographicServiceIntf {
 		demographicMetadataDTO.setBasicDetails(viewList);
 	}
 
-	private BookingRegistrationDTO getAppointmentData(DemographicEntity demographicEntity) {
+	private BookingRegistrationDTO getAppointmentData(DemographicEntity demographicEntity,
+			Map<String, ApplicationEntity> applicationEntities) {
 
 		if (!serviceUtil.isNull(demographicEntity.getPreRegistrationId())) {
-			ApplicationEntity applicationEntity = serviceUtil
-					.findApplicationById(demographicEntity.getPreRegistrationId());
+			ApplicationEntity applicationEntity = applicationEntities.get(demographicEntity.getPreRegistrationId());
+			if (applicationEntity == null) {
+				throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_005.getCode(),
+						DemographicErrorMessages.NO_RECORD_FOUND_FOR_USER_ID.getMessage());
+			}
 			log.info("In applicationEnity fetched {} in getAppointmentData method ", applicationEntity);
 			if (applicationEntity.getAppointmentDate() != null) {
 				BookingRegistrationDTO bookingRegistrationDTO = new BookingRegistrationDTO();
@@ -1135,15 +1155,7 @@ public class DemographicService implements DemographicServiceIntf {
 	}
 
 	public DemographicIdentityRequestDTO getPreregistrationIdentityJson() {
-
-		try {
-			return objectMapper.readValue(getIdentityJsonString, DemographicIdentityRequestDTO.class);
-		} catch (IOException ex) {
-			log.error("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
-			log.error("sessionId", "idType", "id",
-					"In pre-registration service util of getPreregistrationIdentityJson- " + ex.getMessage());
-		}
-		return null;
+		return identityMapping == null ? null : identityMapping.getMapping();
 	}
 	
 	private MainResponseDTO<SchemaResponseDto> getConfigDetailsResponse(String fileName) {
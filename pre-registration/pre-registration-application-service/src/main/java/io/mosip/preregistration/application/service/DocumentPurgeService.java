@@ -0,0 +1,291 @@
+package io.mosip.preregistration.application.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.application.entity.DocumentTombstone;
+import io.mosip.preregistration.application.repository.DocumentDAO;
+import io.mosip.preregistration.application.repository.DocumentTombstoneRepository;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations.ObjectLocation;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This service purges the documents of applications. The document rows of all
+ * the applications are deleted with one statement per chunk of ids, and a
+ * tombstone with the object store key of every deleted document is recorded
+ * in the same transaction. Once the transaction commits, a poller claims due
+ * tombstones in batches, deletes their objects with batched deletes on the
+ * bounded object store pool and drops the tombstones of the deleted objects.
+ * Objects that could not be deleted are retried with exponential backoff, so
+ * a failing object store leaves no orphan behind and does not fail the
+ * deletion of the application.
+ *
+ * @since 1.2.0
+ *
+ */
+@Service
+public class DocumentPurgeService {
+
+	private Logger log = LoggerConfiguration.logConfig(DocumentPurgeService.class);
+
+	private static final String WORKER_USER = "document-purge";
+
+	private static final int LAST_ERROR_MAX_LENGTH = 1024;
+
+	/**
+	 * Maximum number of ids bound to one IN list
+	 */
+	private static final int ID_CHUNK_SIZE = 1000;
+
+	@Autowired
+	private DocumentDAO documnetDAO;
+
+	@Autowired
+	private DocumentTombstoneRepository documentTombstoneRepository;
+
+	@Autowired
+	private ObjectStoreOperations objectStoreOperations;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${mosip.kernel.objectstore.account-name}")
+	private String objectStoreAccountName;
+
+	@Value("${preregistration.document.purge.poll-interval-ms:5000}")
+	private long pollIntervalMillis;
+
+	/**
+	 * Maximum number of tombstones claimed per poll
+	 */
+	@Value("${preregistration.document.purge.batch-size:1000}")
+	private int batchSize;
+
+	@Value("${preregistration.document.purge.backoff.initial-ms:60000}")
+	private long initialBackoffMillis;
+
+	@Value("${preregistration.document.purge.backoff.max-ms:3600000}")
+	private long maxBackoffMillis;
+
+	/**
+	 * Time after which a tombstone claimed by a stopped instance is claimed
+	 * again
+	 */
+	@Value("${preregistration.document.purge.claim-timeout-ms:300000}")
+	private long claimTimeoutMillis;
+
+	private TransactionTemplate transactionTemplate;
+
+	private ScheduledExecutorService poller;
+
+	private final AtomicLong backlog = new AtomicLong();
+
+	@PostConstruct
+	public void setupPurge() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		Metrics.gauge("preregistration.document.purge.backlog", backlog, AtomicLong::get);
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("document-purge-");
+		threadFactory.setDaemon(true);
+		poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdownPurge() {
+		if (poller != null) {
+			poller.shutdownNow();
+		}
+	}
+
+	/**
+	 * Deletes the documents of the applications and records the tombstones of
+	 * their objects. Joins the transaction of the caller; the objects are
+	 * deleted from the object store once it commits.
+	 *
+	 * @param preRegIds the pre-registration ids
+	 * @param userId    the user deleting the documents
+	 * @return the number of documents deleted
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	public int purge(Collection<String> preRegIds, String userId) {
+		List<String> ids = new ArrayList<>(preRegIds);
+		LocalDateTime now = LocalDateTime.now();
+		int deleted = 0;
+		for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+			List<String> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+			documentTombstoneRepository.insertForApplications(chunk, userId, now);
+			deleted += documnetDAO.deleteAllBypreregIds(chunk);
+		}
+		log.info("sessionId", "idType", "id", "In purge method of DocumentPurgeService, " + deleted
+				+ " documents deleted for " + ids.size() + " applications");
+		if (deleted > 0) {
+			triggerPollAfterCommit();
+		}
+		return deleted;
+	}
+
+	/**
+	 * Deletes the documents and records the tombstones of their objects. Joins
+	 * the transaction of the caller; the objects are deleted from the object
+	 * store once it commits.
+	 *
+	 * @param documentIds the document ids
+	 * @param userId      the user deleting the documents
+	 * @return the number of documents deleted
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	public int purgeDocuments(Collection<String> documentIds, String userId) {
+		List<String> ids = new ArrayList<>(documentIds);
+		LocalDateTime now = LocalDateTime.now();
+		int deleted = 0;
+		for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+			List<String> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+			documentTombstoneRepository.insertForDocuments(chunk, userId, now);
+			deleted += documnetDAO.deleteAllBydocumentIds(chunk);
+		}
+		if (deleted > 0) {
+			triggerPollAfterCommit();
+		}
+		return deleted;
+	}
+
+	private void triggerPollAfterCommit() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					triggerPoll();
+				}
+			});
+		} else {
+			triggerPoll();
+		}
+	}
+
+	private void triggerPoll() {
+		if (poller != null && !poller.isShutdown()) {
+			poller.execute(this::poll);
+		}
+	}
+
+	private void poll() {
+		try {
+			backlog.set(documentTombstoneRepository.count());
+			List<DocumentTombstone> claimed = claim(batchSize);
+			while (!claimed.isEmpty()) {
+				purgeObjects(claimed);
+				if (claimed.size() < batchSize) {
+					return;
+				}
+				claimed = claim(batchSize);
+			}
+		} catch (Exception ex) {
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In poll method of DocumentPurgeService, unable to purge documents- " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Leases a batch of due tombstones in one transaction, by moving their next
+	 * attempt past the claim timeout.
+	 */
+	private List<DocumentTombstone> claim(int limit) {
+		List<DocumentTombstone> claimed = transactionTemplate.execute(status -> {
+			LocalDateTime now = LocalDateTime.now();
+			List<DocumentTombstone> due = documentTombstoneRepository.findDueForPurge(now, limit);
+			due.forEach(tombstone -> {
+				tombstone.setNextAttemptDtimes(now.plus(Duration.ofMillis(claimTimeoutMillis)));
+				tombstone.setUpdBy(WORKER_USER);
+				tombstone.setUpdDtimes(now);
+			});
+			return documentTombstoneRepository.saveAll(due);
+		});
+		return claimed == null ? Collections.emptyList() : claimed;
+	}
+
+	private void purgeObjects(List<DocumentTombstone> tombstones) {
+		Map<ObjectLocation, DocumentTombstone> tombstonesByObject = new LinkedHashMap<>();
+		for (DocumentTombstone tombstone : tombstones) {
+			tombstonesByObject.put(new ObjectLocation(tombstone.getPreRegistrationId(), tombstone.getObjectName()),
+					tombstone);
+		}
+		Map<ObjectLocation, String> failures = objectStoreOperations.deleteObjects(objectStoreAccountName,
+				tombstonesByObject.keySet());
+		List<String> purgedIds = new ArrayList<>();
+		List<DocumentTombstone> retried = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		tombstonesByObject.forEach((object, tombstone) -> {
+			if (!failures.containsKey(object)) {
+				purgedIds.add(tombstone.getId());
+				return;
+			}
+			int attempts = tombstone.getAttemptCount() + 1;
+			tombstone.setAttemptCount(attempts);
+			tombstone.setNextAttemptDtimes(now.plus(backoff(attempts)));
+			String lastError = failures.get(object) == null ? "Object not deleted" : failures.get(object);
+			tombstone.setLastError(
+					lastError.length() > LAST_ERROR_MAX_LENGTH ? lastError.substring(0, LAST_ERROR_MAX_LENGTH) : lastError);
+			tombstone.setUpdBy(WORKER_USER);
+			tombstone.setUpdDtimes(now);
+			retried.add(tombstone);
+		});
+		try {
+			transactionTemplate.execute(status -> {
+				for (int from = 0; from < purgedIds.size(); from += ID_CHUNK_SIZE) {
+					documentTombstoneRepository
+							.deleteByIds(purgedIds.subList(from, Math.min(from + ID_CHUNK_SIZE, purgedIds.size())));
+				}
+				return documentTombstoneRepository.saveAll(retried);
+			});
+		} catch (Exception ex) {
+			// left claimed, picked up again once the claim times out
+			log.error("sessionId", "idType", "id", "In purgeObjects method of DocumentPurgeService, unable to update "
+					+ tombstones.size() + " tombstones- " + ex.getMessage());
+		}
+		Metrics.counter("preregistration.document.purge", "outcome", "purged").increment(purgedIds.size());
+		Metrics.counter("preregistration.document.purge", "outcome", "retry").increment(retried.size());
+		if (!retried.isEmpty()) {
+			log.error("sessionId", "idType", "id", "In purgeObjects method of DocumentPurgeService, " + retried.size()
+					+ " of " + tombstones.size() + " document objects not deleted, retried later");
+		}
+	}
+
+	/**
+	 * Doubles the delay for every failed attempt, up to the configured maximum.
+	 */
+	private Duration backoff(int attempts) {
+		long delay = initialBackoffMillis;
+		for (int attempt = 1; attempt < attempts && delay < maxBackoffMillis; attempt++) {
+			delay *= 2;
+		}
+		return Duration.ofMillis(Math.min(delay, maxBackoffMillis));
+	}
+}
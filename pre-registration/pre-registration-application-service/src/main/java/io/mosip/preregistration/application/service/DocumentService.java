@@ -1,16 +1,21 @@
 package io.mosip.preregistration.application.service;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
@@ -23,6 +28,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
@@ -30,6 +37,8 @@ import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.preregistration.application.code.DocumentStatusMessages;
+import io.mosip.preregistration.application.dto.ApplicationOwnershipDTO;
+import io.mosip.preregistration.application.dto.DocumentContentDTO;
 import io.mosip.preregistration.application.dto.DocumentRequestDTO;
 import io.mosip.preregistration.application.dto.DocumentResponseDTO;
 import io.mosip.preregistration.application.errorcodes.DocumentErrorCodes;
@@ -42,6 +51,10 @@ import io.mosip.preregistration.application.exception.RecordFailedToUpdateExcept
 import io.mosip.preregistration.application.exception.RecordNotFoundException;
 import io.mosip.preregistration.application.exception.util.DocumentExceptionCatcher;
 import io.mosip.preregistration.application.repository.DocumentDAO;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations.ObjectCopy;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations.ObjectLocation;
+import io.mosip.preregistration.application.service.util.SpooledDocument;
 import io.mosip.preregistration.core.code.AuditLogVariables;
 import io.mosip.preregistration.core.code.EventId;
 import io.mosip.preregistration.core.code.EventName;
@@ -49,7 +62,6 @@ import io.mosip.preregistration.core.code.EventType;
 import io.mosip.preregistration.core.code.RequestCodes;
 import io.mosip.preregistration.core.code.StatusCodes;
 import io.mosip.preregistration.core.common.dto.AuditRequestDto;
-import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentDTO;
 import io.mosip.preregistration.core.common.dto.DocumentDeleteResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentMultipartResponseDTO;
@@ -149,6 +161,12 @@ public class DocumentService implements DocumentServiceIntf {
 	@Autowired
 	private ObjectStoreAdapter objectStore;
 
+	@Autowired
+	private ObjectStoreOperations objectStoreOperations;
+
+	@Autowired
+	private DocumentPurgeService documentPurgeService;
+
 	/**
 	 * Autowired reference for {@link #DocumentServiceUtil}
 	 */
@@ -157,9 +175,10 @@ public class DocumentService implements DocumentServiceIntf {
 
 	/**
 	 * Request map to store the id and version and this is to be passed to request
-	 * validator method.
+	 * validator method. Built once and shared read-only by all the request
+	 * threads.
 	 */
-	Map<String, String> requiredRequestMap = new HashMap<>();
+	private Map<String, String> requiredRequestMap = Collections.emptyMap();
 
 	/**
 	 * Autowired reference for {@link #AuditLogUtil}
@@ -183,10 +202,17 @@ public class DocumentService implements DocumentServiceIntf {
 	 * parameters.
 	 */
 	public void setup() {
-		requiredRequestMap.put("version", ver);
 		validationUtil.getAllDocCategoriesAndTypes();
 	}
 
+	@PostConstruct
+	public void setupRequiredRequestMap() {
+		Map<String, String> requestMap = new HashMap<>();
+		requestMap.put("version", ver);
+		requestMap.put("id", uploadId);
+		requiredRequestMap = Collections.unmodifiableMap(requestMap);
+	}
+
 	public AuthUserDetails authUserDetails() {
 		return (AuthUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 	}
@@ -215,7 +241,6 @@ public class DocumentService implements DocumentServiceIntf {
 			docReqDto = serviceUtil.createUploadDto(documentJsonString, preRegistrationId);
 			responseDto.setId(docReqDto.getId());
 			responseDto.setVersion(docReqDto.getVersion());
-			requiredRequestMap.put("id", uploadId);
 			if (validationUtil.requestValidator(prepareRequestParamMap(docReqDto), requiredRequestMap)) {
 				if (scanDocument) {
 					serviceUtil.isVirusScanSuccess(file);
@@ -268,7 +293,7 @@ public class DocumentService implements DocumentServiceIntf {
 			throws IOException, EncryptionFailedException {
 
 		DocumentResponseDTO docResponseDto = new DocumentResponseDTO();
-		if (serviceUtil.getPreRegInfoRestService(preRegistrationId) != null) {
+		if (serviceUtil.getPreRegOwnership(preRegistrationId) != null) {
 			DocumentEntity getentity = documnetDAO.findSingleDocument(preRegistrationId, document.getDocCatCode());
 			DocumentEntity documentEntity = serviceUtil.dtoToEntity(file, document, authUserDetails().getUserId(),
 					preRegistrationId, getentity);
@@ -283,18 +308,22 @@ public class DocumentService implements DocumentServiceIntf {
 			documentEntity.setDocName(file.getOriginalFilename());
 			LocalDateTime encryptedTimestamp = DateUtils.getUTCCurrentDateTime();
 			documentEntity.setEncryptedDateTime(encryptedTimestamp);
-			byte[] encryptedDocument = cryptoUtil.encrypt(file.getBytes(), encryptedTimestamp);
-			documentEntity.setDocHash(HashUtill.hashUtill(encryptedDocument));
-			documentEntity = documnetDAO.saveDocument(documentEntity);
-			String key = documentEntity.getDocCatCode() + "_" + documentEntity.getDocumentId();
+			try (SpooledDocument encryptedDocument = serviceUtil.encryptDocument(file, encryptedTimestamp)) {
+				documentEntity.setDocHash(encryptedDocument.getHash());
+				documentEntity = documnetDAO.saveDocument(documentEntity);
+				String key = documentEntity.getDocCatCode() + "_" + documentEntity.getDocumentId();
 
-			boolean isStoreSuccess = objectStore.putObject(objectStoreAccountName,
-					documentEntity.getDemographicEntity().getPreRegistrationId(), null, null, key,
-					new ByteArrayInputStream(encryptedDocument));
+				boolean isStoreSuccess;
+				try (InputStream encryptedStream = encryptedDocument.openStream()) {
+					isStoreSuccess = objectStore.putObject(objectStoreAccountName,
+							documentEntity.getDemographicEntity().getPreRegistrationId(), null, null, key,
+							encryptedStream);
+				}
 
-			if (!isStoreSuccess) {
-				throw new FSServerException(DocumentErrorCodes.PRG_PAM_DOC_009.toString(),
-						DocumentErrorMessages.DOCUMENT_FAILED_TO_UPLOAD.getMessage());
+				if (!isStoreSuccess) {
+					throw new FSServerException(DocumentErrorCodes.PRG_PAM_DOC_009.toString(),
+							DocumentErrorMessages.DOCUMENT_FAILED_TO_UPLOAD.getMessage());
+				}
 			}
 			docResponseDto.setPreRegistrationId(documentEntity.getDemographicEntity().getPreRegistrationId());
 			docResponseDto.setDocId(String.valueOf(documentEntity.getDocumentId()));
@@ -333,8 +362,8 @@ public class DocumentService implements DocumentServiceIntf {
 						io.mosip.preregistration.core.errorcodes.ErrorMessages.MISSING_REQUEST_PARAMETER.getMessage(),
 						null);
 			} else if (serviceUtil.isValidCatCode(catCode)) {
-				boolean sourceStatus = serviceUtil.getPreRegInfoRestService(sourcePreId) != null ? true : false;
-				boolean destinationStatus = serviceUtil.getPreRegInfoRestService(destinationPreId) != null ? true
+				boolean sourceStatus = serviceUtil.getPreRegOwnership(sourcePreId) != null ? true : false;
+				boolean destinationStatus = serviceUtil.getPreRegOwnership(destinationPreId) != null ? true
 						: false;
 
 				DocumentEntity documentEntity = documnetDAO.findSingleDocument(sourcePreId, catCode);
@@ -352,14 +381,7 @@ public class DocumentService implements DocumentServiceIntf {
 					sourceKey = documentEntity.getDocCatCode() + "_" + documentEntity.getDocumentId();
 					sourceBucketName = documentEntity.getDemographicEntity().getPreRegistrationId();
 					copyFile(copyDocumentEntity, sourceBucketName, sourceKey);
-					DocumentResponseDTO documentResponseDTO = new DocumentResponseDTO();
-					documentResponseDTO.setPreRegistrationId(destinationPreId);
-					documentResponseDTO.setDocId(copyDocumentEntity.getDocumentId());
-					documentResponseDTO.setDocName(copyDocumentEntity.getDocName());
-					documentResponseDTO.setDocCatCode(copyDocumentEntity.getDocCatCode());
-					documentResponseDTO.setDocTypCode(copyDocumentEntity.getDocTypeCode());
-					documentResponseDTO.setDocFileFormat(copyDocumentEntity.getDocFileFormat());
-					documentResponseDTO.setRefNumber(copyDocumentEntity.getRefNumber());
+					DocumentResponseDTO documentResponseDTO = copyResponse(copyDocumentEntity, destinationPreId);
 					responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
 					responseDto.setResponse(documentResponseDTO);
 				} else {
@@ -390,6 +412,147 @@ public class DocumentService implements DocumentServiceIntf {
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.preregistration.application.service.DocumentServiceIntf#
+	 * copyDocumentToApplications(java.lang.String, java.lang.String,
+	 * java.util.List)
+	 */
+	@Override
+	@Transactional(rollbackFor = Exception.class)
+	public MainResponseDTO<List<DocumentResponseDTO>> copyDocumentToApplications(String catCode, String sourcePreId,
+			List<String> destinationPreIds) {
+		MainResponseDTO<List<DocumentResponseDTO>> responseDto = new MainResponseDTO<>();
+		responseDto.setId(copyId);
+		responseDto.setVersion(ver);
+		boolean isCopySuccess = false;
+		try {
+			if (sourcePreId == null || sourcePreId.isEmpty() || destinationPreIds == null
+					|| destinationPreIds.isEmpty() || destinationPreIds.stream().anyMatch(
+							destinationPreId -> destinationPreId == null || destinationPreId.isEmpty())) {
+				throw new InvalidRequestException(
+						io.mosip.preregistration.core.errorcodes.ErrorCodes.PRG_CORE_REQ_001.toString(),
+						io.mosip.preregistration.core.errorcodes.ErrorMessages.MISSING_REQUEST_PARAMETER.getMessage(),
+						null);
+			} else if (serviceUtil.isValidCatCode(catCode)) {
+				boolean sourceStatus = serviceUtil.getPreRegOwnership(sourcePreId) != null;
+				DocumentEntity documentEntity = documnetDAO.findSingleDocument(sourcePreId, catCode);
+				if (documentEntity == null || !sourceStatus) {
+					throw new DocumentNotFoundException(DocumentErrorCodes.PRG_PAM_DOC_005.toString(),
+							DocumentStatusMessages.DOCUMENT_IS_MISSING.getMessage());
+				}
+				String sourceBucketName = documentEntity.getDemographicEntity().getPreRegistrationId();
+				String sourceKey = documentEntity.getDocCatCode() + "_" + documentEntity.getDocumentId();
+				Set<String> distinctDestinationPreIds = new LinkedHashSet<>(destinationPreIds);
+				List<String> replacedDocumentIds = new ArrayList<>();
+				for (String destinationPreId : distinctDestinationPreIds) {
+					if (serviceUtil.getPreRegOwnership(destinationPreId) == null) {
+						throw new DocumentNotFoundException(DocumentErrorCodes.PRG_PAM_DOC_005.toString(),
+								DocumentStatusMessages.DOCUMENT_IS_MISSING.getMessage());
+					}
+					DocumentEntity destEntity = documnetDAO.findSingleDocument(destinationPreId, catCode);
+					if (!Objects.isNull(destEntity) && isDocumentEntityBookedOrExpiredStatus(destEntity)) {
+						throw new RecordFailedToUpdateException(DocumentErrorCodes.PRG_PAM_DOC_024.toString(),
+								DocumentErrorMessages.DOCUMENT_TABLE_NOTACCESSIBLE_BY_BOOKED_OR_EXPIRED_STATUS
+										.getMessage());
+					}
+					if (destEntity != null && !destinationPreId.equals(sourceBucketName)) {
+						replacedDocumentIds.add(destEntity.getDocumentId());
+					}
+				}
+				// the copies get new document ids, so a rolled back copy never overwrites the
+				// object of a document it replaces; the replaced documents are purged on commit
+				if (!replacedDocumentIds.isEmpty()) {
+					documentPurgeService.purgeDocuments(replacedDocumentIds, authUserDetails().getUserId());
+				}
+				List<DocumentResponseDTO> documentResponses = new ArrayList<>();
+				List<ObjectCopy> objectCopies = new ArrayList<>();
+				List<ObjectLocation> copiedObjects = new ArrayList<>();
+				// the rows are saved on the request transaction, the objects are copied
+				// in parallel once all the rows are saved
+				for (String destinationPreId : distinctDestinationPreIds) {
+					if (destinationPreId.equals(sourceBucketName)) {
+						// the source already holds the document
+						documentResponses.add(copyResponse(documentEntity, destinationPreId));
+						continue;
+					}
+					DocumentEntity copyDocumentEntity = documnetDAO
+							.saveDocument(serviceUtil.documentEntitySetter(destinationPreId, documentEntity, null));
+					String destinationKey = copyDocumentEntity.getDocCatCode() + "_"
+							+ copyDocumentEntity.getDocumentId();
+					objectCopies.add(new ObjectCopy(sourceBucketName, sourceKey, destinationPreId, destinationKey));
+					copiedObjects.add(new ObjectLocation(destinationPreId, destinationKey));
+					documentResponses.add(copyResponse(copyDocumentEntity, destinationPreId));
+				}
+				deleteObjectsOnRollback(copiedObjects);
+				if (!objectStoreOperations.copyObjects(objectStoreAccountName, objectCopies)) {
+					throw new FSServerException(DocumentErrorCodes.PRG_PAM_DOC_009.toString(),
+							DocumentErrorMessages.DOCUMENT_FAILED_TO_UPLOAD.getMessage());
+				}
+				responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
+				responseDto.setResponse(documentResponses);
+			}
+			isCopySuccess = true;
+
+		} catch (Exception ex) {
+			log.error("Exception", ExceptionUtils.getStackTrace(ex));
+			log.error("In copyDocumentToApplications method of document service - ", ex.getMessage());
+			new DocumentExceptionCatcher().handle(ex, responseDto);
+		} finally {
+			if (isCopySuccess) {
+				setAuditValues(EventId.PRE_409.toString(), EventName.COPY.toString(), EventType.BUSINESS.toString(),
+						"Document copied from source PreId to destination PreIds is successfully saved in the document table",
+						AuditLogVariables.MULTIPLE_ID.toString(), authUserDetails().getUserId(),
+						authUserDetails().getUsername());
+			} else {
+				setAuditValues(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
+						"Document failed to copy from source PreId to destination PreIds ",
+						AuditLogVariables.NO_ID.toString(), authUserDetails().getUserId(),
+						authUserDetails().getUsername());
+			}
+		}
+		return responseDto;
+	}
+
+	/**
+	 * Deletes the objects written by the current transaction if it rolls back, so
+	 * a failed copy leaves no orphan objects behind.
+	 * 
+	 * @param objects the objects written by the transaction
+	 */
+	private void deleteObjectsOnRollback(List<ObjectLocation> objects) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_ROLLED_BACK) {
+					return;
+				}
+				Map<ObjectLocation, String> failures = objectStoreOperations.deleteObjects(objectStoreAccountName,
+						objects);
+				if (!failures.isEmpty()) {
+					log.error("sessionId", "idType", "id", "In deleteObjectsOnRollback method of document service, "
+							+ failures.size() + " copied objects not deleted- " + failures.values());
+				}
+			}
+		});
+	}
+
+	private DocumentResponseDTO copyResponse(DocumentEntity copyDocumentEntity, String destinationPreId) {
+		DocumentResponseDTO documentResponseDTO = new DocumentResponseDTO();
+		documentResponseDTO.setPreRegistrationId(destinationPreId);
+		documentResponseDTO.setDocId(copyDocumentEntity.getDocumentId());
+		documentResponseDTO.setDocName(copyDocumentEntity.getDocName());
+		documentResponseDTO.setDocCatCode(copyDocumentEntity.getDocCatCode());
+		documentResponseDTO.setDocTypCode(copyDocumentEntity.getDocTypeCode());
+		documentResponseDTO.setDocFileFormat(copyDocumentEntity.getDocFileFormat());
+		documentResponseDTO.setRefNumber(copyDocumentEntity.getRefNumber());
+		return documentResponseDTO;
+	}
+
 	/**
 	 * This method will copy the file from sourceFile to destinationFile
 	 * 
@@ -403,10 +566,8 @@ public class DocumentService implements DocumentServiceIntf {
 		if (copyDocumentEntity != null) {
 			destinationBucketName = copyDocumentEntity.getDemographicEntity().getPreRegistrationId();
 			destinationKey = copyDocumentEntity.getDocCatCode() + "_" + copyDocumentEntity.getDocumentId();
-			InputStream sourcefile = objectStore.getObject(objectStoreAccountName, sourceBucketName, null, null,
-					sourceKey);
-			boolean isStoreSuccess = objectStore.putObject(objectStoreAccountName, destinationBucketName, null, null,
-					destinationKey, sourcefile);
+			boolean isStoreSuccess = objectStoreOperations.copyObject(objectStoreAccountName,
+					new ObjectCopy(sourceBucketName, sourceKey, destinationBucketName, destinationKey));
 			if (!isStoreSuccess) {
 				throw new FSServerException(DocumentErrorCodes.PRG_PAM_DOC_009.toString(),
 						DocumentErrorMessages.DOCUMENT_FAILED_TO_UPLOAD.getMessage());
@@ -436,7 +597,7 @@ public class DocumentService implements DocumentServiceIntf {
 		try {
 			requestParamMap.put(RequestCodes.PRE_REGISTRATION_ID, preId);
 			if (validationUtil.requstParamValidator(requestParamMap)
-					&& serviceUtil.getPreRegInfoRestService(preId) != null) {
+					&& serviceUtil.getPreRegOwnership(preId) != null) {
 				List<DocumentEntity> documentEntities = documnetDAO.findBypreregId(preId);
 				responseDto.setResponse(createDocumentResponse(documentEntities));
 				responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
@@ -491,7 +652,7 @@ public class DocumentService implements DocumentServiceIntf {
 		try {
 			requestParamMap.put(RequestCodes.PRE_REGISTRATION_ID, preId);
 			if (validationUtil.requstParamValidator(requestParamMap)
-					&& serviceUtil.getPreRegInfoRestService(preId) != null) {
+					&& serviceUtil.getPreRegOwnership(preId) != null) {
 				DocumentEntity documentEntity = documnetDAO.findBydocumentId(docId);
 				if (!documentEntity.getDemographicEntity().getPreRegistrationId().equals(preId)) {
 					throw new InvalidDocumentIdExcepion(DocumentErrorCodes.PRG_PAM_DOC_022.name(),
@@ -547,6 +708,93 @@ public class DocumentService implements DocumentServiceIntf {
 		return responseDto;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.preregistration.document.service.DocumentServiceIntf#
+	 * getDocumentContent(java.lang.String, java.lang.String)
+	 */
+	@Override
+	public DocumentContentDTO getDocumentContent(String docId, String preId) {
+		MainResponseDTO<DocumentContentDTO> responseDto = new MainResponseDTO<>();
+		responseDto.setId(fetchContentId);
+		responseDto.setVersion(ver);
+		Map<String, String> requestParamMap = new HashMap<>();
+		try {
+			requestParamMap.put(RequestCodes.PRE_REGISTRATION_ID, preId);
+			validationUtil.requstParamValidator(requestParamMap);
+			serviceUtil.getPreRegOwnership(preId);
+			DocumentEntity documentEntity = documnetDAO.findBydocumentId(docId);
+			if (!documentEntity.getDemographicEntity().getPreRegistrationId().equals(preId)) {
+				throw new InvalidDocumentIdExcepion(DocumentErrorCodes.PRG_PAM_DOC_022.name(),
+						DocumentErrorMessages.INVALID_DOCUMENT_ID.getMessage());
+			}
+			return new DocumentContentDTO(documentEntity.getDocumentId(), preId, documentEntity.getDocName(),
+					documentEntity.getDocCatCode(), documentEntity.getDocHash(),
+					documentEntity.getEncryptedDateTime());
+		} catch (RuntimeException ex) {
+			log.error("sessionId", "idType", "id",
+					"In getDocumentContent method of document service - " + ex.getMessage());
+			new DocumentExceptionCatcher().handle(ex, responseDto);
+			throw ex;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.preregistration.document.service.DocumentServiceIntf#
+	 * writeDocumentContent(io.mosip.preregistration.application.dto.
+	 * DocumentContentDTO, java.io.OutputStream)
+	 */
+	@Override
+	public void writeDocumentContent(DocumentContentDTO documentContent, OutputStream output) {
+		MainResponseDTO<DocumentContentDTO> responseDto = new MainResponseDTO<>();
+		responseDto.setId(fetchContentId);
+		responseDto.setVersion(ver);
+		boolean isRetrieveSuccess = false;
+		String key = documentContent.getDocCatCode() + "_" + documentContent.getDocumentId();
+		try (InputStream sourcefile = objectStore.getObject(objectStoreAccountName,
+				documentContent.getPreRegistrationId(), null, null, key)) {
+			if (sourcefile == null) {
+				throw new FSServerException(DocumentErrorCodes.PRG_PAM_DOC_005.toString(),
+						DocumentErrorMessages.DOCUMENT_FAILED_TO_FETCH.getMessage());
+			}
+			// the hash is checked before any decrypted byte is written
+			try (SpooledDocument storedDocument = serviceUtil.spoolDocument(sourcefile)) {
+				if (!storedDocument.getHash().equals(documentContent.getDocHash())) {
+					log.error("sessionId", "idType", "id", "In writeDocumentContent method of document service - "
+							+ io.mosip.preregistration.core.errorcodes.ErrorMessages.HASHING_FAILED.name());
+					throw new HashingException(
+							io.mosip.preregistration.core.errorcodes.ErrorCodes.PRG_CORE_REQ_010.name(),
+							io.mosip.preregistration.core.errorcodes.ErrorMessages.HASHING_FAILED.name());
+				}
+				cryptoUtil.decrypt(storedDocument::openStream, documentContent.getEncryptedDateTime(), output);
+			}
+			isRetrieveSuccess = true;
+		} catch (IOException ex) {
+			log.error("sessionId", "idType", "id",
+					"In writeDocumentContent method of document service - " + ex.getMessage());
+			throw new FSServerException(DocumentErrorCodes.PRG_PAM_DOC_005.toString(),
+					DocumentErrorMessages.DOCUMENT_FAILED_TO_FETCH.getMessage(), responseDto);
+		} catch (RuntimeException ex) {
+			log.error("sessionId", "idType", "id",
+					"In writeDocumentContent method of document service - " + ex.getMessage());
+			new DocumentExceptionCatcher().handle(ex, responseDto);
+			throw ex;
+		} finally {
+			if (isRetrieveSuccess) {
+				setAuditValues(EventId.PRE_401.toString(), EventName.RETRIEVE.toString(), EventType.BUSINESS.toString(),
+						"Retrieval of document is successfull", AuditLogVariables.MULTIPLE_ID.toString(),
+						authUserDetails().getUserId(), authUserDetails().getUsername());
+			} else {
+				setAuditValues(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
+						"Retrieval of document is failed", AuditLogVariables.NO_ID.toString(),
+						authUserDetails().getUserId(), authUserDetails().getUsername());
+			}
+		}
+	}
+
 	/**
 	 * This method will set the document Dto from document entity
 	 * 
@@ -594,7 +842,7 @@ public class DocumentService implements DocumentServiceIntf {
 		Map<String, String> requestParamMap = new HashMap<>();
 		try {
 			requestParamMap.put(RequestCodes.PRE_REGISTRATION_ID, preRegistrationId);
-			DemographicResponseDTO demographicResponse = serviceUtil.getPreRegInfoRestService(preRegistrationId);
+			ApplicationOwnershipDTO demographicResponse = serviceUtil.getPreRegOwnership(preRegistrationId);
 			if (validationUtil.requstParamValidator(requestParamMap) && demographicResponse != null) {
 				DocumentEntity documentEntity = documnetDAO.findBydocumentId(documentId);
 				if (!documentEntity.getDemographicEntity().getPreRegistrationId().equals(preRegistrationId)) {
@@ -689,7 +937,7 @@ public class DocumentService implements DocumentServiceIntf {
 		try {
 			requestParamMap.put(RequestCodes.PRE_REGISTRATION_ID, preregId);
 			if (validationUtil.requstParamValidator(requestParamMap)
-					&& serviceUtil.getPreRegInfoRestService(preregId) != null) {
+					&& serviceUtil.getPreRegOwnership(preregId) != null) {
 				List<DocumentEntity> documentEntityList = documnetDAO.findBypreregId(preregId);
 				DocumentDeleteResponseDTO deleteDTO = deleteFile(documentEntityList, preregId);
 				deleteRes.setResponse(deleteDTO);
@@ -725,19 +973,75 @@ public class DocumentService implements DocumentServiceIntf {
 		return deleteRes;
 	}
 
-	public DocumentDeleteResponseDTO deleteFile(List<DocumentEntity> documentEntityList, String preregId) {
-		log.info("In pre-registration service inside delete File for preregid {} ", preregId);
-		DocumentDeleteResponseDTO deleteDTO = new DocumentDeleteResponseDTO();
-		if (documnetDAO.deleteAllBypreregId(preregId) >= 0) {
-			for (DocumentEntity documentEntity : documentEntityList) {
-				String key = documentEntity.getDocCatCode() + "_" + documentEntity.getDocumentId();
-				objectStore.deleteObject(objectStoreAccountName,
-						documentEntity.getDemographicEntity().getPreRegistrationId(), null, null, key);
-
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see io.mosip.preregistration.document.service.DocumentServiceIntf#
+	 * deleteAllByPreIds(java.util.List)
+	 */
+	@Override
+	@Transactional(rollbackFor = Exception.class)
+	public MainResponseDTO<DocumentDeleteResponseDTO> deleteAllByPreIds(List<String> preregIds) {
+		boolean isDeleteSuccess = false;
+		boolean isDocNotFound = false;
+		MainResponseDTO<DocumentDeleteResponseDTO> deleteRes = new MainResponseDTO<>();
+		deleteRes.setId(deleteId);
+		deleteRes.setVersion(ver);
+		try {
+			if (preregIds == null || preregIds.isEmpty()) {
+				throw new InvalidRequestException(
+						io.mosip.preregistration.core.errorcodes.ErrorCodes.PRG_CORE_REQ_001.toString(),
+						io.mosip.preregistration.core.errorcodes.ErrorMessages.MISSING_REQUEST_PARAMETER.getMessage(),
+						null);
+			}
+			Set<String> distinctPreregIds = new LinkedHashSet<>(preregIds);
+			for (String preregId : distinctPreregIds) {
+				Map<String, String> requestParamMap = new HashMap<>();
+				requestParamMap.put(RequestCodes.PRE_REGISTRATION_ID, preregId);
+				validationUtil.requstParamValidator(requestParamMap);
+				serviceUtil.getPreRegOwnership(preregId);
 			}
+			if (documentPurgeService.purge(distinctPreregIds, authUserDetails().getUserId()) == 0) {
+				throw new DocumentNotFoundException(DocumentErrorCodes.PRG_PAM_DOC_005.toString(),
+						DocumentStatusMessages.DOCUMENT_IS_MISSING.getMessage());
+			}
+			DocumentDeleteResponseDTO deleteDTO = new DocumentDeleteResponseDTO();
 			deleteDTO.setMessage(DocumentStatusMessages.ALL_DOCUMENT_DELETE_SUCCESSFUL.getMessage());
+			deleteRes.setResponse(deleteDTO);
+			deleteRes.setResponsetime(serviceUtil.getCurrentResponseTime());
+			isDeleteSuccess = true;
+		} catch (Exception ex) {
+			log.error("In deleteAllByPreIds method of document service - ", ExceptionUtils.getStackTrace(ex));
+			log.error("In deleteAllByPreIds method of document service - ", ex.getMessage());
+			if (ex instanceof DocumentNotFoundException)
+				isDocNotFound = true;
+			new DocumentExceptionCatcher().handle(ex, deleteRes);
+		} finally {
+			if (isDeleteSuccess) {
+				setAuditValues(EventId.PRE_403.toString(), EventName.DELETE.toString(), EventType.BUSINESS.toString(),
+						"Documents successfully deleted from the document table",
+						AuditLogVariables.MULTIPLE_ID.toString(), authUserDetails().getUserId(),
+						authUserDetails().getUsername());
+			} else {
+				setAuditValues(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
+						isDocNotFound ? "No documents found for the applications" : "Document deletion failed",
+						AuditLogVariables.NO_ID.toString(), authUserDetails().getUserId(),
+						authUserDetails().getUsername());
+			}
 		}
+		return deleteRes;
+	}
 
+	/**
+	 * Deletes the document rows of the application with one statement. The
+	 * objects are removed from the object store once the transaction commits,
+	 * see {@link DocumentPurgeService}.
+	 */
+	public DocumentDeleteResponseDTO deleteFile(List<DocumentEntity> documentEntityList, String preregId) {
+		log.info("In pre-registration service inside delete File for preregid {} ", preregId);
+		DocumentDeleteResponseDTO deleteDTO = new DocumentDeleteResponseDTO();
+		documentPurgeService.purge(Collections.singletonList(preregId), authUserDetails().getUserId());
+		deleteDTO.setMessage(DocumentStatusMessages.ALL_DOCUMENT_DELETE_SUCCESSFUL.getMessage());
 		return deleteDTO;
 	}
 
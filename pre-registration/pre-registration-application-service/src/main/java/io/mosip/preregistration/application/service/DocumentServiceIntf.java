@@ -1,8 +1,12 @@
 package io.mosip.preregistration.application.service;
 
+import java.io.OutputStream;
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.mosip.preregistration.application.dto.DocumentContentDTO;
 import io.mosip.preregistration.application.dto.DocumentResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentDTO;
 import io.mosip.preregistration.core.common.dto.DocumentDeleteResponseDTO;
@@ -34,6 +38,18 @@ public interface DocumentServiceIntf {
 	 */
 	MainResponseDTO<DocumentResponseDTO> copyDocument(String catCode, String sourcePreId, String destinationPreId);
 
+	/**
+	 * This method is used to copy the document from source preId to several
+	 * destination preIds, with the copies in the object store done in parallel
+	 * 
+	 * @param catCode           pass category code
+	 * @param sourcePreId       pass source preRegistrationId
+	 * @param destinationPreIds pass destination preRegistrationIds
+	 * @return ResponseDTO
+	 */
+	MainResponseDTO<List<DocumentResponseDTO>> copyDocumentToApplications(String catCode, String sourcePreId,
+			List<String> destinationPreIds);
+
 	/**
 	 * This method is used to get all the documents for a preId
 	 * 
@@ -51,6 +67,25 @@ public interface DocumentServiceIntf {
 	 */
 	MainResponseDTO<DocumentDTO> getDocumentForDocId(String docId, String preId);
 
+	/**
+	 * This method is used to check that a document belongs to the preId, before
+	 * its content is sent
+	 * 
+	 * @param docId pass documentId
+	 * @param preId pass preRegistrationId
+	 * @return the stored document
+	 */
+	DocumentContentDTO getDocumentContent(String docId, String preId);
+
+	/**
+	 * This method is used to write the decrypted content of a document to the
+	 * output, without holding the document in memory
+	 * 
+	 * @param documentContent the stored document
+	 * @param output          the output, not closed
+	 */
+	void writeDocumentContent(DocumentContentDTO documentContent, OutputStream output);
+
 	/**
 	 * This method is used to delete the document for document Id
 	 * 
@@ -67,6 +102,14 @@ public interface DocumentServiceIntf {
 	 */
 	MainResponseDTO<DocumentDeleteResponseDTO> deleteAllByPreId(String preregId);
 
+	/**
+	 * This method is used to delete all the documents of several preIds at once
+	 * 
+	 * @param preregIds pass preRegistrationIds
+	 * @return ResponseDTO
+	 */
+	MainResponseDTO<DocumentDeleteResponseDTO> deleteAllByPreIds(List<String> preregIds);
+
 	/**
 	 * This method is used to update the docRefId
 	 * 
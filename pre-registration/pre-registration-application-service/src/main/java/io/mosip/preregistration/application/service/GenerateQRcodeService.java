@@ -1,5 +1,6 @@
 package io.mosip.preregistration.application.service;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,7 +45,7 @@ public class GenerateQRcodeService {
 	@Autowired
 	private QrCodeGenerator<QrVersion> qrCodeGenerator;
 
-	Map<String, String> requiredRequestMap = new HashMap<>();
+	private Map<String, String> requiredRequestMap = Collections.emptyMap();
 
 	@Value("${mosip.pre-registration.qrcode.id.generate}")
 	private String id;
@@ -60,9 +61,10 @@ public class GenerateQRcodeService {
 
 	@PostConstruct
 	public void setupBookingService() {
-		requiredRequestMap.put("version", version);
-		requiredRequestMap.put("id", id);
-
+		Map<String, String> requestMap = new HashMap<>();
+		requestMap.put("version", version);
+		requestMap.put("id", id);
+		requiredRequestMap = Collections.unmodifiableMap(requestMap);
 	}
 
 	/**
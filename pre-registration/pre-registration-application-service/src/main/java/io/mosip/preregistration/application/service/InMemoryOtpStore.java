@@ -0,0 +1,185 @@
+package io.mosip.preregistration.application.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.preregistration.application.constant.PreRegLoginConstant;
+import io.mosip.preregistration.application.entity.OtpTransaction;
+import io.mosip.preregistration.application.util.ShardedExpiryMap;
+
+/**
+ * This class keeps the OTP state in the memory of a single node, so the login
+ * path does not touch the database. Each reference id has one entry holding
+ * its sliding window request counter and its active OTP, the entry is evicted
+ * once the window has passed and the OTP is consumed or expired. An expired
+ * OTP is retained for a while so its validation still fails as expired.
+ * <p>
+ * Saved and consumed OTPs are written behind to the otp_transaction table for
+ * audit by the {@link OtpAuditService}. The state is lost on a restart, the
+ * users then request a new OTP.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "preregistration.otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+	@Autowired
+	private OtpAuditService otpAuditService;
+
+	@Value("${otp.request.flooding.duration:1}")
+	private long floodingMinutes;
+
+	@Value("${otp.request.flooding.max-count:3}")
+	private int floodingMaxCount;
+
+	@Value("${preregistration.otp.store.memory.shards:64}")
+	private int shardCount;
+
+	@Value("${preregistration.otp.store.memory.tick-ms:1000}")
+	private long tickMillis;
+
+	@Value("${preregistration.otp.store.memory.wheel-slots:3600}")
+	private int wheelSlots;
+
+	/**
+	 * Time an expired OTP is kept to answer its validation as expired
+	 */
+	@Value("${preregistration.otp.store.memory.expired-retention-seconds:600}")
+	private long expiredRetentionSeconds;
+
+	private ShardedExpiryMap<OtpEntry> entries;
+
+	@PostConstruct
+	public void setupStore() {
+		entries = new ShardedExpiryMap<>(shardCount, tickMillis, wheelSlots, this::evictAt);
+		Metrics.gauge("preregistration.otp.store.entries", entries, ShardedExpiryMap::size);
+		entries.start("otp-store-expiry-");
+	}
+
+	@PreDestroy
+	public void shutdownStore() {
+		entries.stop();
+	}
+
+	@Override
+	public boolean tryAcquireRequest(String refId, LocalDateTime now) {
+		long nowMillis = toMillis(now);
+		long windowMillis = floodingMinutes * 60_000L;
+		return entries.compute(refId, OtpEntry::new, entry -> {
+			long window = nowMillis / windowMillis;
+			if (window != entry.window) {
+				entry.previousCount = window == entry.window + 1 ? entry.currentCount : 0;
+				entry.currentCount = 0;
+				entry.window = window;
+			}
+			// the previous window counts for the part of it still inside the sliding window
+			double previousWeight = 1.0 - (double) (nowMillis % windowMillis) / windowMillis;
+			if (entry.previousCount * previousWeight + entry.currentCount >= floodingMaxCount) {
+				return false;
+			}
+			entry.currentCount++;
+			entry.windowEndMillis = (window + 2) * windowMillis;
+			return true;
+		});
+	}
+
+	@Override
+	public boolean hasActiveOtp(String refId, LocalDateTime now) {
+		return entries.computeIfPresent(refId,
+				entry -> entry.otpHash != null && entry.expiryDtimes.isAfter(now), false);
+	}
+
+	@Override
+	public boolean saveIfNoActiveOtp(String id, String refId, String otpHash, LocalDateTime now,
+			LocalDateTime expiryTime, String crBy) {
+		boolean saved = entries.compute(refId, OtpEntry::new, entry -> {
+			if (entry.otpHash != null && entry.expiryDtimes.isAfter(now)) {
+				return false;
+			}
+			entry.id = id;
+			entry.otpHash = otpHash;
+			entry.expiryDtimes = expiryTime;
+			return true;
+		});
+		if (saved) {
+			OtpTransaction otpTxn = new OtpTransaction();
+			otpTxn.setId(id);
+			otpTxn.setRefId(refId);
+			otpTxn.setOtpHash(otpHash);
+			otpTxn.setGeneratedDtimes(now);
+			otpTxn.setExpiryDtimes(expiryTime);
+			otpTxn.setStatusCode(PreRegLoginConstant.ACTIVE_STATUS);
+			otpTxn.setCrBy(crBy);
+			otpTxn.setCrDtimes(now);
+			otpAuditService.publish(otpTxn);
+		}
+		return saved;
+	}
+
+	@Override
+	public LocalDateTime consumeActiveOtp(String refId, String otpHash, LocalDateTime now, String updBy) {
+		OtpTransaction consumed = entries.computeIfPresent(refId, entry -> {
+			if (entry.otpHash == null || !entry.otpHash.equals(otpHash)) {
+				return null;
+			}
+			OtpTransaction otpTxn = new OtpTransaction();
+			otpTxn.setId(entry.id);
+			otpTxn.setRefId(refId);
+			otpTxn.setExpiryDtimes(entry.expiryDtimes);
+			entry.id = null;
+			entry.otpHash = null;
+			entry.expiryDtimes = null;
+			return otpTxn;
+		}, null);
+		if (consumed == null) {
+			return null;
+		}
+		consumed.setStatusCode(PreRegLoginConstant.USED_STATUS);
+		consumed.setUpdBy(updBy);
+		consumed.setUpdDTimes(now);
+		otpAuditService.publish(consumed);
+		return consumed.getExpiryDtimes();
+	}
+
+	private long evictAt(OtpEntry entry) {
+		long otpEndMillis = entry.otpHash == null ? 0
+				: toMillis(entry.expiryDtimes.plusSeconds(expiredRetentionSeconds));
+		return Math.max(entry.windowEndMillis, otpEndMillis);
+	}
+
+	private static long toMillis(LocalDateTime utcTime) {
+		return utcTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+
+	/**
+	 * Request counter and active OTP of a reference id, changed under the lock of
+	 * its shard.
+	 */
+	private static final class OtpEntry {
+
+		private long window;
+
+		private int currentCount;
+
+		private int previousCount;
+
+		private long windowEndMillis;
+
+		private String id;
+
+		private String otpHash;
+
+		private LocalDateTime expiryDtimes;
+	}
+}
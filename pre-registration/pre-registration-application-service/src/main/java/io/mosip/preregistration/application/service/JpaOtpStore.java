@@ -0,0 +1,51 @@
+package io.mosip.preregistration.application.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.mosip.preregistration.application.constant.PreRegLoginConstant;
+import io.mosip.preregistration.application.repository.OtpTxnRepository;
+
+/**
+ * This class keeps the OTP state in the otp_transaction table, shared by all
+ * the nodes. The save and the consume of an OTP are single conditional
+ * statements. A reference id has one row while its OTP is active, so the table
+ * holds no request history to count; requests are not rate limited by this
+ * store and the one active OTP of a reference id bounds the OTPs sent.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "preregistration.otp.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaOtpStore implements OtpStore {
+
+	@Autowired
+	private OtpTxnRepository otpRepo;
+
+	@Override
+	public boolean tryAcquireRequest(String refId, LocalDateTime now) {
+		return true;
+	}
+
+	@Override
+	public boolean hasActiveOtp(String refId, LocalDateTime now) {
+		return otpRepo.checkotpsent(refId, PreRegLoginConstant.ACTIVE_STATUS, now) > 0;
+	}
+
+	@Override
+	public boolean saveIfNoActiveOtp(String id, String refId, String otpHash, LocalDateTime now,
+			LocalDateTime expiryTime, String crBy) {
+		return otpRepo.saveIfNoActiveOtp(id, refId, otpHash, now, expiryTime, crBy) > 0;
+	}
+
+	@Override
+	public LocalDateTime consumeActiveOtp(String refId, String otpHash, LocalDateTime now, String updBy) {
+		Timestamp expiryDtimes = otpRepo.consumeActiveOtp(refId, otpHash, updBy, now);
+		return expiryDtimes == null ? null : expiryDtimes.toLocalDateTime();
+	}
+}
@@ -0,0 +1,342 @@
+package io.mosip.preregistration.application.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.application.code.NotificationOutboxStatus;
+import io.mosip.preregistration.application.code.NotificationRequestCodes;
+import io.mosip.preregistration.application.entity.NotificationOutbox;
+import io.mosip.preregistration.application.repository.NotificationOutboxRepository;
+import io.mosip.preregistration.core.common.dto.NotificationDTO;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+import io.mosip.preregistration.core.util.NotificationUtil;
+
+/**
+ * This service delivers notifications through a persistent outbox. The request
+ * thread renders the notification and stores it in the outbox table, a poller
+ * claims due notifications in batches and hands them to a worker pool per
+ * channel. Failed deliveries are retried with exponential backoff until the
+ * maximum number of attempts is reached. The recipient and the content are
+ * cleared once a notification is sent or has failed, and completed
+ * notifications are deleted after the retention period.
+ *
+ * @since 1.2.0
+ *
+ */
+@Service
+public class NotificationOutboxService {
+
+	private Logger log = LoggerConfiguration.logConfig(NotificationOutboxService.class);
+
+	private static final String WORKER_USER = "notification-outbox";
+
+	private static final int LAST_ERROR_MAX_LENGTH = 1024;
+
+	/**
+	 * Maximum number of completed notifications deleted per statement
+	 */
+	private static final int PURGE_CHUNK_SIZE = 1000;
+
+	@Autowired
+	private NotificationUtil notificationUtil;
+
+	@Autowired
+	private NotificationOutboxRepository notificationOutboxRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${preregistration.notification.outbox.poll-interval-ms:1000}")
+	private long pollIntervalMillis;
+
+	/**
+	 * Maximum number of notifications claimed per poll and in flight at a time
+	 */
+	@Value("${preregistration.notification.outbox.batch-size:50}")
+	private int batchSize;
+
+	@Value("${preregistration.notification.outbox.sms.concurrency:4}")
+	private int smsConcurrency;
+
+	@Value("${preregistration.notification.outbox.email.concurrency:4}")
+	private int emailConcurrency;
+
+	@Value("${preregistration.notification.outbox.max-attempts:8}")
+	private int maxAttempts;
+
+	@Value("${preregistration.notification.outbox.backoff.initial-ms:5000}")
+	private long initialBackoffMillis;
+
+	@Value("${preregistration.notification.outbox.backoff.max-ms:3600000}")
+	private long maxBackoffMillis;
+
+	/**
+	 * Time after which a notification left in progress by a stopped instance is
+	 * claimed again
+	 */
+	@Value("${preregistration.notification.outbox.claim-timeout-ms:300000}")
+	private long claimTimeoutMillis;
+
+	/**
+	 * Time a sent or failed notification is kept before it is deleted
+	 */
+	@Value("${preregistration.notification.outbox.retention-hours:168}")
+	private long retentionHours;
+
+	@Value("${preregistration.notification.outbox.purge-interval-ms:3600000}")
+	private long purgeIntervalMillis;
+
+	private TransactionTemplate transactionTemplate;
+
+	private ScheduledExecutorService poller;
+
+	private final Map<String, ExecutorService> channelExecutors = new HashMap<>();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicLong backlog = new AtomicLong();
+
+	@PostConstruct
+	public void setupOutbox() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		channelExecutors.put(NotificationRequestCodes.SMS.getCode(),
+				Executors.newFixedThreadPool(smsConcurrency, threadFactory("notification-sms-")));
+		channelExecutors.put(NotificationRequestCodes.EMAIL.getCode(),
+				Executors.newFixedThreadPool(emailConcurrency, threadFactory("notification-email-")));
+		Metrics.gauge("preregistration.notification.outbox.backlog", backlog, AtomicLong::get);
+		Metrics.gauge("preregistration.notification.outbox.in-flight", inFlight, AtomicInteger::get);
+		poller = Executors.newSingleThreadScheduledExecutor(threadFactory("notification-outbox-"));
+		poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+		poller.scheduleWithFixedDelay(this::purgeCompleted, purgeIntervalMillis, purgeIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdownOutbox() {
+		if (poller != null) {
+			poller.shutdownNow();
+		}
+		channelExecutors.values().forEach(ExecutorService::shutdownNow);
+	}
+
+	/**
+	 * Renders the notification for the given channel and stores it in the
+	 * outbox. The notifier is called later by the delivery workers.
+	 *
+	 * @param channel         sms or email
+	 * @param notificationDto the notification details
+	 * @param userId          the user triggering the notification
+	 * @throws IOException
+	 */
+	public void enqueue(String channel, NotificationDTO notificationDto, String userId) throws IOException {
+		NotificationOutbox notification = new NotificationOutbox();
+		notification.setId(UUID.randomUUID().toString());
+		notification.setPreRegistrationId(notificationDto.getPreRegistrationId());
+		notification.setChannel(channel);
+		if (channel.equals(NotificationRequestCodes.SMS.getCode())) {
+			notification.setRecipient(notificationDto.getMobNum());
+			notification.setContent(notificationUtil.getSmsContent(notificationDto));
+		} else {
+			notification.setRecipient(notificationDto.getEmailID());
+			notification.setSubject(notificationUtil.getEmailSubjectByType(notificationDto));
+			notification.setContent(notificationUtil.getEmailContent(notificationDto));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		notification.setStatusCode(NotificationOutboxStatus.PENDING.getCode());
+		notification.setAttemptCount(0);
+		notification.setNextAttemptDtimes(now);
+		notification.setCrBy(userId);
+		notification.setCrDtimes(now);
+		notificationOutboxRepository.save(notification);
+		log.info("sessionId", "idType", "id", "In enqueue method of NotificationOutboxService, " + channel
+				+ " notification queued for pre reg id " + notificationDto.getPreRegistrationId());
+	}
+
+	private void poll() {
+		try {
+			backlog.set(notificationOutboxRepository.countByStatusCode(NotificationOutboxStatus.PENDING.getCode()));
+			int capacity = batchSize - inFlight.get();
+			while (capacity > 0) {
+				List<NotificationOutbox> claimed = claim(capacity);
+				claimed.forEach(this::dispatch);
+				if (claimed.size() < capacity) {
+					return;
+				}
+				capacity = batchSize - inFlight.get();
+			}
+		} catch (Exception ex) {
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In poll method of NotificationOutboxService, unable to claim notifications- " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Deletes the sent and failed notifications older than the retention period,
+	 * in chunks of one transaction each.
+	 */
+	private void purgeCompleted() {
+		try {
+			LocalDateTime updatedBefore = LocalDateTime.now().minusHours(retentionHours);
+			List<String> statusCodes = Arrays.asList(NotificationOutboxStatus.SENT.getCode(),
+					NotificationOutboxStatus.FAILED.getCode());
+			int purged = 0;
+			Integer deleted;
+			do {
+				deleted = transactionTemplate.execute(status -> notificationOutboxRepository
+						.deleteCompleted(statusCodes, updatedBefore, PURGE_CHUNK_SIZE));
+				purged += deleted == null ? 0 : deleted;
+			} while (deleted != null && deleted == PURGE_CHUNK_SIZE);
+			Metrics.counter("preregistration.notification.outbox.purged").increment(purged);
+			log.info("sessionId", "idType", "id", "In purgeCompleted method of NotificationOutboxService, " + purged
+					+ " notifications completed before " + updatedBefore + " deleted");
+		} catch (Exception ex) {
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In purgeCompleted method of NotificationOutboxService, unable to delete notifications- "
+							+ ex.getMessage());
+		}
+	}
+
+	/**
+	 * Marks a batch of due notifications as in progress in one transaction.
+	 */
+	private List<NotificationOutbox> claim(int limit) {
+		List<NotificationOutbox> claimed = transactionTemplate.execute(status -> {
+			LocalDateTime now = LocalDateTime.now();
+			List<NotificationOutbox> due = notificationOutboxRepository.findDueForDelivery(
+					NotificationOutboxStatus.PENDING.getCode(), NotificationOutboxStatus.IN_PROGRESS.getCode(), now,
+					now.minus(Duration.ofMillis(claimTimeoutMillis)), limit);
+			due.forEach(notification -> {
+				notification.setStatusCode(NotificationOutboxStatus.IN_PROGRESS.getCode());
+				notification.setUpdBy(WORKER_USER);
+				notification.setUpdDtimes(now);
+			});
+			return notificationOutboxRepository.saveAll(due);
+		});
+		return claimed == null ? Collections.emptyList() : claimed;
+	}
+
+	private void dispatch(NotificationOutbox notification) {
+		ExecutorService executor = channelExecutors.get(notification.getChannel());
+		if (executor == null) {
+			log.error("sessionId", "idType", "id", "In dispatch method of NotificationOutboxService, unknown channel "
+					+ notification.getChannel() + " for notification " + notification.getId());
+			complete(notification, NotificationOutboxStatus.FAILED, "Unknown channel", "failed");
+			return;
+		}
+		inFlight.incrementAndGet();
+		executor.execute(() -> {
+			try {
+				deliver(notification);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		});
+	}
+
+	private void deliver(NotificationOutbox notification) {
+		long start = System.nanoTime();
+		String outcome;
+		try {
+			if (notification.getChannel().equals(NotificationRequestCodes.SMS.getCode())) {
+				notificationUtil.sendSms(notification.getRecipient(), notification.getContent());
+			} else {
+				notificationUtil.sendEmail(notification.getRecipient(), notification.getSubject(),
+						notification.getContent(), null);
+			}
+			notification.setSentDtimes(LocalDateTime.now());
+			outcome = "success";
+			complete(notification, NotificationOutboxStatus.SENT, null, outcome);
+			Metrics.timer("preregistration.notification.outbox.latency", "channel", notification.getChannel())
+					.record(Duration.between(notification.getCrDtimes(), notification.getSentDtimes()));
+		} catch (Exception ex) {
+			int attempts = notification.getAttemptCount() + 1;
+			notification.setAttemptCount(attempts);
+			String lastError = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
+			if (attempts >= maxAttempts) {
+				outcome = "failed";
+				complete(notification, NotificationOutboxStatus.FAILED, lastError, outcome);
+			} else {
+				outcome = "retry";
+				notification.setNextAttemptDtimes(LocalDateTime.now().plus(backoff(attempts)));
+				complete(notification, NotificationOutboxStatus.PENDING, lastError, outcome);
+			}
+			log.error("sessionId", "idType", "id", "In deliver method of NotificationOutboxService, "
+					+ notification.getChannel() + " notification " + notification.getId() + " attempt " + attempts
+					+ " failed- " + lastError);
+		}
+		Timer.builder("preregistration.notification.outbox.delivery").tag("channel", notification.getChannel())
+				.tag("outcome", outcome).register(Metrics.globalRegistry)
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private void complete(NotificationOutbox notification, NotificationOutboxStatus status, String lastError,
+			String outcome) {
+		notification.setStatusCode(status.getCode());
+		if (status == NotificationOutboxStatus.SENT || status == NotificationOutboxStatus.FAILED) {
+			// the personal data is not kept once the notification is no longer delivered
+			notification.setRecipient(null);
+			notification.setSubject(null);
+			notification.setContent(null);
+		}
+		if (lastError != null) {
+			notification.setLastError(lastError.length() > LAST_ERROR_MAX_LENGTH
+					? lastError.substring(0, LAST_ERROR_MAX_LENGTH)
+					: lastError);
+		}
+		notification.setUpdBy(WORKER_USER);
+		notification.setUpdDtimes(LocalDateTime.now());
+		try {
+			notificationOutboxRepository.save(notification);
+		} catch (Exception ex) {
+			// left in progress, claimed again once the claim times out
+			log.error("sessionId", "idType", "id", "In complete method of NotificationOutboxService, unable to mark "
+					+ outcome + " for notification " + notification.getId() + "- " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Doubles the delay for every failed attempt, up to the configured maximum.
+	 */
+	private Duration backoff(int attempts) {
+		long delay = initialBackoffMillis;
+		for (int attempt = 1; attempt < attempts && delay < maxBackoffMillis; attempt++) {
+			delay *= 2;
+		}
+		return Duration.ofMillis(Math.min(delay, maxBackoffMillis));
+	}
+
+	private static CustomizableThreadFactory threadFactory(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,10 +12,6 @@ import java.util.Map;
 import javax.annotation.PostConstruct;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
 import org.json.JSONException;
 import org.json.simple.parser.ParseException;
@@ -51,6 +48,7 @@ import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 import io.mosip.preregistration.core.common.dto.NotificationDTO;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
 import io.mosip.preregistration.core.util.AuditLogUtil;
+import io.mosip.preregistration.core.util.IdentityMapping;
 import io.mosip.preregistration.core.util.NotificationUtil;
 import io.mosip.preregistration.core.util.ValidationUtil;
 
@@ -77,6 +75,12 @@ public class NotificationService {
 	@Autowired
 	private NotificationServiceUtil serviceUtil;
 
+	/**
+	 * The reference to {@link NotificationOutboxService}.
+	 */
+	@Autowired
+	private NotificationOutboxService notificationOutboxService;
+
 	@Autowired
 	private DemographicServiceIntf demographicServiceIntf;
 
@@ -88,7 +92,11 @@ public class NotificationService {
 
 	private Logger log = LoggerConfiguration.logConfig(NotificationService.class);
 
-	Map<String, String> requiredRequestMap = new HashMap<>();
+	/**
+	 * Request id and version every notification request is validated against,
+	 * built once and shared read-only by all the request threads.
+	 */
+	private Map<String, String> requiredRequestMap = Collections.emptyMap();
 
 	@Value("${mosip.pre-registration.notification.id}")
 	private String Id;
@@ -128,8 +136,6 @@ public class NotificationService {
 	@Value("#{'${mosip.notificationtype}'.split('\\|')}")
 	private List<String> notificationTypeList;
 
-	MainResponseDTO<NotificationResponseDTO> response;
-
 	/**
 	 * Autowired reference for {@link #AuditLogUtil}
 	 */
@@ -141,7 +147,10 @@ public class NotificationService {
 
 	@PostConstruct
 	public void setupBookingService() {
-		requiredRequestMap.put("version", version);
+		Map<String, String> requestMap = new HashMap<>();
+		requestMap.put("version", version);
+		requestMap.put("id", Id);
+		requiredRequestMap = Collections.unmodifiableMap(requestMap);
 	}
 
 	public AuthUserDetails authUserDetails() {
@@ -159,12 +168,11 @@ public class NotificationService {
 	public MainResponseDTO<NotificationResponseDTO> sendNotification(String jsonString, String langCode,
 			MultipartFile file, boolean isLatest) {
 
-		response = new MainResponseDTO<>();
+		MainResponseDTO<NotificationResponseDTO> response = new MainResponseDTO<>();
 
 		NotificationResponseDTO notificationResponse = new NotificationResponseDTO();
 		log.info("sessionId", "idType", "id", "In notification service of sendNotification with request  " + jsonString
 				+ " and langCode " + langCode);
-		requiredRequestMap.put("id", Id);
 		response.setId(Id);
 		response.setVersion(version);
 		String resp = null;
@@ -177,14 +185,16 @@ public class NotificationService {
 			NotificationDTO notificationDto = notificationReqDTO.getRequest();
 			if (validationUtil.requestValidator(validationUtil.prepareRequestMap(notificationReqDTO),
 					requiredRequestMap)) {
-				MainResponseDTO<DemographicResponseDTO> demoDetail = notificationDtoValidation(notificationDto);
+				MainResponseDTO<DemographicResponseDTO> demoDetail = notificationDtoValidation(notificationDto,
+						response);
 				if (notificationDto.isAdditionalRecipient()) {
 					log.info("sessionId", "idType", "id",
 							"In notification service of sendNotification if additionalRecipient is"
 									+ notificationDto.isAdditionalRecipient());
 					if (notificationDto.getMobNum() != null && !notificationDto.getMobNum().isEmpty()) {
 						if (validationUtil.phoneValidator(notificationDto.getMobNum())) {
-							notificationUtil.notify(NotificationRequestCodes.SMS.getCode(), notificationDto, file);
+							notificationOutboxService.enqueue(NotificationRequestCodes.SMS.getCode(), notificationDto,
+									authUserDetails().getUserId());
 						} else {
 							throw new MandatoryFieldException(NotificationErrorCodes.PRG_PAM_ACK_007.getCode(),
 									NotificationErrorMessages.PHONE_VALIDATION_EXCEPTION.getMessage(), response);
@@ -192,7 +202,8 @@ public class NotificationService {
 					}
 					if (notificationDto.getEmailID() != null && !notificationDto.getEmailID().isEmpty()) {
 						if (validationUtil.emailValidator(notificationDto.getEmailID())) {
-							notificationUtil.notify(NotificationRequestCodes.EMAIL.getCode(), notificationDto, file);
+							notificationOutboxService.enqueue(NotificationRequestCodes.EMAIL.getCode(), notificationDto,
+									authUserDetails().getUserId());
 						} else {
 							throw new MandatoryFieldException(NotificationErrorCodes.PRG_PAM_ACK_006.getCode(),
 									NotificationErrorMessages.EMAIL_VALIDATION_EXCEPTION.getMessage(), response);
@@ -256,11 +267,7 @@ public class NotificationService {
 	private String getDemographicDetailsWithPreId(MainResponseDTO<DemographicResponseDTO> responseEntity,
 			NotificationDTO notificationDto, String langCode, MultipartFile file) throws IOException {
 		try {
-			ObjectMapper objectMapper = new ObjectMapper();
-			objectMapper = JsonMapper.builder().addModule(new AfterburnerModule()).build();
-			objectMapper.registerModule(new JavaTimeModule());
-		
-			JsonNode responseNode = objectMapper
+			JsonNode responseNode = IdentityMapping.getMapper()
 					.readTree(responseEntity.getResponse().getDemographicDetails().toJSONString());
 
 			responseNode = responseNode.get(identity);
@@ -281,12 +288,14 @@ public class NotificationService {
 			if (responseNode.get(email) != null) {
 				String emailId = responseNode.get(email).asText();
 				notificationDto.setEmailID(emailId);
-				notificationUtil.notify(NotificationRequestCodes.EMAIL.getCode(), notificationDto, file);
+				notificationOutboxService.enqueue(NotificationRequestCodes.EMAIL.getCode(), notificationDto,
+						authUserDetails().getUserId());
 			}
 			if (responseNode.get(phone) != null) {
 				String phoneNumber = responseNode.get(phone).asText();
 				notificationDto.setMobNum(phoneNumber);
-				notificationUtil.notify(NotificationRequestCodes.SMS.getCode(), notificationDto, file);
+				notificationOutboxService.enqueue(NotificationRequestCodes.SMS.getCode(), notificationDto,
+						authUserDetails().getUserId());
 
 			}
 			if (responseNode.get(email) == null && responseNode.get(phone) == null) {
@@ -329,9 +338,15 @@ public class NotificationService {
 
 	public MainResponseDTO<DemographicResponseDTO> notificationDtoValidation(NotificationDTO dto)
 			throws IOException, ParseException {
-		MainResponseDTO<DemographicResponseDTO> demoDetail = getDemographicDetails(dto);
+		return notificationDtoValidation(dto, newResponse());
+	}
+
+	private MainResponseDTO<DemographicResponseDTO> notificationDtoValidation(NotificationDTO dto,
+			MainResponseDTO<?> response) throws IOException, ParseException {
+		MainResponseDTO<DemographicResponseDTO> demoDetail = getDemographicDetails(dto, response);
 		if (!dto.getIsBatch()) {
-			BookingRegistrationDTO bookingDTO = getAppointmentDetailsRestService(dto.getPreRegistrationId());
+			BookingRegistrationDTO bookingDTO = getAppointmentDetailsRestService(dto.getPreRegistrationId(),
+					response);
 			String registrationCenterId = bookingDTO.getRegistrationCenterId();
 			String time = LocalTime.parse(bookingDTO.getSlotFromTime(), DateTimeFormatter.ofPattern("HH:mm"))
 					.format(DateTimeFormatter.ofPattern("hh:mm a"));
@@ -377,16 +392,17 @@ public class NotificationService {
 
 	public MainResponseDTO<DemographicResponseDTO> getDemographicDetails(NotificationDTO notificationDto)
 			throws IOException, ParseException {
+		return getDemographicDetails(notificationDto, newResponse());
+	}
+
+	private MainResponseDTO<DemographicResponseDTO> getDemographicDetails(NotificationDTO notificationDto,
+			MainResponseDTO<?> response) throws IOException, ParseException {
 		MainResponseDTO<DemographicResponseDTO> responseEntity = demographicServiceIntf
 				.getDemographicData(notificationDto.getPreRegistrationId());
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper = JsonMapper.builder().addModule(new AfterburnerModule()).build();
-		objectMapper.registerModule(new JavaTimeModule());
-	
 		if (responseEntity.getErrors() != null) {
 			throw new DemographicDetailsNotFoundException(responseEntity.getErrors(), response);
 		}
-		JsonNode responseNode = objectMapper.readTree(responseEntity.getResponse().getDemographicDetails().toJSONString());
+		JsonNode responseNode = IdentityMapping.getMapper().readTree(responseEntity.getResponse().getDemographicDetails().toJSONString());
 		responseNode = responseNode.get(identity);
 		if (!notificationDto.isAdditionalRecipient()) {
 			if (notificationDto.getMobNum() != null || notificationDto.getEmailID() != null) {
@@ -425,6 +441,10 @@ public class NotificationService {
 	 * 
 	 */
 	public BookingRegistrationDTO getAppointmentDetailsRestService(String preId) {
+		return getAppointmentDetailsRestService(preId, newResponse());
+	}
+
+	private BookingRegistrationDTO getAppointmentDetailsRestService(String preId, MainResponseDTO<?> response) {
 		log.info("sessionId", "idType", "id", "In getAppointmentDetailsRestService method of notification service ");
 
 		BookingRegistrationDTO bookingRegistrationDTO = null;
@@ -435,4 +455,11 @@ public class NotificationService {
 		bookingRegistrationDTO = respEntity.getResponse();
 		return bookingRegistrationDTO;
 	}
+
+	private MainResponseDTO<NotificationResponseDTO> newResponse() {
+		MainResponseDTO<NotificationResponseDTO> response = new MainResponseDTO<>();
+		response.setId(Id);
+		response.setVersion(version);
+		return response;
+	}
 }
@@ -34,9 +34,7 @@ import io.mosip.preregistration.application.constant.PreRegLoginErrorConstants;
 import io.mosip.preregistration.application.dto.OTPGenerateRequestDTO;
 import io.mosip.preregistration.application.dto.OtpRequestDTO;
 import io.mosip.preregistration.application.dto.RequestDTO;
-import io.mosip.preregistration.application.entity.OtpTransaction;
 import io.mosip.preregistration.application.exception.PreRegLoginException;
-import io.mosip.preregistration.application.repository.OtpTxnRepository;
 import io.mosip.preregistration.application.service.util.NotificationServiceUtil;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
 import io.mosip.preregistration.core.config.LoggerConfiguration;;
@@ -55,6 +53,9 @@ public class OTPManager {
 	/** The Constant OTP_ALREADY_SENT. */
 	private static final String OTP_ALREADY_SENT = "OTP_ALREADY_SENT";
 
+	/** The Constant OTP_REQUEST_FLOODED. */
+	private static final String OTP_REQUEST_FLOODED = "OTP_REQUEST_FLOODED";
+
 	/** The Constant USER_BLOCKED. */
 	private static final String USER_BLOCKED = "USER_BLOCKED";
 
@@ -83,7 +84,7 @@ public class OTPManager {
 	RestTemplate restTemplate;
  
 	@Autowired
-	private OtpTxnRepository otpRepo;
+	private OtpStore otpStore;
 
 	/** The logger. */
 	private Logger logger = LoggerConfiguration.logConfig(OTPManager.class);
@@ -109,11 +110,16 @@ public class OTPManager {
 
 		String refId = hash(userId);
 
-		if ((otpRepo.checkotpsent(refId, PreRegLoginConstant.ACTIVE_STATUS, DateUtils.getUTCCurrentDateTime()) > 0)) {
+		if (!otpStore.tryAcquireRequest(refId, DateUtils.getUTCCurrentDateTime())) {
 			logger.error(PreRegLoginConstant.SESSION_ID, this.getClass().getSimpleName(),
-					PreRegLoginErrorConstants.OTP_ALREADY_SENT.getErrorCode(), OTP_ALREADY_SENT);
-			throw new PreRegLoginException(PreRegLoginErrorConstants.OTP_ALREADY_SENT.getErrorCode(),
-					PreRegLoginErrorConstants.OTP_ALREADY_SENT.getErrorMessage());
+					PreRegLoginErrorConstants.OTP_REQUEST_FLOODED.getErrorCode(), OTP_REQUEST_FLOODED);
+			throw new PreRegLoginException(PreRegLoginErrorConstants.OTP_REQUEST_FLOODED.getErrorCode(),
+					PreRegLoginErrorConstants.OTP_REQUEST_FLOODED.getErrorMessage());
+		}
+
+		// fails fast before an OTP is generated, the save below decides between concurrent requests
+		if (otpStore.hasActiveOtp(refId, DateUtils.getUTCCurrentDateTime())) {
+			throwOtpAlreadySent();
 		}
 
 		String otp = generateOTP(requestDTO);
@@ -121,27 +127,12 @@ public class OTPManager {
 		String otpHash = digestAsPlainText(
 				(userId + environment.getProperty(PreRegLoginConstant.KEY_SPLITTER) + otp).getBytes());
 
-		if (otpRepo.existsByOtpHashAndStatusCode(otpHash, PreRegLoginConstant.ACTIVE_STATUS)) {
-			OtpTransaction otpTxn = otpRepo.findByOtpHashAndStatusCode(otpHash, PreRegLoginConstant.ACTIVE_STATUS);
-			otpTxn.setOtpHash(otpHash);
-			otpTxn.setUpdBy(environment.getProperty(PreRegLoginConstant.MOSIP_PRE_REG_CLIENTID));
-			otpTxn.setUpdDTimes(DateUtils.getUTCCurrentDateTime());
-			otpTxn.setExpiryDtimes(DateUtils.getUTCCurrentDateTime().plusSeconds(
-					environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)));
-			otpTxn.setStatusCode(PreRegLoginConstant.ACTIVE_STATUS);
-			otpRepo.save(otpTxn);
-		} else {
-			OtpTransaction txn = new OtpTransaction();
-			txn.setId(UUID.randomUUID().toString());
-			txn.setRefId(hash(userId));
-			txn.setOtpHash(otpHash);
-			txn.setCrBy(environment.getProperty(PreRegLoginConstant.MOSIP_PRE_REG_CLIENTID));
-			txn.setCrDtimes(DateUtils.getUTCCurrentDateTime());
-			txn.setGeneratedDtimes(DateUtils.getUTCCurrentDateTime());
-			txn.setExpiryDtimes(DateUtils.getUTCCurrentDateTime().plusSeconds(
-					environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)));
-			txn.setStatusCode(PreRegLoginConstant.ACTIVE_STATUS);
-			otpRepo.save(txn);
+		LocalDateTime currentTime = DateUtils.getUTCCurrentDateTime();
+		if (!otpStore.saveIfNoActiveOtp(UUID.randomUUID().toString(), refId, otpHash, currentTime,
+				currentTime.plusSeconds(
+						environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)),
+				environment.getProperty(PreRegLoginConstant.MOSIP_PRE_REG_CLIENTID))) {
+			throwOtpAlreadySent();
 		}
 		Map<String, Object> mp = new HashMap<>();
 
@@ -228,12 +219,12 @@ public class OTPManager {
 		otpHash = digestAsPlainText(
 				(userId + environment.getProperty(PreRegLoginConstant.KEY_SPLITTER) + otp).getBytes());
 
-		if (!otpRepo.existsByOtpHashAndStatusCode(otpHash, PreRegLoginConstant.ACTIVE_STATUS))
+		LocalDateTime currentTime = DateUtils.getUTCCurrentDateTime();
+		LocalDateTime expiryDtimes = otpStore.consumeActiveOtp(hash(userId), otpHash, currentTime,
+				environment.getProperty(PreRegLoginConstant.MOSIP_PRE_REG_CLIENTID));
+		if (expiryDtimes == null)
 			return false;
-		OtpTransaction otpTxn = otpRepo.findByOtpHashAndStatusCode(otpHash, PreRegLoginConstant.ACTIVE_STATUS);
-		otpTxn.setStatusCode(PreRegLoginConstant.USED_STATUS);
-		otpRepo.save(otpTxn);
-		if (!(otpTxn.getExpiryDtimes().isAfter(DateUtils.getUTCCurrentDateTime()))) {
+		if (!(expiryDtimes.isAfter(currentTime))) {
 			logger.error(PreRegLoginConstant.SESSION_ID, this.getClass().getSimpleName(),
 					PreRegLoginErrorConstants.EXPIRED_OTP.getErrorCode(), OTP_EXPIRED);
 			throw new PreRegLoginException(PreRegLoginErrorConstants.EXPIRED_OTP.getErrorCode(),
@@ -242,6 +233,13 @@ public class OTPManager {
 		return true;
 	}
 
+	private void throwOtpAlreadySent() throws PreRegLoginException {
+		logger.error(PreRegLoginConstant.SESSION_ID, this.getClass().getSimpleName(),
+				PreRegLoginErrorConstants.OTP_ALREADY_SENT.getErrorCode(), OTP_ALREADY_SENT);
+		throw new PreRegLoginException(PreRegLoginErrorConstants.OTP_ALREADY_SENT.getErrorCode(),
+				PreRegLoginErrorConstants.OTP_ALREADY_SENT.getErrorMessage());
+	}
+
 	private static String digestAsPlainText(byte[] data) {
 		return DatatypeConverter.printHexBinary(data).toUpperCase();
 	}
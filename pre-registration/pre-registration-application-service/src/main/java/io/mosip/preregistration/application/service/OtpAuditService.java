@@ -0,0 +1,220 @@
+package io.mosip.preregistration.application.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.kernel.core.exception.ExceptionUtils;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.application.constant.PreRegLoginConstant;
+import io.mosip.preregistration.application.entity.OtpTransaction;
+import io.mosip.preregistration.application.repository.OtpTxnRepository;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This service writes the OTPs of the in-memory OTP store behind to the
+ * otp_transaction table for audit. The store publishes the saved and the
+ * consumed OTPs to an in-process queue and a background consumer writes them
+ * in batches, one transaction per batch. An OTP saved and consumed within a
+ * batch is inserted as used.
+ * <p>
+ * The rows are audit only, the login path never reads them. Rows dropped
+ * because the queue is full or lost on a failed batch are logged and counted.
+ *
+ * @since 1.2.0
+ *
+ */
+@Service
+@ConditionalOnProperty(name = "preregistration.otp.store", havingValue = "memory")
+public class OtpAuditService {
+
+	private Logger log = LoggerConfiguration.logConfig(OtpAuditService.class);
+
+	private static final String WORKER_USER = "otp-audit";
+
+	@Autowired
+	private OtpTxnRepository otpRepo;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${preregistration.otp.store.memory.audit.enabled:true}")
+	private boolean enabled;
+
+	@Value("${preregistration.otp.store.memory.audit.queue-capacity:10000}")
+	private int queueCapacity;
+
+	/**
+	 * Maximum number of OTP changes written in one transaction
+	 */
+	@Value("${preregistration.otp.store.memory.audit.batch-size:200}")
+	private int batchSize;
+
+	@Value("${preregistration.otp.store.memory.audit.poll-timeout-ms:500}")
+	private long pollTimeoutMillis;
+
+	/**
+	 * Time given to the consumer to write the queued changes on shutdown
+	 */
+	@Value("${preregistration.otp.store.memory.audit.shutdown-timeout-ms:10000}")
+	private long shutdownTimeoutMillis;
+
+	private TransactionTemplate transactionTemplate;
+
+	private BlockingQueue<OtpTransaction> queue;
+
+	private ExecutorService consumer;
+
+	private volatile boolean running;
+
+	private final Counter droppedCounter = Metrics.counter("preregistration.otp.audit.dropped");
+
+	private final Counter failedCounter = Metrics.counter("preregistration.otp.audit.failed");
+
+	@PostConstruct
+	public void setupConsumer() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		if (!enabled) {
+			return;
+		}
+		Metrics.gauge("preregistration.otp.audit.queue", queue, BlockingQueue::size);
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("otp-audit-");
+		threadFactory.setDaemon(true);
+		consumer = Executors.newSingleThreadExecutor(threadFactory);
+		running = true;
+		consumer.execute(this::consume);
+	}
+
+	@PreDestroy
+	public void shutdownConsumer() {
+		if (consumer == null) {
+			return;
+		}
+		running = false;
+		consumer.shutdown();
+		try {
+			if (!consumer.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				consumer.shutdownNow();
+			}
+		} catch (InterruptedException ex) {
+			consumer.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty()) {
+			log.warn("sessionId", "idType", "id",
+					"In shutdownConsumer method of OtpAuditService, " + queue.size() + " OTP changes not written");
+		}
+	}
+
+	/**
+	 * Queues a saved or consumed OTP without waiting. A consumed OTP carries its
+	 * id, status and update details only.
+	 *
+	 * @param otpTxn the OTP change
+	 */
+	public void publish(OtpTransaction otpTxn) {
+		if (!enabled) {
+			return;
+		}
+		if (!queue.offer(otpTxn)) {
+			droppedCounter.increment();
+			log.warn("sessionId", "idType", "id",
+					"In publish method of OtpAuditService, queue full, OTP change dropped for " + otpTxn.getId());
+		}
+	}
+
+	private void consume() {
+		List<OtpTransaction> changes = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				OtpTransaction first = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				changes.add(first);
+				queue.drainTo(changes, batchSize - 1);
+				transactionTemplate.execute(status -> {
+					write(changes);
+					return null;
+				});
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception ex) {
+				failedCounter.increment(changes.size());
+				log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+				log.error("sessionId", "idType", "id", "In consume method of OtpAuditService, unable to write "
+						+ changes.size() + " OTP changes- " + ex.getMessage());
+			} finally {
+				changes.clear();
+			}
+		}
+	}
+
+	private void write(List<OtpTransaction> changes) {
+		Map<String, OtpTransaction> inserts = new LinkedHashMap<>();
+		Map<String, OtpTransaction> updates = new LinkedHashMap<>();
+		Map<String, OtpTransaction> activeByRefId = new LinkedHashMap<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (OtpTransaction change : changes) {
+			OtpTransaction inserted = inserts.get(change.getId());
+			if (change.getCrDtimes() != null) {
+				// an expired OTP replaced in memory within the batch
+				OtpTransaction replaced = activeByRefId.put(change.getRefId(), change);
+				if (replaced != null && PreRegLoginConstant.ACTIVE_STATUS.equals(replaced.getStatusCode())) {
+					replaced.setStatusCode(PreRegLoginConstant.EXPIRED_STATUS);
+					replaced.setUpdBy(WORKER_USER);
+					replaced.setUpdDTimes(now);
+				}
+				inserts.put(change.getId(), change);
+			} else if (inserted != null) {
+				inserted.setStatusCode(change.getStatusCode());
+				inserted.setUpdBy(change.getUpdBy());
+				inserted.setUpdDTimes(change.getUpdDTimes());
+			} else {
+				updates.put(change.getId(), change);
+			}
+		}
+		if (!inserts.isEmpty()) {
+			Set<String> refIds = inserts.values().stream().map(OtpTransaction::getRefId).collect(Collectors.toSet());
+			otpRepo.expireActiveOtps(refIds, PreRegLoginConstant.EXPIRED_STATUS, PreRegLoginConstant.ACTIVE_STATUS,
+					WORKER_USER, now);
+			otpRepo.saveAll(inserts.values());
+		}
+		if (!updates.isEmpty()) {
+			List<OtpTransaction> stored = otpRepo.findAllById(updates.keySet());
+			stored.forEach(otpTxn -> {
+				OtpTransaction update = updates.get(otpTxn.getId());
+				otpTxn.setStatusCode(update.getStatusCode());
+				otpTxn.setUpdBy(update.getUpdBy());
+				otpTxn.setUpdDTimes(update.getUpdDTimes());
+			});
+			otpRepo.saveAll(stored);
+		}
+		log.info("sessionId", "idType", "id", "In write method of OtpAuditService, " + inserts.size()
+				+ " OTPs inserted and " + updates.size() + " OTPs updated");
+	}
+}
@@ -0,0 +1,62 @@
+package io.mosip.preregistration.application.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * This interface holds the OTP state of the login path: the request rate of a
+ * user and the one active OTP of a user. Both stores expire an OTP at its
+ * expiry time and let it be consumed once, the in-memory store for single
+ * node deployments and the table store for deployments with several nodes.
+ * The store is chosen with preregistration.otp.store (jpa or memory).
+ *
+ * @since 1.2.0
+ *
+ */
+public interface OtpStore {
+
+	/**
+	 * Counts an OTP request of the reference id. The table store does not limit
+	 * the request rate.
+	 *
+	 * @param refId the ref id
+	 * @param now   the current UTC time
+	 * @return false if the reference id has made too many requests in the
+	 *         flooding window
+	 */
+	boolean tryAcquireRequest(String refId, LocalDateTime now);
+
+	/**
+	 * @param refId the ref id
+	 * @param now   the current UTC time
+	 * @return true if the reference id has an active OTP that has not expired
+	 */
+	boolean hasActiveOtp(String refId, LocalDateTime now);
+
+	/**
+	 * Saves the OTP as the active OTP of the reference id, unless the reference
+	 * id already has an active OTP that has not expired. An expired active OTP is
+	 * replaced. Concurrent requests of a reference id save one OTP.
+	 *
+	 * @param id         the id of a new OTP transaction
+	 * @param refId      the ref id
+	 * @param otpHash    the otp hash
+	 * @param now        the current UTC time
+	 * @param expiryTime the UTC time the OTP expires
+	 * @param crBy       the client id saving the OTP
+	 * @return true if the OTP is saved, false if an OTP is already active
+	 */
+	boolean saveIfNoActiveOtp(String id, String refId, String otpHash, LocalDateTime now, LocalDateTime expiryTime,
+			String crBy);
+
+	/**
+	 * Consumes the active OTP of the reference id with the given hash, so an OTP
+	 * is consumed once even by concurrent requests.
+	 *
+	 * @param refId   the ref id
+	 * @param otpHash the otp hash
+	 * @param now     the current UTC time
+	 * @param updBy   the client id consuming the OTP
+	 * @return the expiry time of the consumed OTP, null if no such OTP is active
+	 */
+	LocalDateTime consumeActiveOtp(String refId, String otpHash, LocalDateTime now, String updBy);
+}
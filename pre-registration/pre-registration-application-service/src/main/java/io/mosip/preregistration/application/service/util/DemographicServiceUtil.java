@@ -716,6 +716,30 @@ public class DemographicServiceUtil {
 		return applicationEntity;
 	}
 
+	/**
+	 * This method fetches the applications entries of a list of application ids
+	 * in a single query.
+	 *
+	 * @param applicationIds the application ids
+	 * @return map of application id to its applications entry
+	 */
+	public Map<String, ApplicationEntity> findApplicationsByIds(List<String> applicationIds) {
+		log.info("Fetching applications entries for {} applicationIDs", applicationIds.size());
+		Map<String, ApplicationEntity> applicationEntities = new HashMap<>();
+		if (applicationIds.isEmpty()) {
+			return applicationEntities;
+		}
+		try {
+			applicationRepostiory.findByApplicationIdIn(applicationIds)
+					.forEach(applicationEntity -> applicationEntities.put(applicationEntity.getApplicationId(),
+							applicationEntity));
+		} catch (DataAccessException ex) {
+			throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_005.getCode(),
+					DemographicErrorMessages.NO_RECORD_FOUND_FOR_USER_ID.getMessage());
+		}
+		return applicationEntities;
+	}
+
 	public void deleteApplicationFromApplications(String applicationId) {
 		log.info("Deleting applications entry for applicationID: {}", applicationId);
 		try {
@@ -4,7 +4,14 @@
  */
 package io.mosip.preregistration.application.service.util;
 
+import java.io.BufferedOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
@@ -12,11 +19,13 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -27,34 +36,40 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
 import io.mosip.kernel.core.exception.IOException;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
+import io.mosip.kernel.core.util.HMACUtils;
 import io.mosip.kernel.core.util.JsonUtils;
 import io.mosip.kernel.core.util.exception.JsonMappingException;
 import io.mosip.kernel.core.util.exception.JsonParseException;
 import io.mosip.kernel.core.virusscanner.exception.VirusScannerException;
 import io.mosip.kernel.core.virusscanner.spi.VirusScanner;
+import io.mosip.preregistration.application.dto.ApplicationOwnershipDTO;
 import io.mosip.preregistration.application.dto.DocumentRequestDTO;
+import io.mosip.preregistration.application.errorcodes.DemographicErrorCodes;
+import io.mosip.preregistration.application.errorcodes.DemographicErrorMessages;
 import io.mosip.preregistration.application.errorcodes.DocumentErrorCodes;
 import io.mosip.preregistration.application.errorcodes.DocumentErrorMessages;
-import io.mosip.preregistration.application.exception.DemographicGetDetailsException;
 import io.mosip.preregistration.application.exception.DocumentNotValidException;
 import io.mosip.preregistration.application.exception.DocumentSizeExceedException;
 import io.mosip.preregistration.application.exception.InvalidDocumentIdExcepion;
+import io.mosip.preregistration.application.exception.RecordNotFoundException;
+import io.mosip.preregistration.application.repository.DemographicRepository;
 import io.mosip.preregistration.application.service.DemographicService;
 import io.mosip.preregistration.core.code.StatusCodes;
-import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
-import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 import io.mosip.preregistration.core.common.entity.DemographicEntity;
 import io.mosip.preregistration.core.common.entity.DocumentEntity;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
 import io.mosip.preregistration.core.exception.InvalidRequestException;
-import io.mosip.preregistration.core.util.HashUtill;
+import io.mosip.preregistration.core.util.CryptoUtil;
 import io.mosip.preregistration.core.util.UUIDGeneratorUtil;
 import io.mosip.preregistration.core.util.ValidationUtil;
 
@@ -95,6 +110,25 @@ public class DocumentServiceUtil {
 	@Autowired
 	private DemographicService demographgicService;
 
+	@Autowired
+	private DemographicRepository demographicRepository;
+
+	@Autowired
+	private CryptoUtil cryptoUtil;
+
+	/**
+	 * Directory of the documents spooled on their way to and from the object
+	 * store
+	 */
+	@Value("${preregistration.document.upload.temp-dir:${java.io.tmpdir}}")
+	private String uploadTempDir;
+
+	/**
+	 * Request attribute keeping the ownership of the applications read in the
+	 * request
+	 */
+	private static final String OWNERSHIP_ATTRIBUTE = DocumentServiceUtil.class.getName() + ".ownership";
+
 	/**
 	 * Reference for ${demographic.resource.url} from property file
 	 */
@@ -250,7 +284,7 @@ public class DocumentServiceUtil {
 	}
 
 	public DocumentEntity documentEntitySetter(String destinationPreId, DocumentEntity sourceEntity,
-			DocumentEntity destEntity) throws java.io.IOException {
+			DocumentEntity destEntity) {
 		log.info("sessionId", "idType", "id", "In documentEntitySetter method of document service util");
 		DocumentEntity copyDocumentEntity = new DocumentEntity();
 		if (destEntity != null) {
@@ -262,10 +296,8 @@ public class DocumentServiceUtil {
 		demographicEntity.setPreRegistrationId(destinationPreId);
 		copyDocumentEntity.setDemographicEntity(demographicEntity);
 		copyDocumentEntity.setDocId(sourceEntity.getDocId());
-		String key = sourceEntity.getDocCatCode() + "_" + sourceEntity.getDocumentId();
-		InputStream file = objectStore.getObject(objectStoreAccountName,
-				sourceEntity.getDemographicEntity().getPreRegistrationId(), null, null, key);
-		copyDocumentEntity.setDocHash(HashUtill.hashUtill(IOUtils.toByteArray(file)));
+		// the object is copied byte for byte, so it keeps the hash of the source
+		copyDocumentEntity.setDocHash(sourceEntity.getDocHash());
 		copyDocumentEntity.setDocName(sourceEntity.getDocName());
 		copyDocumentEntity.setDocTypeCode(sourceEntity.getDocTypeCode());
 		copyDocumentEntity.setDocCatCode(sourceEntity.getDocCatCode());
@@ -341,9 +373,9 @@ public class DocumentServiceUtil {
 	 * @throws DocumentNotValidException if uploaded document is not valid
 	 */
 	public boolean isVirusScanSuccess(MultipartFile file) {
-		try {
+		try (InputStream content = file.getInputStream()) {
 			log.info("sessionId", "idType", "id", "In isVirusScanSuccess method of document service util");
-			return virusScan.scanDocument(file.getBytes());
+			return virusScan.scanFile(content);
 		} catch (Exception e) {
 			log.error("sessionId", "idType", "id", ExceptionUtils.getStackTrace(e));
 			log.error("sessionId", "idType", "id", e.getMessage());
@@ -352,15 +384,99 @@ public class DocumentServiceUtil {
 		}
 	}
 
-	public DemographicResponseDTO getPreRegInfoRestService(String preId) {
-		log.info("sessionId", "idType", "id", "In callGetPreRegInfoRestService method of document service util");
+	/**
+	 * Encrypts the uploaded file into a temporary file, reading the upload once
+	 * and hashing the encrypted bytes as they are written, so the document is
+	 * never held in memory as a whole.
+	 * 
+	 * @param file               the uploaded file
+	 * @param encryptedTimestamp the encryption time stamp
+	 * @return the encrypted document, to be closed once stored
+	 * @throws java.io.IOException on temporary file errors
+	 */
+	public SpooledDocument encryptDocument(MultipartFile file, LocalDateTime encryptedTimestamp)
+			throws java.io.IOException {
+		return spool(output -> cryptoUtil.encrypt(file, encryptedTimestamp, output));
+	}
 
-		MainResponseDTO<DemographicResponseDTO> getDemographicData = demographgicService.getDemographicData(preId);
-		if (getDemographicData.getErrors() != null) {
-			throw new DemographicGetDetailsException(getDemographicData.getErrors().get(0).getErrorCode(),
-					getDemographicData.getErrors().get(0).getMessage());
+	/**
+	 * Copies the stored document into a temporary file, hashing it on the way.
+	 * 
+	 * @param storedDocument the stream of the stored document, not closed
+	 * @return the spooled document, to be closed once read
+	 * @throws java.io.IOException on read or temporary file errors
+	 */
+	public SpooledDocument spoolDocument(InputStream storedDocument) throws java.io.IOException {
+		return spool(output -> StreamUtils.copy(storedDocument, output));
+	}
+
+	private SpooledDocument spool(SpoolWriter writer) throws java.io.IOException {
+		Path spooledFile = Files.createTempFile(Paths.get(uploadTempDir), "prereg-doc-", ".tmp");
+		try {
+			MessageDigest digest = DigestUtils.getSha256Digest();
+			try (OutputStream output = new DigestOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(spooledFile)), digest)) {
+				writer.write(output);
+			}
+			return new SpooledDocument(spooledFile, HMACUtils.digestAsPlainText(digest.digest()));
+		} catch (RuntimeException | java.io.IOException ex) {
+			Files.deleteIfExists(spooledFile);
+			throw ex;
+		}
+	}
+
+	@FunctionalInterface
+	private interface SpoolWriter {
+
+		void write(OutputStream output) throws java.io.IOException;
+	}
+
+	/**
+	 * Checks that the application exists and belongs to the logged in
+	 * individual, reading only its owner and status. The result is kept for the
+	 * rest of the request.
+	 * 
+	 * @param preId the pre-registration id
+	 * @return the owner and status of the application
+	 * @throws RecordNotFoundException         if there is no application for the
+	 *                                         pre-id
+	 * @throws PreIdInvalidForUserIdException if the application belongs to
+	 *                                         another individual, see
+	 *                                         {@link DemographicService#userValidation}
+	 */
+	public ApplicationOwnershipDTO getPreRegOwnership(String preId) {
+		log.info("sessionId", "idType", "id", "In getPreRegOwnership method of document service util");
+		Map<String, ApplicationOwnershipDTO> requestOwnerships = requestOwnerships();
+		ApplicationOwnershipDTO ownership = requestOwnerships.get(preId);
+		if (ownership == null) {
+			ownership = demographicRepository.findOwnershipByPreRegistrationId(preId);
+			if (ownership == null) {
+				throw new RecordNotFoundException(DemographicErrorCodes.PRG_PAM_APP_005.getCode(),
+						DemographicErrorMessages.UNABLE_TO_FETCH_THE_PRE_REGISTRATION.getMessage());
+			}
+			if (demographgicService.listAuth(demographgicService.authUserDetails().getAuthorities())
+					.contains("ROLE_INDIVIDUAL")) {
+				demographgicService.userValidation(demographgicService.authUserDetails().getUserId(),
+						ownership.getCreatedBy());
+			}
+			requestOwnerships.put(preId, ownership);
+		}
+		return ownership;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, ApplicationOwnershipDTO> requestOwnerships() {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		if (requestAttributes == null) {
+			return new HashMap<>();
+		}
+		Map<String, ApplicationOwnershipDTO> requestOwnerships = (Map<String, ApplicationOwnershipDTO>) requestAttributes
+				.getAttribute(OWNERSHIP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (requestOwnerships == null) {
+			requestOwnerships = new HashMap<>();
+			requestAttributes.setAttribute(OWNERSHIP_ATTRIBUTE, requestOwnerships, RequestAttributes.SCOPE_REQUEST);
 		}
-		return getDemographicData.getResponse();
+		return requestOwnerships;
 	}
 
 	public boolean isMandatoryDocumentDeleted(DemographicEntity demographicEntity)
@@ -397,6 +513,7 @@ public class DocumentServiceUtil {
 
 	@Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
 	public void updateApplicationStatusToIncomplete(DemographicEntity demographicEntity) {
+		requestOwnerships().remove(demographicEntity.getPreRegistrationId());
 		demographgicService.updatePreRegistrationStatus(demographicEntity.getPreRegistrationId(),
 				StatusCodes.APPLICATION_INCOMPLETE.getCode(), demographicEntity.getCreatedBy());
 	}
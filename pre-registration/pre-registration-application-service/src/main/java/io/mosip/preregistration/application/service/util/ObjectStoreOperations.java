@@ -0,0 +1,369 @@
+package io.mosip.preregistration.application.service.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
+import io.mosip.commons.khazana.util.ObjectStoreUtil;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class copies and deletes objects inside the S3 object store, several at
+ * a time on a bounded pool. A copy is a copy request done by the store itself,
+ * so the document does not pass through the application, and objects of a
+ * bucket are deleted with multi object delete requests of up to 1000 keys.
+ * <p>
+ * The S3 adapter does not expose its client, nor copy and multi object delete,
+ * so a client is built from the adapter's own object.store properties and
+ * defaults, and the bucket and key of an object are derived as the adapter
+ * does. After each delete request one of the deleted objects is looked up
+ * through the adapter, so a bucket or key that no longer matches the adapter's
+ * fails the batch instead of leaving the objects behind.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class ObjectStoreOperations {
+
+	private Logger log = LoggerConfiguration.logConfig(ObjectStoreOperations.class);
+
+	/**
+	 * Maximum number of keys of a multi object delete request
+	 */
+	private static final int DELETE_BATCH_SIZE = 1000;
+
+	private static final String NO_SUCH_KEY = "NoSuchKey";
+
+	private static final String NO_SUCH_BUCKET = "NoSuchBucket";
+
+	@Qualifier("S3Adapter")
+	@Autowired
+	private ObjectStoreAdapter objectStore;
+
+	@Value("${object.store.s3.accesskey:accesskey:accesskey}")
+	private String accessKey;
+
+	@Value("${object.store.s3.secretkey:secretkey:secretkey}")
+	private String secretKey;
+
+	@Value("${object.store.s3.url:null}")
+	private String url;
+
+	@Value("${object.store.s3.region:null}")
+	private String region;
+
+	@Value("${object.store.connection.max.retry:20}")
+	private int maxRetry;
+
+	@Value("${object.store.max.connection:200}")
+	private int maxConnection;
+
+	@Value("${object.store.s3.use.account.as.bucketname:false}")
+	private boolean useAccountAsBucketname;
+
+	/**
+	 * Maximum number of copies and delete requests in flight at a time
+	 */
+	@Value("${preregistration.document.object-store.concurrency:8}")
+	private int concurrency;
+
+	private ExecutorService executor;
+
+	private AmazonS3 connection;
+
+	@PostConstruct
+	public void setupOperations() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("document-object-store-");
+		threadFactory.setDaemon(true);
+		executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+	}
+
+	@PreDestroy
+	public void shutdownOperations() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Copies an object of the account to another container or name.
+	 *
+	 * @param account    the object store account
+	 * @param objectCopy the source and destination of the copy
+	 * @return true if the object is copied
+	 */
+	public boolean copyObject(String account, ObjectCopy objectCopy) {
+		if (objectCopy.sourceContainer.equals(objectCopy.destinationContainer)
+				&& objectCopy.sourceObjectName.equals(objectCopy.destinationObjectName)) {
+			return true;
+		}
+		return serverSideCopy(account, objectCopy);
+	}
+
+	/**
+	 * Copies the objects of the account in parallel and waits for all the
+	 * copies. A copy failing with an exception counts as not copied.
+	 *
+	 * @param account      the object store account
+	 * @param objectCopies the sources and destinations of the copies
+	 * @return true if all the objects are copied
+	 */
+	public boolean copyObjects(String account, List<ObjectCopy> objectCopies) {
+		List<Future<Boolean>> copies = new ArrayList<>();
+		for (ObjectCopy objectCopy : objectCopies) {
+			copies.add(executor.submit(() -> copyObject(account, objectCopy)));
+		}
+		boolean isCopySuccess = true;
+		for (Future<Boolean> copy : copies) {
+			try {
+				isCopySuccess &= copy.get();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				copies.forEach(pending -> pending.cancel(true));
+				return false;
+			} catch (ExecutionException ex) {
+				log.error("sessionId", "idType", "id",
+						"In copyObjects method of ObjectStoreOperations, copy has failed- " + ex.getCause().getMessage());
+				isCopySuccess = false;
+			}
+		}
+		return isCopySuccess;
+	}
+
+	/**
+	 * Deletes the objects of the account in parallel and waits for all the
+	 * deletes. An object that is already absent counts as deleted, unless the
+	 * adapter still finds the object checked after the delete request.
+	 *
+	 * @param account the object store account
+	 * @param objects the objects to delete
+	 * @return the objects not deleted, with the error of each
+	 */
+	public Map<ObjectLocation, String> deleteObjects(String account, Collection<ObjectLocation> objects) {
+		Map<String, List<ObjectLocation>> buckets = new LinkedHashMap<>();
+		for (ObjectLocation object : objects) {
+			buckets.computeIfAbsent(bucketName(account, object.container), bucket -> new ArrayList<>()).add(object);
+		}
+		List<List<ObjectLocation>> submitted = new ArrayList<>();
+		List<Future<Map<ObjectLocation, String>>> deletes = new ArrayList<>();
+		buckets.forEach((bucket, bucketObjects) -> {
+			for (int from = 0; from < bucketObjects.size(); from += DELETE_BATCH_SIZE) {
+				List<ObjectLocation> batch = bucketObjects.subList(from,
+						Math.min(from + DELETE_BATCH_SIZE, bucketObjects.size()));
+				submitted.add(batch);
+				deletes.add(executor.submit(() -> batchDelete(account, bucket, batch)));
+			}
+		});
+		Map<ObjectLocation, String> failures = new HashMap<>();
+		for (int index = 0; index < deletes.size(); index++) {
+			try {
+				failures.putAll(deletes.get(index).get());
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				deletes.forEach(pending -> pending.cancel(true));
+				submitted.subList(index, submitted.size())
+						.forEach(batch -> batch.forEach(object -> failures.put(object, "Interrupted")));
+				return failures;
+			} catch (ExecutionException ex) {
+				String error = String.valueOf(ex.getCause().getMessage());
+				log.error("sessionId", "idType", "id",
+						"In deleteObjects method of ObjectStoreOperations, delete has failed- " + error);
+				submitted.get(index).forEach(object -> failures.put(object, error));
+			}
+		}
+		return failures;
+	}
+
+	private boolean serverSideCopy(String account, ObjectCopy objectCopy) {
+		String sourceBucket = bucketName(account, objectCopy.sourceContainer);
+		String destinationBucket = bucketName(account, objectCopy.destinationContainer);
+		try {
+			AmazonS3 s3 = getConnection();
+			if (!s3.doesBucketExistV2(destinationBucket)) {
+				s3.createBucket(destinationBucket);
+			}
+			s3.copyObject(sourceBucket, objectName(objectCopy.sourceContainer, objectCopy.sourceObjectName),
+					destinationBucket, objectName(objectCopy.destinationContainer, objectCopy.destinationObjectName));
+			Metrics.counter("preregistration.document.copy", "mode", "server-side").increment();
+			return true;
+		} catch (AmazonClientException ex) {
+			log.error("sessionId", "idType", "id", "In serverSideCopy method of ObjectStoreOperations, copy of "
+					+ objectCopy.sourceObjectName + " has failed- " + ex.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes up to 1000 objects of one bucket with a single request.
+	 */
+	private Map<ObjectLocation, String> batchDelete(String account, String bucket, List<ObjectLocation> batch) {
+		Map<String, ObjectLocation> objectsByKey = new HashMap<>();
+		for (ObjectLocation object : batch) {
+			objectsByKey.put(objectName(object.container, object.objectName), object);
+		}
+		Map<ObjectLocation, String> failures = new HashMap<>();
+		try {
+			getConnection().deleteObjects(new DeleteObjectsRequest(bucket)
+					.withKeys(objectsByKey.keySet().toArray(new String[0])).withQuiet(true));
+		} catch (MultiObjectDeleteException ex) {
+			for (DeleteError error : ex.getErrors()) {
+				if (!NO_SUCH_KEY.equals(error.getCode()) && objectsByKey.containsKey(error.getKey())) {
+					failures.put(objectsByKey.get(error.getKey()), error.getCode() + ": " + error.getMessage());
+				}
+			}
+		} catch (AmazonServiceException ex) {
+			if (!NO_SUCH_BUCKET.equals(ex.getErrorCode())) {
+				batch.forEach(object -> failures.put(object, ex.getMessage()));
+			}
+		} catch (AmazonClientException ex) {
+			batch.forEach(object -> failures.put(object, ex.getMessage()));
+		}
+		checkDeleted(account, batch, failures);
+		Metrics.counter("preregistration.document.delete", "mode", "batch").increment(batch.size() - failures.size());
+		if (!failures.isEmpty()) {
+			log.error("sessionId", "idType", "id", "In batchDelete method of ObjectStoreOperations, " + failures.size()
+					+ " of " + batch.size() + " objects of bucket " + bucket + " not deleted");
+		}
+		return failures;
+	}
+
+	/**
+	 * Looks up the first object reported as deleted through the adapter. If it
+	 * is still there, the request did not name the objects as the adapter does,
+	 * and none of the batch counts as deleted.
+	 */
+	private void checkDeleted(String account, List<ObjectLocation> batch, Map<ObjectLocation, String> failures) {
+		ObjectLocation sample = batch.stream().filter(object -> !failures.containsKey(object)).findFirst()
+				.orElse(null);
+		if (sample == null) {
+			return;
+		}
+		String error;
+		try {
+			if (!objectStore.exists(account, sample.container, null, null, sample.objectName)) {
+				return;
+			}
+			error = "Object not deleted";
+		} catch (Exception ex) {
+			error = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
+		}
+		log.error("sessionId", "idType", "id", "In checkDeleted method of ObjectStoreOperations, " + sample
+				+ " not confirmed deleted- " + error);
+		for (ObjectLocation object : batch) {
+			failures.putIfAbsent(object, error);
+		}
+	}
+
+	private String bucketName(String account, String container) {
+		return useAccountAsBucketname ? account : container;
+	}
+
+	private String objectName(String container, String objectName) {
+		return useAccountAsBucketname ? ObjectStoreUtil.getName(container, null, null, objectName)
+				: ObjectStoreUtil.getName(null, null, objectName);
+	}
+
+	private synchronized AmazonS3 getConnection() {
+		if (connection == null) {
+			connection = AmazonS3ClientBuilder.standard()
+					.withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey)))
+					.enablePathStyleAccess()
+					.withClientConfiguration(
+							new ClientConfiguration().withMaxConnections(maxConnection).withMaxErrorRetry(maxRetry))
+					.withEndpointConfiguration(new EndpointConfiguration(url, region)).build();
+		}
+		return connection;
+	}
+
+	/**
+	 * Source and destination of an object copy
+	 */
+	public static final class ObjectCopy {
+
+		private final String sourceContainer;
+
+		private final String sourceObjectName;
+
+		private final String destinationContainer;
+
+		private final String destinationObjectName;
+
+		public ObjectCopy(String sourceContainer, String sourceObjectName, String destinationContainer,
+				String destinationObjectName) {
+			this.sourceContainer = sourceContainer;
+			this.sourceObjectName = sourceObjectName;
+			this.destinationContainer = destinationContainer;
+			this.destinationObjectName = destinationObjectName;
+		}
+	}
+
+	/**
+	 * Container and name of an object
+	 */
+	public static final class ObjectLocation {
+
+		private final String container;
+
+		private final String objectName;
+
+		public ObjectLocation(String container, String objectName) {
+			this.container = container;
+			this.objectName = objectName;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ObjectLocation)) {
+				return false;
+			}
+			ObjectLocation location = (ObjectLocation) other;
+			return container.equals(location.container) && objectName.equals(location.objectName);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(container, objectName);
+		}
+
+		@Override
+		public String toString() {
+			return container + "/" + objectName;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package io.mosip.preregistration.application.service.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Content of a document spooled to a temporary file, together with the hash of
+ * its bytes. The temporary file is deleted on close.
+ * 
+ * @since 1.2.0
+ *
+ */
+public class SpooledDocument implements Closeable {
+
+	private final Path path;
+
+	private final String hash;
+
+	public SpooledDocument(Path path, String hash) {
+		this.path = path;
+		this.hash = hash;
+	}
+
+	/**
+	 * @return the hash of the spooled bytes, as computed by
+	 *         {@link io.mosip.preregistration.core.util.HashUtill#hashUtill}
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	public long getSize() throws IOException {
+		return Files.size(path);
+	}
+
+	public InputStream openStream() throws IOException {
+		return Files.newInputStream(path);
+	}
+
+	@Override
+	public void close() throws IOException {
+		Files.deleteIfExists(path);
+	}
+}
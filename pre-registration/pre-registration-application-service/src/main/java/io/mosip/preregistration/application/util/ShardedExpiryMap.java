@@ -0,0 +1,163 @@
+package io.mosip.preregistration.application.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * This class is an in-memory map split into independently locked shards, with
+ * the entries evicted by an expiry wheel. Each value tells the time after
+ * which it can be evicted, every access reschedules its key on the wheel slot
+ * of that time and a ticker thread evicts the due keys of one slot per tick.
+ * Values are mutable and only read or changed inside {@link #compute}, under
+ * the lock of their shard.
+ *
+ * @since 1.2.0
+ *
+ * @param <V> the value type
+ */
+public class ShardedExpiryMap<V> {
+
+	private final Map<String, V>[] shards;
+
+	private final Set<String>[] wheel;
+
+	private final ToLongFunction<V> evictAtMillis;
+
+	private final long tickMillis;
+
+	private ScheduledExecutorService ticker;
+
+	private long nextTick;
+
+	/**
+	 * @param shardCount    number of independently locked shards
+	 * @param tickMillis    time covered by one wheel slot
+	 * @param wheelSlots    number of wheel slots, entries living longer than a
+	 *                      turn of the wheel are checked again on each turn
+	 * @param evictAtMillis epoch millis after which a value can be evicted
+	 */
+	@SuppressWarnings("unchecked")
+	public ShardedExpiryMap(int shardCount, long tickMillis, int wheelSlots, ToLongFunction<V> evictAtMillis) {
+		this.shards = new Map[shardCount];
+		for (int shard = 0; shard < shardCount; shard++) {
+			shards[shard] = new HashMap<>();
+		}
+		this.wheel = new Set[wheelSlots];
+		for (int slot = 0; slot < wheelSlots; slot++) {
+			wheel[slot] = ConcurrentHashMap.newKeySet();
+		}
+		this.tickMillis = tickMillis;
+		this.evictAtMillis = evictAtMillis;
+		this.nextTick = System.currentTimeMillis() / tickMillis;
+	}
+
+	public synchronized void start(String threadNamePrefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		ticker.scheduleAtFixedRate(() -> expire(System.currentTimeMillis()), tickMillis, tickMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void stop() {
+		if (ticker != null) {
+			ticker.shutdownNow();
+		}
+	}
+
+	/**
+	 * Applies the action to the value of the key, created if absent, under the
+	 * lock of its shard and reschedules the eviction of the key.
+	 */
+	public <R> R compute(String key, Supplier<V> create, Function<V, R> action) {
+		Map<String, V> shard = shard(key);
+		R result;
+		long evictAt;
+		synchronized (shard) {
+			V value = shard.computeIfAbsent(key, absent -> create.get());
+			result = action.apply(value);
+			evictAt = evictAtMillis.applyAsLong(value);
+		}
+		// a key already due is evicted by the next tick
+		long dueAt = Math.max(evictAt, System.currentTimeMillis() + tickMillis);
+		wheel[slot(dueAt / tickMillis)].add(key);
+		return result;
+	}
+
+	/**
+	 * Applies the action to the value of the key under the lock of its shard.
+	 *
+	 * @return the result of the action, or the absent result if the key has no
+	 *         value
+	 */
+	public <R> R computeIfPresent(String key, Function<V, R> action, R absent) {
+		Map<String, V> shard = shard(key);
+		synchronized (shard) {
+			V value = shard.get(key);
+			return value == null ? absent : action.apply(value);
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Map<String, V> shard : shards) {
+			synchronized (shard) {
+				size += shard.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Evicts the due keys of the wheel slots passed since the last call.
+	 */
+	public synchronized void expire(long nowMillis) {
+		long currentTick = nowMillis / tickMillis;
+		for (int turned = 0; nextTick <= currentTick && turned < wheel.length; nextTick++, turned++) {
+			expireSlot(slot(nextTick), nowMillis);
+		}
+		nextTick = Math.max(nextTick, currentTick + 1);
+	}
+
+	private void expireSlot(int slot, long nowMillis) {
+		Iterator<String> keys = wheel[slot].iterator();
+		while (keys.hasNext()) {
+			String key = keys.next();
+			Map<String, V> shard = shard(key);
+			synchronized (shard) {
+				V value = shard.get(key);
+				if (value == null) {
+					keys.remove();
+					continue;
+				}
+				long evictAt = evictAtMillis.applyAsLong(value);
+				if (evictAt <= nowMillis) {
+					shard.remove(key);
+					keys.remove();
+				} else if (slot(evictAt / tickMillis) != slot) {
+					// rescheduled on another slot by a later access
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	private Map<String, V> shard(String key) {
+		return shards[Math.floorMod(key.hashCode(), shards.length)];
+	}
+
+	private int slot(long tick) {
+		return (int) Math.floorMod(tick, (long) wheel.length);
+	}
+}
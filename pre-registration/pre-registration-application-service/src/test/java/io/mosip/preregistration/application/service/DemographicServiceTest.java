@@ -21,6 +21,7 @@ import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -468,6 +469,8 @@ public class DemographicServiceTest {
 		applicationEntity.setSlotFromTime(fDate);
 		applicationEntity.setSlotToTime(tDate);
 		Mockito.when(serviceUtil.findApplicationById(Mockito.any())).thenReturn(applicationEntity);
+		Mockito.when(serviceUtil.findApplicationsByIds(Mockito.any()))
+				.thenReturn(Collections.singletonMap("98746563542672", applicationEntity));
 
 	}
 
@@ -550,8 +553,8 @@ public class DemographicServiceTest {
 		response.setResponse(demographicMetadataDTO);
 		response.setVersion("1.0");
 		Page<DemographicEntity> page = new PageImpl<>(userEntityDetails);
-		Mockito.when(cryptoUtil.decrypt(Mockito.any(), Mockito.any()))
-				.thenReturn(userEntityDetails.get(0).getApplicantDetailJson());
+		Mockito.when(cryptoUtil.bulkDecrypt(Mockito.any(), Mockito.any()))
+				.thenReturn(Collections.singletonList(userEntityDetails.get(0).getApplicantDetailJson()));
 		Mockito.when(demographicRepository.findByCreatedBy(userId, "Consumed")).thenReturn(userEntityDetails);
 		Mockito.when(
 				demographicRepository.findByCreatedByOrderByCreateDateTime(Mockito.any(), Mockito.any(), Mockito.any()))
@@ -570,6 +573,7 @@ public class DemographicServiceTest {
 		MainResponseDTO<DemographicMetadataDTO> actualRes = preRegistrationService.getAllApplicationDetails(userId,
 				"0");
 		assertEquals("1", actualRes.getResponse().getTotalRecords());
+		Mockito.verify(demographicRepository, Mockito.never()).findByCreatedBy(Mockito.any(), Mockito.any());
 
 	}
 
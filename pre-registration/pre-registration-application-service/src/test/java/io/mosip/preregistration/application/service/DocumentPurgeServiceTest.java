@@ -0,0 +1,161 @@
+package io.mosip.preregistration.application.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import io.mosip.preregistration.application.entity.DocumentTombstone;
+import io.mosip.preregistration.application.repository.DocumentDAO;
+import io.mosip.preregistration.application.repository.DocumentTombstoneRepository;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations.ObjectLocation;
+
+@RunWith(JUnit4.class)
+public class DocumentPurgeServiceTest {
+
+	@InjectMocks
+	private DocumentPurgeService documentPurgeService;
+
+	@Mock
+	private DocumentDAO documnetDAO;
+
+	@Mock
+	private DocumentTombstoneRepository documentTombstoneRepository;
+
+	@Mock
+	private ObjectStoreOperations objectStoreOperations;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(documentPurgeService, "objectStoreAccountName", "prereg");
+		ReflectionTestUtils.setField(documentPurgeService, "pollIntervalMillis", 60000L);
+		ReflectionTestUtils.setField(documentPurgeService, "batchSize", 10);
+		ReflectionTestUtils.setField(documentPurgeService, "initialBackoffMillis", 60000L);
+		ReflectionTestUtils.setField(documentPurgeService, "maxBackoffMillis", 600000L);
+		ReflectionTestUtils.setField(documentPurgeService, "claimTimeoutMillis", 300000L);
+		Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+		Mockito.when(documentTombstoneRepository.saveAll(Mockito.any()))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		documentPurgeService.setupPurge();
+	}
+
+	@After
+	public void tearDown() {
+		documentPurgeService.shutdownPurge();
+	}
+
+	@Test
+	public void purgeTest() {
+		List<String> preRegIds = new ArrayList<>();
+		for (int index = 0; index < 1500; index++) {
+			preRegIds.add(String.valueOf(index));
+		}
+		Mockito.when(documnetDAO.deleteAllBypreregIds(Mockito.any())).thenReturn(2);
+
+		assertEquals(4, documentPurgeService.purge(preRegIds, "user"));
+		Mockito.verify(documentTombstoneRepository).insertForApplications(Mockito.eq(preRegIds.subList(0, 1000)),
+				Mockito.eq("user"), Mockito.any());
+		Mockito.verify(documentTombstoneRepository).insertForApplications(Mockito.eq(preRegIds.subList(1000, 1500)),
+				Mockito.eq("user"), Mockito.any());
+		Mockito.verify(documnetDAO).deleteAllBypreregIds(preRegIds.subList(0, 1000));
+		Mockito.verify(documnetDAO).deleteAllBypreregIds(preRegIds.subList(1000, 1500));
+		// objects are removed in the background right after the purge
+		Mockito.verify(documentTombstoneRepository, Mockito.timeout(5000)).findDueForPurge(Mockito.any(),
+				Mockito.eq(10));
+	}
+
+	@Test
+	public void purgeDocumentsTest() {
+		List<String> documentIds = Arrays.asList("1", "2");
+		Mockito.when(documnetDAO.deleteAllBydocumentIds(documentIds)).thenReturn(2);
+
+		assertEquals(2, documentPurgeService.purgeDocuments(documentIds, "user"));
+		Mockito.verify(documentTombstoneRepository).insertForDocuments(Mockito.eq(documentIds), Mockito.eq("user"),
+				Mockito.any());
+		Mockito.verify(documentTombstoneRepository, Mockito.timeout(5000)).findDueForPurge(Mockito.any(),
+				Mockito.eq(10));
+	}
+
+	@Test
+	public void purgeObjectsTest() {
+		DocumentTombstone purged = tombstone("1", "1001", "POA_1");
+		DocumentTombstone failed = tombstone("2", "1002", "POA_2");
+		Mockito.when(documentTombstoneRepository.findDueForPurge(Mockito.any(), Mockito.anyInt()))
+				.thenReturn(list(purged, failed));
+		Map<ObjectLocation, String> failures = new HashMap<>();
+		failures.put(new ObjectLocation("1002", "POA_2"), "SlowDown");
+		Mockito.when(objectStoreOperations.deleteObjects(Mockito.eq("prereg"), Mockito.any())).thenReturn(failures);
+
+		ReflectionTestUtils.invokeMethod(documentPurgeService, "poll");
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Collection<ObjectLocation>> objects = ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(objectStoreOperations).deleteObjects(Mockito.eq("prereg"), objects.capture());
+		assertEquals(2, objects.getValue().size());
+		Mockito.verify(documentTombstoneRepository).deleteByIds(Collections.singletonList("1"));
+		Mockito.verify(documentTombstoneRepository).saveAll(Collections.singletonList(failed));
+		assertNull(purged.getLastError());
+		assertEquals(Integer.valueOf(1), failed.getAttemptCount());
+		assertEquals("SlowDown", failed.getLastError());
+		assertTrue(failed.getNextAttemptDtimes().isAfter(LocalDateTime.now().plusSeconds(50)));
+	}
+
+	@Test
+	public void purgeObjectsBackoffTest() {
+		DocumentTombstone failed = tombstone("2", "1002", "POA_2");
+		failed.setAttemptCount(10);
+		Mockito.when(documentTombstoneRepository.findDueForPurge(Mockito.any(), Mockito.anyInt()))
+				.thenReturn(list(failed));
+		Mockito.when(objectStoreOperations.deleteObjects(Mockito.eq("prereg"), Mockito.any()))
+				.thenReturn(Collections.singletonMap(new ObjectLocation("1002", "POA_2"), null));
+
+		ReflectionTestUtils.invokeMethod(documentPurgeService, "poll");
+
+		assertEquals(Integer.valueOf(11), failed.getAttemptCount());
+		assertEquals("Object not deleted", failed.getLastError());
+		assertTrue(failed.getNextAttemptDtimes().isBefore(LocalDateTime.now().plusSeconds(601)));
+		Mockito.verify(documentTombstoneRepository, Mockito.never()).deleteByIds(Mockito.any());
+	}
+
+	private DocumentTombstone tombstone(String id, String preRegistrationId, String objectName) {
+		DocumentTombstone tombstone = new DocumentTombstone();
+		tombstone.setId(id);
+		tombstone.setPreRegistrationId(preRegistrationId);
+		tombstone.setObjectName(objectName);
+		tombstone.setAttemptCount(0);
+		tombstone.setNextAttemptDtimes(LocalDateTime.now());
+		tombstone.setCrDtimes(LocalDateTime.now());
+		return tombstone;
+	}
+
+	private List<DocumentTombstone> list(DocumentTombstone... tombstones) {
+		return new ArrayList<>(Arrays.asList(tombstones));
+	}
+}
@@ -3,29 +3,39 @@ package io.mosip.preregistration.application.service;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
 import org.joda.time.DateTime;
 import org.json.JSONException;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -33,12 +43,19 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 
 import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
 import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
@@ -46,6 +63,9 @@ import io.mosip.kernel.core.exception.IOException;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.kernel.core.util.exception.JsonMappingException;
 import io.mosip.kernel.core.util.exception.JsonParseException;
+import io.mosip.preregistration.application.code.DocumentStatusMessages;
+import io.mosip.preregistration.application.dto.ApplicationOwnershipDTO;
+import io.mosip.preregistration.application.dto.DocumentContentDTO;
 import io.mosip.preregistration.application.dto.DocumentRequestDTO;
 import io.mosip.preregistration.application.dto.DocumentResponseDTO;
 import io.mosip.preregistration.application.exception.DocumentFailedToCopyException;
@@ -56,8 +76,9 @@ import io.mosip.preregistration.application.exception.RecordFailedToUpdateExcept
 import io.mosip.preregistration.application.exception.RecordNotFoundException;
 import io.mosip.preregistration.application.repository.DocumentDAO;
 import io.mosip.preregistration.application.service.util.DocumentServiceUtil;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations;
+import io.mosip.preregistration.application.service.util.SpooledDocument;
 import io.mosip.preregistration.core.code.RequestCodes;
-import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentDTO;
 import io.mosip.preregistration.core.common.dto.DocumentDeleteResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentMultipartResponseDTO;
@@ -99,6 +120,14 @@ public class DocumentServiceTest {
 	@Mock
 	private ObjectStoreAdapter objectStore;
 
+	@Mock
+	private AmazonS3 s3Connection;
+
+	private ObjectStoreOperations objectStoreOperations;
+
+	@Mock
+	private DocumentPurgeService documentPurgeService;
+
 	@Value("${mosip.preregistration.document.scan}")
 	private Boolean scanDocument;
 
@@ -122,7 +151,7 @@ public class DocumentServiceTest {
 
 	DocumentResponseDTO docResp = new DocumentResponseDTO();
 	DocumentRequestDTO document = new DocumentRequestDTO();
-	DemographicResponseDTO demographicResponseDTO = new DemographicResponseDTO();
+	ApplicationOwnershipDTO demographicResponseDTO = new ApplicationOwnershipDTO();
 	MainResponseDTO<DocumentResponseDTO> responseUpload = new MainResponseDTO<>();
 
 	DocumentRequestDTO documentRequestDTO = new DocumentRequestDTO("RNC", "POA", "eng", "123");
@@ -179,6 +208,17 @@ public class DocumentServiceTest {
 
 		multipartFile = new MockMultipartFile("file", "Doc.pdf", "mixed/multipart", new FileInputStream(file));
 
+		objectStoreOperations = new ObjectStoreOperations();
+		ReflectionTestUtils.setField(objectStoreOperations, "objectStore", objectStore);
+		ReflectionTestUtils.setField(objectStoreOperations, "connection", s3Connection);
+		ReflectionTestUtils.setField(objectStoreOperations, "concurrency", 2);
+		objectStoreOperations.setupOperations();
+		ReflectionTestUtils.setField(documentUploadService, "objectStoreOperations", objectStoreOperations);
+	}
+
+	@After
+	public void tearDown() {
+		objectStoreOperations.shutdownOperations();
 	}
 
 	@Test
@@ -200,8 +240,8 @@ public class DocumentServiceTest {
 		responseDto.setResponse(metadata);
 
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		DemographicResponseDTO obj = new DemographicResponseDTO();
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(obj);
+		ApplicationOwnershipDTO obj = new ApplicationOwnershipDTO();
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(obj);
 		Mockito.when(documnetDAO.findBypreregId(Mockito.any())).thenReturn(documentEntities);
 		MainResponseDTO<DocumentsMetaData> serviceResponseDto = documentUploadService
 				.getAllDocumentForPreId("48690172097498");
@@ -228,8 +268,8 @@ public class DocumentServiceTest {
 		responseDto.setResponse(metadata);
 
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		DemographicResponseDTO obj = new DemographicResponseDTO();
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(obj);
+		ApplicationOwnershipDTO obj = new ApplicationOwnershipDTO();
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(obj);
 		Mockito.when(documnetDAO.findBypreregId(Mockito.any()))
 				.thenThrow(new DocumentNotFoundException("ErrCode", "failed"));
 		MainResponseDTO<DocumentsMetaData> serviceResponseDto = documentUploadService
@@ -251,20 +291,116 @@ public class DocumentServiceTest {
 		Mockito.when(serviceUtil.isValidCatCode(Mockito.any())).thenReturn(true);
 		Mockito.when(documnetDAO.findSingleDocument(Mockito.any(), Mockito.any())).thenReturn(documentEntity);
 
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 
 		Mockito.when(
 				documnetDAO.saveDocument(serviceUtil.documentEntitySetter(Mockito.any(), Mockito.any(), Mockito.any())))
 				.thenReturn(documentEntity);
-		Mockito.when(objectStore.putObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
-				Mockito.any())).thenReturn(true);
 		MainResponseDTO<DocumentResponseDTO> responseDto = documentUploadService.copyDocument("POA", "987654321",
 				"48690172097499");
 		assertEquals(docResp.getDocName(), responseDto.getResponse().getDocName());
 
 	}
 
+	@Test
+	public void copyDocumentToApplicationsTest() throws Exception {
+		Mockito.when(serviceUtil.isValidCatCode(Mockito.any())).thenReturn(true);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documnetDAO.findSingleDocument("987654321", "POA")).thenReturn(documentEntity);
+		Mockito.when(serviceUtil.documentEntitySetter(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenAnswer(invocation -> copyEntity(invocation.getArgument(0)));
+		Mockito.when(documnetDAO.saveDocument(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		MainResponseDTO<List<DocumentResponseDTO>> responseDto = documentUploadService
+				.copyDocumentToApplications("POA", "987654321", Arrays.asList("1001", "1002", "1001"));
+		assertEquals(2, responseDto.getResponse().size());
+		assertEquals("1001", responseDto.getResponse().get(0).getPreRegistrationId());
+		assertEquals("1002", responseDto.getResponse().get(1).getPreRegistrationId());
+		Mockito.verify(s3Connection).copyObject(preRegistrationId, "POA_1", "1001", "POA_1001-doc");
+		Mockito.verify(s3Connection).copyObject(preRegistrationId, "POA_1", "1002", "POA_1002-doc");
+	}
+
+	@Test(expected = FSServerException.class)
+	public void copyDocumentToApplicationsFailureTest() throws Exception {
+		Mockito.when(serviceUtil.isValidCatCode(Mockito.any())).thenReturn(true);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documnetDAO.findSingleDocument("987654321", "POA")).thenReturn(documentEntity);
+		Mockito.when(serviceUtil.documentEntitySetter(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenAnswer(invocation -> copyEntity(invocation.getArgument(0)));
+		Mockito.when(documnetDAO.saveDocument(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+		Mockito.when(s3Connection.copyObject(Mockito.any(), Mockito.any(), Mockito.eq("1002"), Mockito.any()))
+				.thenThrow(new AmazonServiceException("SlowDown"));
+
+		documentUploadService.copyDocumentToApplications("POA", "987654321", Arrays.asList("1001", "1002"));
+	}
+
+	@Test(expected = InvalidRequestException.class)
+	public void copyDocumentToApplicationsInvalidRequestTest() throws Exception {
+		documentUploadService.copyDocumentToApplications("POA", "987654321", Arrays.asList("1001", ""));
+	}
+
+	@Test
+	public void copyDocumentToApplicationsReplacesDocumentTest() throws Exception {
+		DocumentEntity replacedEntity = copyEntity("1001");
+		replacedEntity.setDocumentId("replaced");
+		replacedEntity.setStatusCode("Pending_Appointment");
+		Mockito.when(serviceUtil.isValidCatCode(Mockito.any())).thenReturn(true);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documnetDAO.findSingleDocument("987654321", "POA")).thenReturn(documentEntity);
+		Mockito.when(documnetDAO.findSingleDocument("1001", "POA")).thenReturn(replacedEntity);
+		Mockito.when(serviceUtil.documentEntitySetter(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenAnswer(invocation -> copyEntity(invocation.getArgument(0)));
+		Mockito.when(documnetDAO.saveDocument(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		documentUploadService.copyDocumentToApplications("POA", "987654321", Arrays.asList("1001"));
+		// the copy gets a new document id and the replaced document is purged
+		Mockito.verify(serviceUtil).documentEntitySetter("1001", documentEntity, null);
+		Mockito.verify(documentPurgeService).purgeDocuments(Mockito.eq(Arrays.asList("replaced")), Mockito.any());
+	}
+
+	@Test
+	public void copyDocumentToApplicationsRollbackTest() throws Exception {
+		Mockito.when(serviceUtil.isValidCatCode(Mockito.any())).thenReturn(true);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documnetDAO.findSingleDocument("987654321", "POA")).thenReturn(documentEntity);
+		Mockito.when(serviceUtil.documentEntitySetter(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenAnswer(invocation -> copyEntity(invocation.getArgument(0)));
+		Mockito.when(documnetDAO.saveDocument(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+		Mockito.when(s3Connection.copyObject(Mockito.any(), Mockito.any(), Mockito.eq("1002"), Mockito.any()))
+				.thenThrow(new AmazonServiceException("SlowDown"));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			try {
+				documentUploadService.copyDocumentToApplications("POA", "987654321", Arrays.asList("1001", "1002"));
+			} catch (FSServerException ex) {
+				// rolls back the transaction
+			}
+			TransactionSynchronizationManager.getSynchronizations().forEach(
+					synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		Mockito.verify(s3Connection, Mockito.times(2)).deleteObjects(requests.capture());
+		Set<String> deleted = new HashSet<>();
+		requests.getAllValues().forEach(request -> deleted
+				.add(request.getBucketName() + "/" + request.getKeys().get(0).getKey()));
+		assertEquals(new HashSet<>(Arrays.asList("1001/POA_1001-doc", "1002/POA_1002-doc")), deleted);
+	}
+
+	private DocumentEntity copyEntity(String destinationPreId) {
+		DemographicEntity destination = new DemographicEntity();
+		destination.setPreRegistrationId(destinationPreId);
+		DocumentEntity copyDocumentEntity = new DocumentEntity();
+		copyDocumentEntity.setDemographicEntity(destination);
+		copyDocumentEntity.setDocumentId(destinationPreId + "-doc");
+		copyDocumentEntity.setDocCatCode("POA");
+		copyDocumentEntity.setDocName("Doc.pdf");
+		return copyDocumentEntity;
+	}
+
 	@Test(expected = InvalidRequestException.class)
 	public void InvalidRequestParameterExceptionTest1() throws Exception {
 		documentUploadService.copyDocument("POA", "", "48690172097499");
@@ -306,7 +442,7 @@ public class DocumentServiceTest {
 
 	@Test(expected = RecordFailedToUpdateException.class)
 	public void createDocRecordFailedToUpdateExceptionTest() throws Exception {
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		Mockito.when(documnetDAO.findSingleDocument(Mockito.any(), Mockito.any())).thenReturn(documentEntity);
 		Mockito.when(validationutil.isStatusBookedOrExpired(documentEntity.getDemographicEntity().getStatusCode()))
 				.thenReturn(true);
@@ -315,7 +451,7 @@ public class DocumentServiceTest {
 
 	@Test(expected = FSServerException.class)
 	public void createDocFSServerExceptionTest() throws Exception {
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		Mockito.when(documnetDAO.findSingleDocument(Mockito.any(), Mockito.any())).thenReturn(documentEntity);
 		Mockito.when(validationutil.isStatusBookedOrExpired(documentEntity.getDemographicEntity().getStatusCode()))
 				.thenReturn(false);
@@ -325,7 +461,8 @@ public class DocumentServiceTest {
 		InputStream sourceFile = new FileInputStream(file);
 
 		byte[] cephBytes = IOUtils.toByteArray(sourceFile);
-		Mockito.when(cryptoUtil.encrypt(Mockito.any(), Mockito.any())).thenReturn(cephBytes);
+		Mockito.when(serviceUtil.encryptDocument(Mockito.any(), Mockito.any())).thenReturn(
+				new SpooledDocument(Files.write(Files.createTempFile("doc", ".enc"), cephBytes), "hash"));
 
 		Mockito.when(documnetDAO.saveDocument(Mockito.any())).thenReturn(documentEntity);
 
@@ -339,7 +476,7 @@ public class DocumentServiceTest {
 	public void createDocTest() throws Exception {
 
 		docResp.setDocName("Doc.pdf");
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		Mockito.when(documnetDAO.findSingleDocument(Mockito.any(), Mockito.any())).thenReturn(documentEntity);
 		Mockito.when(validationutil.isStatusBookedOrExpired(documentEntity.getDemographicEntity().getStatusCode()))
 				.thenReturn(false);
@@ -349,7 +486,8 @@ public class DocumentServiceTest {
 		InputStream sourceFile = new FileInputStream(file);
 
 		byte[] cephBytes = IOUtils.toByteArray(sourceFile);
-		Mockito.when(cryptoUtil.encrypt(Mockito.any(), Mockito.any())).thenReturn(cephBytes);
+		Mockito.when(serviceUtil.encryptDocument(Mockito.any(), Mockito.any())).thenReturn(
+				new SpooledDocument(Files.write(Files.createTempFile("doc", ".enc"), cephBytes), "hash"));
 
 		Mockito.when(documnetDAO.saveDocument(Mockito.any())).thenReturn(documentEntity);
 
@@ -370,6 +508,8 @@ public class DocumentServiceTest {
 		copyDocumentEntity.setDocCatCode("POA");
 		copyDocumentEntity.setDocId("1");
 		copyDocumentEntity.setDemographicEntity(demographicEntity);
+		Mockito.when(s3Connection.copyObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenThrow(new AmazonServiceException("SlowDown"));
 		documentUploadService.copyFile(copyDocumentEntity, "sourseName", "key");
 	}
 
@@ -400,7 +540,7 @@ public class DocumentServiceTest {
 	@Test(expected = InvalidDocumentIdExcepion.class)
 	public void invalidDocumentIdExcepionTest() {
 
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 		MainResponseDTO<DocumentDeleteResponseDTO> responseDto = documentUploadService.deleteDocument(documentId,
@@ -411,7 +551,7 @@ public class DocumentServiceTest {
 	@Test(expected = FSServerException.class)
 	public void deleteDocumentFSServerExceptionTest() {
 		demographicResponseDTO.setStatusCode("Pending_Appointment");
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 		Mockito.when(documnetDAO.deleteAllBydocumentId(documentId)).thenReturn(1);
@@ -431,7 +571,7 @@ public class DocumentServiceTest {
 		Mockito.when(
 				objectStore.deleteObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
 				.thenReturn(true);
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 		Mockito.when(documnetDAO.deleteAllBydocumentId(documentId)).thenReturn(1);
@@ -442,12 +582,62 @@ public class DocumentServiceTest {
 		assertEquals(responseDto.getResponse().getMessage(), responsedelete.getResponse().getMessage());
 	}
 
+	@Test
+	public void getDocumentContentTest() {
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
+		DocumentContentDTO documentContent = documentUploadService.getDocumentContent(documentId, preRegistrationId);
+		assertEquals(documentEntity.getDocHash(), documentContent.getDocHash());
+		assertEquals(preRegistrationId, documentContent.getPreRegistrationId());
+	}
+
+	@Test(expected = InvalidDocumentIdExcepion.class)
+	public void getDocumentContentInvalidDocumentIdTest() {
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
+		documentUploadService.getDocumentContent(documentId, "1234567890");
+	}
+
+	@Test
+	public void writeDocumentContentTest() throws Exception {
+		byte[] cephBytes = IOUtils.toByteArray(new FileInputStream(file));
+		mockStoredDocument(cephBytes);
+		Mockito.doAnswer(invocation -> {
+			((OutputStream) invocation.getArgument(2)).write("decrypted".getBytes());
+			return null;
+		}).when(cryptoUtil).decrypt(Mockito.any(InputStreamSource.class), Mockito.any(), Mockito.any());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		documentUploadService.writeDocumentContent(new DocumentContentDTO(documentId, preRegistrationId, "Doc.pdf",
+				"POA", HashUtill.hashUtill(cephBytes), LocalDateTime.now()), output);
+		assertEquals("decrypted", output.toString());
+	}
+
+	@Test(expected = PreRegistrationException.class)
+	public void writeDocumentContentHashMismatchTest() throws Exception {
+		mockStoredDocument("tampered".getBytes());
+		try {
+			documentUploadService.writeDocumentContent(new DocumentContentDTO(documentId, preRegistrationId,
+					"Doc.pdf", "POA", "hash", LocalDateTime.now()), new ByteArrayOutputStream());
+		} finally {
+			Mockito.verify(cryptoUtil, Mockito.never()).decrypt(Mockito.any(InputStreamSource.class), Mockito.any(),
+					Mockito.any());
+		}
+	}
+
+	private void mockStoredDocument(byte[] storedBytes) throws Exception {
+		Mockito.when(objectStore.getObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenReturn(new ByteArrayInputStream(storedBytes));
+		Mockito.when(serviceUtil.spoolDocument(Mockito.any())).thenReturn(new SpooledDocument(
+				Files.write(Files.createTempFile("doc", ".enc"), storedBytes), HashUtill.hashUtill(storedBytes)));
+	}
+
 	@Test(expected = InvalidDocumentIdExcepion.class)
 	public void getDocumentForDocIdInvalidDocumentIdExcepionTest() {
 
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		DemographicResponseDTO obj = new DemographicResponseDTO();
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(obj);
+		ApplicationOwnershipDTO obj = new ApplicationOwnershipDTO();
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(obj);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 
 		documentUploadService.getDocumentForDocId("", "");
@@ -457,8 +647,8 @@ public class DocumentServiceTest {
 	public void getDocumentForDocIdFSServerExceptionTest() {
 
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		DemographicResponseDTO obj = new DemographicResponseDTO();
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(obj);
+		ApplicationOwnershipDTO obj = new ApplicationOwnershipDTO();
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(obj);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 
 		documentUploadService.getDocumentForDocId("", "48690172097498");
@@ -468,8 +658,8 @@ public class DocumentServiceTest {
 	public void getDocumentForDocIdSuccessTest() throws FileNotFoundException {
 
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		DemographicResponseDTO obj = new DemographicResponseDTO();
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(obj);
+		ApplicationOwnershipDTO obj = new ApplicationOwnershipDTO();
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(obj);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 		InputStream sourceFile = new FileInputStream(file);
 
@@ -483,8 +673,8 @@ public class DocumentServiceTest {
 	public void getDocumentForDocIdPreRegistrationExceptionTest() throws FileNotFoundException {
 		documentEntity.setDocHash("123");
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		DemographicResponseDTO obj = new DemographicResponseDTO();
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(obj);
+		ApplicationOwnershipDTO obj = new ApplicationOwnershipDTO();
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(obj);
 		Mockito.when(documnetDAO.findBydocumentId(Mockito.any())).thenReturn(documentEntity);
 		InputStream sourceFile = new FileInputStream(file);
 		Mockito.when(objectStore.getObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
@@ -526,7 +716,7 @@ public class DocumentServiceTest {
 		deleteRes.setId("1");
 		deleteRes.setVersion("12");
 		Mockito.when(validationutil.requstParamValidator(Mockito.any())).thenReturn(true);
-		Mockito.when(serviceUtil.getPreRegInfoRestService(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
 		assertNotNull(documentUploadService.deleteAllByPreId(preRegistrationId));
 	}
 
@@ -541,6 +731,23 @@ public class DocumentServiceTest {
 		assertNotNull(documentUploadService.deleteFile(documentEntityList, preRegistrationId));
 	}
 
+	@Test
+	public void deleteAllByPreIdsTest() {
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		Mockito.when(documentPurgeService.purge(Mockito.any(), Mockito.any())).thenReturn(3);
+		MainResponseDTO<DocumentDeleteResponseDTO> deleteRes = documentUploadService
+				.deleteAllByPreIds(Arrays.asList("1001", "1002", "1001"));
+		assertEquals(DocumentStatusMessages.ALL_DOCUMENT_DELETE_SUCCESSFUL.getMessage(),
+				deleteRes.getResponse().getMessage());
+		Mockito.verify(documentPurgeService).purge(new LinkedHashSet<>(Arrays.asList("1001", "1002")), null);
+	}
+
+	@Test(expected = DocumentNotFoundException.class)
+	public void deleteAllByPreIdsNotFoundTest() {
+		Mockito.when(serviceUtil.getPreRegOwnership(Mockito.any())).thenReturn(demographicResponseDTO);
+		documentUploadService.deleteAllByPreIds(Arrays.asList("1001"));
+	}
+
 	@Test
 	public void uploadDocument1Test()
 			throws JsonParseException, JsonMappingException, IOException, JSONException, ParseException {
@@ -0,0 +1,119 @@
+package io.mosip.preregistration.application.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.preregistration.application.constant.PreRegLoginConstant;
+import io.mosip.preregistration.application.entity.OtpTransaction;
+import io.mosip.preregistration.application.util.ShardedExpiryMap;
+
+@RunWith(JUnit4.class)
+public class InMemoryOtpStoreTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+	@InjectMocks
+	private InMemoryOtpStore otpStore;
+
+	@Mock
+	private OtpAuditService otpAuditService;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(otpStore, "floodingMinutes", 1L);
+		ReflectionTestUtils.setField(otpStore, "floodingMaxCount", 3);
+		ReflectionTestUtils.setField(otpStore, "shardCount", 4);
+		ReflectionTestUtils.setField(otpStore, "tickMillis", 1000L);
+		ReflectionTestUtils.setField(otpStore, "wheelSlots", 3600);
+		ReflectionTestUtils.setField(otpStore, "expiredRetentionSeconds", 600L);
+		otpStore.setupStore();
+	}
+
+	@After
+	public void tearDown() {
+		otpStore.shutdownStore();
+	}
+
+	@Test
+	public void tryAcquireRequestSlidingWindowTest() {
+		assertTrue(otpStore.tryAcquireRequest("ref", NOW));
+		assertTrue(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(10)));
+		assertTrue(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(20)));
+		assertFalse(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(30)));
+		assertTrue(otpStore.tryAcquireRequest("other", NOW.plusSeconds(30)));
+		assertTrue(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(75)));
+		// a third into the next window two thirds of the last window still count
+		assertFalse(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(80)));
+		assertTrue(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(110)));
+		assertTrue(otpStore.tryAcquireRequest("ref", NOW.plusSeconds(300)));
+	}
+
+	@Test
+	public void saveAndConsumeOnceTest() {
+		LocalDateTime expiry = NOW.plusMinutes(3);
+		assertTrue(otpStore.saveIfNoActiveOtp("1", "ref", "hash", NOW, expiry, "client"));
+		assertTrue(otpStore.hasActiveOtp("ref", NOW));
+		assertFalse(otpStore.saveIfNoActiveOtp("2", "ref", "other", NOW, expiry, "client"));
+
+		assertNull(otpStore.consumeActiveOtp("ref", "wrong", NOW, "client"));
+		assertEquals(expiry, otpStore.consumeActiveOtp("ref", "hash", NOW, "client"));
+		assertNull(otpStore.consumeActiveOtp("ref", "hash", NOW, "client"));
+		assertFalse(otpStore.hasActiveOtp("ref", NOW));
+
+		ArgumentCaptor<OtpTransaction> audited = ArgumentCaptor.forClass(OtpTransaction.class);
+		Mockito.verify(otpAuditService, Mockito.times(2)).publish(audited.capture());
+		assertEquals(PreRegLoginConstant.ACTIVE_STATUS, audited.getAllValues().get(0).getStatusCode());
+		assertEquals("1", audited.getAllValues().get(1).getId());
+		assertEquals(PreRegLoginConstant.USED_STATUS, audited.getAllValues().get(1).getStatusCode());
+	}
+
+	@Test
+	public void expiredOtpTest() {
+		LocalDateTime expiry = NOW.plusMinutes(3);
+		assertTrue(otpStore.saveIfNoActiveOtp("1", "ref", "hash", NOW, expiry, "client"));
+		LocalDateTime later = expiry.plusSeconds(1);
+		assertFalse(otpStore.hasActiveOtp("ref", later));
+		// the expired OTP is still consumed once so its validation fails as expired
+		assertEquals(expiry, otpStore.consumeActiveOtp("ref", "hash", later, "client"));
+
+		assertTrue(otpStore.saveIfNoActiveOtp("2", "ref", "hash", later, later.plusMinutes(3), "client"));
+		assertTrue(otpStore.saveIfNoActiveOtp("3", "ref", "other", later.plusMinutes(4), later.plusMinutes(7),
+				"client"));
+		assertNull(otpStore.consumeActiveOtp("ref", "hash", later.plusMinutes(4), "client"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void evictionTest() {
+		LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+		otpStore.tryAcquireRequest("ref", now);
+		otpStore.saveIfNoActiveOtp("1", "ref", "hash", now, now.plusMinutes(3), "client");
+		ShardedExpiryMap<?> entries = (ShardedExpiryMap<?>) ReflectionTestUtils.getField(otpStore, "entries");
+		long nowMillis = now.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+		entries.expire(nowMillis + 60_000);
+		assertEquals(1, entries.size());
+		// past the retention of the expired OTP
+		entries.expire(nowMillis + 14 * 60_000);
+		assertEquals(0, entries.size());
+		assertFalse(otpStore.hasActiveOtp("ref", now));
+	}
+}
@@ -0,0 +1,181 @@
+package io.mosip.preregistration.application.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.client.RestClientException;
+
+import io.mosip.preregistration.application.code.NotificationOutboxStatus;
+import io.mosip.preregistration.application.code.NotificationRequestCodes;
+import io.mosip.preregistration.application.entity.NotificationOutbox;
+import io.mosip.preregistration.application.repository.NotificationOutboxRepository;
+import io.mosip.preregistration.core.common.dto.NotificationDTO;
+import io.mosip.preregistration.core.util.NotificationUtil;
+
+@RunWith(JUnit4.class)
+public class NotificationOutboxServiceTest {
+
+	@InjectMocks
+	private NotificationOutboxService notificationOutboxService;
+
+	@Mock
+	private NotificationUtil notificationUtil;
+
+	@Mock
+	private NotificationOutboxRepository notificationOutboxRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(notificationOutboxService, "pollIntervalMillis", 60000L);
+		ReflectionTestUtils.setField(notificationOutboxService, "batchSize", 10);
+		ReflectionTestUtils.setField(notificationOutboxService, "smsConcurrency", 1);
+		ReflectionTestUtils.setField(notificationOutboxService, "emailConcurrency", 1);
+		ReflectionTestUtils.setField(notificationOutboxService, "maxAttempts", 2);
+		ReflectionTestUtils.setField(notificationOutboxService, "initialBackoffMillis", 60000L);
+		ReflectionTestUtils.setField(notificationOutboxService, "maxBackoffMillis", 600000L);
+		ReflectionTestUtils.setField(notificationOutboxService, "claimTimeoutMillis", 300000L);
+		ReflectionTestUtils.setField(notificationOutboxService, "retentionHours", 168L);
+		ReflectionTestUtils.setField(notificationOutboxService, "purgeIntervalMillis", 60000L);
+		Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+		Mockito.when(notificationOutboxRepository.saveAll(ArgumentMatchers.any()))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		notificationOutboxService.setupOutbox();
+	}
+
+	@After
+	public void tearDown() {
+		notificationOutboxService.shutdownOutbox();
+	}
+
+	@Test
+	public void enqueueEmailTest() throws Exception {
+		NotificationDTO notificationDto = new NotificationDTO();
+		notificationDto.setPreRegistrationId("1234567890");
+		notificationDto.setEmailID("test@test.com");
+		Mockito.when(notificationUtil.getEmailSubjectByType(notificationDto)).thenReturn("Subject");
+		Mockito.when(notificationUtil.getEmailContent(notificationDto)).thenReturn("Content");
+
+		notificationOutboxService.enqueue(NotificationRequestCodes.EMAIL.getCode(), notificationDto, "user");
+
+		ArgumentCaptor<NotificationOutbox> captor = ArgumentCaptor.forClass(NotificationOutbox.class);
+		Mockito.verify(notificationOutboxRepository).save(captor.capture());
+		NotificationOutbox notification = captor.getValue();
+		assertEquals("test@test.com", notification.getRecipient());
+		assertEquals("Subject", notification.getSubject());
+		assertEquals("Content", notification.getContent());
+		assertEquals(NotificationOutboxStatus.PENDING.getCode(), notification.getStatusCode());
+		assertEquals(Integer.valueOf(0), notification.getAttemptCount());
+		Mockito.verify(notificationUtil, Mockito.never()).sendEmail(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any());
+	}
+
+	@Test
+	public void deliverSmsTest() {
+		NotificationOutbox notification = pendingSms(0);
+		Mockito.when(notificationOutboxRepository.findDueForDelivery(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyInt())).thenReturn(list(notification));
+
+		ReflectionTestUtils.invokeMethod(notificationOutboxService, "poll");
+
+		Mockito.verify(notificationOutboxRepository, Mockito.timeout(5000)).save(notification);
+		Mockito.verify(notificationUtil).sendSms("9876543210", "Message");
+		assertEquals(NotificationOutboxStatus.SENT.getCode(), notification.getStatusCode());
+		assertNull(notification.getLastError());
+		assertNull(notification.getRecipient());
+		assertNull(notification.getContent());
+	}
+
+	@Test
+	public void deliverRetryWithBackoffTest() {
+		NotificationOutbox notification = pendingSms(0);
+		Mockito.when(notificationOutboxRepository.findDueForDelivery(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyInt())).thenReturn(list(notification));
+		Mockito.when(notificationUtil.sendSms(Mockito.any(), Mockito.any()))
+				.thenThrow(new RestClientException("notifier down"));
+
+		ReflectionTestUtils.invokeMethod(notificationOutboxService, "poll");
+
+		Mockito.verify(notificationOutboxRepository, Mockito.timeout(5000)).save(notification);
+		assertEquals(NotificationOutboxStatus.PENDING.getCode(), notification.getStatusCode());
+		assertEquals(Integer.valueOf(1), notification.getAttemptCount());
+		assertEquals("notifier down", notification.getLastError());
+		assertTrue(notification.getNextAttemptDtimes().isAfter(LocalDateTime.now().plusSeconds(50)));
+		assertEquals("9876543210", notification.getRecipient());
+		assertEquals("Message", notification.getContent());
+	}
+
+	@Test
+	public void deliverAttemptsExhaustedTest() {
+		NotificationOutbox notification = pendingSms(1);
+		Mockito.when(notificationOutboxRepository.findDueForDelivery(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyInt())).thenReturn(list(notification));
+		Mockito.when(notificationUtil.sendSms(Mockito.any(), Mockito.any()))
+				.thenThrow(new RestClientException("notifier down"));
+
+		ReflectionTestUtils.invokeMethod(notificationOutboxService, "poll");
+
+		Mockito.verify(notificationOutboxRepository, Mockito.timeout(5000)).save(notification);
+		assertEquals(NotificationOutboxStatus.FAILED.getCode(), notification.getStatusCode());
+		assertEquals(Integer.valueOf(2), notification.getAttemptCount());
+		assertNull(notification.getRecipient());
+		assertNull(notification.getContent());
+	}
+
+	@Test
+	public void purgeCompletedTest() {
+		Mockito.when(notificationOutboxRepository.deleteCompleted(Mockito.any(), Mockito.any(), Mockito.anyInt()))
+				.thenReturn(1000, 10);
+
+		ReflectionTestUtils.invokeMethod(notificationOutboxService, "purgeCompleted");
+
+		ArgumentCaptor<LocalDateTime> updatedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+		Mockito.verify(notificationOutboxRepository, Mockito.times(2)).deleteCompleted(
+				Mockito.eq(Arrays.asList(NotificationOutboxStatus.SENT.getCode(),
+						NotificationOutboxStatus.FAILED.getCode())),
+				updatedBefore.capture(), Mockito.eq(1000));
+		assertTrue(updatedBefore.getValue().isBefore(LocalDateTime.now().minusHours(167)));
+	}
+
+	private NotificationOutbox pendingSms(int attemptCount) {
+		NotificationOutbox notification = new NotificationOutbox();
+		notification.setId("id");
+		notification.setChannel(NotificationRequestCodes.SMS.getCode());
+		notification.setRecipient("9876543210");
+		notification.setContent("Message");
+		notification.setStatusCode(NotificationOutboxStatus.PENDING.getCode());
+		notification.setAttemptCount(attemptCount);
+		notification.setCrDtimes(LocalDateTime.now());
+		notification.setNextAttemptDtimes(LocalDateTime.now());
+		return notification;
+	}
+
+	private List<NotificationOutbox> list(NotificationOutbox notification) {
+		List<NotificationOutbox> notifications = new ArrayList<>();
+		notifications.add(notification);
+		return notifications;
+	}
+}
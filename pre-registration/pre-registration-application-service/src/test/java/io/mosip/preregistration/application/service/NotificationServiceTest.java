@@ -91,6 +91,9 @@ public class NotificationServiceTest {
 	@Mock
 	private NotificationUtil notificationUtil;
 
+	@Mock
+	private NotificationOutboxService notificationOutboxService;
+
 	@Mock
 	private ValidationUtil validationUtil;
 
@@ -33,9 +33,7 @@ import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.preregistration.application.constant.PreRegLoginConstant;
 import io.mosip.preregistration.application.dto.OtpRequestDTO;
-import io.mosip.preregistration.application.entity.OtpTransaction;
 import io.mosip.preregistration.application.exception.PreRegLoginException;
-import io.mosip.preregistration.application.repository.OtpTxnRepository;
 import io.mosip.preregistration.application.service.util.NotificationServiceUtil;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
 import junit.framework.Assert;
@@ -52,6 +50,7 @@ public class OTPManagerTest {
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);	
 		ReflectionTestUtils.setField(otpManager, "sendOtpResourceUrl", "home");
+		Mockito.when(otpStore.tryAcquireRequest(Mockito.any(), Mockito.any())).thenReturn(true);
 		
 	}
 	
@@ -81,7 +80,7 @@ public class OTPManagerTest {
 	private Environment environment;
 
 	@Mock
-	private OtpTxnRepository otpRepo;
+	private OtpStore otpStore;
 	
 	@Test(expected = PreRegLoginException.class)
 	public void testsendOtpPreRegLoginException() throws IOException {
@@ -198,6 +197,8 @@ public class OTPManagerTest {
 		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)).thenReturn(1800L);
 		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Integer.class)).thenReturn(60);
 		Mockito.when(environment.getProperty("mosip.notification.timezone")).thenReturn("GMT+05:30");
+		Mockito.when(otpStore.saveIfNoActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any())).thenReturn(true);
 		assertTrue(otpManager.sendOtp(requestDTO,channelType,language));
 	}
 	
@@ -217,11 +218,8 @@ public class OTPManagerTest {
 				"  \"status\":\"Success\"\r\n" + 
 				"  }\r\n" + 
 				"}",headers, HttpStatus.ACCEPTED);
-		Mockito.when(otpRepo.existsByOtpHashAndStatusCode(Mockito.any(), Mockito.any()))
-        .thenReturn(true);
-		OtpTransaction otpTxn = new OtpTransaction();
-		Mockito.when(otpRepo.findByOtpHashAndStatusCode(Mockito.any(), Mockito.any()))
-        .thenReturn(otpTxn);
+		Mockito.when(otpStore.saveIfNoActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any())).thenReturn(true);
 		
 		Mockito.when(restTemplate.exchange( Mockito.eq("home/authenticate/clientidsecretkey"),
                 ArgumentMatchers.any(HttpMethod.class),
@@ -247,6 +245,8 @@ public class OTPManagerTest {
 		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)).thenReturn(1800L);
 		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Integer.class)).thenReturn(60);
 		Mockito.when(environment.getProperty("mosip.notification.timezone")).thenReturn("GMT+05:30");
+		Mockito.when(otpStore.saveIfNoActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any())).thenReturn(true);
 		assertTrue(otpManager.sendOtp(requestDTO,channelType,language));
 	}
 	
@@ -317,33 +317,66 @@ public class OTPManagerTest {
 		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)).thenReturn(1800L);
 		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Integer.class)).thenReturn(60);
 		Mockito.when(environment.getProperty("mosip.notification.timezone")).thenReturn("GMT+05:30");
+		Mockito.when(otpStore.saveIfNoActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any())).thenReturn(true);
 		assertTrue(otpManager.sendOtp(requestDTO,channelType,language));
 		}
 	
+	@Test(expected = PreRegLoginException.class)
+	public void testsendOtpAlreadySent() throws IOException {
+		MainRequestDTO<OtpRequestDTO> requestDTO = new MainRequestDTO<OtpRequestDTO>();
+		OtpRequestDTO request = new OtpRequestDTO();
+		request.setUserId("user@mail.com");
+		requestDTO.setRequest(request);
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("status", "USER_NOT_BLOCKED");
+		map.put("otp", "123456");
+		ResponseWrapper<Map<String, String>> responseMap = new ResponseWrapper<>();
+		responseMap.setResponse(map);
+		Mockito.when(environment.getProperty(Mockito.any())).thenReturn("https://dev.mosip.net/v1/otpmanager/otp/generate");
+		Mockito.when(restTemplate.exchange(ArgumentMatchers.anyString(), ArgumentMatchers.any(HttpMethod.class),
+				ArgumentMatchers.any(), Mockito.eq(ResponseWrapper.class)))
+				.thenReturn(new ResponseEntity<>(responseMap, HttpStatus.ACCEPTED));
+		Mockito.when(environment.getProperty(PreRegLoginConstant.MOSIP_KERNEL_OTP_EXPIRY_TIME, Long.class)).thenReturn(1800L);
+		// another request saved an active OTP after the check
+		Mockito.when(otpStore.saveIfNoActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.any())).thenReturn(false);
+		otpManager.sendOtp(requestDTO, "email", null);
+	}
+
+	@Test(expected = PreRegLoginException.class)
+	public void testsendOtpRequestFlooded() throws IOException {
+		MainRequestDTO<OtpRequestDTO> requestDTO = new MainRequestDTO<OtpRequestDTO>();
+		OtpRequestDTO request = new OtpRequestDTO();
+		request.setUserId("user@mail.com");
+		requestDTO.setRequest(request);
+		Mockito.when(otpStore.tryAcquireRequest(Mockito.any(), Mockito.any())).thenReturn(false);
+		try {
+			otpManager.sendOtp(requestDTO, "email", null);
+		} finally {
+			Mockito.verify(restTemplate, Mockito.never()).exchange(ArgumentMatchers.anyString(),
+					ArgumentMatchers.any(HttpMethod.class), ArgumentMatchers.any(), Mockito.eq(ResponseWrapper.class));
+		}
+	}
+
 	@Test
 	public void testvalidateOtpSuccess(){
-		assertFalse(otpManager.validateOtp(null,null));
+		assertFalse(otpManager.validateOtp(null,"user@mail.com"));
 	}
 	
 	@Test(expected=PreRegLoginException.class)
 	public void testvalidateOtpPreRegLoginException(){
-		Mockito.when(otpRepo.existsByOtpHashAndStatusCode(Mockito.any(), Mockito.any())).thenReturn(true);
-		OtpTransaction otpTxn = new OtpTransaction();
-		otpTxn.setExpiryDtimes(DateUtils.getUTCCurrentDateTime());
-		Mockito.when(otpRepo.findByOtpHashAndStatusCode(Mockito.any(), Mockito.any()))
-        .thenReturn(otpTxn);
-		otpManager.validateOtp(null,null);
+		Mockito.when(otpStore.consumeActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenReturn(DateUtils.getUTCCurrentDateTime());
+		otpManager.validateOtp(null,"user@mail.com");
 	}
 	
 	@Test
 	public void testvalidateOtpSuccess2(){
-		Mockito.when(otpRepo.existsByOtpHashAndStatusCode(Mockito.any(), Mockito.any())).thenReturn(true);
-		OtpTransaction otpTxn = new OtpTransaction();
 		LocalDateTime a = LocalDateTime.of(2028, 2, 13, 15, 56);    
 	    
-		otpTxn.setExpiryDtimes(a);
-		Mockito.when(otpRepo.findByOtpHashAndStatusCode(Mockito.any(), Mockito.any()))
-        .thenReturn(otpTxn);
-		assertTrue(otpManager.validateOtp(null,null));
+		Mockito.when(otpStore.consumeActiveOtp(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenReturn(a);
+		assertTrue(otpManager.validateOtp(null,"user@mail.com"));
 	}
 }
@@ -0,0 +1,274 @@
+package io.mosip.preregistration.application.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
+import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
+import io.mosip.preregistration.application.code.NotificationRequestCodes;
+import io.mosip.preregistration.application.dto.ApplicationOwnershipDTO;
+import io.mosip.preregistration.application.dto.DocumentRequestDTO;
+import io.mosip.preregistration.application.dto.DocumentResponseDTO;
+import io.mosip.preregistration.application.dto.NotificationResponseDTO;
+import io.mosip.preregistration.application.repository.DocumentDAO;
+import io.mosip.preregistration.application.service.util.DocumentServiceUtil;
+import io.mosip.preregistration.application.service.util.SpooledDocument;
+import io.mosip.preregistration.application.service.util.NotificationServiceUtil;
+import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
+import io.mosip.preregistration.core.common.dto.MainRequestDTO;
+import io.mosip.preregistration.core.common.dto.MainResponseDTO;
+import io.mosip.preregistration.core.common.dto.NotificationDTO;
+import io.mosip.preregistration.core.common.entity.DemographicEntity;
+import io.mosip.preregistration.core.common.entity.DocumentEntity;
+import io.mosip.preregistration.core.util.AuditLogUtil;
+import io.mosip.preregistration.core.util.CryptoUtil;
+import io.mosip.preregistration.core.util.NotificationUtil;
+import io.mosip.preregistration.core.util.ValidationUtil;
+
+/**
+ * Fires notifications and document uploads from many threads against the same
+ * service instances and checks that every response belongs to its own
+ * request.
+ */
+@RunWith(JUnit4.class)
+public class RequestStateConcurrencyTest {
+
+	private static final int THREADS = 16;
+
+	private static final int REQUESTS = 400;
+
+	private static final String NOTIFICATION_ID = "mosip.pre-registration.notification.notify";
+
+	private static final String UPLOAD_ID = "mosip.pre-registration.document.upload";
+
+	@InjectMocks
+	private NotificationService notificationService;
+
+	@InjectMocks
+	private DocumentService documentService;
+
+	@Mock
+	private NotificationUtil notificationUtil;
+
+	@Mock
+	private NotificationServiceUtil notificationServiceUtil;
+
+	@Mock
+	private NotificationOutboxService notificationOutboxService;
+
+	@Mock
+	private DemographicServiceIntf demographicServiceIntf;
+
+	@Mock
+	private DocumentServiceUtil documentServiceUtil;
+
+	@Mock
+	private DocumentDAO documentDAO;
+
+	@Mock
+	private ObjectStoreAdapter objectStore;
+
+	@Mock
+	private CryptoUtil cryptoUtil;
+
+	@Mock
+	private ValidationUtil validationUtil;
+
+	@Mock
+	private AuditLogUtil auditLogUtil;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(notificationService, "Id", NOTIFICATION_ID);
+		ReflectionTestUtils.setField(notificationService, "version", "1.0");
+		ReflectionTestUtils.setField(notificationService, "identity", "identity");
+		ReflectionTestUtils.setField(notificationService, "email", "email");
+		ReflectionTestUtils.setField(notificationService, "phone", "phone");
+		notificationService.setupBookingService();
+		ReflectionTestUtils.setField(documentService, "uploadId", UPLOAD_ID);
+		ReflectionTestUtils.setField(documentService, "ver", "1.0");
+		ReflectionTestUtils.setField(documentService, "scanDocument", false);
+		ReflectionTestUtils.setField(documentService, "objectStoreAccountName", "prereg");
+		documentService.setupRequiredRequestMap();
+
+		Mockito.when(validationUtil.prepareRequestMap(Mockito.any())).thenAnswer(invocation -> {
+			MainRequestDTO<?> request = invocation.getArgument(0);
+			Map<String, String> requestMap = new HashMap<>();
+			requestMap.put("id", request.getId());
+			requestMap.put("version", request.getVersion());
+			return requestMap;
+		});
+		Mockito.when(validationUtil.requestValidator(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+			Map<String, String> requestMap = invocation.getArgument(0);
+			Map<String, String> requiredRequestMap = invocation.getArgument(1);
+			return requestMap.get("id").equals(requiredRequestMap.get("id"));
+		});
+		Mockito.when(validationUtil.phoneValidator(Mockito.any())).thenReturn(true);
+
+		// authUserDetails() is read on the worker threads
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_INHERITABLETHREADLOCAL);
+		AuthUserDetails authUserDetails = Mockito.mock(AuthUserDetails.class);
+		Mockito.when(authUserDetails.getUserId()).thenReturn("user");
+		Authentication authentication = Mockito.mock(Authentication.class);
+		Mockito.when(authentication.getPrincipal()).thenReturn(authUserDetails);
+		SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+		Mockito.when(securityContext.getAuthentication()).thenReturn(authentication);
+		SecurityContextHolder.setContext(securityContext);
+		executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+		SecurityContextHolder.clearContext();
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+	}
+
+	@Test
+	public void parallelNotificationsTest() throws Exception {
+		Mockito.when(notificationServiceUtil.createNotificationDetails(Mockito.any(), Mockito.any(),
+				ArgumentMatchers.anyBoolean())).thenAnswer(invocation -> {
+					String requestKey = invocation.getArgument(0);
+					NotificationDTO notificationDto = new NotificationDTO();
+					notificationDto.setPreRegistrationId(requestKey);
+					notificationDto.setMobNum("98765" + requestKey);
+					notificationDto.setAdditionalRecipient(true);
+					notificationDto.setIsBatch(true);
+					MainRequestDTO<NotificationDTO> request = new MainRequestDTO<>();
+					request.setId(NOTIFICATION_ID);
+					request.setVersion("v" + requestKey);
+					request.setRequest(notificationDto);
+					return request;
+				});
+		Mockito.when(demographicServiceIntf.getDemographicData(Mockito.any())).thenAnswer(invocation -> {
+			JSONObject identity = new JSONObject();
+			identity.put("identity", new JSONObject());
+			DemographicResponseDTO demographicResponse = new DemographicResponseDTO();
+			demographicResponse.setDemographicDetails(identity);
+			MainResponseDTO<DemographicResponseDTO> response = new MainResponseDTO<>();
+			response.setResponse(demographicResponse);
+			return response;
+		});
+
+		List<MainResponseDTO<NotificationResponseDTO>> responses = runInParallel(
+				requestKey -> () -> notificationService.sendNotification(requestKey, "eng", null, false));
+
+		for (int index = 0; index < REQUESTS; index++) {
+			MainResponseDTO<NotificationResponseDTO> response = responses.get(index);
+			assertNull(response.getErrors());
+			assertEquals("v" + index, response.getVersion());
+			assertEquals(NotificationRequestCodes.MESSAGE.getCode(), response.getResponse().getMessage());
+		}
+		Mockito.verify(notificationOutboxService, Mockito.times(REQUESTS))
+				.enqueue(Mockito.eq(NotificationRequestCodes.SMS.getCode()), Mockito.any(), Mockito.eq("user"));
+	}
+
+	@Test
+	public void parallelUploadsTest() throws Exception {
+		Mockito.when(documentServiceUtil.createUploadDto(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+			DocumentRequestDTO documentRequest = new DocumentRequestDTO();
+			documentRequest.setDocCatCode("POA");
+			documentRequest.setDocTypCode("RNC");
+			documentRequest.setLangCode("eng");
+			MainRequestDTO<DocumentRequestDTO> request = new MainRequestDTO<>();
+			request.setId(UPLOAD_ID);
+			request.setVersion("v" + invocation.getArgument(1));
+			request.setRequest(documentRequest);
+			return request;
+		});
+		Mockito.when(documentServiceUtil.fileSizeCheck(ArgumentMatchers.anyLong())).thenReturn(true);
+		Mockito.when(documentServiceUtil.fileExtensionCheck(Mockito.any())).thenReturn(true);
+		Mockito.when(documentServiceUtil.getPreRegOwnership(Mockito.any()))
+				.thenReturn(new ApplicationOwnershipDTO());
+		Mockito.when(documentServiceUtil.dtoToEntity(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenAnswer(invocation -> {
+					DocumentRequestDTO documentRequest = invocation.getArgument(1);
+					DemographicEntity demographicEntity = new DemographicEntity();
+					demographicEntity.setPreRegistrationId(invocation.getArgument(3));
+					DocumentEntity documentEntity = new DocumentEntity();
+					documentEntity.setDemographicEntity(demographicEntity);
+					documentEntity.setDocCatCode(documentRequest.getDocCatCode());
+					documentEntity.setDocTypeCode(documentRequest.getDocTypCode());
+					return documentEntity;
+				});
+		Mockito.when(documentServiceUtil.encryptDocument(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+			MultipartFile file = invocation.getArgument(0);
+			return new SpooledDocument(Files.write(Files.createTempFile("doc", ".enc"), file.getBytes()), "hash");
+		});
+		Mockito.when(documentDAO.saveDocument(Mockito.any())).thenAnswer(invocation -> {
+			DocumentEntity documentEntity = invocation.getArgument(0);
+			documentEntity.setDocumentId("doc" + documentEntity.getDemographicEntity().getPreRegistrationId());
+			return documentEntity;
+		});
+		Mockito.when(objectStore.putObject(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenReturn(true);
+
+		List<MainResponseDTO<DocumentResponseDTO>> responses = runInParallel(
+				requestKey -> () -> documentService.uploadDocument(new MockMultipartFile("file",
+						"file" + requestKey + ".pdf", "application/pdf", requestKey.getBytes()), "{}", requestKey));
+
+		for (int index = 0; index < REQUESTS; index++) {
+			MainResponseDTO<DocumentResponseDTO> response = responses.get(index);
+			assertNull(response.getErrors());
+			assertEquals("v" + index, response.getVersion());
+			assertEquals(String.valueOf(index), response.getResponse().getPreRegistrationId());
+			assertEquals("doc" + index, response.getResponse().getDocId());
+			assertEquals("file" + index + ".pdf", response.getResponse().getDocName());
+		}
+	}
+
+	/**
+	 * Submits one request per index and releases them together.
+	 */
+	private <T> List<T> runInParallel(Function<String, Callable<T>> requests) throws Exception {
+		CountDownLatch startGate = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>(REQUESTS);
+		for (int index = 0; index < REQUESTS; index++) {
+			Callable<T> request = requests.apply(String.valueOf(index));
+			futures.add(executor.submit(() -> {
+				startGate.await();
+				return request.call();
+			}));
+		}
+		startGate.countDown();
+		List<T> responses = new ArrayList<>(REQUESTS);
+		for (Future<T> future : futures) {
+			responses.add(future.get(60, TimeUnit.SECONDS));
+		}
+		return responses;
+	}
+}
@@ -1,10 +1,13 @@
 package io.mosip.preregistration.application.test.controller;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,6 +32,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import io.mosip.preregistration.application.controller.DocumentController;
+import io.mosip.preregistration.application.dto.DocumentContentDTO;
 import io.mosip.preregistration.application.dto.DocumentRequestDTO;
 import io.mosip.preregistration.application.dto.DocumentResponseDTO;
 import io.mosip.preregistration.application.service.DocumentServiceIntf;
@@ -226,4 +230,74 @@ public class DocumentControllerTest {
 		mockMvc.perform(requestBuilder).andExpect(status().isOk());
 	}
 
+	@Test
+	public void getDocumentContentTest() throws Exception {
+		mockDocumentContent();
+		RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498");
+		mockMvc.perform(requestBuilder).andExpect(status().isOk()).andExpect(header().string("ETag", "\"hash\""))
+				.andExpect(header().string("Accept-Ranges", "bytes"))
+				.andExpect(content().contentType(MediaType.APPLICATION_PDF))
+				.andExpect(content().bytes("document content".getBytes()));
+	}
+
+	@Test
+	public void getDocumentContentNotModifiedTest() throws Exception {
+		mockDocumentContent();
+		RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498").header("If-None-Match", "\"hash\"");
+		mockMvc.perform(requestBuilder).andExpect(status().isNotModified());
+		Mockito.verify(service, Mockito.never()).writeDocumentContent(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void getDocumentContentRangeTest() throws Exception {
+		mockDocumentContent();
+		RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498").header("Range", "bytes=2-5");
+		mockMvc.perform(requestBuilder).andExpect(status().isPartialContent())
+				.andExpect(header().string("Content-Range", "bytes 2-5/16"))
+				.andExpect(content().bytes("cume".getBytes()));
+
+		requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498").header("Range", "bytes=20-30");
+		mockMvc.perform(requestBuilder).andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string("Content-Range", "bytes */16"));
+	}
+
+	@Test
+	public void getDocumentContentRangePastEndTest() throws Exception {
+		mockDocumentContent();
+		RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498").header("Range", "bytes=9-100");
+		// the range ends with the document
+		mockMvc.perform(requestBuilder).andExpect(status().isPartialContent())
+				.andExpect(header().string("Content-Range", "bytes 9-15/16"))
+				.andExpect(header().string("Content-Length", "7"))
+				.andExpect(content().bytes("content".getBytes()));
+	}
+
+	@Test
+	public void getDocumentContentOpenRangeTest() throws Exception {
+		mockDocumentContent();
+		RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498").header("Range", "bytes=-4");
+		mockMvc.perform(requestBuilder).andExpect(status().isOk())
+				.andExpect(content().bytes("document content".getBytes()));
+
+		requestBuilder = MockMvcRequestBuilders.get("/documents/{documentId}/content", "1234")
+				.param("preRegistrationId", "48690172097498").header("Range", "bytes=9-");
+		mockMvc.perform(requestBuilder).andExpect(status().isOk())
+				.andExpect(content().bytes("document content".getBytes()));
+	}
+
+	private void mockDocumentContent() {
+		Mockito.when(service.getDocumentContent("1234", "48690172097498"))
+				.thenReturn(new DocumentContentDTO("1234", "48690172097498", "Doc.pdf", "POA", "hash", null));
+		Mockito.doAnswer(invocation -> {
+			((OutputStream) invocation.getArgument(1)).write("document content".getBytes());
+			return null;
+		}).when(service).writeDocumentContent(Mockito.any(), Mockito.any());
+	}
+
 }
@@ -1,13 +1,23 @@
 package io.mosip.preregistration.application.test.service.util;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -15,19 +25,33 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import io.mosip.commons.khazana.spi.ObjectStoreAdapter;
 import io.mosip.kernel.core.virusscanner.exception.VirusScannerException;
 import io.mosip.kernel.core.virusscanner.spi.VirusScanner;
+import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
+import io.mosip.preregistration.application.dto.ApplicationOwnershipDTO;
 import io.mosip.preregistration.application.dto.DocumentRequestDTO;
 import io.mosip.preregistration.application.exception.InvalidDocumentIdExcepion;
+import io.mosip.preregistration.application.exception.RecordNotFoundException;
+import io.mosip.preregistration.application.repository.DemographicRepository;
 import io.mosip.preregistration.application.service.DemographicService;
 import io.mosip.preregistration.application.service.util.DocumentServiceUtil;
+import io.mosip.preregistration.application.service.util.SpooledDocument;
+import io.mosip.preregistration.core.common.entity.DemographicEntity;
 import io.mosip.preregistration.core.common.entity.DocumentEntity;
+import io.mosip.preregistration.core.exception.EncryptionFailedException;
 import io.mosip.preregistration.core.exception.InvalidRequestException;
+import io.mosip.preregistration.core.util.CryptoUtil;
+import io.mosip.preregistration.core.util.HashUtill;
 import io.mosip.preregistration.core.util.RequestValidator;
 import io.mosip.preregistration.core.util.ValidationUtil;
 
@@ -64,6 +88,12 @@ public class DocumentServiceUtilTest {
 	@MockBean(name = "S3Adapter")
 	private ObjectStoreAdapter objectStore;
 
+	@MockBean
+	private DemographicRepository demographicRepository;
+
+	@MockBean
+	private CryptoUtil cryptoUtil;
+
 	String preRegistrationId = "48690172097498";
 	DocumentRequestDTO documentDto = new DocumentRequestDTO("address", "POA", "ENG", "test");
 	File file;
@@ -101,10 +131,80 @@ public class DocumentServiceUtilTest {
 		serviceUtil.isValidRequest(documentDto, null);
 	}
 
+	@Test
+	public void getPreRegOwnershipKeptForRequestTest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		try {
+			Mockito.when(demographicRepository.findOwnershipByPreRegistrationId(preRegistrationId))
+					.thenReturn(new ApplicationOwnershipDTO(preRegistrationId, "user", "Pending_Appointment"));
+			Mockito.when(demographicServiceIntf.authUserDetails()).thenReturn(Mockito.mock(AuthUserDetails.class));
+			Mockito.when(demographicServiceIntf.listAuth(Mockito.any()))
+					.thenReturn(Collections.singletonList("ROLE_INDIVIDUAL"));
+
+			assertEquals("Pending_Appointment", serviceUtil.getPreRegOwnership(preRegistrationId).getStatusCode());
+			assertEquals("user", serviceUtil.getPreRegOwnership(preRegistrationId).getCreatedBy());
+			Mockito.verify(demographicRepository, Mockito.times(1))
+					.findOwnershipByPreRegistrationId(preRegistrationId);
+			Mockito.verify(demographicServiceIntf, Mockito.times(1)).userValidation(Mockito.any(), Mockito.eq("user"));
+			Mockito.verify(demographicServiceIntf, Mockito.never()).getDemographicData(Mockito.any());
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test(expected = RecordNotFoundException.class)
+	public void getPreRegOwnershipNotFoundTest() {
+		serviceUtil.getPreRegOwnership(preRegistrationId);
+	}
+
 	@Test(expected = VirusScannerException.class)
 	public void virusscannerFailureTest() throws Exception {
-		Mockito.when(virusScan.scanDocument(mockMultipartFile.getBytes())).thenThrow(java.io.IOException.class);
+		Mockito.when(virusScan.scanFile(Mockito.any(InputStream.class))).thenThrow(IllegalStateException.class);
 		serviceUtil.isVirusScanSuccess(mockMultipartFile);
 	}
 
+	@Test
+	public void encryptDocumentTest() throws Exception {
+		byte[] encrypted = "encrypted document".getBytes();
+		Mockito.doAnswer(invocation -> {
+			OutputStream output = invocation.getArgument(2);
+			output.write(encrypted);
+			return null;
+		}).when(cryptoUtil).encrypt(Mockito.any(InputStreamSource.class), Mockito.any(), Mockito.any());
+
+		Path encryptedFile;
+		try (SpooledDocument encryptedDocument = serviceUtil.encryptDocument(mockMultipartFile,
+				LocalDateTime.now())) {
+			assertEquals(HashUtill.hashUtill(encrypted), encryptedDocument.getHash());
+			assertEquals(encrypted.length, encryptedDocument.getSize());
+			try (InputStream stored = encryptedDocument.openStream()) {
+				assertArrayEquals(encrypted, IOUtils.toByteArray(stored));
+			}
+			encryptedFile = (Path) ReflectionTestUtils.getField(encryptedDocument, "path");
+		}
+		assertFalse(Files.exists(encryptedFile));
+	}
+
+	@Test
+	public void documentEntitySetterTest() {
+		DemographicEntity demographicEntity = new DemographicEntity();
+		demographicEntity.setPreRegistrationId(preRegistrationId);
+		DocumentEntity sourceEntity = new DocumentEntity();
+		sourceEntity.setDemographicEntity(demographicEntity);
+		sourceEntity.setDocumentId("1001");
+		sourceEntity.setDocCatCode("POA");
+		sourceEntity.setDocHash("source-hash");
+		DocumentEntity copyEntity = serviceUtil.documentEntitySetter("48690172097499", sourceEntity, null);
+		assertEquals("source-hash", copyEntity.getDocHash());
+		assertEquals("48690172097499", copyEntity.getDemographicEntity().getPreRegistrationId());
+		Mockito.verifyZeroInteractions(objectStore);
+	}
+
+	@Test(expected = EncryptionFailedException.class)
+	public void encryptDocumentFailureTest() throws Exception {
+		Mockito.doThrow(new EncryptionFailedException("PRG_CORE_REQ_011", "FAILED_TO_ENCRYPT")).when(cryptoUtil)
+				.encrypt(Mockito.any(InputStreamSource.class), Mockito.any(), Mockito.any());
+		serviceUtil.encryptDocument(mockMultipartFile, LocalDateTime.now());
+	}
+
 }
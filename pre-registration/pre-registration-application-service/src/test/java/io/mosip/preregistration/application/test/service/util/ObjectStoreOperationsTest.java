@@ -0,0 +1,220 @@
+package io.mosip.preregistration.application.test.service.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+
+import io.mosip.commons.khazana.impl.S3Adapter;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations.ObjectCopy;
+import io.mosip.preregistration.application.service.util.ObjectStoreOperations.ObjectLocation;
+
+@RunWith(JUnit4.class)
+public class ObjectStoreOperationsTest {
+
+	private ObjectStoreOperations objectStoreOperations;
+
+	private AmazonS3 connection;
+
+	private S3Adapter objectStore;
+
+	@Before
+	public void setUp() {
+		objectStoreOperations = new ObjectStoreOperations();
+		connection = Mockito.mock(AmazonS3.class);
+		objectStore = Mockito.mock(S3Adapter.class);
+		ReflectionTestUtils.setField(objectStoreOperations, "objectStore", objectStore);
+		ReflectionTestUtils.setField(objectStoreOperations, "connection", connection);
+		ReflectionTestUtils.setField(objectStoreOperations, "concurrency", 4);
+		objectStoreOperations.setupOperations();
+	}
+
+	@After
+	public void tearDown() {
+		objectStoreOperations.shutdownOperations();
+	}
+
+	@Test
+	public void serverSideCopyTest() {
+		assertTrue(objectStoreOperations.copyObject("prereg", new ObjectCopy("1001", "POA_1", "1002", "POA_2")));
+		Mockito.verify(connection).createBucket("1002");
+		Mockito.verify(connection).copyObject("1001", "POA_1", "1002", "POA_2");
+	}
+
+	@Test
+	public void serverSideCopyAccountAsBucketTest() {
+		ReflectionTestUtils.setField(objectStoreOperations, "useAccountAsBucketname", true);
+		Mockito.when(connection.doesBucketExistV2("prereg")).thenReturn(true);
+		assertTrue(objectStoreOperations.copyObject("prereg", new ObjectCopy("1001", "POA_1", "1002", "POA_2")));
+		Mockito.verify(connection, Mockito.never()).createBucket(Mockito.anyString());
+		Mockito.verify(connection).copyObject("prereg", "1001/POA_1", "prereg", "1002/POA_2");
+	}
+
+	@Test
+	public void serverSideCopyFailureTest() {
+		Mockito.when(connection.copyObject(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+				Mockito.anyString())).thenThrow(new AmazonServiceException("NoSuchKey"));
+		assertFalse(objectStoreOperations.copyObject("prereg", new ObjectCopy("1001", "POA_1", "1002", "POA_2")));
+	}
+
+	@Test
+	public void sameObjectCopyTest() {
+		assertTrue(objectStoreOperations.copyObject("prereg", new ObjectCopy("1001", "POA_1", "1001", "POA_1")));
+		Mockito.verifyZeroInteractions(connection);
+	}
+
+	@Test
+	public void copyObjectsTest() {
+		assertTrue(objectStoreOperations.copyObjects("prereg", Arrays.asList(new ObjectCopy("1001", "POA_1", "1002", "POA_2"),
+				new ObjectCopy("1001", "POA_1", "1003", "POA_3"), new ObjectCopy("1001", "POA_1", "1004", "POA_4"))));
+		Mockito.verify(connection).copyObject("1001", "POA_1", "1002", "POA_2");
+		Mockito.verify(connection).copyObject("1001", "POA_1", "1003", "POA_3");
+		Mockito.verify(connection).copyObject("1001", "POA_1", "1004", "POA_4");
+	}
+
+	@Test
+	public void copyObjectsFailureTest() {
+		Mockito.when(connection.copyObject("1001", "POA_1", "1003", "POA_3"))
+				.thenThrow(new AmazonServiceException("SlowDown"));
+		assertFalse(objectStoreOperations.copyObjects("prereg", Arrays.asList(new ObjectCopy("1001", "POA_1", "1002", "POA_2"),
+				new ObjectCopy("1001", "POA_1", "1003", "POA_3"))));
+		Mockito.verify(connection).copyObject("1001", "POA_1", "1002", "POA_2");
+	}
+
+	@Test
+	public void batchDeleteTest() {
+		List<ObjectLocation> objects = new ArrayList<>();
+		for (int index = 0; index < 1500; index++) {
+			objects.add(new ObjectLocation("1001", "POA_" + index));
+		}
+		objects.add(new ObjectLocation("1002", "POA_1"));
+		ReflectionTestUtils.setField(objectStoreOperations, "useAccountAsBucketname", true);
+
+		assertTrue(objectStoreOperations.deleteObjects("prereg", objects).isEmpty());
+		ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		Mockito.verify(connection, Mockito.times(2)).deleteObjects(requests.capture());
+		int keys = 0;
+		for (DeleteObjectsRequest request : requests.getAllValues()) {
+			assertEquals("prereg", request.getBucketName());
+			assertTrue(request.getKeys().size() <= 1000);
+			keys += request.getKeys().size();
+		}
+		assertEquals(1501, keys);
+	}
+
+	@Test
+	public void batchDeletePerBucketTest() {
+		assertTrue(objectStoreOperations.deleteObjects("prereg",
+				Arrays.asList(new ObjectLocation("1001", "POA_1"), new ObjectLocation("1002", "POA_2"))).isEmpty());
+		ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		Mockito.verify(connection, Mockito.times(2)).deleteObjects(requests.capture());
+		for (DeleteObjectsRequest request : requests.getAllValues()) {
+			assertEquals(1, request.getKeys().size());
+			KeyVersion key = request.getKeys().get(0);
+			assertEquals(request.getBucketName().equals("1001") ? "POA_1" : "POA_2", key.getKey());
+		}
+	}
+
+	@Test
+	public void batchDeletePartialFailureTest() {
+		DeleteError accessDenied = new DeleteError();
+		accessDenied.setKey("POA_2");
+		accessDenied.setCode("AccessDenied");
+		DeleteError noSuchKey = new DeleteError();
+		noSuchKey.setKey("POA_3");
+		noSuchKey.setCode("NoSuchKey");
+		Mockito.when(connection.deleteObjects(Mockito.any()))
+				.thenThrow(new MultiObjectDeleteException(Arrays.asList(accessDenied, noSuchKey), Collections.emptyList()));
+
+		Map<ObjectLocation, String> failures = objectStoreOperations.deleteObjects("prereg",
+				Arrays.asList(new ObjectLocation("1001", "POA_1"), new ObjectLocation("1001", "POA_2"),
+						new ObjectLocation("1001", "POA_3")));
+		assertEquals(1, failures.size());
+		assertTrue(failures.containsKey(new ObjectLocation("1001", "POA_2")));
+	}
+
+	@Test
+	public void batchDeleteNoSuchBucketTest() {
+		AmazonServiceException noSuchBucket = new AmazonServiceException("The specified bucket does not exist");
+		noSuchBucket.setErrorCode("NoSuchBucket");
+		Mockito.when(connection.deleteObjects(Mockito.any())).thenThrow(noSuchBucket);
+		assertTrue(objectStoreOperations.deleteObjects("prereg", Arrays.asList(new ObjectLocation("1001", "POA_1")))
+				.isEmpty());
+	}
+
+	@Test
+	public void batchDeleteNotDeletedTest() {
+		Mockito.when(objectStore.exists("prereg", "1001", null, null, "POA_1")).thenReturn(true);
+		Map<ObjectLocation, String> failures = objectStoreOperations.deleteObjects("prereg",
+				Arrays.asList(new ObjectLocation("1001", "POA_1"), new ObjectLocation("1001", "POA_2"),
+						new ObjectLocation("1002", "POA_3")));
+		assertEquals(2, failures.size());
+		assertEquals("Object not deleted", failures.get(new ObjectLocation("1001", "POA_2")));
+		assertFalse(failures.containsKey(new ObjectLocation("1002", "POA_3")));
+	}
+
+	@Test
+	public void adapterNamingTest() {
+		adapterNaming(false);
+	}
+
+	@Test
+	public void adapterNamingAccountAsBucketTest() {
+		adapterNaming(true);
+	}
+
+	/**
+	 * Stores an object through the S3 adapter and checks that the copy and the
+	 * delete name the same bucket and key, and that the delete is checked with
+	 * the same bucket and key.
+	 */
+	private void adapterNaming(boolean useAccountAsBucketname) {
+		S3Adapter s3Adapter = new S3Adapter();
+		ReflectionTestUtils.setField(s3Adapter, "connection", connection);
+		ReflectionTestUtils.setField(s3Adapter, "useAccountAsBucketname", useAccountAsBucketname);
+		ReflectionTestUtils.setField(objectStoreOperations, "objectStore", s3Adapter);
+		ReflectionTestUtils.setField(objectStoreOperations, "useAccountAsBucketname", useAccountAsBucketname);
+
+		s3Adapter.putObject("prereg", "1001", null, null, "POA_1", new ByteArrayInputStream(new byte[] { 1 }));
+		ArgumentCaptor<String> bucket = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(connection).putObject(bucket.capture(), key.capture(), Mockito.any(InputStream.class),
+				Mockito.any());
+
+		assertTrue(objectStoreOperations.copyObject("prereg", new ObjectCopy("1001", "POA_1", "1002", "POA_2")));
+		Mockito.verify(connection).copyObject(Mockito.eq(bucket.getValue()), Mockito.eq(key.getValue()),
+				Mockito.anyString(), Mockito.anyString());
+
+		assertTrue(objectStoreOperations.deleteObjects("prereg", Arrays.asList(new ObjectLocation("1001", "POA_1")))
+				.isEmpty());
+		ArgumentCaptor<DeleteObjectsRequest> request = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+		Mockito.verify(connection).deleteObjects(request.capture());
+		assertEquals(bucket.getValue(), request.getValue().getBucketName());
+		assertEquals(key.getValue(), request.getValue().getKeys().get(0).getKey());
+		Mockito.verify(connection).doesObjectExist(bucket.getValue(), key.getValue());
+	}
+}
@@ -31,7 +31,8 @@ public enum ErrorCodes {
 	PRG_PAM_BAT_016("PRG_PAM_BAT_016"),
 	PRG_PAM_BAT_017("PRG_PAM_BAT_017"),
 	PRG_PAM_BAT_018("PRG_PAM_BAT_018"),
-	PRG_PAM_BAT_019("PRG_PAM_BAT_019");
+	PRG_PAM_BAT_019("PRG_PAM_BAT_019"),
+	PRG_PAM_BAT_020("PRG_PAM_BAT_020");
 	
 	/**
 	 * @param code
@@ -31,7 +31,8 @@ public enum ErrorMessages {
 	BOOKING_DATA_NOT_FOUND("Booking data not found"),//PRG_PAM_BAT_016
 	APPOINTMENT_CANNOT_BE_CANCELED("Appointment cannot be canceled"),//PRG_PAM_BAT_017
 	CANCEL_BOOKING_BATCH_CALL_FAILED("Cancel appointment service call failed"),//PRG_PAM_BAT_018
-	APPLICATIONS_TABLE_NOT_ACCESSIBLE("Applications table not accessible"); //PRG_PAM_BAT_019
+	APPLICATIONS_TABLE_NOT_ACCESSIBLE("Applications table not accessible"), //PRG_PAM_BAT_019
+	ANONYMOUS_PROFILE_TABLE_NOT_ACCESSIBLE("Anonymous profile table not accessible"); //PRG_PAM_BAT_020
 	
 	/**
 	 * @param code
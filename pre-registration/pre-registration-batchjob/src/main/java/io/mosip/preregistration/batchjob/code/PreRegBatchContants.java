@@ -42,12 +42,16 @@ public class PreRegBatchContants {
 
 	public static final String NEW_STATUS_COMMENTS = "Application consumed";
 
+	public static final String FAILED_STATUS_COMMENTS = "Application consume failed";
+
 	public static final String APPLICATION_CONSUMED_JOB = "ApplicationConsumedJob";
 
 	public static final String EXPIRED_STATUS_JOB = "ExpiredStatusJob";
 
 	public static final String APPOINTMENT_MISMATCH_JOB = "AppointmentMismatchJob";
 
+	public static final String ANONYMOUS_PROFILE_EXPORT_JOB = "AnonymousProfileExportJob";
+
 	public static final String ALL = "all";
 
 	public static final String PAGE_NO = "?pageNumber=";
@@ -0,0 +1,118 @@
+package io.mosip.preregistration.batchjob.helper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import io.mosip.preregistration.batchjob.entity.AvailibityEntity;
+
+/**
+ * This class holds the availability slots of one registration center for one
+ * day while they are being generated. Saves and deletes are applied to an in
+ * memory copy of the existing rows, the difference with the rows read from the
+ * database is written afterwards in batches.
+ *
+ * @since 1.2.0
+ *
+ */
+public class AvailabilitySlotBatch {
+
+	private final String regCenterId;
+
+	private final LocalDate regDate;
+
+	private final Map<LocalTime, AvailibityEntity> existingSlots = new TreeMap<>();
+
+	private final Map<LocalTime, AvailibityEntity> slots = new TreeMap<>();
+
+	public AvailabilitySlotBatch(String regCenterId, LocalDate regDate, List<AvailibityEntity> existingSlotsList) {
+		this.regCenterId = regCenterId;
+		this.regDate = regDate;
+		existingSlotsList.forEach(slot -> existingSlots.put(slot.getFromTime(), slot));
+		slots.putAll(existingSlots);
+	}
+
+	public String getRegCenterId() {
+		return regCenterId;
+	}
+
+	public LocalDate getRegDate() {
+		return regDate;
+	}
+
+	/**
+	 * Adds the slot, replacing the one with the same start time if any.
+	 */
+	public void save(AvailibityEntity slot) {
+		slots.put(slot.getFromTime(), slot);
+	}
+
+	/**
+	 * Removes all the slots of the day.
+	 */
+	public int deleteAll() {
+		int deleted = slots.size();
+		slots.clear();
+		return deleted;
+	}
+
+	/**
+	 * Removes the slots starting between the given times, both inclusive.
+	 */
+	public int deleteFromTimeBetween(LocalTime fromTime, LocalTime toTime) {
+		int before = slots.size();
+		slots.keySet().removeIf(slotFromTime -> !slotFromTime.isBefore(fromTime) && !slotFromTime.isAfter(toTime));
+		return before - slots.size();
+	}
+
+	/**
+	 * Removes the slot with exactly the given start and end time.
+	 */
+	public int delete(LocalTime fromTime, LocalTime toTime) {
+		AvailibityEntity slot = slots.get(fromTime);
+		if (slot != null && Objects.equals(slot.getToTime(), toTime)) {
+			slots.remove(fromTime);
+			return 1;
+		}
+		return 0;
+	}
+
+	public List<AvailibityEntity> getInsertedSlots() {
+		List<AvailibityEntity> inserted = new ArrayList<>();
+		slots.forEach((fromTime, slot) -> {
+			if (!existingSlots.containsKey(fromTime)) {
+				inserted.add(slot);
+			}
+		});
+		return inserted;
+	}
+
+	/**
+	 * Slots already in the database whose end time or kiosk count changed.
+	 */
+	public List<AvailibityEntity> getUpdatedSlots() {
+		List<AvailibityEntity> updated = new ArrayList<>();
+		slots.forEach((fromTime, slot) -> {
+			AvailibityEntity existing = existingSlots.get(fromTime);
+			if (existing != null && existing != slot && (!Objects.equals(existing.getToTime(), slot.getToTime())
+					|| existing.getAvailableKiosks() != slot.getAvailableKiosks())) {
+				updated.add(slot);
+			}
+		});
+		return updated;
+	}
+
+	public List<AvailibityEntity> getDeletedSlots() {
+		List<AvailibityEntity> deleted = new ArrayList<>();
+		existingSlots.forEach((fromTime, slot) -> {
+			if (!slots.containsKey(fromTime)) {
+				deleted.add(slot);
+			}
+		});
+		return deleted;
+	}
+}
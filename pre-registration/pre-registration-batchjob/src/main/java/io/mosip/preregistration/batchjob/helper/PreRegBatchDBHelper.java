@@ -1,8 +1,8 @@
 package io.mosip.preregistration.batchjob.helper;
 
-import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Component;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.preregistration.batchjob.entity.AvailibityEntity;
-import io.mosip.preregistration.batchjob.repository.utils.BatchJpaRepositoryImpl;
+import io.mosip.preregistration.batchjob.repository.utils.AvailabilitySlotWriter;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
 
 /**
@@ -28,20 +28,17 @@ public class PreRegBatchDBHelper {
     @Value("${mosip.batch.token.authmanager.userName}")
 	private String auditUsername;
 
-    /**
-	 * Autowired reference for {@link #batchServiceDAO}
-	 */
-	@Autowired
-	private BatchJpaRepositoryImpl batchServiceDAO;
+    @Autowired
+    private AvailabilitySlotWriter availabilitySlotWriter;
 
-    public void saveAvailability(String regCenterId, String contactPerson, 
-            Short noOfKiosks, LocalDate date, LocalTime slotStartTime, LocalTime slotEndTime) {
+    public void saveAvailability(AvailabilitySlotBatch slotBatch, String contactPerson, 
+            Short noOfKiosks, LocalTime slotStartTime, LocalTime slotEndTime) {
 
         /* LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, PreRegBatchContants.EMPTY,
-                 "Saving Slot Generation for Date: " + date); */
+                 "Saving Slot Generation for Date: " + slotBatch.getRegDate()); */
 		AvailibityEntity avaEntity = new AvailibityEntity();
-		avaEntity.setRegDate(date);
-		avaEntity.setRegcntrId(regCenterId);
+		avaEntity.setRegDate(slotBatch.getRegDate());
+		avaEntity.setRegcntrId(slotBatch.getRegCenterId());
 		avaEntity.setFromTime(slotStartTime);
 		avaEntity.setToTime(slotEndTime);
 		avaEntity.setCrBy(auditUsername);
@@ -52,6 +49,15 @@ public class PreRegBatchDBHelper {
 			avaEntity.setCrBy(contactPerson);
 		}
 		avaEntity.setAvailableKiosks(slotStartTime.equals(slotEndTime) ? 0 : noOfKiosks);
-		batchServiceDAO.saveAvailability(avaEntity);
+		slotBatch.save(avaEntity);
+	}
+
+	/**
+	 * Writes the slots saved and deleted in the given days to the database.
+	 * 
+	 * @return number of rows written
+	 */
+	public int writeAvailability(List<AvailabilitySlotBatch> slotBatches) {
+		return availabilitySlotWriter.write(slotBatches);
 	}
 }
@@ -0,0 +1,59 @@
+package io.mosip.preregistration.batchjob.impl;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.batchjob.repository.utils.AnonymousProfileAggregateWriter;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class exports the anonymous profiles to the daily aggregate table for
+ * analytics. Each run continues from the last aggregated day up to yesterday,
+ * the current day is left until it is complete. Days without profiles store no
+ * aggregate, so they are skipped instead of being counted against the days of
+ * a run; otherwise a gap longer than a run would be scanned again by every run.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class AnonymousProfileExporter {
+
+	private Logger LOGGER = LoggerConfiguration.logConfig(AnonymousProfileExporter.class);
+
+	@Autowired
+	private AnonymousProfileAggregateWriter aggregateWriter;
+
+	/**
+	 * Maximum number of days with profiles aggregated in one run, so the first run over a large
+	 * table is spread over several runs
+	 */
+	@Value("${preregistration.anonymous-profile.aggregate.max-days:31}")
+	private int maxDays;
+
+	public void export() {
+		LocalDate lastDay = LocalDate.now(ZoneId.of("UTC")).minusDays(1);
+		LocalDate day = aggregateWriter.findResumeDate();
+		if (day == null) {
+			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH,
+					PreRegBatchContants.ANONYMOUS_PROFILE_EXPORT_JOB, "No anonymous profiles to export.");
+			return;
+		}
+		int days = 0;
+		int profiles = 0;
+		while (day != null && !day.isAfter(lastDay) && days < maxDays) {
+			profiles += aggregateWriter.aggregate(day);
+			days++;
+			day = aggregateWriter.findNextProfileDate(day.plusDays(1));
+		}
+		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH,
+				PreRegBatchContants.ANONYMOUS_PROFILE_EXPORT_JOB,
+				"Exported anonymous profiles of " + days + " days, profiles aggregated: " + profiles);
+	}
+}
@@ -0,0 +1,37 @@
+package io.mosip.preregistration.batchjob.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class splits the processed pre registration ids into hash partitions so
+ * that the consumed status chunks are archived in parallel.
+ *
+ * @since 1.2.0
+ *
+ */
+public class ConsumedApplicationPartitioner implements Partitioner {
+
+    private Logger LOGGER = LoggerConfiguration.logConfig(ConsumedApplicationPartitioner.class);
+
+    @Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitionsMap = new HashMap<String, ExecutionContext>(gridSize);
+        for (int i = 0; i < gridSize; i++) {
+            ExecutionContext execContext = new ExecutionContext();
+            execContext.putInt("partitionIndex", i);
+            execContext.putInt("partitionCount", gridSize);
+            partitionsMap.put("consumedPartition" + i, execContext);
+        }
+        LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, PreRegBatchContants.APPLICATION_CONSUMED_JOB,
+                        "Processed pre reg ids split into partitions: <" + gridSize + ">");
+        return partitionsMap;
+    }
+}
@@ -0,0 +1,106 @@
+package io.mosip.preregistration.batchjob.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.partition.support.DefaultStepExecutionAggregator;
+import org.springframework.batch.core.partition.support.StepExecutionAggregator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.batchjob.helper.RestHelper;
+import io.mosip.preregistration.core.code.AuditLogVariables;
+import io.mosip.preregistration.core.code.EventId;
+import io.mosip.preregistration.core.code.EventName;
+import io.mosip.preregistration.core.code.EventType;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class listens to the partitioned consumed status step. When the
+ * partitions complete, it combines their counts and the pre registration ids
+ * each of them skipped into the execution of the partitioned step, and audits
+ * the outcome of the whole step once.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class ConsumedStatusStepListener implements StepExecutionListener, StepExecutionAggregator {
+
+    private Logger LOGGER = LoggerConfiguration.logConfig(ConsumedStatusStepListener.class);
+
+    @Value("${mosip.batch.token.authmanager.userName}")
+	private String auditUsername;
+
+	@Value("${mosip.batch.token.authmanager.appId}")
+	private String auditUserId;
+
+    @Autowired
+	private RestHelper restHelper;
+
+    private final StepExecutionAggregator delegate = new DefaultStepExecutionAggregator();
+
+    @Override
+    public void aggregate(StepExecution result, Collection<StepExecution> executions) {
+        delegate.aggregate(result, executions);
+        List<String> skippedPreRegIds = new ArrayList<>();
+        for (StepExecution execution : executions) {
+            @SuppressWarnings("unchecked")
+            List<String> skipped = (List<String>) execution.getExecutionContext()
+                        .get(ApplicationConsumedStatusUpdater.SKIPPED_PRE_REG_IDS);
+            if (skipped != null) {
+                skippedPreRegIds.addAll(skipped);
+            }
+        }
+        result.getExecutionContext().put(ApplicationConsumedStatusUpdater.SKIPPED_PRE_REG_IDS, skippedPreRegIds);
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, PreRegBatchContants.APPLICATION_CONSUMED_JOB,
+		 			"Starting Application Consumed Status Update Job.");
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        @SuppressWarnings("unchecked")
+        List<String> skippedPreRegIds = (List<String>) stepExecution.getExecutionContext()
+                    .get(ApplicationConsumedStatusUpdater.SKIPPED_PRE_REG_IDS);
+        int skipped = skippedPreRegIds == null ? 0 : skippedPreRegIds.size();
+        LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, PreRegBatchContants.APPLICATION_CONSUMED_JOB,
+		 			"Total Number of Processed Pre Registration applications read: " + stepExecution.getReadCount() +
+                    ", written: " + stepExecution.getWriteCount() + ", skipped: " + skipped +
+                    ", status: " + stepExecution.getStatus());
+
+        if (skipped > 0) {
+			restHelper.sendAuditDetails(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
+						"Updating Consumed data Failed for Pre Reg id, List of Pre Reg Ids. ", AuditLogVariables.NO_ID.toString(),
+						auditUserId, auditUsername, String.join(",", skippedPreRegIds), AuditLogVariables.BAT.toString(),
+                        AuditLogVariables.CONSUMED_BATCH_SERVICE.toString());
+        }
+
+        if (!stepExecution.getFailureExceptions().isEmpty() || ExitStatus.FAILED.equals(stepExecution.getExitStatus())) {
+			restHelper.sendAuditDetails(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
+						"Updating Consumed data Failed for Pre Reg id, step can be restarted from the last committed chunk. ",
+                        AuditLogVariables.NO_ID.toString(), auditUserId, auditUsername, stepExecution.getExitStatus().getExitDescription(),
+                        AuditLogVariables.BAT.toString(), AuditLogVariables.CONSUMED_BATCH_SERVICE.toString());
+			return null;
+		}
+
+        if (skipped == 0) {
+            // No Processed Pre Reg Ids has resulted in Error.
+            restHelper.sendAuditDetails(EventId.PRE_412.toString(), EventName.CONSUMEDSTATUS.toString(), EventType.BUSINESS.toString(),
+                        "Updated the consumed status for all processed pre reg ids.", AuditLogVariables.PRE_REGISTRATION_ID.toString(),
+                        auditUserId, auditUsername, PreRegBatchContants.EMPTY, AuditLogVariables.BAT.toString(),
+                        AuditLogVariables.BOOKING_SERVICE.toString());
+        }
+        return null;
+    }
+}
@@ -8,20 +8,35 @@ import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
 import io.mosip.preregistration.batchjob.entity.AvailibityEntity;
+import io.mosip.preregistration.batchjob.helper.AvailabilitySlotBatch;
 import io.mosip.preregistration.batchjob.helper.CancelAndNotifyHelper;
 import io.mosip.preregistration.batchjob.helper.PreRegBatchDBHelper;
 import io.mosip.preregistration.batchjob.helper.RegCenterIdsHolder;
@@ -78,6 +93,27 @@ public class SlotAvailabilityGenerator {
 	@Autowired
 	private CancelAndNotifyHelper cancelAndNotifyHelper;
 
+	@Value("${preregistration.slots.generate.center.thread-count:8}")
+	private int regCenterThreadCount;
+
+	/**
+	 * Work stealing pool shared by all the partitions, registration centers are
+	 * processed on it independently of the partition they belong to.
+	 */
+	private ForkJoinPool regCenterSlotsPool;
+
+	private final DistributionSummary slotsWriteRate = DistributionSummary.builder("preregistration.slots.write.rate")
+			.baseUnit("rows/s").register(Metrics.globalRegistry);
+
+	@PostConstruct
+	public void setupRegCenterSlotsPool() {
+		regCenterSlotsPool = new ForkJoinPool(regCenterThreadCount);
+	}
+
+	@PreDestroy
+	public void shutdownRegCenterSlotsPool() {
+		regCenterSlotsPool.shutdownNow();
+	}
 
     public void generateRegistrationAvailabilitySlots(String partName, List<String> regCenterIdsPartList) {
 
@@ -91,66 +127,35 @@ public class SlotAvailabilityGenerator {
 						 ">, on partition Name: " + partName + ", regCenterIdsPartList (Page Nos): " + regCenterIdsPartList);
 
 		long partStartTime = System.currentTimeMillis();
-		Map<String, Boolean> cancelledTracker = new HashMap<>();
-		Map<String, Boolean> notifierTracker = new HashMap<>();
-		List<String> errorredRegCenters = new ArrayList<>();
+		Map<String, Boolean> cancelledTracker = new ConcurrentHashMap<>();
+		Map<String, Boolean> notifierTracker = new ConcurrentHashMap<>();
+		Queue<String> errorredRegCenters = new ConcurrentLinkedQueue<>();
 		final AtomicInteger procCounter = new AtomicInteger(1);
-		regCentersList.stream().forEach(regCenter -> {
-			long startTime = System.currentTimeMillis();
-			// identifier for debugging
-			String logIdentifier = partName + "_" + regCenter.getId() + "_" + System.currentTimeMillis();
+		// Centers are independent of each other, so each one is a task on the shared pool.
+		// Partitions with few or cheap centers leave their workers free to steal from the others.
+		Map<String, ForkJoinTask<Integer>> regCenterTasks = new LinkedHashMap<>();
+		regCentersList.stream().forEach(regCenter -> regCenterTasks.put(regCenter.getId(), 
+				regCenterSlotsPool.submit(() -> generateRegCenterSlots(partName, regCenter, cancelledTracker, 
+						notifierTracker, errorredRegCenters, procCounter))));
+		final AtomicLong rowsWritten = new AtomicLong();
+		regCenterTasks.forEach((regCenterId, regCenterTask) -> {
 			try {
-				
-				List<String> regCenterholidaysList = restHelper.getRegistrationHolidayList(regCenter.getId(), regCenter.getLangCode(), 
-						noOfDaysToSync);
-				
-				LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
-						"Processing Generation of Slots for Reg Center Id: " + regCenter.getId() + 
-						", Reg Center Holiday List: " + regCenterholidaysList);
-				
-				LocalDate slotGenStartDate = LocalDate.now();
-				LocalDate slotGenEndDate = slotGenStartDate.plusDays(noOfDaysToSync);
-				LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
-							"Slot Generation/Updation Start Date: " + slotGenStartDate + " and End Date: " + slotGenEndDate);
-				
-				slotGenStartDate.datesUntil(slotGenEndDate, Period.ofDays(1)).forEach(slotGenDate -> {
-
-					List<AvailibityEntity> slotsAvailableList = batchServiceDAO.findSlots(slotGenDate, regCenter.getId());
-					LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
-							"For date: " + slotGenDate + ", Slots available: " + slotsAvailableList.size());
-
-					// First, check date is in holiday list.
-					if (regCenterholidaysList.contains(slotGenDate.toString())) {
-						checkAndSaveEmptySlot(regCenter, slotsAvailableList, slotGenDate, logIdentifier, cancelledTracker, notifierTracker);
-					} else {
-						// Second, calculate and save the availability slots.
-						// Scenario 1 - slots are not available for the day, means not calculated yet.
-						if (slotsAvailableList.size() == 0) {
-							calculateFullDaySlotsAndSave(regCenter, slotGenDate, logIdentifier);
-						} else if(slotsAvailableList.size() == 1) { 
-							// Scenario 2 - only one slot available, may be got added thought holiday now removed from holiday list.
-							purgeAndCalculateFullDaySlotsThenSave(regCenter, slotGenDate, logIdentifier, slotsAvailableList);
-						} else {
-							// Scenario 3 - many slots available, check for any change in start, lunch & end time and take action accordingly.
-							checkAndReCalculateFullDaySlotsThenSave(regCenter, slotGenDate, logIdentifier, slotsAvailableList, 
-										cancelledTracker, notifierTracker);
-						}
-					}
-					
-				});
-			} catch(Throwable t) {
-				LOGGER.error(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, "Unknown Error: " + t.getMessage(), t);
-				errorredRegCenters.add(regCenter.getId());
+				rowsWritten.addAndGet(regCenterTask.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				errorredRegCenters.add(regCenterId);
+			} catch (ExecutionException e) {
+				LOGGER.error(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, regCenterId, 
+						"Unknown Error: " + e.getMessage(), e);
+				errorredRegCenters.add(regCenterId);
 			}
-			batchServiceDAO.flushAvailability();
-			long endTime = System.currentTimeMillis();
-			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
-						"Time took to complete slot generation for registration center: " + (endTime - startTime) + " in ms," +
-						" procCounter: " + procCounter.getAndIncrement());
 		});
 		long partEndTime = System.currentTimeMillis();
+		double rowsPerSecond = rowsWritten.get() * 1000d / Math.max(1, partEndTime - partStartTime);
+		slotsWriteRate.record(rowsPerSecond);
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, PreRegBatchContants.EMPTY, 
-						"Total Time Took to process partition: " + partName + ", Time(In millis): " + (partEndTime - partStartTime));
+						"Total Time Took to process partition: " + partName + ", Time(In millis): " + (partEndTime - partStartTime) +
+						", Slot rows written: " + rowsWritten.get() + ", Rows/sec: " + Math.round(rowsPerSecond));
 		// Deleting all the added slots for the expired registration centers. 
 		/* List<String> slotsAddedRegCenters = batchServiceDAO.findRegCenter(LocalDate.now());
 		slotsAddedRegCenters.stream().filter(regCenterId ->  !processingRegCentersList.contains(regCenterId))
@@ -162,7 +167,7 @@ public class SlotAvailabilityGenerator {
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, PreRegBatchContants.EMPTY, 
 						"Total Unique Registration Centers Found...");
 		idsHolder.printAllRegCenterIds();
-		if (errorredRegCenters.size() > 0) {
+		if (!errorredRegCenters.isEmpty()) {
 			String regCenterIds = String.join(",", errorredRegCenters);
 			restHelper.sendAuditDetails(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
 						"Add Availability Slots Failed, List of Reg Centers.", AuditLogVariables.NO_ID.toString(), 
@@ -176,7 +181,79 @@ public class SlotAvailabilityGenerator {
 						AuditLogVariables.BOOKING_SERVICE.toString());
     }
 
-	private void checkAndSaveEmptySlot(RegistrationCenterDto regCenterDetails, List<AvailibityEntity> slotsAvailableList, 
+	private int generateRegCenterSlots(String partName, RegistrationCenterDto regCenter, 
+				Map<String, Boolean> cancelledTracker, Map<String, Boolean> notifierTracker, 
+				Queue<String> errorredRegCenters, AtomicInteger procCounter) {
+		long startTime = System.currentTimeMillis();
+		// identifier for debugging
+		String logIdentifier = partName + "_" + regCenter.getId() + "_" + System.currentTimeMillis();
+		List<AvailabilitySlotBatch> slotBatches = new ArrayList<>();
+		try {
+			
+			List<String> regCenterholidaysList = restHelper.getRegistrationHolidayList(regCenter.getId(), regCenter.getLangCode(), 
+					noOfDaysToSync);
+			
+			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
+					"Processing Generation of Slots for Reg Center Id: " + regCenter.getId() + 
+					", Reg Center Holiday List: " + regCenterholidaysList);
+			
+			LocalDate slotGenStartDate = LocalDate.now();
+			LocalDate slotGenEndDate = slotGenStartDate.plusDays(noOfDaysToSync);
+			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
+						"Slot Generation/Updation Start Date: " + slotGenStartDate + " and End Date: " + slotGenEndDate);
+			
+			// One query for the whole date range instead of one per day, rows come back ordered by from time.
+			Map<LocalDate, List<AvailibityEntity>> slotsByDate = batchServiceDAO
+					.findSlotsBetween(regCenter.getId(), slotGenStartDate, slotGenEndDate).stream()
+					.collect(Collectors.groupingBy(AvailibityEntity::getRegDate));
+
+			slotGenStartDate.datesUntil(slotGenEndDate, Period.ofDays(1)).forEach(slotGenDate -> {
+
+				List<AvailibityEntity> slotsAvailableList = slotsByDate.getOrDefault(slotGenDate, Collections.emptyList());
+				AvailabilitySlotBatch slotBatch = new AvailabilitySlotBatch(regCenter.getId(), slotGenDate, slotsAvailableList);
+				slotBatches.add(slotBatch);
+				LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
+						"For date: " + slotGenDate + ", Slots available: " + slotsAvailableList.size());
+
+				// First, check date is in holiday list.
+				if (regCenterholidaysList.contains(slotGenDate.toString())) {
+					checkAndSaveEmptySlot(slotBatch, regCenter, slotsAvailableList, slotGenDate, logIdentifier, cancelledTracker, notifierTracker);
+				} else {
+					// Second, calculate and save the availability slots.
+					// Scenario 1 - slots are not available for the day, means not calculated yet.
+					if (slotsAvailableList.size() == 0) {
+						calculateFullDaySlotsAndSave(slotBatch, regCenter, slotGenDate, logIdentifier);
+					} else if(slotsAvailableList.size() == 1) { 
+						// Scenario 2 - only one slot available, may be got added thought holiday now removed from holiday list.
+						purgeAndCalculateFullDaySlotsThenSave(slotBatch, regCenter, slotGenDate, logIdentifier, slotsAvailableList);
+					} else {
+						// Scenario 3 - many slots available, check for any change in start, lunch & end time and take action accordingly.
+						checkAndReCalculateFullDaySlotsThenSave(slotBatch, regCenter, slotGenDate, logIdentifier, slotsAvailableList, 
+									cancelledTracker, notifierTracker);
+					}
+				}
+				
+			});
+		} catch(Throwable t) {
+			LOGGER.error(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, "Unknown Error: " + t.getMessage(), t);
+			errorredRegCenters.add(regCenter.getId());
+		}
+		// Days processed before an error are still written, as they were when each slot was saved right away.
+		int rowsWritten = 0;
+		try {
+			rowsWritten = batchDBHelper.writeAvailability(slotBatches);
+		} catch(Throwable t) {
+			LOGGER.error(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, "Error writing slots: " + t.getMessage(), t);
+			errorredRegCenters.add(regCenter.getId());
+		}
+		long endTime = System.currentTimeMillis();
+		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
+					"Time took to complete slot generation for registration center: " + (endTime - startTime) + " in ms," +
+					" rows written: " + rowsWritten + ", procCounter: " + procCounter.getAndIncrement());
+		return rowsWritten;
+	}
+
+	private void checkAndSaveEmptySlot(AvailabilitySlotBatch slotBatch, RegistrationCenterDto regCenterDetails, List<AvailibityEntity> slotsAvailableList, 
 				LocalDate slotGenCurrentDay, String logIdentifier, Map<String, Boolean> cancelledTracker,
 				Map<String, Boolean> notifierTracker) {
 		
@@ -186,8 +263,8 @@ public class SlotAvailabilityGenerator {
 		// First, simply insert the empty slot if not already slots available
 		if (slotsAvailableList.size() == 0) {
 			
-			batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-					PreRegBatchContants.ZERO_KIOSK, slotGenCurrentDay, midnightTime, midnightTime);
+			batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+					PreRegBatchContants.ZERO_KIOSK, midnightTime, midnightTime);
 			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 					"Inserted Empty slot for the date: " + slotGenCurrentDay);
 			return;
@@ -205,9 +282,9 @@ public class SlotAvailabilityGenerator {
 			// TODO - Check with Team what needs to be done if case time did not match.
 			// Should we implement cancellation & notification logic here.
 			// For now just deleting the existing record and inserting empty slot.
-			batchServiceDAO.deleteSlots(regCenterDetails.getId(), slotGenCurrentDay);
-			batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-					PreRegBatchContants.ZERO_KIOSK, slotGenCurrentDay, midnightTime, midnightTime);
+			slotBatch.deleteAll();
+			batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+					PreRegBatchContants.ZERO_KIOSK, midnightTime, midnightTime);
 			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 					"Deleted & Inserted Empty slot for the date (Existing One Slot available): " + slotGenCurrentDay);
 			return;
@@ -222,16 +299,16 @@ public class SlotAvailabilityGenerator {
 		regBookingEntityList.stream().forEach(bookedSlot -> {
 			cancelAndNotifyHelper.cancelAndNotifyApplicant(bookedSlot, logIdentifier, cancelledTracker, notifierTracker);
 		});
-		batchServiceDAO.deleteSlots(regCenterDetails.getId(), slotGenCurrentDay);
-		batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-				PreRegBatchContants.ZERO_KIOSK, slotGenCurrentDay, midnightTime, midnightTime);
+		slotBatch.deleteAll();
+		batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+				PreRegBatchContants.ZERO_KIOSK, midnightTime, midnightTime);
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 				"Deleted & Inserted Empty slot for the date (Existing All Slots available): " + slotGenCurrentDay);
 	}
 
 	
 
-	private void calculateFullDaySlotsAndSave(RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, 
+	private void calculateFullDaySlotsAndSave(AvailabilitySlotBatch slotBatch, RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, 
 					String logIdentifier) {
 		
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
@@ -253,7 +330,7 @@ public class SlotAvailabilityGenerator {
 		if (centerLunchStartTime.equals(midnight) || centerLunchEndTime.equals(midnight)) {
 			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 						"Processing For Full Day without considering lunch hour(s).");
-			totalSlotAdded += calculateAndSaveSlot(centerStartTime, centerEndTime, perKioskProcessTime, 
+			totalSlotAdded += calculateAndSaveSlot(slotBatch, centerStartTime, centerEndTime, perKioskProcessTime, 
 											regCenterDetails, slotGenCurrentDay, logIdentifier);
 			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 					"Total Number of slots added(without lunch): " + totalSlotAdded + ", Processing Day: " + slotGenCurrentDay);
@@ -261,21 +338,21 @@ public class SlotAvailabilityGenerator {
 		}
 
 		// save slots before lunch.
-		totalSlotAdded += calculateAndSaveSlot(centerStartTime, centerLunchStartTime, perKioskProcessTime, 
+		totalSlotAdded += calculateAndSaveSlot(slotBatch, centerStartTime, centerLunchStartTime, perKioskProcessTime, 
 											regCenterDetails, slotGenCurrentDay, logIdentifier);
 		// save lunch slot
-		batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-				PreRegBatchContants.ZERO_KIOSK, slotGenCurrentDay, centerLunchStartTime, centerLunchEndTime);
+		batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+				PreRegBatchContants.ZERO_KIOSK, centerLunchStartTime, centerLunchEndTime);
 		totalSlotAdded += 1; // adding lunch slot also. just to find total how many slots saved.
 		
 		// save slots after lunch
-		totalSlotAdded += calculateAndSaveSlot(centerLunchEndTime, centerEndTime, perKioskProcessTime, 
+		totalSlotAdded += calculateAndSaveSlot(slotBatch, centerLunchEndTime, centerEndTime, perKioskProcessTime, 
 											regCenterDetails, slotGenCurrentDay, logIdentifier);
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 				"Total Number of slots added (full day including lunch): " + totalSlotAdded + ", Processing Day: " + slotGenCurrentDay);
 	}
 
-	private int calculateAndSaveSlot(LocalTime startTime, LocalTime endTime, LocalTime perKioskProcessTime, 
+	private int calculateAndSaveSlot(AvailabilitySlotBatch slotBatch, LocalTime startTime, LocalTime endTime, LocalTime perKioskProcessTime, 
 				RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, String logIdentifier) {
 		LocalTime slotStartTime = startTime;
 		LocalTime slotEndTime = startTime.plusHours(perKioskProcessTime.getHour()).plusMinutes(perKioskProcessTime.getMinute());
@@ -285,8 +362,8 @@ public class SlotAvailabilityGenerator {
 				break;
 			}
 			slotsCnt++;
-			batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-					regCenterDetails.getNumberOfKiosks(), slotGenCurrentDay, slotStartTime, slotEndTime);
+			batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+					regCenterDetails.getNumberOfKiosks(), slotStartTime, slotEndTime);
 			slotStartTime = slotEndTime;
 			slotEndTime = slotEndTime.plusHours(perKioskProcessTime.getHour()).plusMinutes(perKioskProcessTime.getMinute());
 		} while(slotEndTime.isBefore(endTime) || slotEndTime.equals(endTime));
@@ -300,7 +377,7 @@ public class SlotAvailabilityGenerator {
 		return slotsCnt;
 	}
 
-	private void purgeAndCalculateFullDaySlotsThenSave(RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, 
+	private void purgeAndCalculateFullDaySlotsThenSave(AvailabilitySlotBatch slotBatch, RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, 
 				String logIdentifier, List<AvailibityEntity> slotsAvailableList) {
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 					"Purge existing one slot & Processing For Full Day Slots for date: " + slotGenCurrentDay);
@@ -309,8 +386,8 @@ public class SlotAvailabilityGenerator {
 		if (slotAvailibityEntity.getFromTime().equals(midnightTime) && 
 				slotAvailibityEntity.getToTime().equals(midnightTime)) {
 			
-			batchServiceDAO.deleteSlots(regCenterDetails.getId(), slotGenCurrentDay);
-			calculateFullDaySlotsAndSave(regCenterDetails, slotGenCurrentDay, logIdentifier);
+			slotBatch.deleteAll();
+			calculateFullDaySlotsAndSave(slotBatch, regCenterDetails, slotGenCurrentDay, logIdentifier);
 			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 					"Purged existing one holiday slot & Processed For Full Day Slots for date: " + slotGenCurrentDay);
 			return;
@@ -323,7 +400,7 @@ public class SlotAvailabilityGenerator {
 
 	}
 
-	private void checkAndReCalculateFullDaySlotsThenSave(RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, 
+	private void checkAndReCalculateFullDaySlotsThenSave(AvailabilitySlotBatch slotBatch, RegistrationCenterDto regCenterDetails, LocalDate slotGenCurrentDay, 
 					String logIdentifier, List<AvailibityEntity> slotsAvailableList, Map<String, Boolean> cancelledTracker,
 					Map<String, Boolean> notifierTracker) {
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
@@ -367,8 +444,8 @@ public class SlotAvailabilityGenerator {
 				lunchSlotEndTime = (LocalTime) lunchTime[1];
 			if (Objects.nonNull(lunchTime[0]) && Objects.nonNull(lunchTime[1])){
 				// save lunch slot, will be useful in next calculation.
-				batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-					PreRegBatchContants.ZERO_KIOSK, slotGenCurrentDay, lunchSlotStartTime, lunchSlotEndTime);
+				batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+					PreRegBatchContants.ZERO_KIOSK, lunchSlotStartTime, lunchSlotEndTime);
 				foundLunchSlots = true;
 			}
 		}
@@ -389,7 +466,7 @@ public class SlotAvailabilityGenerator {
 			// centerConfiguredTime = 09:00
 			// slotCalculatedTime   = 09:30
 			// add new slots from 09:00 to 09:30 -> 30 mins
-			recalculateSlots(centerStartTime, firstSlotStartTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
+			recalculateSlots(slotBatch, centerStartTime, firstSlotStartTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
 							cancelledTracker, notifierTracker);
 		}
 		// End Time.
@@ -402,7 +479,7 @@ public class SlotAvailabilityGenerator {
 			// slotCalculatedTime  = 17:30 (lastSlotEndTime)
 			// cancel/notify the slots from 17:00 to 17:30 -> 30 mins.
 			// just goes reverse here.... but need to validate the scenario. 
-			recalculateSlots(lastSlotEndTime, centerEndTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
+			recalculateSlots(slotBatch, lastSlotEndTime, centerEndTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
 							cancelledTracker, notifierTracker);
 		}
 
@@ -423,14 +500,13 @@ public class SlotAvailabilityGenerator {
 					cancelAndNotifyHelper.cancelAndNotifyApplicant(bookedSlot, logIdentifier, cancelledTracker, notifierTracker);
 				});
 				LocalTime newCenterLunchEndTime = centerLunchEndTime.minusMinutes(1);
-				int deleted = batchServiceDAO.deleteSlotsBetweenHours(regCenterDetails.getId(), slotGenCurrentDay, 
-										centerLunchStartTime, newCenterLunchEndTime);
+				int deleted = slotBatch.deleteFromTimeBetween(centerLunchStartTime, newCenterLunchEndTime);
 				LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 									"Total Number of bookings cancel & notified between hours(lunch hours): " + counter.get());
 				LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 									"Total Number of slots deleted(lunch hours): " + deleted);
-				batchDBHelper.saveAvailability(regCenterDetails.getId(), regCenterDetails.getContactPerson(),
-						PreRegBatchContants.ZERO_KIOSK, slotGenCurrentDay, centerLunchStartTime, centerLunchEndTime);
+				batchDBHelper.saveAvailability(slotBatch, regCenterDetails.getContactPerson(),
+						PreRegBatchContants.ZERO_KIOSK, centerLunchStartTime, centerLunchEndTime);
 				return;
 			}
 		}
@@ -440,8 +516,8 @@ public class SlotAvailabilityGenerator {
 			// previously lunch hours configured, updated now as no lunch hours (removed lunch hours)
 			// add new slots for the lunch hour.
 			if (centerLunchStartTime.equals(midnightTime) && centerLunchStartTime.equals(centerLunchEndTime)) {
-				batchServiceDAO.deleteSlotForStartTimeEndTime(regCenterDetails.getId(), slotGenCurrentDay, lunchSlotStartTime, lunchSlotEndTime);
-				int totalSlotAdded = calculateAndSaveSlot(lunchSlotStartTime, lunchSlotEndTime, regCenterDetails.getPerKioskProcessTime(), 
+				slotBatch.delete(lunchSlotStartTime, lunchSlotEndTime);
+				int totalSlotAdded = calculateAndSaveSlot(slotBatch, lunchSlotStartTime, lunchSlotEndTime, regCenterDetails.getPerKioskProcessTime(), 
 											regCenterDetails, slotGenCurrentDay, logIdentifier);
 				LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 											"Total Number of new bookings slots added between hours(removed lunch hours): " + totalSlotAdded);
@@ -453,7 +529,7 @@ public class SlotAvailabilityGenerator {
 				// certerConfiguredTime  = 13:00 (centerLunchStartTime)
 				// slotCalculatedTime  = 13:30 (lunchSlotStartTime)
 				// cancel/notify the slots from 13:00 to 13:30 -> 30 mins.
-				recalculateSlots(lunchSlotStartTime, centerLunchStartTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
+				recalculateSlots(slotBatch, lunchSlotStartTime, centerLunchStartTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
 								cancelledTracker, notifierTracker);
 			}
 		}
@@ -468,13 +544,13 @@ public class SlotAvailabilityGenerator {
 				// certerConfiguredTime  = 13:30 (centerLunchStartTime)
 				// slotCalculatedTime  = 14:00 (lunchSlotStartTime)
 				// add new slots from 13:30 to 14:00 -> 30 mins.
-				recalculateSlots(centerLunchEndTime, lunchSlotEndTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
+				recalculateSlots(slotBatch, centerLunchEndTime, lunchSlotEndTime, regCenterDetails, slotGenCurrentDay, logIdentifier, 
 								cancelledTracker, notifierTracker);
 			}
 		}
 	}
 
-	private void recalculateSlots(LocalTime centerConfiguredTime, LocalTime slotCalculatedTime, RegistrationCenterDto regCenterDetails, 
+	private void recalculateSlots(AvailabilitySlotBatch slotBatch, LocalTime centerConfiguredTime, LocalTime slotCalculatedTime, RegistrationCenterDto regCenterDetails, 
 					LocalDate slotGenCurrentDay, String logIdentifier, Map<String, Boolean> cancelledTracker,
 					Map<String, Boolean> notifierTracker) {
 		
@@ -494,12 +570,12 @@ public class SlotAvailabilityGenerator {
 				counter.incrementAndGet();
 				cancelAndNotifyHelper.cancelAndNotifyApplicant(bookedSlot, logIdentifier, cancelledTracker, notifierTracker);
 			});
-			batchServiceDAO.deleteSlotsBetweenHours(regCenterDetails.getId(), slotGenCurrentDay, slotCalculatedTime, centerConfiguredTime);
+			slotBatch.deleteFromTimeBetween(slotCalculatedTime, centerConfiguredTime);
 			LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 								"Total Number of bookings cancel & notified between hours: " + counter.get());
 			return;
 		} 
-		int totalSlotAdded = calculateAndSaveSlot(centerConfiguredTime, slotCalculatedTime, regCenterDetails.getPerKioskProcessTime(), 
+		int totalSlotAdded = calculateAndSaveSlot(slotBatch, centerConfiguredTime, slotCalculatedTime, regCenterDetails.getPerKioskProcessTime(), 
 											regCenterDetails, slotGenCurrentDay, logIdentifier);
 		LOGGER.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH, logIdentifier, 
 											"Total Number of new bookings slots added between hours: " + totalSlotAdded);
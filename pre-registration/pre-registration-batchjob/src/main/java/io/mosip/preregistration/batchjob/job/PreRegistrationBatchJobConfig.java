@@ -4,9 +4,15 @@
  */
 package io.mosip.preregistration.batchjob.job;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
 
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
@@ -15,17 +21,25 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.support.PostgresPagingQueryProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.batchjob.impl.ApplicationConsumedStatusUpdater;
+import io.mosip.preregistration.batchjob.impl.ConsumedApplicationPartitioner;
+import io.mosip.preregistration.batchjob.impl.ConsumedStatusStepListener;
 import io.mosip.preregistration.batchjob.impl.SlotAvailabilityPartitioner;
+import io.mosip.preregistration.batchjob.tasklets.AnonymousProfileExportTasklet;
 import io.mosip.preregistration.batchjob.tasklets.ApplicationsBookingCheckTasklet;
 import io.mosip.preregistration.batchjob.tasklets.AvailabilitySyncTasklet;
-import io.mosip.preregistration.batchjob.tasklets.ConsumedStatusTasklet;
 import io.mosip.preregistration.batchjob.tasklets.ExpiredStatusTasklet;
 import io.mosip.preregistration.batchjob.tasklets.PurgeExpiredRegCentersSlotsTasklet;
 
@@ -47,8 +61,27 @@ public class PreRegistrationBatchJobConfig {
 	@Autowired
 	private StepBuilderFactory stepBuilderFactory;
 
+	@Value("${preregistration.consumed.partition.count:4}")
+	private int consumedPartitionCount;
+
+	@Value("${preregistration.consumed.chunk.size:500}")
+	private int consumedChunkSize;
+
+	/**
+	 * Maximum number of pre registrations skipped per partition before the
+	 * partition fails
+	 */
+	@Value("${preregistration.consumed.skip.limit:1000}")
+	private int consumedSkipLimit;
+
 	@Autowired
-	private ConsumedStatusTasklet consumedStatusTasklet;
+	private DataSource dataSource;
+
+	@Autowired
+	private ApplicationConsumedStatusUpdater consumedStatusUpdater;
+
+	@Autowired
+	private ConsumedStatusStepListener consumedStatusStepListener;
 
 	@Autowired
 	private PurgeExpiredRegCentersSlotsTasklet purgeRegCenterSlotsTasklet;
@@ -59,9 +92,75 @@ public class PreRegistrationBatchJobConfig {
 	@Autowired
 	private ApplicationsBookingCheckTasklet applicationBookingCheckTasklet;
 
+	@Autowired
+	private AnonymousProfileExportTasklet anonymousProfileExportTasklet;
+
 	@Bean
 	public Step consumedStatusStep() {
-		return stepBuilderFactory.get("consumedStatusStep").tasklet(consumedStatusTasklet).build();
+		return stepBuilderFactory.get("consumedStatusStep")
+								 .partitioner("consumedStatusPartitionStep", consumedApplicationPartitioner())
+								 .step(consumedStatusPartitionStep())
+								 .gridSize(consumedPartitionCount)
+								 .taskExecutor(consumedTaskExecutor())
+								 .aggregator(consumedStatusStepListener)
+								 .listener(consumedStatusStepListener)
+								 .build();
+	}
+
+	@Bean
+	public Partitioner consumedApplicationPartitioner() {
+		return new ConsumedApplicationPartitioner();
+	}
+
+	@Bean
+	public Step consumedStatusPartitionStep() {
+		return stepBuilderFactory.get("consumedStatusPartitionStep")
+								 .<String, String>chunk(consumedChunkSize)
+								 .reader(consumedPreRegIdReader(null, null))
+								 .writer(consumedStatusUpdater)
+								 .faultTolerant()
+								 .skip(DataIntegrityViolationException.class)
+								 .skipLimit(consumedSkipLimit)
+								 .listener((SkipListener<String, String>) consumedStatusUpdater)
+								 .build();
+	}
+
+	/**
+	 * Reads the processed pre registration ids of one hash partition, keyset
+	 * paged on the id so the read position survives a restart.
+	 */
+	@Bean
+	@StepScope
+	public JdbcPagingItemReader<String> consumedPreRegIdReader(
+									   @Value("#{stepExecutionContext['partitionIndex']}") Integer partitionIndex, 
+									   @Value("#{stepExecutionContext['partitionCount']}") Integer partitionCount) {
+		PostgresPagingQueryProvider queryProvider = new PostgresPagingQueryProvider();
+		queryProvider.setSelectClause("SELECT prereg_id");
+		queryProvider.setFromClause("FROM prereg.processed_prereg_list");
+		queryProvider.setWhereClause("WHERE status_comments = :statusComments "
+				+ "AND abs(mod(hashtext(prereg_id), :partitionCount)) = :partitionIndex");
+		queryProvider.setSortKeys(Collections.singletonMap("prereg_id", Order.ASCENDING));
+
+		Map<String, Object> parameterValues = new HashMap<>();
+		parameterValues.put("statusComments", PreRegBatchContants.PROCESSED_STATUS_COMMENTS);
+		parameterValues.put("partitionIndex", partitionIndex);
+		parameterValues.put("partitionCount", partitionCount);
+
+		JdbcPagingItemReader<String> reader = new JdbcPagingItemReader<>();
+		reader.setName("consumedPreRegIdReader");
+		reader.setDataSource(dataSource);
+		reader.setQueryProvider(queryProvider);
+		reader.setParameterValues(parameterValues);
+		reader.setPageSize(consumedChunkSize);
+		reader.setRowMapper((resultSet, rowNum) -> resultSet.getString(1));
+		return reader;
+	}
+
+	@Bean 
+	public TaskExecutor consumedTaskExecutor(){
+		SimpleAsyncTaskExecutor asyncTaskExecutor = new SimpleAsyncTaskExecutor("ConsumedArchiver");
+		asyncTaskExecutor.setConcurrencyLimit(consumedPartitionCount);
+		return asyncTaskExecutor;
 	}
 
 	@Bean
@@ -79,6 +178,11 @@ public class PreRegistrationBatchJobConfig {
 		return stepBuilderFactory.get("updateBookingInApplicationsStep").tasklet(applicationBookingCheckTasklet).build();
 	}
 
+	@Bean
+	public Step anonymousProfileExportStep() {
+		return stepBuilderFactory.get("anonymousProfileExportStep").tasklet(anonymousProfileExportTasklet).build();
+	}
+
 	@Bean
 	public Job purgeExpiredSlotsJob() {
 		return this.jobBuilderFactory.get("purgeExpiredSlotsJob").incrementer(new RunIdIncrementer())
@@ -103,6 +207,12 @@ public class PreRegistrationBatchJobConfig {
 				.start(updateBookingInApplicationsStep()).build();
 	}
 
+	@Bean
+	public Job anonymousProfileExportJob() {
+		return this.jobBuilderFactory.get("anonymousProfileExportJob").incrementer(new RunIdIncrementer())
+				.start(anonymousProfileExportStep()).build();
+	}
+
 	@Bean(name="regCenterPartitionerJob")
 	public Job regCenterPartitionerJob() {
 		return this.jobBuilderFactory.get("regCenterPartitionerJob")
@@ -95,6 +95,16 @@ public interface AvailabilityRepository extends BaseRepository<AvailibityEntity,
 	@Query("SELECT DISTINCT e FROM AvailibityEntity e  WHERE e.regDate= ?1 and e.regcntrId=?2 order by e.fromTime ")
 	public List<AvailibityEntity> findAvaialableSlots(LocalDate regDate, String regcntrId);
 	
+	/**
+	 * 
+	 * @param regcntrId
+	 * @param fromDate  inclusive
+	 * @param toDate    exclusive
+	 * @return list of AvailibityEntity ordered by date and from time
+	 */
+	@Query("SELECT DISTINCT e FROM AvailibityEntity e  WHERE e.regcntrId=?1 and e.regDate>= ?2 and e.regDate< ?3 order by e.regDate, e.fromTime ")
+	public List<AvailibityEntity> findAvaialableSlotsBetween(String regcntrId, LocalDate fromDate, LocalDate toDate);
+	
 	
 	/**
 	 * 
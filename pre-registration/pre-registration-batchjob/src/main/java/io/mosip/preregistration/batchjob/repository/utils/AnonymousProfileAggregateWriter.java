@@ -0,0 +1,239 @@
+package io.mosip.preregistration.batchjob.repository.utils;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.batchjob.code.ErrorCodes;
+import io.mosip.preregistration.batchjob.code.ErrorMessages;
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+import io.mosip.preregistration.core.exception.TableNotAccessibleException;
+import io.mosip.preregistration.core.util.IdentityMapping;
+
+/**
+ * This class rolls the anonymous profiles created on a day up into counts per
+ * year of birth bucket, gender, location, channel, registration center and
+ * documents. The profiles of the day are streamed and parsed once, and the
+ * counts replace the stored aggregate of the day in one transaction, so a day
+ * can be aggregated again.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class AnonymousProfileAggregateWriter {
+
+	private Logger log = LoggerConfiguration.logConfig(AnonymousProfileAggregateWriter.class);
+
+	private static final String SELECT_LAST_AGGREGATED_DATE = "SELECT max(profile_date) FROM prereg.anonymous_profile_daily";
+
+	private static final String SELECT_FIRST_PROFILE_TIME = "SELECT min(cr_dtimes) FROM prereg.anonymous_profile";
+
+	private static final String SELECT_NEXT_PROFILE_TIME = "SELECT min(cr_dtimes) FROM prereg.anonymous_profile "
+			+ "WHERE cr_dtimes >= ? AND (is_deleted IS NULL OR is_deleted = false)";
+
+	private static final String SELECT_PROFILES = "SELECT profile FROM prereg.anonymous_profile WHERE cr_dtimes >= ? "
+			+ "AND cr_dtimes < ? AND (is_deleted IS NULL OR is_deleted = false)";
+
+	private static final String DELETE_AGGREGATE = "DELETE FROM prereg.anonymous_profile_daily WHERE profile_date = ?";
+
+	private static final String INSERT_AGGREGATE = "INSERT INTO prereg.anonymous_profile_daily (profile_date, yob_bucket, "
+			+ "gender, location, channel, regcntr_id, documents, profile_count, cr_by, cr_dtimes) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * Column sizes of the aggregate, in the order of the dimensions
+	 */
+	private static final int[] DIMENSION_LENGTHS = { 16, 64, 512, 64, 10, 512 };
+
+	private static final String SEPARATOR = ",";
+
+	@Value("${preregistration.anonymous-profile.aggregate.yob-bucket-years:10}")
+	private int yobBucketYears;
+
+	@Value("${preregistration.anonymous-profile.aggregate.fetch-size:1000}")
+	private int fetchSize;
+
+	@Value("${preregistration.anonymous-profile.aggregate.jdbc.batch-size:500}")
+	private int batchSize;
+
+	@Value("${mosip.batch.token.authmanager.userName}")
+	private String auditUsername;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper mapper = IdentityMapping.getMapper();
+
+	private final Counter profileCounter = Metrics.counter("preregistration.anonymous-profile.aggregated");
+
+	private final Counter skippedCounter = Metrics.counter("preregistration.anonymous-profile.aggregate.skipped");
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.jdbcTemplate.setFetchSize(fetchSize);
+	}
+
+	/**
+	 * Gives the first day to aggregate. The last aggregated day is aggregated
+	 * again because it may have been aggregated before it was complete.
+	 *
+	 * @return the last aggregated day, the day of the first profile when nothing
+	 *         is aggregated yet, or null when there are no profiles
+	 */
+	public LocalDate findResumeDate() {
+		try {
+			Date lastAggregated = jdbcTemplate.queryForObject(SELECT_LAST_AGGREGATED_DATE, Date.class);
+			if (lastAggregated != null) {
+				return lastAggregated.toLocalDate();
+			}
+			Timestamp firstProfile = jdbcTemplate.queryForObject(SELECT_FIRST_PROFILE_TIME, Timestamp.class);
+			return firstProfile == null ? null : firstProfile.toLocalDateTime().toLocalDate();
+		} catch (DataAccessException e) {
+			log.error("sessionId", "idType", "id",
+					"In findResumeDate method of AnonymousProfileAggregateWriter- " + e.getMessage());
+			throw new TableNotAccessibleException(ErrorCodes.PRG_PAM_BAT_020.getCode(),
+					ErrorMessages.ANONYMOUS_PROFILE_TABLE_NOT_ACCESSIBLE.getMessage());
+		}
+	}
+
+	/**
+	 * Gives the next day with profiles, so days without profiles, which have no
+	 * aggregate, are skipped.
+	 *
+	 * @param from the first day to look at
+	 * @return the first day from the given one with profiles, or null when there
+	 *         are none
+	 */
+	public LocalDate findNextProfileDate(LocalDate from) {
+		try {
+			Timestamp nextProfile = jdbcTemplate.queryForObject(SELECT_NEXT_PROFILE_TIME, Timestamp.class,
+					Timestamp.valueOf(from.atStartOfDay()));
+			return nextProfile == null ? null : nextProfile.toLocalDateTime().toLocalDate();
+		} catch (DataAccessException e) {
+			log.error("sessionId", "idType", "id",
+					"In findNextProfileDate method of AnonymousProfileAggregateWriter- " + e.getMessage());
+			throw new TableNotAccessibleException(ErrorCodes.PRG_PAM_BAT_020.getCode(),
+					ErrorMessages.ANONYMOUS_PROFILE_TABLE_NOT_ACCESSIBLE.getMessage());
+		}
+	}
+
+	/**
+	 * Replaces the aggregate of the given day with the counts of the profiles
+	 * created on it.
+	 *
+	 * @param day the UTC day the profiles were created on
+	 * @return number of profiles aggregated
+	 */
+	@Transactional
+	public int aggregate(LocalDate day) {
+		Map<List<String>, Integer> counts = new HashMap<>();
+		int[] skipped = { 0 };
+		try {
+			jdbcTemplate.query(SELECT_PROFILES, resultSet -> {
+				List<String> dimensions = dimensions(resultSet.getString(1));
+				if (dimensions == null) {
+					skipped[0]++;
+				} else {
+					counts.merge(dimensions, 1, Integer::sum);
+				}
+			}, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+
+			Timestamp createdTime = Timestamp.valueOf(LocalDateTime.now());
+			jdbcTemplate.update(DELETE_AGGREGATE, Date.valueOf(day));
+			jdbcTemplate.batchUpdate(INSERT_AGGREGATE, counts.entrySet(), batchSize, (ps, count) -> {
+				ps.setDate(1, Date.valueOf(day));
+				for (int index = 0; index < DIMENSION_LENGTHS.length; index++) {
+					ps.setString(index + 2, count.getKey().get(index));
+				}
+				ps.setInt(8, count.getValue());
+				ps.setString(9, auditUsername);
+				ps.setTimestamp(10, createdTime);
+			});
+		} catch (DataAccessException e) {
+			log.error("sessionId", "idType", "id", "In aggregate method of AnonymousProfileAggregateWriter- " + e.getMessage());
+			throw new TableNotAccessibleException(ErrorCodes.PRG_PAM_BAT_020.getCode(),
+					ErrorMessages.ANONYMOUS_PROFILE_TABLE_NOT_ACCESSIBLE.getMessage());
+		}
+		int aggregated = counts.values().stream().mapToInt(Integer::intValue).sum();
+		profileCounter.increment(aggregated);
+		skippedCounter.increment(skipped[0]);
+		log.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH,
+				PreRegBatchContants.ANONYMOUS_PROFILE_EXPORT_JOB, "Aggregated profiles of " + day + ": " + aggregated
+						+ ", aggregate rows: " + counts.size() + ", unreadable profiles skipped: " + skipped[0]);
+		return aggregated;
+	}
+
+	private List<String> dimensions(String profile) {
+		JsonNode profileNode;
+		try {
+			profileNode = mapper.readTree(profile);
+		} catch (IOException e) {
+			return null;
+		}
+		if (profileNode == null || !profileNode.isObject()) {
+			return null;
+		}
+		List<String> dimensions = Arrays.asList(yobBucket(profileNode.path("yearOfBirth").asText("")),
+				profileNode.path("gender").asText(""), join(profileNode.path("location"), false),
+				join(profileNode.path("channel"), true), profileNode.path("enrollmentCenterId").asText(""),
+				join(profileNode.path("documents"), true));
+		for (int index = 0; index < DIMENSION_LENGTHS.length; index++) {
+			String value = dimensions.get(index).trim();
+			dimensions.set(index, value.length() > DIMENSION_LENGTHS[index] ? value.substring(0, DIMENSION_LENGTHS[index])
+					: value);
+		}
+		return dimensions;
+	}
+
+	private String yobBucket(String yearOfBirth) {
+		try {
+			int year = Integer.parseInt(yearOfBirth.trim());
+			int bucketStart = year - Math.floorMod(year, yobBucketYears);
+			return bucketStart + "-" + (bucketStart + yobBucketYears - 1);
+		} catch (NumberFormatException e) {
+			return PreRegBatchContants.EMPTY;
+		}
+	}
+
+	/**
+	 * Joins the values of an array, keeping the order of a location hierarchy and
+	 * sorting the unordered channels and documents so equal sets count together.
+	 */
+	private String join(JsonNode values, boolean sorted) {
+		if (!values.isArray()) {
+			return PreRegBatchContants.EMPTY;
+		}
+		List<String> joined = new ArrayList<>();
+		values.forEach(value -> {
+			if (!value.isNull() && !value.asText().trim().isEmpty()) {
+				joined.add(value.asText().trim());
+			}
+		});
+		return String.join(SEPARATOR, sorted ? new TreeSet<>(joined) : joined);
+	}
+}
@@ -0,0 +1,125 @@
+package io.mosip.preregistration.batchjob.repository.utils;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.batchjob.code.ErrorCodes;
+import io.mosip.preregistration.batchjob.code.ErrorMessages;
+import io.mosip.preregistration.batchjob.entity.AvailibityEntity;
+import io.mosip.preregistration.batchjob.helper.AvailabilitySlotBatch;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+import io.mosip.preregistration.core.exception.TableNotAccessibleException;
+
+/**
+ * This class writes the difference between the generated and the stored
+ * availability slots with JDBC batch statements instead of one JPA save per
+ * slot.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class AvailabilitySlotWriter {
+
+	private Logger log = LoggerConfiguration.logConfig(AvailabilitySlotWriter.class);
+
+	private static final String INSERT_SLOT = "INSERT INTO prereg.reg_available_slot (regcntr_id, availability_date, "
+			+ "slot_from_time, slot_to_time, available_kiosks, cr_by, cr_dtimes, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, false)";
+
+	private static final String UPDATE_SLOT = "UPDATE prereg.reg_available_slot SET slot_to_time = ?, available_kiosks = ?, "
+			+ "upd_by = ?, upd_dtimes = ? WHERE regcntr_id = ? AND availability_date = ? AND slot_from_time = ?";
+
+	private static final String DELETE_SLOT = "DELETE FROM prereg.reg_available_slot WHERE regcntr_id = ? "
+			+ "AND availability_date = ? AND slot_from_time = ?";
+
+	@Value("${preregistration.slots.generate.jdbc.batch-size:500}")
+	private int batchSize;
+
+	@Value("${mosip.batch.token.authmanager.userName}")
+	private String auditUsername;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final Counter insertedCounter = Metrics.counter("preregistration.slots.written", "operation", "insert");
+
+	private final Counter updatedCounter = Metrics.counter("preregistration.slots.written", "operation", "update");
+
+	private final Counter deletedCounter = Metrics.counter("preregistration.slots.written", "operation", "delete");
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Writes the slots deleted, updated and inserted in the given days in one
+	 * transaction.
+	 *
+	 * @param slotBatches the generated days of a registration center
+	 * @return number of rows written
+	 */
+	@Transactional
+	public int write(List<AvailabilitySlotBatch> slotBatches) {
+		List<AvailibityEntity> deletedSlots = collect(slotBatches, AvailabilitySlotBatch::getDeletedSlots);
+		List<AvailibityEntity> updatedSlots = collect(slotBatches, AvailabilitySlotBatch::getUpdatedSlots);
+		List<AvailibityEntity> insertedSlots = collect(slotBatches, AvailabilitySlotBatch::getInsertedSlots);
+		LocalDateTime updatedTime = LocalDateTime.now();
+		try {
+			jdbcTemplate.batchUpdate(DELETE_SLOT, deletedSlots, batchSize, (ps, slot) -> {
+				ps.setString(1, slot.getRegcntrId());
+				ps.setDate(2, Date.valueOf(slot.getRegDate()));
+				ps.setTime(3, Time.valueOf(slot.getFromTime()));
+			});
+			jdbcTemplate.batchUpdate(UPDATE_SLOT, updatedSlots, batchSize, (ps, slot) -> {
+				ps.setTime(1, Time.valueOf(slot.getToTime()));
+				ps.setInt(2, slot.getAvailableKiosks());
+				ps.setString(3, auditUsername);
+				ps.setTimestamp(4, Timestamp.valueOf(updatedTime));
+				ps.setString(5, slot.getRegcntrId());
+				ps.setDate(6, Date.valueOf(slot.getRegDate()));
+				ps.setTime(7, Time.valueOf(slot.getFromTime()));
+			});
+			jdbcTemplate.batchUpdate(INSERT_SLOT, insertedSlots, batchSize, (ps, slot) -> {
+				ps.setString(1, slot.getRegcntrId());
+				ps.setDate(2, Date.valueOf(slot.getRegDate()));
+				ps.setTime(3, Time.valueOf(slot.getFromTime()));
+				ps.setTime(4, Time.valueOf(slot.getToTime()));
+				ps.setInt(5, slot.getAvailableKiosks());
+				ps.setString(6, slot.getCrBy());
+				ps.setTimestamp(7, Timestamp.valueOf(slot.getCrDate()));
+			});
+		} catch (DataAccessException e) {
+			log.error("sessionId", "idType", "id", "In write method of AvailabilitySlotWriter- " + e.getMessage());
+			throw new TableNotAccessibleException(ErrorCodes.PRG_PAM_BAT_013.getCode(),
+					ErrorMessages.AVAILABILITY_TABLE_NOT_ACCESSABLE.getMessage());
+		}
+		deletedCounter.increment(deletedSlots.size());
+		updatedCounter.increment(updatedSlots.size());
+		insertedCounter.increment(insertedSlots.size());
+		return deletedSlots.size() + updatedSlots.size() + insertedSlots.size();
+	}
+
+	private List<AvailibityEntity> collect(List<AvailabilitySlotBatch> slotBatches,
+			Function<AvailabilitySlotBatch, List<AvailibityEntity>> slots) {
+		List<AvailibityEntity> collected = new ArrayList<>();
+		slotBatches.forEach(slotBatch -> collected.addAll(slots.apply(slotBatch)));
+		return collected;
+	}
+}
@@ -463,6 +463,24 @@ public class BatchJpaRepositoryImpl {
 		return localDatList;
 	}
 
+	/**
+	 * 
+	 * @param regID
+	 * @param fromDate inclusive
+	 * @param toDate   exclusive
+	 * @return list of AvailibityEntity ordered by date and from time
+	 */
+	public List<AvailibityEntity> findSlotsBetween(String regID, LocalDate fromDate, LocalDate toDate) {
+		List<AvailibityEntity> slotsList = null;
+		try {
+			slotsList = availabilityRepository.findAvaialableSlotsBetween(regID, fromDate, toDate);
+		} catch (DataAccessLayerException e) {
+			throw new TableNotAccessibleException(ErrorCodes.PRG_PAM_BAT_013.getCode(),
+					ErrorMessages.AVAILABILITY_TABLE_NOT_ACCESSABLE.getMessage());
+		}
+		return slotsList;
+	}
+
 	/**
 	 * 
 	 * @param regId
@@ -0,0 +1,146 @@
+package io.mosip.preregistration.batchjob.repository.utils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.core.code.StatusCodes;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class moves a chunk of processed pre registrations to the consumed
+ * tables with set based statements, one statement per table for the whole
+ * chunk. Rows already in a consumed table, on any of its unique keys, are left
+ * as they are. It joins the transaction of the calling chunk.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class ConsumedApplicationArchiver {
+
+	private Logger log = LoggerConfiguration.logConfig(ConsumedApplicationArchiver.class);
+
+	private static final String SELECT_DEMOGRAPHIC_IDS = "SELECT prereg_id FROM prereg.applicant_demographic "
+			+ "WHERE prereg_id IN (:preRegIds)";
+
+	private static final String DELETE_INVALID_PROCESSED = "DELETE FROM prereg.processed_prereg_list "
+			+ "WHERE prereg_id IN (:preRegIds)";
+
+	private static final String INSERT_DEMOGRAPHIC_CONSUMED = "INSERT INTO prereg.applicant_demographic_consumed "
+			+ "(prereg_id, demog_detail, demog_detail_hash, encrypted_dtimes, status_code, lang_code, cr_appuser_id, "
+			+ "cr_by, cr_dtimes, upd_by, upd_dtimes) "
+			+ "SELECT prereg_id, demog_detail, demog_detail_hash, encrypted_dtimes, :consumedStatus, lang_code, "
+			+ "cr_appuser_id, cr_by, cr_dtimes, :updBy, :updDtimes FROM prereg.applicant_demographic "
+			+ "WHERE prereg_id IN (:preRegIds) ON CONFLICT (prereg_id) DO NOTHING";
+
+	private static final String INSERT_DOCUMENT_CONSUMED = "INSERT INTO prereg.applicant_document_consumed "
+			+ "(id, prereg_id, doc_name, doc_cat_code, doc_typ_code, doc_file_format, doc_id, doc_hash, doc_ref_id, "
+			+ "encrypted_dtimes, status_code, lang_code, cr_by, cr_dtimes, upd_by, upd_dtimes) "
+			+ "SELECT id, prereg_id, doc_name, doc_cat_code, doc_typ_code, doc_file_format, doc_id, doc_hash, doc_ref_id, "
+			+ "encrypted_dtimes, status_code, lang_code, cr_by, cr_dtimes, :updBy, :updDtimes FROM prereg.applicant_document "
+			+ "WHERE prereg_id IN (:preRegIds) ON CONFLICT DO NOTHING";
+
+	private static final String INSERT_BOOKING_CONSUMED = "INSERT INTO prereg.reg_appointment_consumed "
+			+ "(id, regcntr_id, prereg_id, booking_dtimes, appointment_date, slot_from_time, slot_to_time, lang_code, "
+			+ "cr_by, cr_dtimes, upd_by, upd_dtimes) "
+			+ "SELECT a.id, a.regcntr_id, a.prereg_id, a.booking_dtimes, a.appointment_date, a.slot_from_time, "
+			+ "a.slot_to_time, a.lang_code, a.cr_by, a.cr_dtimes, :updBy, :updDtimes FROM prereg.reg_appointment a "
+			+ "JOIN prereg.applicant_demographic d ON d.prereg_id = a.prereg_id "
+			+ "WHERE d.prereg_id IN (:preRegIds) AND d.status_code = :bookedStatus ON CONFLICT DO NOTHING";
+
+	private static final String DELETE_DOCUMENTS = "DELETE FROM prereg.applicant_document WHERE prereg_id IN (:preRegIds)";
+
+	private static final String DELETE_BOOKINGS = "DELETE FROM prereg.reg_appointment a USING prereg.applicant_demographic d "
+			+ "WHERE d.prereg_id = a.prereg_id AND d.prereg_id IN (:preRegIds) AND d.status_code = :bookedStatus";
+
+	private static final String DELETE_DEMOGRAPHICS = "DELETE FROM prereg.applicant_demographic "
+			+ "WHERE prereg_id IN (:preRegIds)";
+
+	private static final String DELETE_APPLICATIONS = "DELETE FROM prereg.applications WHERE application_id IN (:preRegIds)";
+
+	private static final String UPDATE_PROCESSED = "UPDATE prereg.processed_prereg_list SET status_comments = :statusComments, "
+			+ "upd_by = :updBy, upd_dtimes = :updDtimes WHERE prereg_id IN (:preRegIds)";
+
+	private static final String UPDATE_FAILED = "UPDATE prereg.processed_prereg_list SET status_comments = :statusComments, "
+			+ "upd_by = :updBy, upd_dtimes = :updDtimes WHERE prereg_id = :preRegId";
+
+	@Value("${mosip.batch.token.authmanager.appId}")
+	private String auditUserId;
+
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Moves the demographic, document and booking rows of the given pre
+	 * registrations to the consumed tables, purges the applications and marks
+	 * them consumed in the processed list. Pre registrations without demographic
+	 * details are removed from the processed list.
+	 *
+	 * @param preRegIds the processed pre registration ids of a chunk
+	 * @return number of pre registrations archived
+	 */
+	public int archive(List<String> preRegIds) {
+		List<String> validPreRegIds = jdbcTemplate.queryForList(SELECT_DEMOGRAPHIC_IDS,
+				new MapSqlParameterSource("preRegIds", preRegIds), String.class);
+		List<String> invalidPreRegIds = new ArrayList<>(preRegIds);
+		invalidPreRegIds.removeAll(validPreRegIds);
+		if (!invalidPreRegIds.isEmpty()) {
+			int deleted = jdbcTemplate.update(DELETE_INVALID_PROCESSED,
+					new MapSqlParameterSource("preRegIds", invalidPreRegIds));
+			log.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH,
+					PreRegBatchContants.APPLICATION_CONSUMED_JOB,
+					"Deleted invalid processed pre reg ids: " + invalidPreRegIds + ", deleted count: " + deleted);
+		}
+		if (validPreRegIds.isEmpty()) {
+			return 0;
+		}
+
+		MapSqlParameterSource params = new MapSqlParameterSource("preRegIds", validPreRegIds)
+				.addValue("updBy", auditUserId).addValue("updDtimes", Timestamp.valueOf(LocalDateTime.now()))
+				.addValue("consumedStatus", StatusCodes.CONSUMED.getCode())
+				.addValue("bookedStatus", StatusCodes.BOOKED.getCode())
+				.addValue("statusComments", PreRegBatchContants.NEW_STATUS_COMMENTS);
+		int demographics = jdbcTemplate.update(INSERT_DEMOGRAPHIC_CONSUMED, params);
+		int documents = jdbcTemplate.update(INSERT_DOCUMENT_CONSUMED, params);
+		int bookings = jdbcTemplate.update(INSERT_BOOKING_CONSUMED, params);
+		jdbcTemplate.update(DELETE_DOCUMENTS, params);
+		jdbcTemplate.update(DELETE_BOOKINGS, params);
+		jdbcTemplate.update(DELETE_DEMOGRAPHICS, params);
+		int applications = jdbcTemplate.update(DELETE_APPLICATIONS, params);
+		jdbcTemplate.update(UPDATE_PROCESSED, params);
+		log.info(PreRegBatchContants.SESSIONID, PreRegBatchContants.PRE_REG_BATCH,
+				PreRegBatchContants.APPLICATION_CONSUMED_JOB,
+				"Archived pre reg ids: " + validPreRegIds.size() + ", demographics: " + demographics + ", documents: "
+						+ documents + ", bookings: " + bookings + ", applications purged: " + applications);
+		return validPreRegIds.size();
+	}
+
+	/**
+	 * Marks a pre registration that could not be archived, so it is no longer
+	 * read by the consumed status step.
+	 *
+	 * @param preRegId the processed pre registration id
+	 */
+	public void markFailed(String preRegId) {
+		jdbcTemplate.update(UPDATE_FAILED,
+				new MapSqlParameterSource("preRegId", preRegId).addValue("updBy", auditUserId)
+						.addValue("updDtimes", Timestamp.valueOf(LocalDateTime.now()))
+						.addValue("statusComments", PreRegBatchContants.FAILED_STATUS_COMMENTS));
+	}
+}
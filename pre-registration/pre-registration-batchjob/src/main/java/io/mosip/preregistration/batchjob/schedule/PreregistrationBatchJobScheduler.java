@@ -59,6 +59,9 @@ public class PreregistrationBatchJobScheduler {
 	@Autowired
 	private Job purgeExpiredSlotsJob;
 
+	@Autowired
+	private Job anonymousProfileExportJob;
+
 	@Scheduled(cron = "${preregistration.job.schedule.cron.consumedStatusJob}")
 	public void consumedStatusScheduler() {
 
@@ -146,4 +149,18 @@ public class PreregistrationBatchJobScheduler {
 			LOGGER.error(LOGDISPLAY, "Applications Booking  Status Job failed to read data from service", e.getMessage(),null);
 		}
 	}
+
+	@Scheduled(cron = "${preregistration.job.schedule.cron.anonymousProfileExportJob:0 30 0 * * ?}")
+	public void anonymousProfileExportScheduler() {
+
+		JobParameters jobParam = new JobParametersBuilder().addLong("anonymousProfileExportJobTime", System.currentTimeMillis())
+				.toJobParameters();
+		try {
+			JobExecution jobExecution = jobLauncher.run(anonymousProfileExportJob, jobParam);
+			LOGGER.info(LOGDISPLAY, JOB_STATUS, jobExecution.getId().toString(), jobExecution.getStatus().toString());
+		} catch (JobExecutionAlreadyRunningException | JobRestartException | JobInstanceAlreadyCompleteException
+				| JobParametersInvalidException e) {
+			LOGGER.error(LOGDISPLAY, "Anonymous profile export job failed to aggregate anonymous profiles", e.getMessage(),null);
+		}
+	}
 }
@@ -1,7 +1,3 @@
-/* 
- * Copyright
- * 
- */
 package io.mosip.preregistration.batchjob.tasklets;
 
 import org.springframework.batch.core.ExitStatus;
@@ -13,38 +9,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import io.mosip.kernel.core.logger.spi.Logger;
-import io.mosip.preregistration.batchjob.impl.ApplicationConsumedStatusUpdater;
+import io.mosip.preregistration.batchjob.impl.AnonymousProfileExporter;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
 
 /**
- * This class is a tasklet of batch job to call update status service in batch service.
- * 
- * @author Kishan Rathore
- * @since 1.0.0
+ *
+ * @since 1.2.0
  *
  */
 @Component
-public class ConsumedStatusTasklet implements Tasklet {
+public class AnonymousProfileExportTasklet implements Tasklet {
 
 	@Autowired
-	private ApplicationConsumedStatusUpdater statusUpdater;
+	private AnonymousProfileExporter anonymousProfileExporter;
 
-	private Logger log = LoggerConfiguration.logConfig(ConsumedStatusTasklet.class);
+	private Logger log = LoggerConfiguration.logConfig(AnonymousProfileExportTasklet.class);
 
-	/* (non-Javadoc)
-	 * @see org.springframework.batch.core.step.tasklet.Tasklet#execute(org.springframework.batch.core.StepContribution, 
-	 * 			org.springframework.batch.core.scope.context.ChunkContext)
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.springframework.batch.core.step.tasklet.Tasklet#execute(org.
+	 * springframework.batch.core.StepContribution,
+	 * org.springframework.batch.core.scope.context.ChunkContext)
 	 */
 	@Override
-	public RepeatStatus execute(StepContribution contribution, ChunkContext arg1) throws Exception {
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
 
 		try {
-			statusUpdater.updateConsumedStatus();
+			anonymousProfileExporter.export();
 		} catch (Exception e) {
-			log.error("Update Consumed Status ", " Tasklet ", " encountered exception ", e.getMessage());
+			log.error("Anonymous profile export ", " Tasklet ", " encountered exception ", e.getMessage());
 			contribution.setExitStatus(new ExitStatus(e.getMessage()));
 		}
 		return RepeatStatus.FINISHED;
 	}
-
 }
@@ -0,0 +1,41 @@
+package io.mosip.preregistration.batchjob.test.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.batch.item.ExecutionContext;
+
+import io.mosip.preregistration.batchjob.impl.ConsumedApplicationPartitioner;
+
+@RunWith(JUnit4.class)
+public class ConsumedApplicationPartitionerTest {
+
+	@Test
+	public void partitionTest() {
+		Map<String, ExecutionContext> partitions = new ConsumedApplicationPartitioner().partition(4);
+
+		assertEquals(4, partitions.size());
+		Set<Integer> partitionIndexes = new HashSet<>();
+		for (int i = 0; i < 4; i++) {
+			ExecutionContext executionContext = partitions.get("consumedPartition" + i);
+			assertEquals(4, executionContext.getInt("partitionCount"));
+			partitionIndexes.add(executionContext.getInt("partitionIndex"));
+		}
+		assertEquals(4, partitionIndexes.size());
+	}
+
+	@Test
+	public void singlePartitionTest() {
+		Map<String, ExecutionContext> partitions = new ConsumedApplicationPartitioner().partition(1);
+
+		assertEquals(1, partitions.size());
+		assertEquals(0, partitions.get("consumedPartition0").getInt("partitionIndex"));
+		assertEquals(1, partitions.get("consumedPartition0").getInt("partitionCount"));
+	}
+}
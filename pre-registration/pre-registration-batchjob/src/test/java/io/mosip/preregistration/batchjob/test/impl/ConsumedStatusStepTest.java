@@ -0,0 +1,163 @@
+package io.mosip.preregistration.batchjob.test.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.MapJobRepositoryFactoryBean;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.preregistration.batchjob.helper.RestHelper;
+import io.mosip.preregistration.batchjob.impl.ApplicationConsumedStatusUpdater;
+import io.mosip.preregistration.batchjob.impl.ConsumedApplicationPartitioner;
+import io.mosip.preregistration.batchjob.impl.ConsumedStatusStepListener;
+import io.mosip.preregistration.batchjob.repository.utils.ConsumedApplicationArchiver;
+import io.mosip.preregistration.core.code.EventId;
+
+@RunWith(JUnit4.class)
+public class ConsumedStatusStepTest {
+
+	@InjectMocks
+	private ApplicationConsumedStatusUpdater consumedStatusUpdater;
+
+	@InjectMocks
+	private ConsumedStatusStepListener consumedStatusStepListener;
+
+	@Mock
+	private ConsumedApplicationArchiver consumedApplicationArchiver;
+
+	@Mock
+	private RestHelper restHelper;
+
+	private JobRepository jobRepository;
+
+	private ResourcelessTransactionManager transactionManager = new ResourcelessTransactionManager();
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(consumedStatusStepListener, "auditUsername", "batchuser");
+		ReflectionTestUtils.setField(consumedStatusStepListener, "auditUserId", "pre-registration-batch");
+		MapJobRepositoryFactoryBean repositoryFactory = new MapJobRepositoryFactoryBean(transactionManager);
+		repositoryFactory.afterPropertiesSet();
+		jobRepository = repositoryFactory.getObject();
+		Mockito.when(consumedApplicationArchiver.archive(Mockito.anyList())).thenAnswer(invocation -> {
+			List<String> preRegIds = invocation.getArgument(0);
+			if (preRegIds.stream().anyMatch(preRegId -> preRegId.startsWith("bad"))) {
+				throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+			}
+			return preRegIds.size();
+		});
+	}
+
+	@Test
+	public void skippedIdsOfAllPartitionsAuditedOnceTest() throws Exception {
+		JobExecution jobExecution = runJob(Arrays.asList("10001", "bad10002", "10003"), Arrays.asList("bad10004", "10005"));
+
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		Mockito.verify(consumedApplicationArchiver).markFailed("bad10002");
+		Mockito.verify(consumedApplicationArchiver).markFailed("bad10004");
+		ArgumentCaptor<String> eventIds = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<String> skippedPreRegIds = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(restHelper, Mockito.times(1)).sendAuditDetails(eventIds.capture(), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+				skippedPreRegIds.capture(), Mockito.anyString(), Mockito.anyString());
+		assertEquals(EventId.PRE_405.toString(), eventIds.getValue());
+		List<String> audited = Arrays.asList(skippedPreRegIds.getValue().split(","));
+		assertEquals(2, audited.size());
+		assertTrue(audited.containsAll(Arrays.asList("bad10002", "bad10004")));
+	}
+
+	@Test
+	public void noSkipAuditedOnceTest() throws Exception {
+		JobExecution jobExecution = runJob(Arrays.asList("10001", "10003"), Arrays.asList("10005"));
+
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		Mockito.verify(consumedApplicationArchiver, Mockito.never()).markFailed(Mockito.anyString());
+		Mockito.verify(restHelper, Mockito.times(1)).sendAuditDetails(Mockito.eq(EventId.PRE_412.toString()),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+		Mockito.verifyNoMoreInteractions(restHelper);
+	}
+
+	@SafeVarargs
+	@SuppressWarnings("unchecked")
+	private final JobExecution runJob(List<String>... partitions) throws Exception {
+		StepBuilderFactory stepBuilderFactory = new StepBuilderFactory(jobRepository, transactionManager);
+		Step partitionStep = stepBuilderFactory.get("consumedStatusPartitionStep")
+				.<String, String>chunk(10)
+				.reader(new PartitionReader(partitions))
+				.writer(consumedStatusUpdater)
+				.faultTolerant()
+				.skip(DataIntegrityViolationException.class)
+				.skipLimit(10)
+				.listener((SkipListener<String, String>) consumedStatusUpdater)
+				.build();
+		Step consumedStatusStep = stepBuilderFactory.get("consumedStatusStep")
+				.partitioner("consumedStatusPartitionStep", new ConsumedApplicationPartitioner())
+				.step(partitionStep)
+				.gridSize(partitions.length)
+				.taskExecutor(new SimpleAsyncTaskExecutor("ConsumedArchiver"))
+				.aggregator(consumedStatusStepListener)
+				.listener(consumedStatusStepListener)
+				.build();
+		Job job = new JobBuilderFactory(jobRepository).get("consumedStatusJob").start(consumedStatusStep).build();
+		SimpleJobLauncher jobLauncher = new SimpleJobLauncher();
+		jobLauncher.setJobRepository(jobRepository);
+		jobLauncher.afterPropertiesSet();
+		return jobLauncher.run(job, new JobParameters());
+	}
+
+	/**
+	 * Reads the ids of the partition of the current step execution
+	 */
+	private static class PartitionReader implements ItemReader<String> {
+
+		private final List<List<String>> partitions;
+
+		private final Map<Integer, Iterator<String>> iterators = new ConcurrentHashMap<>();
+
+		PartitionReader(List<String>[] partitions) {
+			this.partitions = new ArrayList<>(Arrays.asList(partitions));
+		}
+
+		@Override
+		public String read() {
+			int partitionIndex = StepSynchronizationManager.getContext().getStepExecution().getExecutionContext()
+					.getInt("partitionIndex");
+			Iterator<String> iterator = iterators.computeIfAbsent(partitionIndex,
+					index -> partitions.get(index).iterator());
+			return iterator.hasNext() ? iterator.next() : null;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package io.mosip.preregistration.batchjob.test.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.preregistration.batchjob.helper.AvailabilitySlotBatch;
+import io.mosip.preregistration.batchjob.helper.CancelAndNotifyHelper;
+import io.mosip.preregistration.batchjob.helper.PreRegBatchDBHelper;
+import io.mosip.preregistration.batchjob.helper.RestHelper;
+import io.mosip.preregistration.batchjob.impl.SlotAvailabilityGenerator;
+import io.mosip.preregistration.batchjob.model.RegistrationCenterDto;
+import io.mosip.preregistration.batchjob.repository.utils.AvailabilitySlotWriter;
+import io.mosip.preregistration.batchjob.repository.utils.BatchJpaRepositoryImpl;
+import io.mosip.preregistration.core.code.EventId;
+
+@RunWith(JUnit4.class)
+public class SlotAvailabilityGeneratorTest {
+
+	@InjectMocks
+	private SlotAvailabilityGenerator slotAvailabilityGenerator;
+
+	@Mock
+	private RestHelper restHelper;
+
+	@Mock
+	private BatchJpaRepositoryImpl batchServiceDAO;
+
+	@Mock
+	private CancelAndNotifyHelper cancelAndNotifyHelper;
+
+	@Mock
+	private AvailabilitySlotWriter availabilitySlotWriter;
+
+	private PreRegBatchDBHelper batchDBHelper = new PreRegBatchDBHelper();
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(batchDBHelper, "availabilitySlotWriter", availabilitySlotWriter);
+		ReflectionTestUtils.setField(batchDBHelper, "auditUsername", "batchuser");
+		ReflectionTestUtils.setField(slotAvailabilityGenerator, "batchDBHelper", batchDBHelper);
+		ReflectionTestUtils.setField(slotAvailabilityGenerator, "noOfDaysToSync", 2);
+		ReflectionTestUtils.setField(slotAvailabilityGenerator, "auditUsername", "batchuser");
+		ReflectionTestUtils.setField(slotAvailabilityGenerator, "auditUserId", "pre-registration-batch");
+		ReflectionTestUtils.setField(slotAvailabilityGenerator, "regCenterThreadCount", 2);
+		slotAvailabilityGenerator.setupRegCenterSlotsPool();
+		Mockito.when(batchServiceDAO.findSlotsBetween(Mockito.anyString(), Mockito.any(LocalDate.class),
+				Mockito.any(LocalDate.class))).thenReturn(Collections.emptyList());
+	}
+
+	@After
+	public void tearDown() {
+		slotAvailabilityGenerator.shutdownRegCenterSlotsPool();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void generateSlotsInParallelTest() throws Exception {
+		Mockito.when(restHelper.getRegistrationCenterDetails(Mockito.anyList(), Mockito.any()))
+				.thenReturn(Arrays.asList(regCenter("10001"), regCenter("10002")));
+		Mockito.when(restHelper.getRegistrationHolidayList(Mockito.anyString(), Mockito.anyString(), Mockito.anyInt()))
+				.thenReturn(Collections.emptyList());
+		// each center waits for the other one, so both must be generated at the same time
+		CountDownLatch writing = new CountDownLatch(2);
+		Map<String, List<AvailabilitySlotBatch>> written = new ConcurrentHashMap<>();
+		Mockito.when(availabilitySlotWriter.write(Mockito.anyList())).thenAnswer(invocation -> {
+			List<AvailabilitySlotBatch> slotBatches = invocation.getArgument(0);
+			writing.countDown();
+			assertTrue(writing.await(5, TimeUnit.SECONDS));
+			written.put(slotBatches.get(0).getRegCenterId(), slotBatches);
+			return slotBatches.stream().mapToInt(slotBatch -> slotBatch.getInsertedSlots().size()).sum();
+		});
+
+		slotAvailabilityGenerator.generateRegistrationAvailabilitySlots("part1", Arrays.asList("1"));
+
+		assertEquals(2, written.size());
+		for (List<AvailabilitySlotBatch> slotBatches : written.values()) {
+			assertEquals(2, slotBatches.size());
+			// 09:00 to 13:00, lunch slot and 14:00 to 17:00 with one hour per kiosk
+			slotBatches.forEach(slotBatch -> assertEquals(8, slotBatch.getInsertedSlots().size()));
+		}
+		Mockito.verify(restHelper).sendAuditDetails(Mockito.eq(EventId.PRE_407.toString()), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void generateSlotsFailedRegCenterTest() {
+		Mockito.when(restHelper.getRegistrationCenterDetails(Mockito.anyList(), Mockito.any()))
+				.thenReturn(Arrays.asList(regCenter("10001"), regCenter("10002")));
+		Mockito.when(restHelper.getRegistrationHolidayList(Mockito.eq("10001"), Mockito.anyString(), Mockito.anyInt()))
+				.thenReturn(Collections.emptyList());
+		Mockito.when(restHelper.getRegistrationHolidayList(Mockito.eq("10002"), Mockito.anyString(), Mockito.anyInt()))
+				.thenThrow(new IllegalStateException("holiday list not found"));
+		Mockito.when(availabilitySlotWriter.write(Mockito.anyList())).thenReturn(0);
+
+		slotAvailabilityGenerator.generateRegistrationAvailabilitySlots("part1", Arrays.asList("1"));
+
+		// the failed center does not stop the others
+		Mockito.verify(availabilitySlotWriter, Mockito.times(2)).write(Mockito.anyList());
+		Mockito.verify(restHelper).sendAuditDetails(Mockito.eq(EventId.PRE_405.toString()), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+				Mockito.eq("10002"), Mockito.anyString(), Mockito.anyString());
+		Mockito.verify(restHelper, Mockito.never()).sendAuditDetails(Mockito.eq(EventId.PRE_407.toString()),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+	}
+
+	private RegistrationCenterDto regCenter(String regCenterId) {
+		RegistrationCenterDto regCenter = new RegistrationCenterDto();
+		regCenter.setId(regCenterId);
+		regCenter.setLangCode("eng");
+		regCenter.setContactPerson("John");
+		regCenter.setNumberOfKiosks((short) 2);
+		regCenter.setPerKioskProcessTime(LocalTime.of(1, 0));
+		regCenter.setCenterStartTime(LocalTime.of(9, 0));
+		regCenter.setCenterEndTime(LocalTime.of(17, 0));
+		regCenter.setLunchStartTime(LocalTime.of(13, 0));
+		regCenter.setLunchEndTime(LocalTime.of(14, 0));
+		return regCenter;
+	}
+}
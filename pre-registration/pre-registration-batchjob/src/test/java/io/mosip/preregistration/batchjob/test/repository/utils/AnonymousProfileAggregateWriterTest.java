@@ -0,0 +1,132 @@
+package io.mosip.preregistration.batchjob.test.repository.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.preregistration.batchjob.repository.utils.AnonymousProfileAggregateWriter;
+import io.mosip.preregistration.core.exception.TableNotAccessibleException;
+
+@RunWith(JUnit4.class)
+public class AnonymousProfileAggregateWriterTest {
+
+	private AnonymousProfileAggregateWriter aggregateWriter;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	private LocalDate day = LocalDate.of(2026, 10, 1);
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		aggregateWriter = new AnonymousProfileAggregateWriter();
+		ReflectionTestUtils.setField(aggregateWriter, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(aggregateWriter, "yobBucketYears", 10);
+		ReflectionTestUtils.setField(aggregateWriter, "batchSize", 500);
+		ReflectionTestUtils.setField(aggregateWriter, "auditUsername", "batchuser");
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void aggregateTest() throws Exception {
+		String[] profiles = {
+				"{\"yearOfBirth\":\"1984\",\"gender\":\"Male\",\"location\":[\"Morocco\",\"RSK\"],"
+						+ "\"channel\":[\"email\",\"phone\"],\"enrollmentCenterId\":\"10001\",\"documents\":[\"POA\",\"POI\"]}",
+				"{\"yearOfBirth\":\"1988\",\"gender\":\"Male\",\"location\":[\"Morocco\",\"RSK\"],"
+						+ "\"channel\":[\"phone\",\"email\"],\"enrollmentCenterId\":\"10001\",\"documents\":[\"POI\",\"POA\"]}",
+				"{\"yearOfBirth\":\"1991\",\"gender\":\"Female\"}", "not a profile" };
+		Mockito.doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			for (String profile : profiles) {
+				handler.processRow(profileRow(profile));
+			}
+			return null;
+		}).when(jdbcTemplate).query(Mockito.startsWith("SELECT profile"), Mockito.any(RowCallbackHandler.class),
+				Mockito.any(), Mockito.any());
+
+		assertEquals(3, aggregateWriter.aggregate(day));
+
+		Mockito.verify(jdbcTemplate).update(Mockito.startsWith("DELETE"), Mockito.eq(Date.valueOf(day)));
+		ArgumentCaptor<Collection> aggregates = ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("INSERT"), aggregates.capture(), Mockito.eq(500),
+				Mockito.any(ParameterizedPreparedStatementSetter.class));
+		Map<List<String>, Integer> counts = new HashMap<>();
+		((Collection<Map.Entry<List<String>, Integer>>) aggregates.getValue())
+				.forEach(count -> counts.put(count.getKey(), count.getValue()));
+		// unordered channels and documents count together, the location order is kept
+		assertEquals(2, counts.size());
+		assertEquals(Integer.valueOf(2),
+				counts.get(Arrays.asList("1980-1989", "Male", "Morocco,RSK", "email,phone", "10001", "POA,POI")));
+		assertEquals(Integer.valueOf(1), counts.get(Arrays.asList("1990-1999", "Female", "", "", "", "")));
+	}
+
+	/**
+	 * Result set row with the given profile in its only column
+	 */
+	private ResultSet profileRow(String profile) {
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, method, args) -> "getString".equals(method.getName()) ? profile : null);
+	}
+
+	@Test(expected = TableNotAccessibleException.class)
+	public void aggregateExceptionTest() {
+		Mockito.doThrow(new QueryTimeoutException("statement timeout")).when(jdbcTemplate).query(Mockito.anyString(),
+				Mockito.any(RowCallbackHandler.class), Mockito.any(), Mockito.any());
+
+		aggregateWriter.aggregate(day);
+	}
+
+	@Test
+	public void findResumeDateTest() {
+		Mockito.when(jdbcTemplate.queryForObject(Mockito.startsWith("SELECT max(profile_date)"), Mockito.eq(Date.class)))
+				.thenReturn(Date.valueOf(day));
+
+		assertEquals(day, aggregateWriter.findResumeDate());
+	}
+
+	@Test
+	public void findResumeDateFirstProfileTest() {
+		Mockito.when(jdbcTemplate.queryForObject(Mockito.startsWith("SELECT min(cr_dtimes)"), Mockito.eq(Timestamp.class)))
+				.thenReturn(Timestamp.valueOf(day.atTime(10, 30)));
+
+		assertEquals(day, aggregateWriter.findResumeDate());
+	}
+
+	@Test
+	public void findResumeDateWithoutProfilesTest() {
+		assertNull(aggregateWriter.findResumeDate());
+	}
+
+	@Test
+	public void findNextProfileDateTest() {
+		Mockito.when(jdbcTemplate.queryForObject(Mockito.startsWith("SELECT min(cr_dtimes)"), Mockito.eq(Timestamp.class),
+				Mockito.eq(Timestamp.valueOf(day.atStartOfDay())))).thenReturn(Timestamp.valueOf(day.plusDays(3).atTime(8, 0)));
+
+		assertEquals(day.plusDays(3), aggregateWriter.findNextProfileDate(day));
+	}
+}
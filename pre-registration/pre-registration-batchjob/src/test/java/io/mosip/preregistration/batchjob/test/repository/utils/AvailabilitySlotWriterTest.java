@@ -0,0 +1,105 @@
+package io.mosip.preregistration.batchjob.test.repository.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.preregistration.batchjob.entity.AvailibityEntity;
+import io.mosip.preregistration.batchjob.helper.AvailabilitySlotBatch;
+import io.mosip.preregistration.batchjob.repository.utils.AvailabilitySlotWriter;
+import io.mosip.preregistration.core.exception.TableNotAccessibleException;
+
+@RunWith(JUnit4.class)
+public class AvailabilitySlotWriterTest {
+
+	private AvailabilitySlotWriter availabilitySlotWriter;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	private LocalDate regDate = LocalDate.now();
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		availabilitySlotWriter = new AvailabilitySlotWriter();
+		ReflectionTestUtils.setField(availabilitySlotWriter, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(availabilitySlotWriter, "batchSize", 500);
+		ReflectionTestUtils.setField(availabilitySlotWriter, "auditUsername", "batchuser");
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void writeTest() {
+		AvailabilitySlotBatch firstDay = new AvailabilitySlotBatch("10001", regDate,
+				Arrays.asList(slot(9, 10, 2), slot(10, 11, 2), slot(11, 12, 2)));
+		// 09:00 unchanged, 10:00 updated, 11:00 deleted, 12:00 inserted
+		firstDay.save(slot(9, 10, 2));
+		firstDay.save(slot(10, 11, 3));
+		firstDay.delete(LocalTime.of(11, 0), LocalTime.of(12, 0));
+		firstDay.save(slot(12, 13, 2));
+		AvailabilitySlotBatch secondDay = new AvailabilitySlotBatch("10001", regDate.plusDays(1),
+				Collections.emptyList());
+		secondDay.save(slot(9, 10, 2));
+		secondDay.save(slot(10, 11, 2));
+
+		assertEquals(5, availabilitySlotWriter.write(Arrays.asList(firstDay, secondDay)));
+
+		ArgumentCaptor<Collection> deleted = ArgumentCaptor.forClass(Collection.class);
+		ArgumentCaptor<Collection> updated = ArgumentCaptor.forClass(Collection.class);
+		ArgumentCaptor<Collection> inserted = ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("DELETE"), deleted.capture(), Mockito.eq(500),
+				Mockito.any(ParameterizedPreparedStatementSetter.class));
+		Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("UPDATE"), updated.capture(), Mockito.eq(500),
+				Mockito.any(ParameterizedPreparedStatementSetter.class));
+		Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("INSERT"), inserted.capture(), Mockito.eq(500),
+				Mockito.any(ParameterizedPreparedStatementSetter.class));
+		assertEquals(1, deleted.getValue().size());
+		assertEquals(LocalTime.of(11, 0), ((AvailibityEntity) deleted.getValue().iterator().next()).getFromTime());
+		assertEquals(1, updated.getValue().size());
+		assertEquals(3, ((AvailibityEntity) updated.getValue().iterator().next()).getAvailableKiosks());
+		assertEquals(3, inserted.getValue().size());
+	}
+
+	@Test(expected = TableNotAccessibleException.class)
+	@SuppressWarnings("unchecked")
+	public void writeExceptionTest() {
+		Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.anyCollection(), Mockito.anyInt(),
+				Mockito.any(ParameterizedPreparedStatementSetter.class)))
+				.thenThrow(new QueryTimeoutException("statement timeout"));
+		AvailabilitySlotBatch slotBatch = new AvailabilitySlotBatch("10001", regDate, Collections.emptyList());
+		slotBatch.save(slot(9, 10, 2));
+
+		availabilitySlotWriter.write(Arrays.asList(slotBatch));
+	}
+
+	private AvailibityEntity slot(int fromHour, int toHour, int kiosks) {
+		AvailibityEntity slot = new AvailibityEntity();
+		slot.setRegcntrId("10001");
+		slot.setRegDate(regDate);
+		slot.setFromTime(LocalTime.of(fromHour, 0));
+		slot.setToTime(LocalTime.of(toHour, 0));
+		slot.setAvailableKiosks(kiosks);
+		slot.setCrBy("batchuser");
+		slot.setCrDate(LocalDateTime.now());
+		return slot;
+	}
+}
@@ -0,0 +1,104 @@
+package io.mosip.preregistration.batchjob.test.repository.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.preregistration.batchjob.code.PreRegBatchContants;
+import io.mosip.preregistration.batchjob.repository.utils.ConsumedApplicationArchiver;
+import io.mosip.preregistration.core.code.StatusCodes;
+
+@RunWith(JUnit4.class)
+public class ConsumedApplicationArchiverTest {
+
+	private ConsumedApplicationArchiver consumedApplicationArchiver;
+
+	@Mock
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		consumedApplicationArchiver = new ConsumedApplicationArchiver();
+		ReflectionTestUtils.setField(consumedApplicationArchiver, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(consumedApplicationArchiver, "auditUserId", "pre-registration-batch");
+	}
+
+	@Test
+	public void archiveTest() {
+		Mockito.when(jdbcTemplate.queryForList(Mockito.startsWith("SELECT prereg_id"),
+				Mockito.any(MapSqlParameterSource.class), Mockito.eq(String.class)))
+				.thenReturn(Arrays.asList("10001", "10002"));
+		Mockito.when(jdbcTemplate.update(Mockito.anyString(), Mockito.any(MapSqlParameterSource.class))).thenReturn(2);
+
+		assertEquals(2, consumedApplicationArchiver.archive(Arrays.asList("10001", "10002")));
+
+		ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+		// one statement per table for the whole chunk
+		Mockito.verify(jdbcTemplate, Mockito.times(8)).update(statements.capture(), params.capture());
+		assertEquals(0, statements.getAllValues().stream()
+				.filter(statement -> statement.startsWith("DELETE FROM prereg.processed_prereg_list")).count());
+		MapSqlParameterSource archiveParams = params.getValue();
+		assertEquals(Arrays.asList("10001", "10002"), archiveParams.getValue("preRegIds"));
+		assertEquals(StatusCodes.CONSUMED.getCode(), archiveParams.getValue("consumedStatus"));
+		assertEquals(PreRegBatchContants.NEW_STATUS_COMMENTS, archiveParams.getValue("statusComments"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void archiveInvalidPreRegIdsTest() {
+		Mockito.when(jdbcTemplate.queryForList(Mockito.startsWith("SELECT prereg_id"),
+				Mockito.any(MapSqlParameterSource.class), Mockito.eq(String.class)))
+				.thenReturn(Collections.singletonList("10001"));
+		Mockito.when(jdbcTemplate.update(Mockito.anyString(), Mockito.any(MapSqlParameterSource.class))).thenReturn(1);
+
+		assertEquals(1, consumedApplicationArchiver.archive(Arrays.asList("10001", "10002")));
+
+		ArgumentCaptor<MapSqlParameterSource> invalidParams = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+		Mockito.verify(jdbcTemplate).update(Mockito.startsWith("DELETE FROM prereg.processed_prereg_list"),
+				invalidParams.capture());
+		assertEquals(Collections.singletonList("10002"), invalidParams.getValue().getValue("preRegIds"));
+		ArgumentCaptor<MapSqlParameterSource> archiveParams = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+		Mockito.verify(jdbcTemplate).update(Mockito.startsWith("INSERT INTO prereg.applicant_demographic_consumed"),
+				archiveParams.capture());
+		assertEquals(Collections.singletonList("10001"), (List<String>) archiveParams.getValue().getValue("preRegIds"));
+	}
+
+	@Test
+	public void archiveWithoutValidPreRegIdsTest() {
+		Mockito.when(jdbcTemplate.queryForList(Mockito.startsWith("SELECT prereg_id"),
+				Mockito.any(MapSqlParameterSource.class), Mockito.eq(String.class)))
+				.thenReturn(Collections.emptyList());
+
+		assertEquals(0, consumedApplicationArchiver.archive(Arrays.asList("10001")));
+
+		Mockito.verify(jdbcTemplate, Mockito.times(1)).update(Mockito.anyString(),
+				Mockito.any(MapSqlParameterSource.class));
+	}
+
+	@Test
+	public void markFailedTest() {
+		consumedApplicationArchiver.markFailed("10001");
+
+		ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+		Mockito.verify(jdbcTemplate).update(Mockito.startsWith("UPDATE prereg.processed_prereg_list"),
+				params.capture());
+		assertEquals("10001", params.getValue().getValue("preRegId"));
+		assertEquals(PreRegBatchContants.FAILED_STATUS_COMMENTS, params.getValue().getValue("statusComments"));
+	}
+}
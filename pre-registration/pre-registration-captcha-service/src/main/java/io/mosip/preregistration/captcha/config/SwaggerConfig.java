@@ -1,5 +1,6 @@
 package io.mosip.preregistration.captcha.config;
 
+import io.mosip.preregistration.core.config.PooledHttpClientFactory;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
@@ -52,9 +53,14 @@ public class SwaggerConfig {
 	 */
 	private static final String DESCRIPTION = " Captcha Service for Generating and validating captcha";
 
+	/**
+	 * Rest template of the captcha verify site, on the restTemplateBean pool of
+	 * the shared HTTP client factory, configured with strict timeouts so a slow
+	 * verify site fails fast.
+	 */
 	@Bean
-	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+	public RestTemplate restTemplateBean(PooledHttpClientFactory httpClientFactory) {
+		return new RestTemplate(httpClientFactory.requestFactory("restTemplateBean", null));
 	}
 
 	private static final Logger logger = LoggerFactory.getLogger(SwaggerConfig.class);
@@ -5,13 +5,8 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.kernel.core.util.DateUtils;
@@ -19,9 +14,9 @@ import io.mosip.preregistration.captcha.constants.CaptchaErrorCode;
 import io.mosip.preregistration.captcha.dto.CaptchaRequestDTO;
 import io.mosip.preregistration.captcha.dto.CaptchaResposneDTO;
 import io.mosip.preregistration.captcha.dto.GoogleCaptchaDTO;
-import io.mosip.preregistration.captcha.exception.CaptchaException;
 import io.mosip.preregistration.captcha.exception.InvalidRequestCaptchaException;
 import io.mosip.preregistration.captcha.service.CaptchaService;
+import io.mosip.preregistration.captcha.util.CaptchaVerifier;
 import io.mosip.preregistration.core.common.dto.ExceptionJSONInfoDTO;
 import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
@@ -29,12 +24,6 @@ import io.mosip.preregistration.core.config.LoggerConfiguration;
 @Service
 public class CaptchaServiceImpl implements CaptchaService {
 
-	@Value("${mosip.preregistration.captcha.secretkey}")
-	public String recaptchaSecret;
-
-	@Value("${mosip.preregistration.captcha.recaptcha.verify.url}")
-	public String recaptchaVerifyUrl;
-
 	@Value("${mosip.preregistration.captcha.id.validate}")
 	public String mosipcaptchaValidateId;
 
@@ -42,8 +31,7 @@ public class CaptchaServiceImpl implements CaptchaService {
 	private String version;
 
 	@Autowired
-	@Qualifier(value = "restTemplateBean")
-	private RestTemplate restTemplate;
+	private CaptchaVerifier captchaVerifier;
 
 	private final String CAPTCHA_SUCCESS = " Captcha successfully verified";
 
@@ -59,34 +47,17 @@ public class CaptchaServiceImpl implements CaptchaService {
 
 		MainResponseDTO<CaptchaResposneDTO> mainResponse = new MainResponseDTO<>();
 
-		MultiValueMap<String, String> param = new LinkedMultiValueMap<>();
-		param.add("secret", recaptchaSecret);
-		param.add("response", ((CaptchaRequestDTO) captchaRequest).getCaptchaToken().trim());
-
-		GoogleCaptchaDTO captchaResponse = null;
-
-		try {
-			log.info("sessionId", "idType", "id",
-					"In pre-registration captcha service try block to validate the token request via a google verify site rest call"
-							+ ((CaptchaRequestDTO) captchaRequest).getCaptchaToken() + "  " + recaptchaVerifyUrl);
-			
-			captchaResponse = this.restTemplate.postForObject(recaptchaVerifyUrl, param, GoogleCaptchaDTO.class);
-			log.debug("sessionId", "idType", "id", captchaResponse.toString());
-		} catch (RestClientException ex) {
-			log.error("sessionId", "idType", "id",
-					"In pre-registration captcha service to validate the token request via a google verify site rest call has failed --->"
-							+ ((CaptchaRequestDTO) captchaRequest).getCaptchaToken() + "  " + recaptchaVerifyUrl + "  "
-							+ ex);
-			throw new CaptchaException(captchaResponse.getErrorCodes().get(0).getErrorCode(),
-					captchaResponse.getErrorCodes().get(0).getMessage());
-		}
+		GoogleCaptchaDTO captchaResponse = captchaVerifier
+				.verify(((CaptchaRequestDTO) captchaRequest).getCaptchaToken().trim());
+		log.debug("sessionId", "idType", "id", captchaResponse.toString());
 
 		if (captchaResponse.isSuccess()) {
 			log.info("sessionId", "idType", "id",
 					"In pre-registration captcha service token request has been successfully verified --->"
 							+ captchaResponse.isSuccess());
 			mainResponse.setId(mosipcaptchaValidateId);
-			mainResponse.setResponsetime(captchaResponse.getChallengeTs());
+			mainResponse.setResponsetime(captchaResponse.getChallengeTs() == null ? getCurrentResponseTime()
+					: captchaResponse.getChallengeTs());
 			mainResponse.setVersion(version);
 			CaptchaResposneDTO response = new CaptchaResposneDTO();
 			response.setMessage(CAPTCHA_SUCCESS);
@@ -0,0 +1,219 @@
+package io.mosip.preregistration.captcha.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.kernel.core.util.HMACUtils;
+import io.mosip.preregistration.captcha.constants.CaptchaErrorCode;
+import io.mosip.preregistration.captcha.dto.GoogleCaptchaDTO;
+import io.mosip.preregistration.captcha.exception.CaptchaException;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class verifies captcha tokens with the recaptcha verify site. A token
+ * can be verified upstream only once, so retries of the same token while the
+ * first verification is in flight wait for its result. A success is handed
+ * only to those retries and is not kept, so a token cannot be replayed once
+ * its verification has completed; a rejection is kept for a short time by
+ * token hash. Calls go through a circuit breaker, so
+ * a degraded verify site is not waited on by every request. When the verify
+ * site is unavailable the token is accepted or rejected as configured with
+ * mosip.preregistration.captcha.verify.fail-open.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class CaptchaVerifier {
+
+	private Logger log = LoggerConfiguration.logConfig(CaptchaVerifier.class);
+
+	@Autowired
+	@Qualifier(value = "restTemplateBean")
+	private RestTemplate restTemplate;
+
+	@Value("${mosip.preregistration.captcha.secretkey}")
+	private String recaptchaSecret;
+
+	@Value("${mosip.preregistration.captcha.recaptcha.verify.url}")
+	private String recaptchaVerifyUrl;
+
+	/**
+	 * Time a rejected token is kept for retries of the same token
+	 */
+	@Value("${mosip.preregistration.captcha.verify.replay-cache.ttl-seconds:120}")
+	private long replayTtlSeconds;
+
+	@Value("${mosip.preregistration.captcha.verify.replay-cache.max-entries:10000}")
+	private int replayMaxEntries;
+
+	/**
+	 * Time a retry waits for the verification of the same token in flight
+	 */
+	@Value("${mosip.preregistration.captcha.verify.in-flight-wait-ms:3000}")
+	private long inFlightWaitMillis;
+
+	@Value("${mosip.preregistration.captcha.verify.circuit.failure-threshold:5}")
+	private int failureThreshold;
+
+	@Value("${mosip.preregistration.captcha.verify.circuit.open-duration-ms:30000}")
+	private long openDurationMillis;
+
+	/**
+	 * Accepts the token when the verify site is unavailable, instead of
+	 * rejecting it
+	 */
+	@Value("${mosip.preregistration.captcha.verify.fail-open:false}")
+	private boolean failOpen;
+
+	private CircuitBreaker circuitBreaker;
+
+	private final Map<String, Verification> replayCache = new ConcurrentHashMap<>();
+
+	private final Counter replayCounter = Metrics.counter("preregistration.captcha.verify.replayed");
+
+	private final Counter failOpenCounter = Metrics.counter("preregistration.captcha.verify.fail-open");
+
+	@PostConstruct
+	public void setupVerifier() {
+		circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMillis);
+		Metrics.gauge("preregistration.captcha.verify.circuit.open", circuitBreaker,
+				breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+		Metrics.gauge("preregistration.captcha.verify.replay-cache.size", replayCache, Map::size);
+	}
+
+	/**
+	 * Verifies the token, or gives the result of the verification of the same
+	 * token in flight, or the kept rejection of an earlier one.
+	 *
+	 * @param captchaToken the captcha token
+	 * @return the verify site response, with success false for a rejected token
+	 * @throws CaptchaException if the verify site is unavailable and fail open
+	 *                          is off
+	 */
+	public GoogleCaptchaDTO verify(String captchaToken) {
+		String tokenHash = HMACUtils.digestAsPlainText(HMACUtils.generateHash(captchaToken.getBytes()));
+		long now = System.currentTimeMillis();
+		Verification started = new Verification();
+		Verification verification = replayCache.compute(tokenHash,
+				(hash, kept) -> kept != null && kept.expiresAtMillis > now ? kept : started);
+		if (verification != started) {
+			replayCounter.increment();
+			return awaitKept(verification);
+		}
+		GoogleCaptchaDTO captchaResponse = null;
+		try {
+			evictExpired(now);
+			captchaResponse = callVerifySite(captchaToken);
+		} finally {
+			if (captchaResponse == null || captchaResponse.isSuccess()) {
+				// only the retries already waiting get the success
+				replayCache.remove(tokenHash, started);
+			} else {
+				started.expiresAtMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(replayTtlSeconds);
+			}
+			started.result.complete(captchaResponse);
+		}
+		return captchaResponse == null ? unavailable() : captchaResponse;
+	}
+
+	/**
+	 * @return the verify site response, null if the call was rejected by the
+	 *         circuit breaker or failed
+	 */
+	private GoogleCaptchaDTO callVerifySite(String captchaToken) {
+		if (!circuitBreaker.tryAcquire()) {
+			record("rejected", 0);
+			log.warn("sessionId", "idType", "id",
+					"In callVerifySite method of CaptchaVerifier, circuit open, verify site not called");
+			return null;
+		}
+		MultiValueMap<String, String> param = new LinkedMultiValueMap<>();
+		param.add("secret", recaptchaSecret);
+		param.add("response", captchaToken);
+		long start = System.nanoTime();
+		try {
+			GoogleCaptchaDTO captchaResponse = restTemplate.postForObject(recaptchaVerifyUrl, param,
+					GoogleCaptchaDTO.class);
+			if (captchaResponse == null) {
+				throw new RestClientException("Empty response from " + recaptchaVerifyUrl);
+			}
+			circuitBreaker.onSuccess();
+			record(captchaResponse.isSuccess() ? "success" : "invalid", System.nanoTime() - start);
+			return captchaResponse;
+		} catch (RuntimeException ex) {
+			circuitBreaker.onFailure();
+			record("error", System.nanoTime() - start);
+			log.error("sessionId", "idType", "id",
+					"In callVerifySite method of CaptchaVerifier, verify site call to " + recaptchaVerifyUrl
+							+ " has failed- " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private GoogleCaptchaDTO awaitKept(Verification verification) {
+		try {
+			GoogleCaptchaDTO captchaResponse = verification.result.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+			return captchaResponse == null ? unavailable() : captchaResponse;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return unavailable();
+		} catch (ExecutionException | TimeoutException ex) {
+			return unavailable();
+		}
+	}
+
+	private GoogleCaptchaDTO unavailable() {
+		if (!failOpen) {
+			throw new CaptchaException(CaptchaErrorCode.CAPTCHA_VERIFIER_UNAVAILABLE.getErrorCode(),
+					CaptchaErrorCode.CAPTCHA_VERIFIER_UNAVAILABLE.getErrorMessage());
+		}
+		failOpenCounter.increment();
+		log.warn("sessionId", "idType", "id",
+				"In unavailable method of CaptchaVerifier, verify site unavailable, token accepted as fail open");
+		GoogleCaptchaDTO captchaResponse = new GoogleCaptchaDTO();
+		captchaResponse.setSuccess(true);
+		return captchaResponse;
+	}
+
+	private void evictExpired(long now) {
+		if (replayCache.size() > replayMaxEntries) {
+			replayCache.values().removeIf(kept -> kept.expiresAtMillis <= now);
+		}
+	}
+
+	private void record(String outcome, long nanos) {
+		Timer.builder("preregistration.captcha.verify").tag("outcome", outcome).publishPercentileHistogram()
+				.register(Metrics.globalRegistry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Verification of a token, kept while in flight and until it expires once
+	 * the token is rejected
+	 */
+	private static final class Verification {
+
+		private final CompletableFuture<GoogleCaptchaDTO> result = new CompletableFuture<>();
+
+		private volatile long expiresAtMillis = Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,71 @@
+package io.mosip.preregistration.captcha.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is a consecutive failure circuit breaker. After the failure
+ * threshold is reached the circuit opens and calls are rejected without
+ * reaching the downstream. Once the open duration has passed a single trial
+ * call is let through, its success closes the circuit and its failure opens
+ * it again.
+ *
+ * @since 1.2.0
+ *
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureThreshold;
+
+	private final long openDurationMillis;
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+	private volatile long openedAtMillis = -1;
+
+	public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+		this.failureThreshold = failureThreshold;
+		this.openDurationMillis = openDurationMillis;
+	}
+
+	/**
+	 * @return true if the call may go to the downstream, the caller must then
+	 *         report its outcome with {@link #onSuccess()} or
+	 *         {@link #onFailure()}
+	 */
+	public boolean tryAcquire() {
+		if (openedAtMillis < 0) {
+			return true;
+		}
+		if (System.currentTimeMillis() - openedAtMillis < openDurationMillis) {
+			return false;
+		}
+		return trialInFlight.compareAndSet(false, true);
+	}
+
+	public void onSuccess() {
+		consecutiveFailures.set(0);
+		openedAtMillis = -1;
+		trialInFlight.set(false);
+	}
+
+	public void onFailure() {
+		if (consecutiveFailures.incrementAndGet() >= failureThreshold || trialInFlight.get()) {
+			openedAtMillis = System.currentTimeMillis();
+		}
+		trialInFlight.set(false);
+	}
+
+	public State getState() {
+		if (openedAtMillis < 0) {
+			return State.CLOSED;
+		}
+		return System.currentTimeMillis() - openedAtMillis < openDurationMillis ? State.OPEN : State.HALF_OPEN;
+	}
+}
@@ -2,6 +2,13 @@ package io.mosip.preregistration.captcha.serviceimpl.test;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,13 +23,16 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import io.mosip.preregistration.captcha.dto.CaptchaRequestDTO;
 import io.mosip.preregistration.captcha.dto.CaptchaResposneDTO;
 import io.mosip.preregistration.captcha.dto.GoogleCaptchaDTO;
+import io.mosip.preregistration.captcha.exception.CaptchaException;
 import io.mosip.preregistration.captcha.exception.InvalidRequestCaptchaException;
 import io.mosip.preregistration.captcha.serviceimpl.CaptchaServiceImpl;
+import io.mosip.preregistration.captcha.util.CaptchaVerifier;
 import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 
 @RunWith(JUnit4.class)
@@ -48,16 +58,27 @@ public class CaptchaServiceImplTest {
 	@Mock
 	private RestTemplate restTemplate;
 
+	private CaptchaVerifier captchaVerifier;
+
 	@Before
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
-		ReflectionTestUtils.setField(captchaServiceImpl, "recaptchaSecret", "demo");
-		ReflectionTestUtils.setField(captchaServiceImpl, "recaptchaVerifyUrl",
+		captchaVerifier = new CaptchaVerifier();
+		ReflectionTestUtils.setField(captchaVerifier, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(captchaVerifier, "recaptchaSecret", "demo");
+		ReflectionTestUtils.setField(captchaVerifier, "recaptchaVerifyUrl",
 				"https://www.google.com/recaptcha/api/siteverify");
+		ReflectionTestUtils.setField(captchaVerifier, "replayTtlSeconds", 120L);
+		ReflectionTestUtils.setField(captchaVerifier, "replayMaxEntries", 100);
+		ReflectionTestUtils.setField(captchaVerifier, "inFlightWaitMillis", 1000L);
+		ReflectionTestUtils.setField(captchaVerifier, "failureThreshold", 2);
+		ReflectionTestUtils.setField(captchaVerifier, "openDurationMillis", 60000L);
+		captchaVerifier.setupVerifier();
+		ReflectionTestUtils.setField(captchaServiceImpl, "captchaVerifier", captchaVerifier);
 		ReflectionTestUtils.setField(captchaServiceImpl, "mosipcaptchaValidateId", "123");
 	}
 
-	@Test(expected = NullPointerException.class)
+	@Test(expected = CaptchaException.class)
 	public void validateCaptchaTest() {
 		CaptchaRequestDTO captchaRequest = new CaptchaRequestDTO();
 		MainResponseDTO<CaptchaResposneDTO> mainResponse = new MainResponseDTO<>();
@@ -91,4 +112,98 @@ public class CaptchaServiceImplTest {
 		captchaServiceImpl.validateCaptcha(captchaRequest);
 	}
 
+	@Test
+	public void verifyInFlightRetryTest() throws Exception {
+		GoogleCaptchaDTO captchaResponse = new GoogleCaptchaDTO();
+		captchaResponse.setSuccess(true);
+		CountDownLatch called = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(restTemplate.postForObject(Mockito.anyString(), Mockito.any(), Mockito.eq(GoogleCaptchaDTO.class)))
+				.thenAnswer(invocation -> {
+					called.countDown();
+					release.await();
+					return captchaResponse;
+				});
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<GoogleCaptchaDTO> first = executor.submit(() -> captchaVerifier.verify("token"));
+			assertTrue(called.await(5, TimeUnit.SECONDS));
+			CompletableFuture<GoogleCaptchaDTO> retry = CompletableFuture
+					.supplyAsync(() -> captchaVerifier.verify("token"));
+			Thread.sleep(100);
+			release.countDown();
+
+			assertTrue(first.get(5, TimeUnit.SECONDS).isSuccess());
+			assertTrue(retry.get(5, TimeUnit.SECONDS).isSuccess());
+		} finally {
+			executor.shutdownNow();
+		}
+		Mockito.verify(restTemplate, Mockito.times(1)).postForObject(Mockito.anyString(), Mockito.any(),
+				Mockito.eq(GoogleCaptchaDTO.class));
+	}
+
+	@Test
+	public void verifySuccessNotReplayedTest() {
+		GoogleCaptchaDTO captchaResponse = new GoogleCaptchaDTO();
+		captchaResponse.setSuccess(true);
+		GoogleCaptchaDTO duplicateResponse = new GoogleCaptchaDTO();
+		duplicateResponse.setSuccess(false);
+		Mockito.when(restTemplate.postForObject(Mockito.anyString(), Mockito.any(), Mockito.eq(GoogleCaptchaDTO.class)))
+				.thenReturn(captchaResponse, duplicateResponse);
+
+		assertTrue(captchaVerifier.verify("token").isSuccess());
+		// a completed success is verified again, and the verify site rejects the duplicate
+		assertFalse(captchaVerifier.verify("token").isSuccess());
+		Mockito.verify(restTemplate, Mockito.times(2)).postForObject(Mockito.anyString(), Mockito.any(),
+				Mockito.eq(GoogleCaptchaDTO.class));
+	}
+
+	@Test
+	public void verifyRejectedTokenReplayedTest() {
+		GoogleCaptchaDTO captchaResponse = new GoogleCaptchaDTO();
+		captchaResponse.setSuccess(false);
+		Mockito.when(restTemplate.postForObject(Mockito.anyString(), Mockito.any(), Mockito.eq(GoogleCaptchaDTO.class)))
+				.thenReturn(captchaResponse);
+
+		assertFalse(captchaVerifier.verify("token").isSuccess());
+		assertFalse(captchaVerifier.verify("token").isSuccess());
+		Mockito.verify(restTemplate, Mockito.times(1)).postForObject(Mockito.anyString(), Mockito.any(),
+				Mockito.eq(GoogleCaptchaDTO.class));
+	}
+
+	@Test
+	public void verifyUnexpectedErrorTest() {
+		ReflectionTestUtils.setField(captchaVerifier, "failOpen", true);
+		ReflectionTestUtils.setField(captchaVerifier, "failureThreshold", 1);
+		ReflectionTestUtils.setField(captchaVerifier, "openDurationMillis", 0L);
+		captchaVerifier.setupVerifier();
+		GoogleCaptchaDTO captchaResponse = new GoogleCaptchaDTO();
+		captchaResponse.setSuccess(false);
+		Mockito.when(restTemplate.postForObject(Mockito.anyString(), Mockito.any(), Mockito.eq(GoogleCaptchaDTO.class)))
+				.thenThrow(new IllegalStateException("No converter")).thenReturn(captchaResponse);
+
+		assertTrue(captchaVerifier.verify("token").isSuccess());
+		// the trial call is released and the failed verification is not kept
+		assertFalse(captchaVerifier.verify("token").isSuccess());
+		Mockito.verify(restTemplate, Mockito.times(2)).postForObject(Mockito.anyString(), Mockito.any(),
+				Mockito.eq(GoogleCaptchaDTO.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void validateCaptchaCircuitOpenFailOpenTest() {
+		ReflectionTestUtils.setField(captchaVerifier, "failOpen", true);
+		Mockito.when(restTemplate.postForObject(Mockito.anyString(), Mockito.any(), Mockito.eq(GoogleCaptchaDTO.class)))
+				.thenThrow(new ResourceAccessException("Read timed out"));
+		for (int token = 0; token < 4; token++) {
+			CaptchaRequestDTO captchaRequest = new CaptchaRequestDTO();
+			captchaRequest.setCaptchaToken("token" + token);
+			MainResponseDTO<CaptchaResposneDTO> response = (MainResponseDTO<CaptchaResposneDTO>) captchaServiceImpl
+					.validateCaptcha(captchaRequest);
+			assertTrue(response.getResponse().isSuccess());
+		}
+		// the circuit opened after two failures
+		Mockito.verify(restTemplate, Mockito.times(2)).postForObject(Mockito.anyString(), Mockito.any(),
+				Mockito.eq(GoogleCaptchaDTO.class));
+	}
 }
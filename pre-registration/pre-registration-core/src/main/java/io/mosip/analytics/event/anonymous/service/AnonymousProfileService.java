@@ -1,13 +1,19 @@
 package io.mosip.analytics.event.anonymous.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.mosip.analytics.event.anonymous.dto.AnonymousProfileRequestDTO;
 import io.mosip.analytics.event.anonymous.dto.AnonymousProfileResponseDTO;
@@ -28,6 +34,9 @@ public class AnonymousProfileService implements AnonymousProfileServiceIntf {
 	 */
 	private Logger log = LoggerConfiguration.logConfig(AnonymousProfileService.class);
 
+	private static final String INSERT_PROFILE = "INSERT INTO prereg.anonymous_profile (id, profile, cr_by, cr_dtimes, "
+			+ "upd_by, upd_dtimes, is_deleted) VALUES (?, ?, ?, ?, ?, ?, false)";
+
 	@Value("${mosip.utc-datetime-pattern}")
 	private String utcDateTimePattern;
 
@@ -37,6 +46,19 @@ public class AnonymousProfileService implements AnonymousProfileServiceIntf {
 	@Autowired
 	private AnonymousProfileRepostiory anonymousProfileRepostiory;
 
+	/**
+	 * Number of profiles sent to the database in one JDBC batch
+	 */
+	@Value("${preregistration.anonymous-profile.batch-size:500}")
+	private int batchSize;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -90,6 +112,36 @@ public class AnonymousProfileService implements AnonymousProfileServiceIntf {
 
 	}
 
+	/*
+	 * This method is used to save many anonymous profiles in one transaction.
+	 * 
+	 * 
+	 * @param requests list of AnonymousProfileRequestDTO
+	 * 
+	 * @param userId the user the profiles are saved for
+	 * 
+	 * @return number of profiles saved
+	 */
+	@Override
+	@Transactional
+	public int saveAnonymousProfiles(List<AnonymousProfileRequestDTO> requests, String userId) {
+		if (requests.isEmpty()) {
+			return 0;
+		}
+		Timestamp currentDateTime = Timestamp.valueOf(LocalDateTime.now(ZoneId.of("UTC")));
+		int[][] saved = jdbcTemplate.batchUpdate(INSERT_PROFILE, requests, batchSize, (ps, requestDto) -> {
+			ps.setString(1, UUIDGeneratorUtil.generateId());
+			ps.setString(2, requestDto.getProfileDetails());
+			ps.setString(3, userId);
+			ps.setTimestamp(4, currentDateTime);
+			ps.setString(5, userId);
+			ps.setTimestamp(6, currentDateTime);
+		});
+		log.info("sessionId", "idType", "id", "In saveAnonymousProfiles() method of AnonymousProfileService, "
+				+ requests.size() + " profiles saved in " + saved.length + " batches");
+		return requests.size();
+	}
+
 	public String getLocalDateString(LocalDateTime date) {
 		DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(utcDateTimePattern);
 		return date.format(dateTimeFormatter);
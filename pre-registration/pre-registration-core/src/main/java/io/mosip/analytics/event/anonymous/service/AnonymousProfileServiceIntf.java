@@ -1,5 +1,7 @@
 package io.mosip.analytics.event.anonymous.service;
 
+import java.util.List;
+
 import io.mosip.analytics.event.anonymous.dto.AnonymousProfileRequestDTO;
 import io.mosip.analytics.event.anonymous.dto.AnonymousProfileResponseDTO;
 import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
@@ -18,4 +20,17 @@ public interface AnonymousProfileServiceIntf {
 	 */
 	AnonymousProfileResponseDTO saveAnonymousProfile(AnonymousProfileRequestDTO request);
 
+	/*
+	 * This method is used to save many anonymous profiles in one transaction,
+	 * sent to the database in JDBC batches.
+	 * 
+	 * 
+	 * @param requests list of AnonymousProfileRequestDTO
+	 * 
+	 * @param userId the user the profiles are saved for
+	 * 
+	 * @return number of profiles saved
+	 */
+	int saveAnonymousProfiles(List<AnonymousProfileRequestDTO> requests, String userId);
+
 }
@@ -8,10 +8,11 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.PostConstruct;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -35,9 +36,8 @@ import io.mosip.preregistration.core.common.dto.BrowserInfoDTO;
 import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentMultipartResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentsMetaData;
-import io.mosip.preregistration.core.common.dto.identity.DemographicIdentityRequestDTO;
-import io.mosip.preregistration.core.common.dto.identity.Identity;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
+import io.mosip.preregistration.core.util.IdentityMapping;
 
 /**
  * This class provides generic methods required to create the anonymous profile
@@ -51,8 +51,6 @@ public class AnonymousProfileUtil {
 
 	private static final String BLANK_STRING = "";
 
-	private static final String VALUE_ATTRIBUTE = "value";
-
 	private static final String PHONE = "phone";
 
 	private static final String EMAIL = "email";
@@ -98,9 +96,9 @@ public class AnonymousProfileUtil {
 	private String identityMappingJsonFileName;
 
 	/**
-	 * Identity mapping JSON string
+	 * Identity mapping parsed from the JSON fetched at startup
 	 */
-	private String identityMappingJsonString = BLANK_STRING;
+	private IdentityMapping identityMapping;
 
 	/**
 	 * Root attribute name under for which identity mapping fields are available
@@ -121,8 +119,14 @@ public class AnonymousProfileUtil {
 	@PostConstruct
 	public void setup() {
 		log.info("Fetching file: " + identityMappingJsonFileName);
-		identityMappingJsonString = getJsonFile(identityMappingJsonFileName);
+		String identityMappingJsonString = getJsonFile(identityMappingJsonFileName);
 		log.info("Fetched the identity JSON from config server" + identityMappingJsonString);
+		try {
+			identityMapping = IdentityMapping.parse(identityMappingJsonString);
+		} catch (IOException ex) {
+			log.error("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id", "In setup() method of AnonymousProfileUtil - " + ex.getMessage());
+		}
 	}
 
 	/**
@@ -169,28 +173,44 @@ public class AnonymousProfileUtil {
 						+ documentsData);
 		log.info("sessionId", "idType", "id",
 				"The bookingData in saveAnonymousProfile() method of AnonymousProfileUtil service - " + bookingData);
+		AnonymousProfileRequestDTO requestDto = new AnonymousProfileRequestDTO();
+		requestDto.setProfileDetails(createAnonymousProfile(demographicData, documentsData, bookingData, browserData));
+		anonymourProfileService.saveAnonymousProfile(requestDto);
+	}
+
+	/**
+	 * Creates the anonymous profile JSON of the application without saving it.
+	 * 
+	 * @param demographicData
+	 * @param documentsData
+	 * @param bookingData
+	 * @param browserData
+	 * @return the profile JSON string
+	 * @throws AnonymousProfileException
+	 */
+	public String createAnonymousProfile(DemographicResponseDTO demographicData, DocumentsMetaData documentsData,
+			BookingRegistrationDTO bookingData, BrowserInfoDTO browserData) throws AnonymousProfileException {
 		try {
-			DemographicIdentityRequestDTO identityDto = populateIdentityMappingDto(); 
-			if (!isNull(identityDto) && !isNull(identityDto.getIdentity()) && !isNull(demographicData)) {
-				Identity identityMapping = identityDto.getIdentity();
-				JsonNode identityData = objectMapper.readTree(demographicData.getDemographicDetails().toJSONString());
-				identityData = identityData.get(identityKey);
+			if (!isNull(identityMapping) && identityMapping.hasIdentity() && !isNull(demographicData)) {
+				Map<String, String> identityData;
+				try (JsonParser parser = objectMapper.getFactory()
+						.createParser(demographicData.getDemographicDetails().toJSONString())) {
+					identityData = identityMapping.readValues(parser, identityKey);
+				}
 				RegistrationProfileDTO registrationProfile = new RegistrationProfileDTO();
 				registrationProfile.setProcessName(PREREGISTRATION_APP_NAME);
 				registrationProfile.setProcessStage(PREREGISTRATION_APP_NAME);
 				registrationProfile.setDate(LocalDateTime.now(ZoneId.of("UTC")));
-				registrationProfile.setYearOfBirth(extractYear(
-						getValueFromDemographicData(identityMapping.getDob().getValue(), identityData)));
+				registrationProfile.setYearOfBirth(extractYear(identityMapping.getDob().firstValue(identityData)));
+				registrationProfile.setGender(identityMapping.getGender().firstValue(identityData));
 				registrationProfile
-						.setGender(getValueFromDemographicData(identityMapping.getGender().getValue(), identityData));
-				registrationProfile.setPreferredLanguage(
-						getValueFromDemographicData(identityMapping.getPreferredLanguage().getValue(), identityData));
+						.setPreferredLanguage(identityMapping.getPreferredLanguage().firstValue(identityData));
 				if (!isNull(bookingData)) {
 					registrationProfile.setEnrollmentCenterId(bookingData.getRegistrationCenterId());
 				} else {
 					registrationProfile.setEnrollmentCenterId(BLANK_STRING);
 				}
-				registrationProfile.setLocation(getLocations(identityMapping, identityData));
+				registrationProfile.setLocation(identityMapping.getLocationHierarchy().firstValues(identityData));
 				registrationProfile.setChannel(getChannels(identityMapping, identityData));
 				registrationProfile.setDocuments(getDocumentTypesList(documentsData));
 				registrationProfile.setStatus(demographicData.getStatusCode());
@@ -200,10 +220,7 @@ public class AnonymousProfileUtil {
 					device.setBrowserVersion(browserData.getBrowserVersion());
 				}
 				registrationProfile.setDevice(device);
-				AnonymousProfileRequestDTO requestDto = new AnonymousProfileRequestDTO();
-				String profileJsonString = objectMapper.writeValueAsString(registrationProfile);
-				requestDto.setProfileDetails(profileJsonString);
-				anonymourProfileService.saveAnonymousProfile(requestDto);
+				return objectMapper.writeValueAsString(registrationProfile);
 			} else {
 				throw new AnonymousProfileException(AnonymousProfileErrorCodes.PRG_ANO_001.getCode(),
 						AnonymousProfileErrorMessages.UNABLE_TO_SAVE_ANONYMOUS_PROFILE.getMessage());
@@ -212,70 +229,10 @@ public class AnonymousProfileUtil {
 		} catch (Exception ex) {
 			log.error("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
 			log.error("sessionId", "idType", "id",
-					"Exception in saveAnonymousProfile() method of AnonymousProfileUtil - " + ex.getMessage());
+					"Exception in createAnonymousProfile() method of AnonymousProfileUtil - " + ex.getMessage());
 			throw new AnonymousProfileException(AnonymousProfileErrorCodes.PRG_ANO_001.getCode(),
 					AnonymousProfileErrorMessages.UNABLE_TO_SAVE_ANONYMOUS_PROFILE.getMessage());
 		}
-
-	}
-
-	/**
-	 * Populates the identity mapping JSON string into DTO
-	 * 
-	 * @return
-	 */
-	private DemographicIdentityRequestDTO populateIdentityMappingDto() {
-		try {
-			return objectMapper.readValue(identityMappingJsonString, DemographicIdentityRequestDTO.class);
-		} catch (IOException ex) {
-			log.error("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
-			log.error("sessionId", "idType", "id",
-					"In getIdentityMapping() method of AnonymousProfileUtil - " + ex.getMessage());
-		}
-		return null;
-	}
-
-	/**
-	 * Reads value for the given fieldName key from demographic data.
-	 * 
-	 * @param key
-	 * @param identityData
-	 * @return
-	 */
-	private String getValueFromDemographicData(String key, JsonNode identityData) {
-		JsonNode arrayNode = identityData.get(key);
-		int index = 0;
-		String value = BLANK_STRING;
-		if (arrayNode != null) {
-			if (arrayNode.isArray()) {
-				for (JsonNode jsonNode : arrayNode) {
-					if (index == 0) {
-						value = jsonNode.get(VALUE_ATTRIBUTE).asText().trim();
-					}
-					index++;
-				}
-			} else {
-				value = arrayNode.asText().trim();
-			}
-		}
-		return value;
-	}
-
-	/**
-	 * Returns list of values for the given address hierarchy.
-	 * 
-	 * @param identityMapping
-	 * @param identityData
-	 * @return
-	 */
-	private List<String> getLocations(Identity identityMapping, JsonNode identityData) {
-		List<String> locations = new ArrayList<String>();
-		String address = identityMapping.getLocationHierarchyForProfiling().getValue();
-		String[] addressKeys = address.split(",");
-		for (int i = 0; i < addressKeys.length; i++) {
-			locations.add(getValueFromDemographicData(addressKeys[i], identityData));
-		}
-		return locations;
 	}
 
 	/**
@@ -285,9 +242,9 @@ public class AnonymousProfileUtil {
 	 * @param identityData
 	 * @return
 	 */
-	private List<String> getChannels(Identity identityMapping, JsonNode identityData) {
-		String emailVal = getValueFromDemographicData(identityMapping.getEmail().getValue(), identityData);
-		String phoneVal = getValueFromDemographicData(identityMapping.getPhone().getValue(), identityData);
+	private List<String> getChannels(IdentityMapping identityMapping, Map<String, String> identityData) {
+		String emailVal = identityMapping.getEmail().firstValue(identityData);
+		String phoneVal = identityMapping.getPhone().firstValue(identityData);
 		List<String> channels = new ArrayList<String>();
 		if (!isNull(emailVal)) {
 			channels.add(EMAIL);
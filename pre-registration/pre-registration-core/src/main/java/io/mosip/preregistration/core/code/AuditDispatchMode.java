@@ -0,0 +1,22 @@
+package io.mosip.preregistration.core.code;
+
+/**
+ * This enum is used to define how an audit record is shipped to the kernel
+ * audit manager.
+ *
+ * @since 1.2.0
+ */
+public enum AuditDispatchMode {
+
+	/**
+	 * The record is queued and shipped by the background drainer, the caller
+	 * does not wait for the audit manager.
+	 */
+	BEST_EFFORT,
+
+	/**
+	 * The record is shipped on the caller's thread and the caller gets the audit
+	 * manager status back.
+	 */
+	SYNCHRONOUS;
+}
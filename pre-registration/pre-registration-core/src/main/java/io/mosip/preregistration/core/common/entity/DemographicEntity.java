@@ -12,9 +12,12 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.NamedQuery;
 import org.springframework.stereotype.Component;
 
@@ -40,14 +43,21 @@ import lombok.NoArgsConstructor;
 @Table(name = "applicant_demographic", schema = "prereg")
 @NoArgsConstructor
 @NamedQuery(name = "DemographicEntity.findByCreatedByOrderByCreateDateTime", query = "SELECT e FROM DemographicEntity e  WHERE e.createdBy=:userId and e.statusCode <>:statusCode order by e.createDateTime desc")
+@NamedQuery(name = "DemographicEntity.findByCreatedByOrderByCreateDateTime.count", query = "SELECT count(e) FROM DemographicEntity e  WHERE e.createdBy=:userId and e.statusCode <>:statusCode")
 @NamedQuery(name = "DemographicEntity.findByCreatedBy", query = "SELECT e FROM DemographicEntity e  WHERE e.createdBy=:userId and e.statusCode <>:statusCode order by e.createDateTime desc")
 @NamedQuery(name = "DemographicEntity.findBypreRegistrationId", query = "SELECT r FROM DemographicEntity r  WHERE r.preRegistrationId=:preRegId")
+@NamedEntityGraph(name = "DemographicEntity.documentEntity", attributeNodes = @NamedAttributeNode("documentEntity"))
 public class DemographicEntity implements Serializable {
 
 	/** The Constant serialVersionUID. */
 	private static final long serialVersionUID = 6705845720255847210L;
 
+	/**
+	 * Loaded in batches so that a page of applications fetches its documents in
+	 * one IN query instead of one query per application.
+	 */
 	@OneToMany(fetch = FetchType.EAGER, mappedBy = "demographicEntity")
+	@BatchSize(size = 50)
 	private List<DocumentEntity> documentEntity;
 
 	/** The pre registration id. */
@@ -0,0 +1,49 @@
+package io.mosip.preregistration.core.config;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Configuration class moving rest template beans on their own pool of the
+ * {@link PooledHttpClientFactory}, named after the bean. Pooling is opt-in:
+ * only the beans listed in mosip.preregistration.http-client.pooled-beans are
+ * moved, since a pool uses the default SSL context and would drop the SSL
+ * socket factory a bean was built with, as the trust-all ones of the kernel
+ * auth adapter. Rest templates already built on a pool of the factory are
+ * kept on it and only get their requests timed.
+ *
+ * @since 1.2.0
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "mosip.preregistration.http-client.enabled", havingValue = "true", matchIfMissing = true)
+public class HttpClientConfig {
+
+	@Bean
+	public static BeanPostProcessor pooledRestTemplatePostProcessor(
+			ObjectProvider<PooledHttpClientFactory> httpClientFactory, Environment environment) {
+		Set<String> pooledBeans = new HashSet<>(Arrays.asList(
+				environment.getProperty("mosip.preregistration.http-client.pooled-beans", "").split("\\s*,\\s*")));
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if (bean instanceof RestTemplate && (pooledBeans.contains(beanName)
+						|| httpClientFactory.getObject().hasPool(beanName))) {
+					httpClientFactory.getObject().pool((RestTemplate) bean, beanName);
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,247 @@
+package io.mosip.preregistration.core.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * This class builds the HTTP clients of the rest templates on named
+ * connection pools of kept alive connections. Each pool is limited per
+ * downstream route, with connect, read and pool acquire timeouts. Pools are
+ * configured with mosip.preregistration.http-client.&lt;pool&gt;.* and fall
+ * back to mosip.preregistration.http-client.default.*.
+ * <p>
+ * Requests are timed per pool, downstream endpoint and outcome, and the
+ * leased, pending and available connections of every pool are published as
+ * gauges.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class PooledHttpClientFactory {
+
+	private Logger log = LoggerConfiguration.logConfig(PooledHttpClientFactory.class);
+
+	private static final String PREFIX = "mosip.preregistration.http-client.";
+
+	private static final String DEFAULT_POOL = "default";
+
+	@Autowired
+	private Environment environment;
+
+	private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+	/**
+	 * Moves the rest template on the named pool and times its requests. The
+	 * interceptors of the rest template are kept.
+	 *
+	 * @param restTemplate the rest template
+	 * @param pool         the pool name
+	 */
+	public void pool(RestTemplate restTemplate, String pool) {
+		restTemplate.setRequestFactory(requestFactory(pool, null));
+		List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(restTemplate.getInterceptors());
+		interceptors.add(metricsInterceptor(pool));
+		restTemplate.setInterceptors(interceptors);
+	}
+
+	/**
+	 * Gives the request factory of the named pool, created on first use.
+	 *
+	 * @param pool       the pool name
+	 * @param sslContext the SSL context of the pool, null for the default one;
+	 *                   only used when the pool is created
+	 * @return the request factory
+	 */
+	public HttpComponentsClientHttpRequestFactory requestFactory(String pool, SSLContext sslContext) {
+		return pools.computeIfAbsent(pool, name -> createPool(name, sslContext)).requestFactory;
+	}
+
+	/**
+	 * @param pool the pool name
+	 * @return true if the named pool was already created
+	 */
+	public boolean hasPool(String pool) {
+		return pools.containsKey(pool);
+	}
+
+	/**
+	 * Gives an interceptor timing the requests of the named pool.
+	 */
+	public ClientHttpRequestInterceptor metricsInterceptor(String pool) {
+		return (request, body, execution) -> {
+			long start = System.nanoTime();
+			String outcome = "IO_ERROR";
+			try {
+				ClientHttpResponse response = execution.execute(request, body);
+				outcome = response.getStatusCode().series().name();
+				return response;
+			} catch (ConnectionPoolTimeoutException ex) {
+				outcome = "POOL_TIMEOUT";
+				throw ex;
+			} finally {
+				Timer.builder("preregistration.http.client.requests")
+						.tags(Tags.of("pool", pool, "endpoint", endpoint(request.getURI()), "method",
+								request.getMethodValue(), "outcome", outcome))
+						.publishPercentileHistogram().register(Metrics.globalRegistry)
+						.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		};
+	}
+
+	@PreDestroy
+	public void closePools() {
+		pools.forEach((name, pool) -> {
+			try {
+				pool.httpClient.close();
+			} catch (IOException ex) {
+				log.warn("sessionId", "idType", "id",
+						"In closePools method of PooledHttpClientFactory, unable to close pool " + name);
+			}
+		});
+	}
+
+	private Pool createPool(String name, SSLContext sslContext) {
+		PoolingHttpClientConnectionManager connectionManager;
+		if (sslContext == null) {
+			connectionManager = new PoolingHttpClientConnectionManager();
+		} else {
+			Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+					.register("http", PlainConnectionSocketFactory.getSocketFactory())
+					.register("https", new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE))
+					.build();
+			connectionManager = new PoolingHttpClientConnectionManager(registry);
+		}
+		connectionManager.setMaxTotal(property(name, "max-total", 200));
+		connectionManager.setDefaultMaxPerRoute(property(name, "max-per-route", 50));
+		connectionManager.setValidateAfterInactivity(property(name, "validate-after-inactivity-ms", 2000));
+		routeLimits(environment.getProperty(PREFIX + name + ".route-limits", ""))
+				.forEach(connectionManager::setMaxPerRoute);
+
+		long keepAliveMillis = property(name, "keep-alive-ms", 30000);
+		CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(property(name, "connect-timeout-ms", 5000))
+						.setSocketTimeout(property(name, "read-timeout-ms", 60000))
+						.setConnectionRequestTimeout(property(name, "pool-acquire-timeout-ms", 5000)).build())
+				.setKeepAliveStrategy((response, context) -> {
+					long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+							context);
+					return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+				}).evictExpiredConnections().evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+				.useSystemProperties().build();
+
+		Tags tags = Tags.of("pool", name);
+		Metrics.gauge("preregistration.http.client.pool.leased", tags, connectionManager,
+				manager -> manager.getTotalStats().getLeased());
+		Metrics.gauge("preregistration.http.client.pool.pending", tags, connectionManager,
+				manager -> manager.getTotalStats().getPending());
+		Metrics.gauge("preregistration.http.client.pool.available", tags, connectionManager,
+				manager -> manager.getTotalStats().getAvailable());
+		Metrics.gauge("preregistration.http.client.pool.max", tags, connectionManager,
+				manager -> manager.getTotalStats().getMax());
+		log.info("sessionId", "idType", "id", "In createPool method of PooledHttpClientFactory, HTTP client pool "
+				+ name + " created with max total " + connectionManager.getMaxTotal() + " and max per route "
+				+ connectionManager.getDefaultMaxPerRoute());
+		return new Pool(httpClient, new HttpComponentsClientHttpRequestFactory(httpClient));
+	}
+
+	private int property(String pool, String key, int defaultValue) {
+		Integer value = environment.getProperty(PREFIX + pool + "." + key, Integer.class);
+		return value != null ? value
+				: environment.getProperty(PREFIX + DEFAULT_POOL + "." + key, Integer.class, defaultValue);
+	}
+
+	/**
+	 * Per downstream limits, as comma separated url=max-connections, keyed on
+	 * the route planned for the requests to the url
+	 */
+	static Map<HttpRoute, Integer> routeLimits(String routeLimits) {
+		Map<HttpRoute, Integer> limits = new LinkedHashMap<>();
+		for (String routeLimit : routeLimits.split(",")) {
+			String[] limit = routeLimit.trim().split("=");
+			if (limit.length == 2) {
+				limits.put(route(limit[0].trim()), Integer.parseInt(limit[1].trim()));
+			}
+		}
+		return limits;
+	}
+
+	/**
+	 * Route of the url as planned for the requests, with the default port of
+	 * the scheme when it has none
+	 */
+	static HttpRoute route(String url) {
+		HttpHost host = HttpHost.create(url);
+		boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+		if (host.getPort() < 0) {
+			host = new HttpHost(host.getHostName(), secure ? 443 : 80, host.getSchemeName());
+		}
+		return new HttpRoute(host, null, secure);
+	}
+
+	/**
+	 * Host and first two path segments of the uri, which names the downstream
+	 * service without the request specific ids
+	 */
+	static String endpoint(URI uri) {
+		String path = uri.getPath() == null ? "" : uri.getPath();
+		String[] segments = path.split("/");
+		StringBuilder endpoint = new StringBuilder(uri.getHost() == null ? "" : uri.getHost());
+		for (int index = 1, kept = 0; index < segments.length && kept < 2; index++) {
+			if (!segments[index].isEmpty()) {
+				endpoint.append('/').append(segments[index]);
+				kept++;
+			}
+		}
+		return endpoint.toString();
+	}
+
+	private static final class Pool {
+
+		private final CloseableHttpClient httpClient;
+
+		private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+		private Pool(CloseableHttpClient httpClient, HttpComponentsClientHttpRequestFactory requestFactory) {
+			this.httpClient = httpClient;
+			this.requestFactory = requestFactory;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package io.mosip.preregistration.core.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -14,9 +15,18 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 @Configuration
 public class SSLConfig {
 
+	@Value("${mosip.preregistration.http-client.default.connect-timeout-ms:5000}")
+	private int connectTimeoutMillis;
+
+	@Value("${mosip.preregistration.http-client.default.read-timeout-ms:60000}")
+	private int readTimeoutMillis;
+
 	@Bean
 	public SimpleClientHttpRequestFactory simpleClientHttpRequestFactory() {
-		return new SimpleClientHttpRequestFactory();
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(connectTimeoutMillis);
+		requestFactory.setReadTimeout(readTimeoutMillis);
+		return requestFactory;
 	}
 
 }
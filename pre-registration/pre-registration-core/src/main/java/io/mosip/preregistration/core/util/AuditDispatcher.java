@@ -0,0 +1,353 @@
+package io.mosip.preregistration.core.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.http.HttpHeaders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.core.common.dto.AuditRequestDto;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class ships audit records to the kernel audit manager off the request
+ * thread. Records are buffered in a bounded in-memory queue and drained in
+ * batches by a single background thread. When the queue is full, or the audit
+ * manager fails or rejects a record, records are appended to a local spool
+ * file which is replayed, one batch at a time, once the queue is idle again. A
+ * record rejected or failed the maximum number of times is dropped.
+ *
+ * @since 1.2.0
+ *
+ */
+public class AuditDispatcher {
+
+	private Logger log = LoggerConfiguration.logConfig(AuditDispatcher.class);
+
+	private static final String SPOOL_FILE = "audit-spool.jsonl";
+
+	private static final String REPLAY_FILE = "audit-spool.replay";
+
+	private static final String REPLAY_REST_FILE = "audit-spool.replay.rest";
+
+	private final BlockingQueue<AuditRecord> queue;
+
+	private final int batchSize;
+
+	private final long retryIntervalMillis;
+
+	private final long spoolMaxBytes;
+
+	private final int maxAttempts;
+
+	private final Path spoolFile;
+
+	private final Path replayFile;
+
+	private final Path replayRestFile;
+
+	private final Predicate<AuditRequestDto> sender;
+
+	private final BiPredicate<AuditRequestDto, HttpHeaders> headerSender;
+
+	private final ObjectMapper spoolMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	private final Object spoolLock = new Object();
+
+	private final Counter droppedCounter = Metrics.counter("preregistration.audit.dropped");
+
+	private final Counter spooledCounter = Metrics.counter("preregistration.audit.spooled");
+
+	private final Counter failedCounter = Metrics.counter("preregistration.audit.failed");
+
+	private final DistributionSummary batchSizeSummary = Metrics.summary("preregistration.audit.batch.size");
+
+	private volatile boolean running;
+
+	private Thread drainer;
+
+	/**
+	 * @param queueCapacity       capacity of the in-memory queue
+	 * @param batchSize           maximum number of records shipped per drain
+	 * @param retryIntervalMillis back-off after the audit manager fails
+	 * @param spoolDir            directory of the overflow spool
+	 * @param spoolMaxBytes       size above which spooled records are dropped
+	 * @param maxAttempts         number of failed or rejected sends after which
+	 *                            a record is dropped
+	 * @param sender              ships a record with the service token, false
+	 *                            if the audit manager rejected it
+	 * @param headerSender        ships a record with the caller's headers, false
+	 *                            if the audit manager rejected it
+	 */
+	public AuditDispatcher(int queueCapacity, int batchSize, long retryIntervalMillis, Path spoolDir,
+			long spoolMaxBytes, int maxAttempts, Predicate<AuditRequestDto> sender,
+			BiPredicate<AuditRequestDto, HttpHeaders> headerSender) {
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.retryIntervalMillis = retryIntervalMillis;
+		this.spoolMaxBytes = spoolMaxBytes;
+		this.maxAttempts = maxAttempts;
+		this.spoolFile = spoolDir.resolve(SPOOL_FILE);
+		this.replayFile = spoolDir.resolve(REPLAY_FILE);
+		this.replayRestFile = spoolDir.resolve(REPLAY_REST_FILE);
+		this.sender = sender;
+		this.headerSender = headerSender;
+		Metrics.gauge("preregistration.audit.queue.depth", queue, BlockingQueue::size);
+	}
+
+	public void start() {
+		try {
+			Files.createDirectories(spoolFile.getParent());
+		} catch (IOException ex) {
+			log.error("sessionId", "idType", "id",
+					"In start method of AuditDispatcher, unable to create spool directory- " + ex.getMessage());
+		}
+		running = true;
+		drainer = new Thread(this::drain, "audit-dispatcher");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * Stops the drainer and spools whatever is still queued so that it is
+	 * shipped after the next start.
+	 */
+	public void stop() {
+		running = false;
+		if (drainer != null) {
+			drainer.interrupt();
+			try {
+				drainer.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		List<AuditRecord> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		remaining.forEach(this::spool);
+	}
+
+	/**
+	 * Queues a record for the background drainer. Falls back to the spool file
+	 * when the queue is full.
+	 *
+	 * @param auditRequestDto the audit record
+	 * @param headers         the caller's headers, or null to use the service
+	 *                        token
+	 */
+	public void dispatch(AuditRequestDto auditRequestDto, HttpHeaders headers) {
+		AuditRecord auditRecord = new AuditRecord(auditRequestDto, headers, 0);
+		if (!queue.offer(auditRecord)) {
+			spool(auditRecord);
+		}
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	private void drain() {
+		List<AuditRecord> batch = new ArrayList<>(batchSize);
+		boolean replayPending = false;
+		while (running) {
+			try {
+				AuditRecord first = replayPending ? queue.poll() : queue.poll(1, TimeUnit.SECONDS);
+				if (first == null) {
+					replayPending = replaySpool();
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				batchSizeSummary.record(batch.size());
+				ship(batch);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				batch.forEach(this::spool);
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Ships the records in order. On the first failed or rejected record, it and
+	 * the rest of the batch are spooled and the drainer backs off.
+	 *
+	 * @return false if the batch was not fully shipped
+	 */
+	private boolean ship(List<AuditRecord> batch) throws InterruptedException {
+		for (int index = 0; index < batch.size(); index++) {
+			if (!send(batch.get(index))) {
+				AuditRecord failed = batch.get(index);
+				retry(new AuditRecord(failed.auditRequestDto, null, failed.attempts + 1));
+				batch.subList(index + 1, batch.size()).forEach(this::spool);
+				batch.clear();
+				Thread.sleep(retryIntervalMillis);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean send(AuditRecord auditRecord) {
+		try {
+			boolean accepted = auditRecord.headers == null ? sender.test(auditRecord.auditRequestDto)
+					: headerSender.test(auditRecord.auditRequestDto, auditRecord.headers);
+			if (!accepted) {
+				failedCounter.increment();
+				log.error("sessionId", "idType", "id",
+						"In send method of AuditDispatcher, audit record rejected by audit manager");
+			}
+			return accepted;
+		} catch (Exception ex) {
+			failedCounter.increment();
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In send method of AuditDispatcher, audit manager call failed- " + ex.getMessage());
+			return false;
+		}
+	}
+
+	private void retry(AuditRecord auditRecord) {
+		if (auditRecord.attempts >= maxAttempts) {
+			droppedCounter.increment();
+			log.error("sessionId", "idType", "id", "In retry method of AuditDispatcher, audit record dropped after "
+					+ auditRecord.attempts + " attempts");
+			return;
+		}
+		spool(auditRecord);
+	}
+
+	/**
+	 * Appends a record to the spool file. The caller's headers are not written
+	 * to disk, replayed records are shipped with the service token.
+	 */
+	private void spool(AuditRecord auditRecord) {
+		synchronized (spoolLock) {
+			try {
+				if (Files.exists(spoolFile) && Files.size(spoolFile) >= spoolMaxBytes) {
+					droppedCounter.increment();
+					return;
+				}
+				ObjectNode line = spoolMapper.createObjectNode();
+				line.put("attempts", auditRecord.attempts);
+				line.set("audit", spoolMapper.valueToTree(auditRecord.auditRequestDto));
+				try (BufferedWriter writer = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8,
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+					writer.write(spoolMapper.writeValueAsString(line));
+					writer.newLine();
+				}
+				spooledCounter.increment();
+			} catch (IOException ex) {
+				droppedCounter.increment();
+				log.error("sessionId", "idType", "id",
+						"In spool method of AuditDispatcher, audit record dropped- " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Replays one batch of spooled records. The spool is moved aside first, so
+	 * records spooled meanwhile go to a new spool file, and the records past the
+	 * batch are kept in the replay file for the next call.
+	 *
+	 * @return true if spooled records are left to replay
+	 */
+	private boolean replaySpool() throws InterruptedException {
+		List<String> lines = new ArrayList<>(batchSize);
+		boolean hasMore;
+		synchronized (spoolLock) {
+			try {
+				if (!Files.exists(replayFile)) {
+					if (!Files.exists(spoolFile) || Files.size(spoolFile) == 0) {
+						return false;
+					}
+					Files.move(spoolFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+				}
+				hasMore = false;
+				try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+					String line;
+					while (lines.size() < batchSize && (line = reader.readLine()) != null) {
+						lines.add(line);
+					}
+					if ((line = reader.readLine()) != null) {
+						hasMore = true;
+						try (BufferedWriter writer = Files.newBufferedWriter(replayRestFile, StandardCharsets.UTF_8)) {
+							do {
+								writer.write(line);
+								writer.newLine();
+							} while ((line = reader.readLine()) != null);
+						}
+					}
+				}
+				if (hasMore) {
+					Files.move(replayRestFile, replayFile, StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} else {
+					Files.delete(replayFile);
+				}
+			} catch (IOException ex) {
+				log.error("sessionId", "idType", "id",
+						"In replaySpool method of AuditDispatcher, unable to read spool- " + ex.getMessage());
+				return false;
+			}
+		}
+		log.info("sessionId", "idType", "id", "In replaySpool method of AuditDispatcher, replaying " + lines.size()
+				+ " spooled audit records");
+		List<AuditRecord> batch = new ArrayList<>(lines.size());
+		for (String line : lines) {
+			try {
+				JsonNode node = spoolMapper.readTree(line);
+				// records spooled before the attempts were kept are the bare audit request
+				batch.add(node.has("audit")
+						? new AuditRecord(spoolMapper.treeToValue(node.get("audit"), AuditRequestDto.class), null,
+								node.path("attempts").asInt())
+						: new AuditRecord(spoolMapper.treeToValue(node, AuditRequestDto.class), null, 0));
+			} catch (IOException ex) {
+				droppedCounter.increment();
+			}
+		}
+		return ship(batch) && hasMore;
+	}
+
+	private static final class AuditRecord {
+
+		private final AuditRequestDto auditRequestDto;
+
+		private final HttpHeaders headers;
+
+		/**
+		 * Number of failed or rejected sends so far
+		 */
+		private final int attempts;
+
+		private AuditRecord(AuditRequestDto auditRequestDto, HttpHeaders headers, int attempts) {
+			this.auditRequestDto = auditRequestDto;
+			this.headers = headers;
+			this.attempts = attempts;
+		}
+	}
+}
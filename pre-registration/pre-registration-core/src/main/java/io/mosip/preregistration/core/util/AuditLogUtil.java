@@ -4,10 +4,12 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +31,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.core.code.AuditDispatchMode;
 import io.mosip.preregistration.core.code.AuditLogVariables;
 import io.mosip.preregistration.core.common.dto.AuditRequestDto;
 import io.mosip.preregistration.core.common.dto.AuditResponseDto;
@@ -73,6 +76,36 @@ public class AuditLogUtil {
 	@Value("${audit.url}")
 	private String auditUrl;
 
+	/**
+	 * Default dispatch mode of {@link #saveAuditDetails(AuditRequestDto)}
+	 */
+	@Value("${preregistration.audit.dispatch-mode:BEST_EFFORT}")
+	private AuditDispatchMode defaultDispatchMode;
+
+	@Value("${preregistration.audit.queue-capacity:10000}")
+	private int auditQueueCapacity;
+
+	@Value("${preregistration.audit.batch-size:50}")
+	private int auditBatchSize;
+
+	@Value("${preregistration.audit.retry-interval-ms:5000}")
+	private long auditRetryIntervalMillis;
+
+	/**
+	 * Spool directory, one per service so services sharing a host do not
+	 * replay each other's records
+	 */
+	@Value("${preregistration.audit.spool.dir:${java.io.tmpdir}/prereg-audit-spool/${spring.application.name:pre-registration}}")
+	private String auditSpoolDir;
+
+	@Value("${preregistration.audit.spool.max-bytes:52428800}")
+	private long auditSpoolMaxBytes;
+
+	@Value("${preregistration.audit.max-attempts:10}")
+	private int auditMaxAttempts;
+
+	private AuditDispatcher auditDispatcher;
+
 	/**
 	 * To Set the Host Ip & Host Name
 	 */
@@ -80,6 +113,17 @@ public class AuditLogUtil {
 	public void getHostDetails() {
 		hostIP = getServerIp();
 		hostName = getServerName();
+		auditDispatcher = new AuditDispatcher(auditQueueCapacity, auditBatchSize, auditRetryIntervalMillis,
+				Paths.get(auditSpoolDir), auditSpoolMaxBytes, auditMaxAttempts, this::callAuditManager,
+				this::callAuditManager);
+		auditDispatcher.start();
+	}
+
+	@PreDestroy
+	public void stopAuditDispatcher() {
+		if (auditDispatcher != null) {
+			auditDispatcher.stop();
+		}
 	}
 
 	/**
@@ -111,6 +155,19 @@ public class AuditLogUtil {
 	}
 
 	public void saveAuditDetails(AuditRequestDto auditRequestDto) {
+		saveAuditDetails(auditRequestDto, defaultDispatchMode);
+	}
+
+	/**
+	 * Saves the audit record either through the background dispatcher or on the
+	 * caller's thread.
+	 * 
+	 * @param auditRequestDto the audit record
+	 * @param dispatchMode    {@link AuditDispatchMode#BEST_EFFORT} to queue the
+	 *                        record, {@link AuditDispatchMode#SYNCHRONOUS} to
+	 *                        wait for the audit manager
+	 */
+	public void saveAuditDetails(AuditRequestDto auditRequestDto, AuditDispatchMode dispatchMode) {
 		log.info("sessionId", "idType", "id",
 				"In saveAuditDetails method of AugitLogUtil service - " + auditRequestDto);
 
@@ -130,7 +187,11 @@ public class AuditLogUtil {
 			auditRequestDto.setSessionUserName(AuditLogVariables.SYSTEM.toString());
 		}
 		auditRequestDto.setIdType(AuditLogVariables.PRE_REGISTRATION_ID.toString());
-		callAuditManager(auditRequestDto);
+		if (dispatchMode == AuditDispatchMode.SYNCHRONOUS || auditDispatcher == null) {
+			callAuditManager(auditRequestDto);
+		} else {
+			auditDispatcher.dispatch(auditRequestDto, null);
+		}
 	}
 
 	public boolean callAuditManager(AuditRequestDto auditRequestDto) {
@@ -225,7 +286,11 @@ public class AuditLogUtil {
 			auditRequestDto.setSessionUserName(AuditLogVariables.SYSTEM.toString());
 		}
 		auditRequestDto.setIdType(AuditLogVariables.PRE_REGISTRATION_ID.toString());
-		callAuditManager(auditRequestDto, header);
+		if (defaultDispatchMode == AuditDispatchMode.SYNCHRONOUS || auditDispatcher == null) {
+			callAuditManager(auditRequestDto, header);
+		} else {
+			auditDispatcher.dispatch(auditRequestDto, header);
+		}
 	}
 
 
@@ -1,7 +1,24 @@
 package io.mosip.preregistration.core.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -9,20 +26,44 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.exception.ServiceError;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.preregistration.core.common.dto.CryptoManagerRequestDTO;
 import io.mosip.preregistration.core.common.dto.CryptoManagerResponseDTO;
 import io.mosip.preregistration.core.common.dto.RequestWrapper;
 import io.mosip.preregistration.core.common.dto.ResponseWrapper;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
+import io.mosip.preregistration.core.errorcodes.ErrorCodes;
+import io.mosip.preregistration.core.errorcodes.ErrorMessages;
+import io.mosip.preregistration.core.exception.DecryptionFailedException;
 import io.mosip.preregistration.core.exception.EncryptionFailedException;
 
 /**
@@ -54,6 +95,51 @@ public class CryptoUtil {
 	@Value("${preregistration.crypto.PrependThumbprint}")
 	public boolean cryptoPrependThumbprint;
 
+	/**
+	 * Number of worker threads shared by all bulk decrypt calls
+	 */
+	@Value("${preregistration.crypto.bulk.pool-size:20}")
+	private int bulkPoolSize;
+
+	/**
+	 * Number of tasks that can wait for a worker before the caller decrypts inline
+	 */
+	@Value("${preregistration.crypto.bulk.queue-capacity:200}")
+	private int bulkQueueCapacity;
+
+	/**
+	 * Maximum number of in-flight decrypt calls for a single bulk request
+	 */
+	@Value("${preregistration.crypto.bulk.max-concurrency:10}")
+	private int bulkMaxConcurrency;
+
+	private ThreadPoolExecutor bulkExecutor;
+
+	/**
+	 * Encoding of the data of the key manager responses, url safe base64 read
+	 * with or without padding
+	 */
+	private static final Base64Variant CRYPTO_DATA_BASE64 = Base64Variants.MODIFIED_FOR_URL
+			.withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+	private Timer bulkDecryptTimer;
+
+	@PostConstruct
+	public void setupBulkExecutor() {
+		bulkExecutor = new ThreadPoolExecutor(bulkPoolSize, bulkPoolSize, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(bulkQueueCapacity), new CustomizableThreadFactory("crypto-bulk-"),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		bulkExecutor.allowCoreThreadTimeOut(true);
+		bulkDecryptTimer = Metrics.timer("preregistration.crypto.bulk.decrypt");
+	}
+
+	@PreDestroy
+	public void shutdownBulkExecutor() {
+		if (bulkExecutor != null) {
+			bulkExecutor.shutdown();
+		}
+	}
+
 
 	public byte[] encrypt(byte[] originalInput, LocalDateTime localDateTime) {
 		log.info("sessionId", "idType", "id", "In encrypt method of CryptoUtil service ");
@@ -95,6 +181,166 @@ public class CryptoUtil {
 
 	}
 
+	/**
+	 * Encrypts the content of the source without materializing it: the content
+	 * is base64 encoded into the request body as it is read, and the encrypted
+	 * data of the response is written to the output as it is parsed. The output
+	 * gets the same bytes {@link #encrypt(byte[], LocalDateTime)} returns.
+	 * <p>
+	 * When the rest template has interceptors, Spring buffers the request body
+	 * once before sending it.
+	 * 
+	 * @param originalInput   the content to encrypt
+	 * @param localDateTime   the request time stamp
+	 * @param encryptedOutput the output of the encrypted data, not closed
+	 */
+	public void encrypt(InputStreamSource originalInput, LocalDateTime localDateTime, OutputStream encryptedOutput) {
+		log.info("sessionId", "idType", "id", "In streaming encrypt method of CryptoUtil service ");
+		try {
+			List<ServiceError> errors;
+			// the key manager data is kept url safe base64 encoded, as the byte[] encrypt does
+			try (OutputStream encoded = java.util.Base64.getUrlEncoder().withoutPadding()
+					.wrap(StreamUtils.nonClosing(encryptedOutput))) {
+				errors = streamCryptoCall("/encrypt", localDateTime,
+						(generator, input) -> generator.writeBinary(Base64Variants.MODIFIED_FOR_URL, input, -1),
+						originalInput, encoded);
+			}
+			if (errors == null) {
+				throw new EncryptionFailedException(ErrorCodes.PRG_CORE_REQ_011.getCode(),
+						ErrorMessages.FAILED_TO_ENCRYPT.getMessage());
+			}
+			if (!errors.isEmpty()) {
+				throw new EncryptionFailedException(errors, null);
+			}
+		} catch (IOException ex) {
+			log.error("sessionId", "idType", "id",
+					"In streaming encrypt method of CryptoUtil Util for Exception- " + ex.getMessage());
+			throw new EncryptionFailedException(ErrorCodes.PRG_CORE_REQ_011.getCode(),
+					ErrorMessages.FAILED_TO_ENCRYPT.getMessage(), ex);
+		} catch (Exception ex) {
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In streaming encrypt method of CryptoUtil Util for Exception- " + ex.getMessage());
+			throw ex;
+		}
+	}
+
+	/**
+	 * Calls the key manager with the data of the request written from the
+	 * source, and writes the decoded data of the response to the output as it is
+	 * parsed.
+	 * 
+	 * @return the errors of the response, empty if the data was written, null if
+	 *         the response had neither
+	 */
+	private List<ServiceError> streamCryptoCall(String operation, LocalDateTime localDateTime, DataWriter dataWriter,
+			InputStreamSource source, OutputStream decodedOutput) {
+		ObjectMapper objectMapper = jsonMapper();
+		CryptoManagerRequestDTO dto = new CryptoManagerRequestDTO();
+		dto.setApplicationId(cryptoApplcationId);
+		dto.setReferenceId(cryptoReferenceId);
+		dto.setTimeStamp(localDateTime);
+		dto.setPrependThumbprint(cryptoPrependThumbprint);
+		RequestWrapper<CryptoManagerRequestDTO> requestKernel = new RequestWrapper<>();
+		requestKernel.setRequest(dto);
+		ObjectNode requestTree = objectMapper.valueToTree(requestKernel);
+		((ObjectNode) requestTree.get("request")).remove("data");
+
+		RequestCallback requestCallback = request -> {
+			request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			try (InputStream input = source.getInputStream();
+					JsonGenerator generator = objectMapper.getFactory()
+							.createGenerator(StreamUtils.nonClosing(request.getBody()))) {
+				generator.writeStartObject();
+				Iterator<Map.Entry<String, JsonNode>> fields = requestTree.fields();
+				while (fields.hasNext()) {
+					Map.Entry<String, JsonNode> field = fields.next();
+					if (!"request".equals(field.getKey())) {
+						generator.writeObjectField(field.getKey(), field.getValue());
+						continue;
+					}
+					generator.writeFieldName(field.getKey());
+					generator.writeStartObject();
+					Iterator<Map.Entry<String, JsonNode>> requestFields = field.getValue().fields();
+					while (requestFields.hasNext()) {
+						Map.Entry<String, JsonNode> requestField = requestFields.next();
+						generator.writeObjectField(requestField.getKey(), requestField.getValue());
+					}
+					generator.writeFieldName("data");
+					dataWriter.write(generator, input);
+					generator.writeEndObject();
+				}
+				generator.writeEndObject();
+			}
+		};
+		ResponseExtractor<List<ServiceError>> responseExtractor = response -> {
+			try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+				return readCryptoResponse(objectMapper, parser, decodedOutput);
+			}
+		};
+		log.info("sessionId", "idType", "id", "In streamCryptoCall method of CryptoUtil service cryptoResourceUrl: "
+				+ cryptoResourceUrl + operation);
+		return restTemplate.execute(cryptoResourceUrl + operation, HttpMethod.POST, requestCallback,
+				responseExtractor);
+	}
+
+	/**
+	 * Writes the decoded data of the response to the output, in bounded chunks
+	 * 
+	 * @return the errors of the response, empty if the data was written, null if
+	 *         the response had neither
+	 */
+	private List<ServiceError> readCryptoResponse(ObjectMapper objectMapper, JsonParser parser,
+			OutputStream decodedOutput) throws IOException {
+		List<ServiceError> errors = null;
+		boolean dataWritten = false;
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			return null;
+		}
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if ("response".equals(field) && value == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String responseField = parser.getCurrentName();
+					if (parser.nextToken() == JsonToken.VALUE_STRING && "data".equals(responseField)) {
+						parser.readBinaryValue(CRYPTO_DATA_BASE64, decodedOutput);
+						dataWritten = true;
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else if ("errors".equals(field) && value == JsonToken.START_ARRAY) {
+				errors = objectMapper.readValue(parser, new TypeReference<List<ServiceError>>() {
+				});
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (errors != null && !errors.isEmpty()) {
+			return errors;
+		}
+		return dataWritten ? new ArrayList<>() : null;
+	}
+
+	private ObjectMapper jsonMapper() {
+		for (HttpMessageConverter<?> messageConverter : restTemplate.getMessageConverters()) {
+			if (messageConverter instanceof MappingJackson2HttpMessageConverter) {
+				return ((MappingJackson2HttpMessageConverter) messageConverter).getObjectMapper();
+			}
+		}
+		return Jackson2ObjectMapperBuilder.json().build();
+	}
+
+	/**
+	 * Writes the data field of a key manager request from the source
+	 */
+	@FunctionalInterface
+	private interface DataWriter {
+
+		void write(JsonGenerator generator, InputStream input) throws IOException;
+	}
+
 	public byte[] decrypt(byte[] originalInput, LocalDateTime localDateTime) {
 		log.info("sessionId", "idType", "id", "In decrypt method of CryptoUtil service ");
 		ResponseEntity<ResponseWrapper<CryptoManagerResponseDTO>> response = null;
@@ -134,4 +380,95 @@ public class CryptoUtil {
 
 	}
 
+	/**
+	 * Decrypts the content of the source without materializing it: the stored
+	 * encrypted data is copied into the request body as it is read, and the
+	 * decrypted data of the response is written to the output as it is parsed.
+	 * The output gets the same bytes {@link #decrypt(byte[], LocalDateTime)}
+	 * returns.
+	 * 
+	 * @param originalInput   the encrypted content, as returned by encrypt
+	 * @param localDateTime   the time stamp of the encryption
+	 * @param decryptedOutput the output of the decrypted data, not closed
+	 */
+	public void decrypt(InputStreamSource originalInput, LocalDateTime localDateTime, OutputStream decryptedOutput) {
+		log.info("sessionId", "idType", "id", "In streaming decrypt method of CryptoUtil service ");
+		try {
+			List<ServiceError> errors = streamCryptoCall("/decrypt", localDateTime, (generator, input) -> generator
+					.writeString(new InputStreamReader(input, StandardCharsets.UTF_8), -1), originalInput,
+					StreamUtils.nonClosing(decryptedOutput));
+			if (errors == null) {
+				throw new DecryptionFailedException(ErrorCodes.PRG_CORE_REQ_012.getCode(),
+						ErrorMessages.FAILED_TO_DECRYPT.getMessage());
+			}
+			if (!errors.isEmpty()) {
+				throw new EncryptionFailedException(errors, null);
+			}
+		} catch (Exception ex) {
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In streaming decrypt method of CryptoUtil Util for Exception- " + ex.getMessage());
+			throw ex;
+		}
+	}
+
+	/**
+	 * Decrypts a list of payloads by fanning the calls out over the shared bulk
+	 * executor. At most {@code preregistration.crypto.bulk.max-concurrency} calls
+	 * of one request are in flight at a time, and the result list keeps the order
+	 * of the input list.
+	 * 
+	 * @param originalInputs the encrypted payloads
+	 * @param localDateTime  the request time stamp
+	 * @return the decrypted payloads, in input order
+	 */
+	public List<byte[]> bulkDecrypt(List<byte[]> originalInputs, LocalDateTime localDateTime) {
+		log.info("sessionId", "idType", "id",
+				"In bulkDecrypt method of CryptoUtil service for " + originalInputs.size() + " payloads");
+		List<byte[]> decryptedList = new ArrayList<>(originalInputs.size());
+		if (originalInputs.size() <= 1) {
+			for (byte[] originalInput : originalInputs) {
+				decryptedList.add(decrypt(originalInput, localDateTime));
+			}
+			return decryptedList;
+		}
+		long start = System.nanoTime();
+		Semaphore permits = new Semaphore(bulkMaxConcurrency);
+		List<Future<byte[]>> futures = new ArrayList<>(originalInputs.size());
+		try {
+			for (byte[] originalInput : originalInputs) {
+				permits.acquire();
+				futures.add(bulkExecutor.submit(() -> {
+					try {
+						return decrypt(originalInput, localDateTime);
+					} finally {
+						permits.release();
+					}
+				}));
+			}
+			for (Future<byte[]> future : futures) {
+				decryptedList.add(future.get());
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			futures.forEach(future -> future.cancel(true));
+			throw new DecryptionFailedException(ErrorCodes.PRG_CORE_REQ_012.getCode(),
+					ErrorMessages.FAILED_TO_DECRYPT.getMessage(), ex);
+		} catch (ExecutionException ex) {
+			futures.forEach(future -> future.cancel(true));
+			log.error("sessionId", "idType", "id",
+					"In bulkDecrypt method of CryptoUtil Util for Exception- " + ex.getCause().getMessage());
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new DecryptionFailedException(ErrorCodes.PRG_CORE_REQ_012.getCode(),
+					ErrorMessages.FAILED_TO_DECRYPT.getMessage(), ex.getCause());
+		} finally {
+			bulkDecryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		log.info("sessionId", "idType", "id", "In bulkDecrypt method of CryptoUtil service, fan-out time in ms: "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return decryptedList;
+	}
+
 }
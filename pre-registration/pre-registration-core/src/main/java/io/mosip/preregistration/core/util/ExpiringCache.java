@@ -0,0 +1,214 @@
+package io.mosip.preregistration.core.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+
+/**
+ * This class is a small size bounded cache whose entries expire after a fixed
+ * time to live. A miss is loaded on the caller's thread, concurrent misses for
+ * the same key share a single load. An expired entry is still served while it
+ * is reloaded on the refresh executor, so readers never wait for a refresh. A
+ * failed refresh keeps the old value until the next attempt, unless the cache
+ * evicts on refresh failure. Null values are returned but not cached, and a
+ * refresh loading null evicts the entry. An entry older than the maximum age,
+ * if set, is never served and is loaded again on the caller's thread.
+ *
+ * @param <K> the key type
+ * @param <V> the value type, shared between callers so it should be immutable
+ * @since 1.2.0
+ */
+public class ExpiringCache<K, V> {
+
+	private Logger log = LoggerConfiguration.logConfig(ExpiringCache.class);
+
+	private final String name;
+
+	private final long ttlNanos;
+
+	private final int maxSize;
+
+	private final Function<K, V> loader;
+
+	private final Executor refreshExecutor;
+
+	private long maxAgeNanos = Long.MAX_VALUE;
+
+	private boolean evictOnRefreshFailure;
+
+	private final Map<K, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+	private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+	private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+	private final Counter hitCounter;
+
+	private final Counter missCounter;
+
+	private final Counter refreshFailureCounter;
+
+	private final Timer loadTimer;
+
+	/**
+	 * @param name            cache name, used as the metrics tag
+	 * @param ttl             time after which an entry is refreshed
+	 * @param maxSize         maximum number of entries
+	 * @param loader          loads the value of a key
+	 * @param refreshExecutor runs the background refreshes
+	 */
+	public ExpiringCache(String name, Duration ttl, int maxSize, Function<K, V> loader, Executor refreshExecutor) {
+		this.name = name;
+		this.ttlNanos = ttl.toNanos();
+		this.maxSize = maxSize;
+		this.loader = loader;
+		this.refreshExecutor = refreshExecutor;
+		this.hitCounter = Metrics.counter("preregistration.cache.hit", "cache", name);
+		this.missCounter = Metrics.counter("preregistration.cache.miss", "cache", name);
+		this.refreshFailureCounter = Metrics.counter("preregistration.cache.refresh.failed", "cache", name);
+		this.loadTimer = Metrics.timer("preregistration.cache.load", "cache", name);
+	}
+
+	/**
+	 * Sets the age after which an entry is no longer served, even while its
+	 * refresh keeps failing.
+	 *
+	 * @param maxAge the maximum age of an entry
+	 * @return this cache
+	 */
+	public ExpiringCache<K, V> withMaxAge(Duration maxAge) {
+		this.maxAgeNanos = maxAge.toNanos();
+		return this;
+	}
+
+	/**
+	 * Drops an entry whose refresh fails instead of serving it until the next
+	 * attempt.
+	 *
+	 * @return this cache
+	 */
+	public ExpiringCache<K, V> evictOnRefreshFailure() {
+		this.evictOnRefreshFailure = true;
+		return this;
+	}
+
+	public V get(K key) {
+		CacheEntry<V> entry = entries.get(key);
+		long age = entry == null ? 0 : System.nanoTime() - entry.loadedAt;
+		if (entry != null && age > maxAgeNanos) {
+			entries.remove(key, entry);
+			entry = null;
+		}
+		if (entry == null) {
+			missCounter.increment();
+			return load(key);
+		}
+		hitCounter.increment();
+		if (age > ttlNanos && refreshing.add(key)) {
+			refreshExecutor.execute(() -> refresh(key));
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Returns the cached value, even if expired, without loading, refreshing or
+	 * counting a hit or miss.
+	 */
+	public V peek(K key) {
+		CacheEntry<V> entry = entries.get(key);
+		return entry == null ? null : entry.value;
+	}
+
+	public void put(K key, V value) {
+		if (value == null) {
+			return;
+		}
+		entries.put(key, new CacheEntry<>(value, System.nanoTime()));
+		while (entries.size() > maxSize) {
+			entries.entrySet().stream().min(Comparator.comparingLong(oldest -> oldest.getValue().loadedAt))
+					.ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+		}
+	}
+
+	public void invalidate(K key) {
+		entries.remove(key);
+	}
+
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private V load(K key) {
+		CompletableFuture<V> load = new CompletableFuture<>();
+		CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+		if (inFlight != null) {
+			try {
+				return inFlight.join();
+			} catch (CompletionException ex) {
+				throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+			}
+		}
+		try {
+			V value = loadTimer.record(() -> loader.apply(key));
+			put(key, value);
+			load.complete(value);
+			return value;
+		} catch (RuntimeException ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			loading.remove(key, load);
+		}
+	}
+
+	private void refresh(K key) {
+		try {
+			V value = loadTimer.record(() -> loader.apply(key));
+			if (value == null) {
+				entries.remove(key);
+			} else {
+				put(key, value);
+			}
+		} catch (RuntimeException ex) {
+			refreshFailureCounter.increment();
+			if (evictOnRefreshFailure) {
+				entries.remove(key);
+			}
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id", "In refresh method of ExpiringCache " + name + ", "
+					+ (evictOnRefreshFailure ? "evicting" : "keeping") + " stale value- " + ex.getMessage());
+		} finally {
+			refreshing.remove(key);
+		}
+	}
+
+	private static final class CacheEntry<V> {
+
+		private final V value;
+
+		private final long loadedAt;
+
+		private CacheEntry(V value, long loadedAt) {
+			this.value = value;
+			this.loadedAt = loadedAt;
+		}
+	}
+}
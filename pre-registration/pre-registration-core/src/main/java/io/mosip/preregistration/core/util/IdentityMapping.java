@@ -0,0 +1,312 @@
+package io.mosip.preregistration.core.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import io.mosip.preregistration.core.common.dto.identity.DemographicIdentityRequestDTO;
+import io.mosip.preregistration.core.common.dto.identity.Identity;
+import io.mosip.preregistration.core.common.dto.identity.IdentityJsonValues;
+
+/**
+ * This class holds the identity mapping JSON parsed once, with the demographic
+ * field keys of every mapped attribute split up front. The accessors read the
+ * values of an application either from its identity JsonNode or, without
+ * building a tree, from a streaming parser over the demographic details.
+ * Instances are immutable and can be shared between threads.
+ *
+ * @since 1.2.0
+ *
+ */
+public final class IdentityMapping {
+
+	private static final String VALUE_ATTRIBUTE = "value";
+
+	private static final String BLANK_STRING = "";
+
+	/**
+	 * Mapper shared by the callers parsing demographic JSON. Jackson mappers are
+	 * thread safe once configured, so it must not be reconfigured after this.
+	 */
+	private static final ObjectMapper MAPPER = JsonMapper.builder().addModule(new AfterburnerModule())
+			.addModule(new JavaTimeModule()).build();
+
+	private final DemographicIdentityRequestDTO mapping;
+
+	private final Field name;
+
+	private final Field gender;
+
+	private final Field dob;
+
+	private final Field preferredLanguage;
+
+	private final Field locationHierarchy;
+
+	private final Field email;
+
+	private final Field phone;
+
+	private final Field poa;
+
+	/**
+	 * Demographic keys of all the mapped attributes, the only fields kept while
+	 * streaming
+	 */
+	private final Set<String> mappedKeys;
+
+	private IdentityMapping(DemographicIdentityRequestDTO mapping) {
+		this.mapping = mapping;
+		Identity identity = mapping.getIdentity() == null ? new Identity() : mapping.getIdentity();
+		this.name = new Field(identity.getName());
+		this.gender = new Field(identity.getGender());
+		this.dob = new Field(identity.getDob());
+		this.preferredLanguage = new Field(identity.getPreferredLanguage());
+		this.locationHierarchy = new Field(identity.getLocationHierarchyForProfiling());
+		this.email = new Field(identity.getEmail());
+		this.phone = new Field(identity.getPhone());
+		this.poa = new Field(mapping.getDocuments() == null ? null : mapping.getDocuments().getPoa());
+		Set<String> keys = new HashSet<>();
+		for (Field field : Arrays.asList(name, gender, dob, preferredLanguage, locationHierarchy, email, phone)) {
+			keys.addAll(field.getKeys());
+		}
+		this.mappedKeys = Collections.unmodifiableSet(keys);
+	}
+
+	/**
+	 * Parses the identity mapping JSON fetched from the config server.
+	 *
+	 * @param mappingJson the identity mapping JSON
+	 * @return the compiled mapping, null when the JSON is blank
+	 * @throws IOException when the JSON can not be parsed
+	 */
+	public static IdentityMapping parse(String mappingJson) throws IOException {
+		if (mappingJson == null || mappingJson.trim().isEmpty()) {
+			return null;
+		}
+		return of(MAPPER.readValue(mappingJson, DemographicIdentityRequestDTO.class));
+	}
+
+	public static IdentityMapping of(DemographicIdentityRequestDTO mapping) {
+		return new IdentityMapping(mapping);
+	}
+
+	/**
+	 * @return the mapper shared for reading demographic JSON
+	 */
+	public static ObjectMapper getMapper() {
+		return MAPPER;
+	}
+
+	public DemographicIdentityRequestDTO getMapping() {
+		return mapping;
+	}
+
+	public boolean hasIdentity() {
+		return mapping.getIdentity() != null;
+	}
+
+	public Field getName() {
+		return name;
+	}
+
+	public Field getGender() {
+		return gender;
+	}
+
+	public Field getDob() {
+		return dob;
+	}
+
+	public Field getPreferredLanguage() {
+		return preferredLanguage;
+	}
+
+	public Field getLocationHierarchy() {
+		return locationHierarchy;
+	}
+
+	public Field getEmail() {
+		return email;
+	}
+
+	public Field getPhone() {
+		return phone;
+	}
+
+	public Field getPoa() {
+		return poa;
+	}
+
+	/**
+	 * Streams the demographic details and keeps the first value of every mapped
+	 * field found under the root attribute, skipping everything else.
+	 *
+	 * @param parser  parser positioned before the demographic details object
+	 * @param rootKey attribute holding the identity fields
+	 * @return first value of each mapped field, by demographic key
+	 * @throws IOException
+	 */
+	public Map<String, String> readValues(JsonParser parser, String rootKey) throws IOException {
+		Map<String, String> values = new HashMap<>();
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			return values;
+		}
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if (fieldName.equals(rootKey) && token == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String key = parser.getCurrentName();
+					token = parser.nextToken();
+					if (mappedKeys.contains(key)) {
+						values.put(key, readFirstValue(parser, token));
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the value of a demographic field, the value of the first entry for
+	 * a field captured per language.
+	 *
+	 * @param identity the identity node of the application
+	 * @param key      the demographic key
+	 * @return the trimmed value, blank when the field is missing
+	 */
+	public static String firstValue(JsonNode identity, String key) {
+		JsonNode node = identity == null || key == null ? null : identity.get(key);
+		if (node == null) {
+			return BLANK_STRING;
+		}
+		if (node.isArray()) {
+			JsonNode value = node.size() == 0 ? null : node.get(0).get(VALUE_ATTRIBUTE);
+			return value == null ? BLANK_STRING : value.asText().trim();
+		}
+		return node.asText().trim();
+	}
+
+	private static String readFirstValue(JsonParser parser, JsonToken token) throws IOException {
+		if (token == JsonToken.START_ARRAY) {
+			String value = BLANK_STRING;
+			boolean first = true;
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				if (first && parser.currentToken() == JsonToken.START_OBJECT) {
+					value = readValueAttribute(parser);
+				} else {
+					parser.skipChildren();
+				}
+				first = false;
+			}
+			return value;
+		}
+		if (token.isScalarValue()) {
+			return scalarText(parser, token);
+		}
+		parser.skipChildren();
+		return BLANK_STRING;
+	}
+
+	private static String readValueAttribute(JsonParser parser) throws IOException {
+		String value = BLANK_STRING;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if (fieldName.equals(VALUE_ATTRIBUTE) && token.isScalarValue()) {
+				value = scalarText(parser, token);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Same text as {@link JsonNode#asText()} for the scalar node.
+	 */
+	private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+		return token == JsonToken.VALUE_NULL ? "null" : parser.getText().trim();
+	}
+
+	/**
+	 * Demographic keys an attribute of the identity mapping points to, split
+	 * once from the comma separated mapping value.
+	 */
+	public static final class Field {
+
+		private final List<String> keys;
+
+		private Field(IdentityJsonValues values) {
+			if (values == null || values.getValue() == null || values.getValue().trim().isEmpty()) {
+				this.keys = Collections.emptyList();
+			} else {
+				this.keys = Collections.unmodifiableList(Arrays.stream(values.getValue().split(","))
+						.map(String::trim).filter(key -> !key.isEmpty()).collect(Collectors.toList()));
+			}
+		}
+
+		public List<String> getKeys() {
+			return keys;
+		}
+
+		/**
+		 * @return the first demographic key, null when the attribute is not mapped
+		 */
+		public String getKey() {
+			return keys.isEmpty() ? null : keys.get(0);
+		}
+
+		public boolean isMapped() {
+			return !keys.isEmpty();
+		}
+
+		public String firstValue(JsonNode identity) {
+			return IdentityMapping.firstValue(identity, getKey());
+		}
+
+		public List<String> firstValues(JsonNode identity) {
+			List<String> values = new ArrayList<>(keys.size());
+			for (String key : keys) {
+				values.add(IdentityMapping.firstValue(identity, key));
+			}
+			return values;
+		}
+
+		/**
+		 * @param values values read by {@link IdentityMapping#readValues}
+		 */
+		public String firstValue(Map<String, String> values) {
+			String key = getKey();
+			return key == null ? BLANK_STRING : values.getOrDefault(key, BLANK_STRING);
+		}
+
+		public List<String> firstValues(Map<String, String> values) {
+			List<String> firstValues = new ArrayList<>(keys.size());
+			for (String key : keys) {
+				firstValues.add(values.getOrDefault(key, BLANK_STRING));
+			}
+			return firstValues;
+		}
+	}
+}
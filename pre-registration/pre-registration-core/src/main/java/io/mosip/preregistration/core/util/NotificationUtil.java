@@ -105,7 +105,6 @@ public class NotificationUtil {
 			MultipartFile file) throws IOException {
 		log.info("sessionId", "idType", "id", "In emailNotification method of NotificationUtil service");
 		HttpEntity<byte[]> doc = null;
-		String fileText = null;
 		if (file != null) {
 			LinkedMultiValueMap<String, String> pdfHeaderMap = new LinkedMultiValueMap<>();
 			pdfHeaderMap.add("Content-disposition",
@@ -114,41 +113,74 @@ public class NotificationUtil {
 			doc = new HttpEntity<>(file.getBytes(), pdfHeaderMap);
 		}
 
-		ResponseEntity<ResponseWrapper<NotificationResponseDTO>> resp = null;
 		MainResponseDTO<NotificationResponseDTO> response = new MainResponseDTO<>();
+		response.setResponse(sendEmail(acknowledgementDTO.getEmailID(), getEmailSubjectByType(acknowledgementDTO),
+				getEmailContent(acknowledgementDTO), doc));
+		response.setResponsetime(getCurrentResponseTime());
+
+		return response;
+	}
+
+	/**
+	 * This method will merge the email template of every language of the
+	 * application
+	 * 
+	 * @param acknowledgementDTO
+	 * @return the email content
+	 * @throws IOException
+	 */
+	public String getEmailContent(NotificationDTO acknowledgementDTO) throws IOException {
 		String mergeTemplate = null;
 		for (KeyValuePairDto keyValuePair : acknowledgementDTO.getFullName()) {
-			if (acknowledgementDTO.getIsBatch()) {
-				fileText = templateUtil.getTemplate(keyValuePair.getKey(), cancelAppoinment);
-//				fileText.concat(System.lineSeparator() + System.lineSeparator());
-			} else {
-				fileText = templateUtil.getTemplate(keyValuePair.getKey(), emailAcknowledgement);
-//				fileText.concat(System.lineSeparator() + System.lineSeparator());
-			}
-
-			String languageWiseTemplate = templateUtil.templateMerge(fileText, acknowledgementDTO,
-					(String) keyValuePair.getKey());
+			String templateTypeCode = acknowledgementDTO.getIsBatch() ? cancelAppoinment : emailAcknowledgement;
+			String languageWiseTemplate = templateUtil.renderTemplate((String) keyValuePair.getKey(), templateTypeCode,
+					acknowledgementDTO);
 			if (mergeTemplate == null) {
 				mergeTemplate = languageWiseTemplate + System.lineSeparator();
 			} else {
 				mergeTemplate += System.lineSeparator() + languageWiseTemplate +System.lineSeparator();
 			}
 		}
+		return mergeTemplate;
+	}
 
+	/**
+	 * This method will give the acknowledgement or cancel appointment email
+	 * subject
+	 * 
+	 * @param acknowledgementDTO
+	 * @return the email subject
+	 * @throws IOException
+	 */
+	public String getEmailSubjectByType(NotificationDTO acknowledgementDTO) throws IOException {
+		if (acknowledgementDTO.getIsBatch() && cancelAppointmentEmailSubject != null) {
+			return getCancelAppointmentEmailSubject(acknowledgementDTO);
+		}
+		return getEmailSubject(acknowledgementDTO);
+	}
+
+	/**
+	 * This method will post a rendered email to the notifier
+	 * 
+	 * @param mailTo      the email address
+	 * @param mailSubject the rendered subject
+	 * @param mailContent the rendered content
+	 * @param attachment  the attachment part, or null
+	 * @return the notifier response
+	 */
+	public NotificationResponseDTO sendEmail(String mailTo, String mailSubject, String mailContent,
+			HttpEntity<byte[]> attachment) {
+		ResponseEntity<ResponseWrapper<NotificationResponseDTO>> resp = null;
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 		MultiValueMap<Object, Object> emailMap = new LinkedMultiValueMap<>();
-		emailMap.add("attachments", doc);
-		emailMap.add("mailContent", mergeTemplate);
-		if (acknowledgementDTO.getIsBatch() && cancelAppointmentEmailSubject != null) {
-			emailMap.add("mailSubject", getCancelAppointmentEmailSubject(acknowledgementDTO));
-		} else {
-			emailMap.add("mailSubject", getEmailSubject(acknowledgementDTO));
-		}
-		emailMap.add("mailTo", acknowledgementDTO.getEmailID());
+		emailMap.add("attachments", attachment);
+		emailMap.add("mailContent", mailContent);
+		emailMap.add("mailSubject", mailSubject);
+		emailMap.add("mailTo", mailTo);
 		HttpEntity<MultiValueMap<Object, Object>> httpEntity = new HttpEntity<>(emailMap, headers);
 		log.info("sessionId", "idType", "id",
-				"In emailNotification method of NotificationUtil service emailResourseUrl: " + emailResourseUrl);
+				"In sendEmail method of NotificationUtil service emailResourseUrl: " + emailResourseUrl);
 		try {
 			resp = restTemplate.exchange(emailResourseUrl, HttpMethod.POST, httpEntity,
 					new ParameterizedTypeReference<ResponseWrapper<NotificationResponseDTO>>() {
@@ -160,10 +192,7 @@ public class NotificationUtil {
 		NotificationResponseDTO notifierResponse = new NotificationResponseDTO();
 		notifierResponse.setMessage(resp.getBody().getResponse().getMessage());
 		notifierResponse.setStatus(resp.getBody().getResponse().getStatus());
-		response.setResponse(notifierResponse);
-		response.setResponsetime(getCurrentResponseTime());
-
-		return response;
+		return notifierResponse;
 	}
 
 	/**
@@ -178,9 +207,8 @@ public class NotificationUtil {
 		String emailSubject = "";
 		int noOfLang = acknowledgementDTO.getFullName().size();
 		for (KeyValuePairDto keyValuePair : acknowledgementDTO.getFullName()) {
-			emailSubject = emailSubject + templateUtil.templateMerge(
-					templateUtil.getTemplate(keyValuePair.getKey(), emailAcknowledgementSubject), acknowledgementDTO,
-					(String) keyValuePair.getKey());
+			emailSubject = emailSubject + templateUtil.renderTemplate((String) keyValuePair.getKey(),
+					emailAcknowledgementSubject, acknowledgementDTO);
 			if (noOfLang > 1) {
 				noOfLang--;
 				emailSubject = emailSubject + " / ";
@@ -201,9 +229,8 @@ public class NotificationUtil {
 		String emailSubjectCancelAppointment = "";
 		int noOfLang = acknowledgementDTO.getFullName().size();
 		for (KeyValuePairDto keyValuePair : acknowledgementDTO.getFullName()) {
-			emailSubjectCancelAppointment = emailSubjectCancelAppointment + templateUtil.templateMerge(
-					templateUtil.getTemplate(keyValuePair.getKey(), cancelAppointmentEmailSubject), acknowledgementDTO,
-					(String) keyValuePair.getKey());
+			emailSubjectCancelAppointment = emailSubjectCancelAppointment + templateUtil.renderTemplate((String) keyValuePair.getKey(),
+					cancelAppointmentEmailSubject, acknowledgementDTO);
 			if (noOfLang > 1) {
 				noOfLang--;
 				emailSubjectCancelAppointment = emailSubjectCancelAppointment + " / ";
@@ -223,18 +250,29 @@ public class NotificationUtil {
 			throws IOException {
 		log.info("sessionId", "idType", "id", "In smsNotification method of NotificationUtil service");
 		MainResponseDTO<NotificationResponseDTO> response = new MainResponseDTO<>();
-		ResponseEntity<ResponseWrapper<NotificationResponseDTO>> resp = null;
+		response.setResponse(sendSms(acknowledgementDTO.getMobNum(), getSmsContent(acknowledgementDTO)));
+		response.setResponsetime(getCurrentResponseTime());
+		return response;
+	}
+
+	/**
+	 * This method will merge the sms template of every language of the
+	 * application
+	 * 
+	 * @param acknowledgementDTO
+	 * @return the sms message
+	 * @throws IOException
+	 */
+	public String getSmsContent(NotificationDTO acknowledgementDTO) throws IOException {
 		String mergeTemplate = null;
 		for (KeyValuePairDto keyValuePair : acknowledgementDTO.getFullName()) {
 			String languageWiseTemplate = null;
 			if (acknowledgementDTO.getIsBatch()) {
-				languageWiseTemplate = templateUtil.templateMerge(
-						templateUtil.getTemplate(keyValuePair.getKey(), cancelAppoinment), acknowledgementDTO,
-						(String) keyValuePair.getKey());
+				languageWiseTemplate = templateUtil.renderTemplate((String) keyValuePair.getKey(), cancelAppoinment,
+						acknowledgementDTO);
 			} else {
-				languageWiseTemplate = templateUtil.templateMerge(
-						templateUtil.getTemplate(keyValuePair.getKey(), smsAcknowledgement), acknowledgementDTO,
-						(String) keyValuePair.getKey());
+				languageWiseTemplate = templateUtil.renderTemplate((String) keyValuePair.getKey(), smsAcknowledgement,
+						acknowledgementDTO);
 			}
 			if (mergeTemplate == null) {
 				mergeTemplate = languageWiseTemplate;
@@ -243,9 +281,21 @@ public class NotificationUtil {
 			}
 		}
 
+		return mergeTemplate;
+	}
+
+	/**
+	 * This method will post a rendered sms to the notifier
+	 * 
+	 * @param mobNum  the mobile number
+	 * @param message the rendered message
+	 * @return the notifier response
+	 */
+	public NotificationResponseDTO sendSms(String mobNum, String message) {
+		ResponseEntity<ResponseWrapper<NotificationResponseDTO>> resp = null;
 		SMSRequestDTO smsRequestDTO = new SMSRequestDTO();
-		smsRequestDTO.setMessage(mergeTemplate);
-		smsRequestDTO.setNumber(acknowledgementDTO.getMobNum());
+		smsRequestDTO.setMessage(message);
+		smsRequestDTO.setNumber(mobNum);
 		RequestWrapper<SMSRequestDTO> req = new RequestWrapper<>();
 		req.setRequest(smsRequestDTO);
 		HttpHeaders headers = new HttpHeaders();
@@ -253,7 +303,7 @@ public class NotificationUtil {
 
 		HttpEntity<RequestWrapper<SMSRequestDTO>> httpEntity = new HttpEntity<>(req, headers);
 		log.info("sessionId", "idType", "id",
-				"In smsNotification method of NotificationUtil service smsResourseUrl: " + smsResourseUrl);
+				"In sendSms method of NotificationUtil service smsResourseUrl: " + smsResourseUrl);
 		resp = restTemplate.exchange(smsResourseUrl, HttpMethod.POST, httpEntity,
 				new ParameterizedTypeReference<ResponseWrapper<NotificationResponseDTO>>() {
 				});
@@ -261,9 +311,7 @@ public class NotificationUtil {
 		NotificationResponseDTO notifierResponse = new NotificationResponseDTO();
 		notifierResponse.setMessage(resp.getBody().getResponse().getMessage());
 		notifierResponse.setStatus(resp.getBody().getResponse().getStatus());
-		response.setResponse(notifierResponse);
-		response.setResponsetime(getCurrentResponseTime());
-		return response;
+		return notifierResponse;
 	}
 
 	public MainResponseDTO<BookingRegistrationDTO> getAppointmentDetails(String preRegId) {
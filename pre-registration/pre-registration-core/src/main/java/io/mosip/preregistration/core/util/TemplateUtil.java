@@ -3,9 +3,12 @@ package io.mosip.preregistration.core.util;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -13,9 +16,21 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.apache.commons.io.IOUtils;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.log.NullLogChute;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,11 +39,16 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.kernel.core.templatemanager.exception.TemplateParsingException;
 import io.mosip.kernel.core.templatemanager.spi.TemplateManager;
+import io.mosip.kernel.templatemanager.velocity.constant.TemplateManagerExceptionCodeConstant;
 import io.mosip.preregistration.core.common.dto.NotificationDTO;
 import io.mosip.preregistration.core.common.dto.RequestWrapper;
 import io.mosip.preregistration.core.common.dto.ResponseWrapper;
@@ -64,6 +84,43 @@ public class TemplateUtil {
 	@Autowired
 	private TemplateManager templateManager;
 
+	/**
+	 * Time after which a cached template is fetched again from masterdata
+	 */
+	@Value("${preregistration.template.cache.ttl-seconds:3600}")
+	private long templateCacheTtlSeconds;
+
+	@Value("${preregistration.template.cache.max-size:200}")
+	private int templateCacheMaxSize;
+
+	/** Fetched and compiled templates by language and template type code. */
+	private ExpiringCache<TemplateKey, CompiledTemplate> templateCache;
+
+	private ExecutorService templateRefreshExecutor;
+
+	private RuntimeInstance velocityRuntime;
+
+	private final Counter templateCompiledCounter = Metrics.counter("preregistration.template.compiled");
+
+	@PostConstruct
+	public void setupTemplateCache() {
+		velocityRuntime = new RuntimeInstance();
+		velocityRuntime.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS, NullLogChute.class.getName());
+		velocityRuntime.init();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("template-cache-");
+		threadFactory.setDaemon(true);
+		templateRefreshExecutor = Executors.newSingleThreadExecutor(threadFactory);
+		templateCache = new ExpiringCache<>("masterdata.templates", Duration.ofSeconds(templateCacheTtlSeconds),
+				templateCacheMaxSize, this::loadTemplate, templateRefreshExecutor);
+	}
+
+	@PreDestroy
+	public void shutdownTemplateCache() {
+		if (templateRefreshExecutor != null) {
+			templateRefreshExecutor.shutdownNow();
+		}
+	}
+
 	/**
 	 * This method is used for getting template
 	 * 
@@ -73,6 +130,38 @@ public class TemplateUtil {
 	 */
 
 	public String getTemplate(Object langCode, String templatetypecode) {
+		return templateCache.get(new TemplateKey((String) langCode, templatetypecode)).fileText;
+	}
+
+	/**
+	 * This method merges the cached compiled template of the given language and
+	 * template type, the template text is not parsed again
+	 * 
+	 * @param langCode
+	 * @param templatetypecode
+	 * @param acknowledgementDTO
+	 * @return the merged template
+	 */
+	public String renderTemplate(String langCode, String templatetypecode, NotificationDTO acknowledgementDTO) {
+		log.info("sessionId", "idType", "id", "In renderTemplate method of TemplateUtil service ");
+		CompiledTemplate compiledTemplate = templateCache.get(new TemplateKey(langCode, templatetypecode));
+		StringWriter writer = new StringWriter();
+		compiledTemplate.template.merge(new VelocityContext(mapSetting(langCode, acknowledgementDTO)), writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Drops the cached template, the next use fetches and compiles it again.
+	 */
+	public void invalidateTemplate(String langCode, String templatetypecode) {
+		templateCache.invalidate(new TemplateKey(langCode, templatetypecode));
+	}
+
+	public void invalidateTemplates() {
+		templateCache.invalidateAll();
+	}
+
+	private String fetchTemplate(String langCode, String templatetypecode) {
 		String url = resourceUrl + "/" + (String) langCode + "/" + templatetypecode;
 		HttpHeaders headers = new HttpHeaders();
 		HttpEntity<RequestWrapper<TemplateResponseListDTO>> httpEntity = new HttpEntity<>(headers);
@@ -87,6 +176,35 @@ public class TemplateUtil {
 
 	}
 
+	/**
+	 * Fetches the template text and compiles it. The content digest is the
+	 * template version, a refresh that returns the same version keeps the
+	 * already compiled template.
+	 */
+	private CompiledTemplate loadTemplate(TemplateKey key) {
+		String fileText = fetchTemplate(key.langCode, key.templateTypeCode);
+		String version = HashUtill.hashUtill(fileText.getBytes(StandardCharsets.UTF_8));
+		CompiledTemplate cached = templateCache.peek(key);
+		if (cached != null && cached.version.equals(version)) {
+			return cached;
+		}
+		String templateName = key.langCode + "/" + key.templateTypeCode;
+		try {
+			Template template = new Template();
+			template.setName(templateName);
+			template.setRuntimeServices(velocityRuntime);
+			template.setData(velocityRuntime.parse(new StringReader(fileText), templateName));
+			template.initDocument();
+			templateCompiledCounter.increment();
+			return new CompiledTemplate(fileText, version, template);
+		} catch (ParseException ex) {
+			log.error("sessionId", "idType", "id",
+					"In loadTemplate method of TemplateUtil service, unable to compile " + templateName);
+			throw new TemplateParsingException(TemplateManagerExceptionCodeConstant.TEMPLATE_PARSING.getErrorCode(),
+					TemplateManagerExceptionCodeConstant.TEMPLATE_PARSING.getErrorMessage(), ex);
+		}
+	}
+
 	/**
 	 * This method merging the template
 	 * 
@@ -148,4 +266,48 @@ public class TemplateUtil {
 		return responseMap;
 	}
 
+	private static final class TemplateKey {
+
+		private final String langCode;
+
+		private final String templateTypeCode;
+
+		private TemplateKey(String langCode, String templateTypeCode) {
+			this.langCode = langCode;
+			this.templateTypeCode = templateTypeCode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof TemplateKey)) {
+				return false;
+			}
+			TemplateKey that = (TemplateKey) other;
+			return Objects.equals(langCode, that.langCode) && Objects.equals(templateTypeCode, that.templateTypeCode);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(langCode, templateTypeCode);
+		}
+	}
+
+	private static final class CompiledTemplate {
+
+		private final String fileText;
+
+		private final String version;
+
+		private final Template template;
+
+		private CompiledTemplate(String fileText, String version, Template template) {
+			this.fileText = fileText;
+			this.version = version;
+			this.template = template;
+		}
+	}
+
 }
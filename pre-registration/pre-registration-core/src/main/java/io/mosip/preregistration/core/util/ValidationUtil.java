@@ -1,10 +1,12 @@
 package io.mosip.preregistration.core.util;
 
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -13,21 +15,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
-import javax.persistence.LockModeType;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
-import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -67,6 +71,15 @@ public class ValidationUtil {
 	@Value("${mosip.kernel.masterdata.validdoc.rest.uri}")
 	private String masterdataUri;
 
+	/**
+	 * Time after which the cached masterdata documents are refreshed
+	 */
+	@Value("${preregistration.masterdata.cache.ttl-seconds:3600}")
+	private long masterdataCacheTtlSeconds;
+
+	@Value("${preregistration.masterdata.cache.max-size:500}")
+	private int masterdataCacheMaxSize;
+
 	private static Logger log = LoggerConfiguration.logConfig(ValidationUtil.class);
 
 	public boolean emailValidator(String email) {
@@ -84,8 +97,15 @@ public class ValidationUtil {
 		return false;
 	}
 
-	/** The validDocsMap. */
-	private static MultiValueMap validDocsMap = new MultiValueMap();;
+	private static final String VALID_DOCS_KEY = "validDocs";
+
+	/** Active document type codes by document category code. */
+	private ExpiringCache<String, Map<String, Set<String>>> validDocsCache;
+
+	/** Active document type names by document type code. */
+	private ExpiringCache<DocumentTypeKey, Map<String, String>> documentTypeNameCache;
+
+	private ExecutorService masterdataRefreshExecutor;
 
 	@Qualifier("selfTokenRestTemplate")
 	@Autowired
@@ -99,6 +119,25 @@ public class ValidationUtil {
 
 	private static final String NAME = "name";
 
+	@PostConstruct
+	public void setupMasterdataCache() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("masterdata-cache-");
+		threadFactory.setDaemon(true);
+		masterdataRefreshExecutor = Executors.newSingleThreadExecutor(threadFactory);
+		Duration ttl = Duration.ofSeconds(masterdataCacheTtlSeconds);
+		validDocsCache = new ExpiringCache<>("masterdata.validdocs", ttl, 1, key -> loadValidDocuments(),
+				masterdataRefreshExecutor);
+		documentTypeNameCache = new ExpiringCache<>("masterdata.documenttypes", ttl, masterdataCacheMaxSize,
+				this::loadDocumentTypeNames, masterdataRefreshExecutor);
+	}
+
+	@PreDestroy
+	public void shutdownMasterdataCache() {
+		if (masterdataRefreshExecutor != null) {
+			masterdataRefreshExecutor.shutdownNow();
+		}
+	}
+
 	public boolean requestValidator(MainRequestDTO<?> mainRequest) {
 		log.info("sessionId", "idType", "id",
 				"In requestValidator method of pre-registration core with mainRequest " + mainRequest);
@@ -250,15 +289,14 @@ public class ValidationUtil {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	@Lock(LockModeType.READ)
 	public boolean validateDocuments(String langCode, String catCode, String typeCode, String preRegistrationId) {
+		Map<String, Set<String>> validDocsMap = validDocsCache.get(VALID_DOCS_KEY);
 		log.debug("In validateDocuments method with docCatMap:{} preRegistrationId: {} ", validDocsMap,
 				preRegistrationId);
 		log.debug("In validateDocuments method with typeCode: {} catCode: {} preRegistrationId: {}", typeCode, catCode,
 				preRegistrationId);
 		if (validDocsMap.containsKey(catCode)) {
-			List<String> docTypes = (List<String>) validDocsMap.get(catCode);
+			Set<String> docTypes = validDocsMap.get(catCode);
 			if (docTypes.contains(typeCode)) {
 				log.debug("sessionId", "idType", "id",
 						"inside validateDocuments inside second if preRegistrationId " + preRegistrationId);
@@ -281,10 +319,22 @@ public class ValidationUtil {
 
 	}
 
+	/**
+	 * This method returns the active document type names of a document category,
+	 * served from the masterdata cache.
+	 * 
+	 * @param langCode the language code
+	 * @param catCode  the document category code
+	 * @return unmodifiable map of type name by type code
+	 */
 	public Map<String, String> getDocumentTypeNameByTypeCode(String langCode, String catCode) {
+		return documentTypeNameCache.get(new DocumentTypeKey(langCode, catCode));
+	}
+
+	private Map<String, String> loadDocumentTypeNames(DocumentTypeKey documentTypeKey) {
 		Map<String, String> documentTypeMap = new HashMap<>();
-		String uri = UriComponentsBuilder.fromUriString(documentTypeUri).buildAndExpand(catCode, langCode)
-				.toUriString();
+		String uri = UriComponentsBuilder.fromUriString(documentTypeUri)
+				.buildAndExpand(documentTypeKey.catCode, documentTypeKey.langCode).toUriString();
 		@SuppressWarnings("unchecked")
 		ResponseWrapper<LinkedHashMap<String, ArrayList<LinkedHashMap<String, Object>>>> responseBody = restTemplate
 				.getForObject(uri, ResponseWrapper.class);
@@ -296,7 +346,7 @@ public class ValidationUtil {
 								String.valueOf(response.get(index).get(NAME)));
 					});
 		}
-		return documentTypeMap;
+		return Collections.unmodifiableMap(documentTypeMap);
 	}
 
 	public static boolean parseDate(String reqDate, String format) {
@@ -314,8 +364,16 @@ public class ValidationUtil {
 		return true;
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * This method loads the valid document categories and types into the
+	 * masterdata cache.
+	 */
 	public void getAllDocCategoriesAndTypes() {
+		validDocsCache.put(VALID_DOCS_KEY, loadValidDocuments());
+	}
+
+	private Map<String, Set<String>> loadValidDocuments() {
+		Map<String, Set<String>> validDocsMap = new HashMap<>();
 		try {
 			log.debug("In getAllDocCategoriesAndTypes");
 			String uri = UriComponentsBuilder.fromUriString(masterdataUri).toUriString();
@@ -342,13 +400,17 @@ public class ValidationUtil {
 					PageDTO<ValidDocumentsResponseDTO> resp = body.getResponse();
 					if (resp  != null) {
 						totalPage = resp.getTotalPages();
-						resp.getData().stream().filter(docs -> docs.getIsActive()).forEach(activeDocs -> validDocsMap
-								.put(activeDocs.getDocCategoryCode(), activeDocs.getDocTypeCode()));	
+						resp.getData().stream().filter(docs -> docs.getIsActive())
+								.forEach(activeDocs -> validDocsMap
+										.computeIfAbsent(activeDocs.getDocCategoryCode(), catCode -> new HashSet<>())
+										.add(activeDocs.getDocTypeCode()));
 					}
 				}
 				pageNo++;
 			} while (pageNo != totalPage);
 			log.info("validDocsMap {}", validDocsMap);
+			validDocsMap.replaceAll((catCode, docTypes) -> Collections.unmodifiableSet(docTypes));
+			return Collections.unmodifiableMap(validDocsMap);
 		} catch (RestClientException e) {
 			log.debug("sessionId", "idType", "id", "inside getAllDocCategories inside catch preRegistrationId ");
 			log.debug("sessionId", "idType", "id", "---- " + ExceptionUtils.getStackTrace(e));
@@ -390,4 +452,33 @@ public class ValidationUtil {
 		}
 		return isStatusBookedOrExpired;
 	}
-}
\ No newline at end of file
+
+	private static final class DocumentTypeKey {
+
+		private final String langCode;
+
+		private final String catCode;
+
+		private DocumentTypeKey(String langCode, String catCode) {
+			this.langCode = langCode;
+			this.catCode = catCode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof DocumentTypeKey)) {
+				return false;
+			}
+			DocumentTypeKey that = (DocumentTypeKey) other;
+			return Objects.equals(langCode, that.langCode) && Objects.equals(catCode, that.catCode);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(langCode, catCode);
+		}
+	}
+}
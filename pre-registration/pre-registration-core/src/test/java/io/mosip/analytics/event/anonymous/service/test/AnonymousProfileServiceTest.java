@@ -4,6 +4,8 @@ import static org.junit.Assert.*;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -15,6 +17,8 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -39,6 +43,9 @@ public class AnonymousProfileServiceTest {
 	@Mock
 	private AnonymousProfileRepostiory anonymousProfileRepostiory;
 
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
 	@Value("${mosip.utc-datetime-pattern}")
 	private String utcDateTimePattern;
 
@@ -54,6 +61,8 @@ public class AnonymousProfileServiceTest {
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
 		ReflectionTestUtils.setField(anonymousProfileService, "utcDateTimePattern", "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+		ReflectionTestUtils.setField(anonymousProfileService, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(anonymousProfileService, "batchSize", 2);
 
 		AuthUserDetails applicationUser = Mockito.mock(AuthUserDetails.class);
 		Authentication authentication = Mockito.mock(Authentication.class);
@@ -107,4 +116,23 @@ public class AnonymousProfileServiceTest {
 		assertNotNull(anonymousProfileService.saveAnonymousProfile(requestDto));
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void saveAnonymousProfilesTest() {
+		AnonymousProfileRequestDTO first = new AnonymousProfileRequestDTO();
+		first.setProfileDetails("{}");
+		AnonymousProfileRequestDTO second = new AnonymousProfileRequestDTO();
+		second.setProfileDetails("{}");
+		AnonymousProfileRequestDTO third = new AnonymousProfileRequestDTO();
+		third.setProfileDetails("{}");
+		Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.anyCollection(), Mockito.eq(2),
+				Mockito.any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][] { { 1, 1 }, { 1 } });
+
+		assertEquals(3, anonymousProfileService.saveAnonymousProfiles(Arrays.asList(first, second, third), "user"));
+		assertEquals(0, anonymousProfileService.saveAnonymousProfiles(Collections.emptyList(), "user"));
+		Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(Mockito.anyString(), Mockito.anyCollection(),
+				Mockito.eq(2), Mockito.any(ParameterizedPreparedStatementSetter.class));
+		Mockito.verifyZeroInteractions(anonymousProfileRepostiory);
+	}
+
 }
@@ -0,0 +1,138 @@
+package io.mosip.preregistration.core.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * PooledHttpClientFactory Test
+ *
+ */
+public class PooledHttpClientFactoryTest {
+
+	private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private PooledHttpClientFactory httpClientFactory = new PooledHttpClientFactory();
+
+	private HttpServer server;
+
+	@Before
+	public void setUp() throws Exception {
+		Metrics.addRegistry(registry);
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("mosip.preregistration.http-client.default.max-total", "20")
+				.withProperty("mosip.preregistration.http-client.testPool.max-per-route", "4");
+		ReflectionTestUtils.setField(httpClientFactory, "environment", environment);
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(exchange.getRequestURI().getPath().contains("missing") ? 404 : 200,
+					body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		httpClientFactory.closePools();
+		Metrics.removeRegistry(registry);
+	}
+
+	@Test
+	public void pooledRestTemplateTest() {
+		RestTemplate restTemplate = new RestTemplate();
+		httpClientFactory.pool(restTemplate, "testPool");
+		String url = "http://localhost:" + server.getAddress().getPort();
+		for (int index = 0; index < 3; index++) {
+			restTemplate.getForObject(url + "/preregistration/v1/applications/" + index, String.class);
+		}
+
+		Timer timer = registry.find("preregistration.http.client.requests").tag("pool", "testPool")
+				.tag("endpoint", "localhost/preregistration/v1").tag("outcome", "SUCCESSFUL").timer();
+		assertNotNull(timer);
+		assertEquals(3, timer.count());
+		assertEquals(20, registry.get("preregistration.http.client.pool.max").tag("pool", "testPool").gauge().value(),
+				0);
+		assertEquals(0,
+				registry.get("preregistration.http.client.pool.leased").tag("pool", "testPool").gauge().value(), 0);
+		assertSame(httpClientFactory.requestFactory("testPool", null),
+				httpClientFactory.requestFactory("testPool", null));
+
+		try {
+			restTemplate.getForObject(url + "/missing", String.class);
+		} catch (HttpClientErrorException ex) {
+			assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+		}
+		assertEquals(1, registry.get("preregistration.http.client.requests").tag("endpoint", "localhost/missing")
+				.tag("outcome", "CLIENT_ERROR").timer().count());
+	}
+
+	@Test
+	public void routeAndEndpointTest() {
+		HttpRoute route = PooledHttpClientFactory.route("https://kernel.mosip.net");
+		assertEquals(443, route.getTargetHost().getPort());
+		assertEquals(true, route.isSecure());
+		assertEquals(8080, PooledHttpClientFactory.route("http://audit:8080").getTargetHost().getPort());
+		assertEquals(Integer.valueOf(10), PooledHttpClientFactory
+				.routeLimits("https://kernel.mosip.net=10, http://audit:8080=5").get(route));
+		assertEquals(Integer.valueOf(5), PooledHttpClientFactory
+				.routeLimits("https://kernel.mosip.net=10, http://audit:8080=5")
+				.get(PooledHttpClientFactory.route("http://audit:8080")));
+		assertEquals("kernel.mosip.net/v1/keymanager",
+				PooledHttpClientFactory.endpoint(URI.create("https://kernel.mosip.net/v1/keymanager/encrypt?x=1")));
+	}
+
+	@Test
+	public void pooledRestTemplatePostProcessorTest() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("mosip.preregistration.http-client.pooled-beans", "auditRestTemplate");
+		@SuppressWarnings("unchecked")
+		ObjectProvider<PooledHttpClientFactory> provider = Mockito.mock(ObjectProvider.class);
+		Mockito.when(provider.getObject()).thenReturn(httpClientFactory);
+		BeanPostProcessor postProcessor = HttpClientConfig.pooledRestTemplatePostProcessor(provider, environment);
+		httpClientFactory.requestFactory("configRestTemplate", null);
+
+		RestTemplate kernelRestTemplate = new RestTemplate();
+		ClientHttpRequestFactory kernelRequestFactory = kernelRestTemplate.getRequestFactory();
+		postProcessor.postProcessAfterInitialization(kernelRestTemplate, "selfTokenRestTemplate");
+		assertSame(kernelRequestFactory, kernelRestTemplate.getRequestFactory());
+
+		RestTemplate auditRestTemplate = new RestTemplate();
+		postProcessor.postProcessAfterInitialization(auditRestTemplate, "auditRestTemplate");
+		assertEquals(1, auditRestTemplate.getInterceptors().size());
+		assertTrue(httpClientFactory.hasPool("auditRestTemplate"));
+
+		RestTemplate configRestTemplate = new RestTemplate(httpClientFactory.requestFactory("configRestTemplate", null));
+		postProcessor.postProcessAfterInitialization(configRestTemplate, "configRestTemplate");
+		assertEquals(1, configRestTemplate.getInterceptors().size());
+	}
+}
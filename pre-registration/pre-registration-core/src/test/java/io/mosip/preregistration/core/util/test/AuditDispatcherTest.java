@@ -0,0 +1,146 @@
+package io.mosip.preregistration.core.util.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.mosip.preregistration.core.common.dto.AuditRequestDto;
+import io.mosip.preregistration.core.util.AuditDispatcher;
+
+/**
+ * AuditDispatcher Test
+ *
+ */
+public class AuditDispatcherTest {
+
+	@Rule
+	public TemporaryFolder spoolFolder = new TemporaryFolder();
+
+	private List<String> shipped = new CopyOnWriteArrayList<>();
+
+	private AuditRequestDto auditRequest(String id) {
+		AuditRequestDto auditRequestDto = new AuditRequestDto();
+		auditRequestDto.setId(id);
+		return auditRequestDto;
+	}
+
+	private void awaitShipped(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (shipped.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+	}
+
+	@Test
+	public void dispatchShipsQueuedRecordsTest() throws Exception {
+		AuditDispatcher dispatcher = new AuditDispatcher(10, 5, 10, spoolFolder.getRoot().toPath(), 1024 * 1024, 3,
+				dto -> shipped.add(dto.getId()), (dto, headers) -> shipped.add(dto.getId()));
+		dispatcher.start();
+		for (int index = 0; index < 8; index++) {
+			dispatcher.dispatch(auditRequest("audit-" + index), null);
+		}
+		awaitShipped(8);
+		dispatcher.stop();
+		assertEquals(8, shipped.size());
+		assertEquals("audit-0", shipped.get(0));
+	}
+
+	@Test
+	public void fullQueueSpoolsAndReplaysTest() throws Exception {
+		Path spoolDir = spoolFolder.getRoot().toPath();
+		AuditDispatcher dispatcher = new AuditDispatcher(1, 5, 10, spoolDir, 1024 * 1024, 3,
+				dto -> shipped.add(dto.getId()), (dto, headers) -> shipped.add(dto.getId()));
+		dispatcher.dispatch(auditRequest("audit-queued"), null);
+		dispatcher.dispatch(auditRequest("audit-spooled"), null);
+		List<String> spooled = Files.readAllLines(spoolDir.resolve("audit-spool.jsonl"), StandardCharsets.UTF_8);
+		assertEquals(1, spooled.size());
+		assertTrue(spooled.get(0).contains("audit-spooled"));
+
+		dispatcher.start();
+		awaitShipped(2);
+		dispatcher.stop();
+		assertEquals(2, shipped.size());
+		assertTrue(shipped.contains("audit-spooled"));
+	}
+
+	@Test
+	public void failedSendIsSpooledTest() throws Exception {
+		Path spoolDir = spoolFolder.getRoot().toPath();
+		AuditDispatcher dispatcher = new AuditDispatcher(10, 5, 60000, spoolDir, 1024 * 1024, 3, dto -> {
+			throw new IllegalStateException("audit manager down");
+		}, (dto, headers) -> true);
+		dispatcher.start();
+		dispatcher.dispatch(auditRequest("audit-failed"), null);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!Files.exists(spoolDir.resolve("audit-spool.jsonl")) && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		dispatcher.stop();
+		List<String> spooled = Files.readAllLines(spoolDir.resolve("audit-spool.jsonl"), StandardCharsets.UTF_8);
+		assertEquals(1, spooled.size());
+		assertTrue(spooled.get(0).contains("audit-failed"));
+	}
+
+	@Test
+	public void rejectedSendIsSpooledAndDroppedTest() throws Exception {
+		Path spoolDir = spoolFolder.getRoot().toPath();
+		AtomicInteger attempts = new AtomicInteger();
+		AuditDispatcher dispatcher = new AuditDispatcher(10, 5, 10, spoolDir, 1024 * 1024, 3, dto -> {
+			attempts.incrementAndGet();
+			return false;
+		}, (dto, headers) -> false);
+		dispatcher.start();
+		dispatcher.dispatch(auditRequest("audit-rejected"), null);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (attempts.get() < 3 && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		Thread.sleep(1500);
+		dispatcher.stop();
+		// retried from the spool, then dropped after the third rejection
+		assertEquals(3, attempts.get());
+		Path spoolFile = spoolDir.resolve("audit-spool.jsonl");
+		assertTrue(!Files.exists(spoolFile) || Files.readAllLines(spoolFile, StandardCharsets.UTF_8).isEmpty());
+	}
+
+	@Test
+	public void replayHonoursBatchSizeTest() throws Exception {
+		Path spoolDir = spoolFolder.getRoot().toPath();
+		List<String> lines = new ArrayList<>();
+		for (int index = 0; index < 7; index++) {
+			lines.add("{\"id\":\"audit-" + index + "\"}");
+		}
+		Files.write(spoolDir.resolve("audit-spool.jsonl"), lines, StandardCharsets.UTF_8);
+		List<Integer> pending = new CopyOnWriteArrayList<>();
+		AuditDispatcher dispatcher = new AuditDispatcher(10, 5, 10, spoolDir, 1024 * 1024, 3, dto -> {
+			if ("audit-4".equals(dto.getId())) {
+				try {
+					pending.add(Files.readAllLines(spoolDir.resolve("audit-spool.replay"), StandardCharsets.UTF_8)
+							.size());
+				} catch (Exception ex) {
+					pending.add(-1);
+				}
+			}
+			return shipped.add(dto.getId());
+		}, (dto, headers) -> true);
+		dispatcher.start();
+		awaitShipped(7);
+		dispatcher.stop();
+		assertEquals(7, shipped.size());
+		assertEquals("audit-6", shipped.get(6));
+		// the first pass ships one batch and keeps the rest for the next pass
+		assertEquals(2, pending.get(0).intValue());
+	}
+}
@@ -1,8 +1,14 @@
 package io.mosip.preregistration.core.util.test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -12,15 +18,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.mosip.preregistration.core.common.dto.CryptoManagerResponseDTO;
 import io.mosip.preregistration.core.common.dto.ResponseWrapper;
+import io.mosip.preregistration.core.exception.DecryptionFailedException;
+import io.mosip.preregistration.core.exception.EncryptionFailedException;
 import io.mosip.preregistration.core.util.CryptoUtil;
 import io.mosip.preregistration.core.util.RequestValidator;
 
@@ -71,7 +87,108 @@ public class CryptoUtilTest {
 		crypto.encrypt("hello".getBytes(), LocalDateTime.now());
 
 	}
-	
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void streamingEncryptSuccessTest() throws Exception {
+		byte[] content = new byte[100_000];
+		new Random(7).nextBytes(content);
+		String encrypted = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString("encrypted".getBytes());
+		MockClientHttpRequest request = new MockClientHttpRequest();
+		Mockito.when(restTemplate.execute(Mockito.anyString(), Mockito.eq(HttpMethod.POST), Mockito.any(),
+				Mockito.any(ResponseExtractor.class))).thenAnswer(invocation -> {
+					((RequestCallback) invocation.getArgument(2)).doWithRequest(request);
+					MockClientHttpResponse response = new MockClientHttpResponse(
+							("{\"id\":null,\"response\":{\"data\":\"" + encrypted + "\"},\"errors\":[]}").getBytes(),
+							HttpStatus.OK);
+					return ((ResponseExtractor<?>) invocation.getArgument(3)).extractData(response);
+				});
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		crypto.encrypt(new ByteArrayResource(content), LocalDateTime.now(), output);
+
+		assertEquals(encrypted, output.toString("UTF-8"));
+		JsonNode requestBody = new ObjectMapper().readTree(request.getBodyAsBytes());
+		assertEquals(io.mosip.kernel.core.util.CryptoUtil.encodeToURLSafeBase64(content),
+				requestBody.get("request").get("data").asText());
+		assertNotNull(requestBody.get("request").get("timeStamp"));
+	}
+
+	@Test(expected = EncryptionFailedException.class)
+	@SuppressWarnings("unchecked")
+	public void streamingEncryptErrorsTest() {
+		Mockito.when(restTemplate.execute(Mockito.anyString(), Mockito.eq(HttpMethod.POST), Mockito.any(),
+				Mockito.any(ResponseExtractor.class))).thenAnswer(invocation -> {
+					MockClientHttpResponse response = new MockClientHttpResponse(
+							"{\"response\":null,\"errors\":[{\"errorCode\":\"KER-CRY-001\",\"message\":\"failed\"}]}"
+									.getBytes(),
+							HttpStatus.OK);
+					return ((ResponseExtractor<?>) invocation.getArgument(3)).extractData(response);
+				});
+		crypto.encrypt(new ByteArrayResource("hello".getBytes()), LocalDateTime.now(), new ByteArrayOutputStream());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void streamingDecryptSuccessTest() throws Exception {
+		byte[] decrypted = new byte[100_000];
+		new Random(11).nextBytes(decrypted);
+		String stored = "c3RvcmVkLWVuY3J5cHRlZC1kYXRh";
+		MockClientHttpRequest request = new MockClientHttpRequest();
+		Mockito.when(restTemplate.execute(Mockito.endsWith("/decrypt"), Mockito.eq(HttpMethod.POST), Mockito.any(),
+				Mockito.any(ResponseExtractor.class))).thenAnswer(invocation -> {
+					((RequestCallback) invocation.getArgument(2)).doWithRequest(request);
+					MockClientHttpResponse response = new MockClientHttpResponse(("{\"response\":{\"data\":\""
+							+ io.mosip.kernel.core.util.CryptoUtil.encodeToURLSafeBase64(decrypted)
+							+ "\"},\"errors\":null}").getBytes(), HttpStatus.OK);
+					return ((ResponseExtractor<?>) invocation.getArgument(3)).extractData(response);
+				});
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		crypto.decrypt(new ByteArrayResource(stored.getBytes()), LocalDateTime.now(), output);
+
+		assertArrayEquals(decrypted, output.toByteArray());
+		JsonNode requestBody = new ObjectMapper().readTree(request.getBodyAsBytes());
+		assertEquals(stored, requestBody.get("request").get("data").asText());
+	}
+
+	@Test(expected = DecryptionFailedException.class)
+	@SuppressWarnings("unchecked")
+	public void streamingDecryptNoDataTest() {
+		Mockito.when(restTemplate.execute(Mockito.anyString(), Mockito.eq(HttpMethod.POST), Mockito.any(),
+				Mockito.any(ResponseExtractor.class))).thenAnswer(invocation -> {
+					MockClientHttpResponse response = new MockClientHttpResponse(
+							"{\"response\":null,\"errors\":null}".getBytes(), HttpStatus.OK);
+					return ((ResponseExtractor<?>) invocation.getArgument(3)).extractData(response);
+				});
+		crypto.decrypt(new ByteArrayResource("stored".getBytes()), LocalDateTime.now(), new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void bulkDecryptSuccessTest() {
+		CryptoManagerResponseDTO cryptoRes = new CryptoManagerResponseDTO();
+		cryptoRes.setData("aGVsbG8");
+		ResponseWrapper<CryptoManagerResponseDTO> resEntity = new ResponseWrapper<>();
+		resEntity.setResponse(cryptoRes);
+		ResponseEntity<ResponseWrapper<CryptoManagerResponseDTO>> res = new ResponseEntity<>(resEntity, HttpStatus.OK);
+		Mockito.when(restTemplate.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.POST), Mockito.any(),
+				Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<CryptoManagerResponseDTO>>() {
+				}))).thenReturn(res);
+		List<byte[]> decrypted = crypto.bulkDecrypt(
+				Arrays.asList("first".getBytes(), "second".getBytes(), "third".getBytes()), LocalDateTime.now());
+		assertEquals(3, decrypted.size());
+		assertEquals("hello", new String(decrypted.get(2)));
+	}
+
+	@Test(expected = HttpClientErrorException.class)
+	public void bulkDecryptFailedExceptionTest() {
+		HttpClientErrorException ex = new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+		Mockito.when(restTemplate.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.POST), Mockito.any(),
+				Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<CryptoManagerResponseDTO>>() {
+				}))).thenThrow(ex);
+		crypto.bulkDecrypt(Arrays.asList("first".getBytes(), "second".getBytes()), LocalDateTime.now());
+	}
+
 	/*
 	 * @Test public void decryptSuccessTest() { CryptoManagerResponseDTO cryptoRes1
 	 * = new CryptoManagerResponseDTO(); cryptoRes1.setData(
@@ -0,0 +1,80 @@
+package io.mosip.preregistration.core.util.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.mosip.preregistration.core.util.ExpiringCache;
+
+/**
+ * ExpiringCache Test
+ *
+ */
+public class ExpiringCacheTest {
+
+	private final Map<String, String> values = new ConcurrentHashMap<>();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private String load(String key) {
+		loads.incrementAndGet();
+		String value = values.get(key);
+		if ("fail".equals(value)) {
+			throw new IllegalStateException("load failed");
+		}
+		return value;
+	}
+
+	@Test
+	public void refreshLoadingNullEvictsTest() {
+		values.put("machine", "key1");
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", Duration.ZERO, 10, this::load,
+				Runnable::run);
+		assertEquals("key1", cache.get("machine"));
+		values.remove("machine");
+		// expired entry is served once while its refresh loads null
+		assertEquals("key1", cache.get("machine"));
+		assertNull(cache.peek("machine"));
+		assertNull(cache.get("machine"));
+	}
+
+	@Test
+	public void refreshFailureKeepsStaleValueTest() {
+		values.put("template", "content");
+		ExpiringCache<String, String> cache = new ExpiringCache<>("test", Duration.ZERO, 10, this::load,
+				Runnable::run);
+		cache.get("template");
+		values.put("template", "fail");
+		assertEquals("content", cache.get("template"));
+		assertEquals("content", cache.peek("template"));
+	}
+
+	@Test
+	public void refreshFailureEvictsTest() {
+		values.put("machine", "key1");
+		ExpiringCache<String, String> cache = new ExpiringCache<String, String>("test", Duration.ZERO, 10,
+				this::load, Runnable::run).evictOnRefreshFailure();
+		cache.get("machine");
+		values.put("machine", "fail");
+		assertEquals("key1", cache.get("machine"));
+		assertNull(cache.peek("machine"));
+	}
+
+	@Test
+	public void maxAgeReloadsTest() throws InterruptedException {
+		values.put("machine", "key1");
+		ExpiringCache<String, String> cache = new ExpiringCache<String, String>("test", Duration.ofHours(1), 10,
+				this::load, Runnable::run).withMaxAge(Duration.ofMillis(1));
+		assertEquals("key1", cache.get("machine"));
+		values.put("machine", "key2");
+		Thread.sleep(5);
+		assertEquals("key2", cache.get("machine"));
+		assertEquals(2, loads.get());
+	}
+}
@@ -0,0 +1,88 @@
+package io.mosip.preregistration.core.util.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.mosip.preregistration.core.util.IdentityMapping;
+
+public class IdentityMappingTest {
+
+	static final String MAPPING_JSON = "{\"identity\":{\"name\":{\"value\":\"fullName\"},"
+			+ "\"gender\":{\"value\":\"gender\"},\"dob\":{\"value\":\"dateOfBirth\"},"
+			+ "\"preferredLanguage\":{\"value\":\"preferredLang\"},"
+			+ "\"locationHierarchyForProfiling\":{\"value\":\"region, province,city\"},"
+			+ "\"phone\":{\"value\":\"phone\"},\"email\":{\"value\":\"email\"}},"
+			+ "\"documents\":{\"poa\":{\"value\":\"proofOfAddress\"}}}";
+
+	static final String DEMOGRAPHIC_JSON = "{\"identity\":{"
+			+ "\"fullName\":[{\"language\":\"eng\",\"value\":\" John \"},{\"language\":\"ara\",\"value\":\"Jean\"}],"
+			+ "\"gender\":[{\"language\":\"eng\",\"value\":\"Male\"}],\"dateOfBirth\":\"1990/05/20\","
+			+ "\"region\":[{\"language\":\"eng\",\"value\":\"Rabat\"}],\"province\":[],"
+			+ "\"proofOfAddress\":{\"value\":\"doc\",\"type\":\"RNC\"},\"phone\":\"9876543210\","
+			+ "\"residenceStatus\":[{\"language\":\"eng\",\"value\":\"Foreigner\"}]},\"version\":1.0}";
+
+	private IdentityMapping identityMapping;
+
+	@Before
+	public void setUp() throws Exception {
+		identityMapping = IdentityMapping.parse(MAPPING_JSON);
+	}
+
+	@Test
+	public void parseTest() throws Exception {
+		assertTrue(identityMapping.hasIdentity());
+		assertEquals(Arrays.asList("fullName"), identityMapping.getName().getKeys());
+		assertEquals(Arrays.asList("region", "province", "city"), identityMapping.getLocationHierarchy().getKeys());
+		assertEquals("proofOfAddress", identityMapping.getPoa().getKey());
+		assertEquals("dateOfBirth", identityMapping.getMapping().getIdentity().getDob().getValue());
+		assertNull(IdentityMapping.parse(""));
+	}
+
+	@Test
+	public void unmappedFieldTest() throws Exception {
+		IdentityMapping mapping = IdentityMapping.parse("{\"identity\":{\"name\":{\"value\":\"fullName\"}}}");
+		assertFalse(mapping.getEmail().isMapped());
+		assertNull(mapping.getPoa().getKey());
+		JsonNode identity = IdentityMapping.getMapper().readTree(DEMOGRAPHIC_JSON).get("identity");
+		assertEquals("", mapping.getEmail().firstValue(identity));
+	}
+
+	@Test
+	public void readFromJsonNodeTest() throws Exception {
+		JsonNode identity = IdentityMapping.getMapper().readTree(DEMOGRAPHIC_JSON).get("identity");
+		assertEquals("John", identityMapping.getName().firstValue(identity));
+		assertEquals("Male", identityMapping.getGender().firstValue(identity));
+		assertEquals("1990/05/20", identityMapping.getDob().firstValue(identity));
+		assertEquals("9876543210", identityMapping.getPhone().firstValue(identity));
+		assertEquals("", identityMapping.getEmail().firstValue(identity));
+		assertEquals(Arrays.asList("Rabat", "", ""), identityMapping.getLocationHierarchy().firstValues(identity));
+	}
+
+	@Test
+	public void readFromParserTest() throws Exception {
+		JsonNode identity = IdentityMapping.getMapper().readTree(DEMOGRAPHIC_JSON).get("identity");
+		Map<String, String> values;
+		try (JsonParser parser = IdentityMapping.getMapper().getFactory().createParser(DEMOGRAPHIC_JSON)) {
+			values = identityMapping.readValues(parser, "identity");
+		}
+		assertFalse(values.containsKey("residenceStatus"));
+		for (IdentityMapping.Field field : Arrays.asList(identityMapping.getName(), identityMapping.getGender(),
+				identityMapping.getDob(), identityMapping.getPreferredLanguage(), identityMapping.getEmail(),
+				identityMapping.getPhone())) {
+			assertEquals(field.firstValue(identity), field.firstValue(values));
+		}
+		assertEquals(identityMapping.getLocationHierarchy().firstValues(identity),
+				identityMapping.getLocationHierarchy().firstValues(values));
+	}
+}
@@ -173,4 +173,26 @@ public class NotificationUtilTest {
 		assertEquals(notificationResponseDTO.getMessage(), response.getResponse().getMessage());
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void renderTemplateCachedTest() {
+		templateUtil.invalidateTemplates();
+		templateResponseDTO.setFileText("Dear $name, PRID $PRID");
+		ResponseWrapper<TemplateResponseListDTO> templateResponseListDTO = new ResponseWrapper<>();
+		TemplateResponseListDTO templates = new TemplateResponseListDTO();
+		templates.setTemplates(tepmlateList);
+		templateResponseListDTO.setResponse(templates);
+		ResponseEntity<ResponseWrapper<TemplateResponseListDTO>> res = new ResponseEntity<>(templateResponseListDTO,
+				HttpStatus.OK);
+		Mockito.when(restTemplate.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.GET), Mockito.any(),
+				Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<TemplateResponseListDTO>>() {
+				}))).thenReturn(res);
+
+		assertEquals("Dear Test01, PRID 1234567890", templateUtil.renderTemplate("eng", "Email-Acknowledgement", notificationDTO));
+		assertEquals("Dear Test01, PRID 1234567890", templateUtil.renderTemplate("eng", "Email-Acknowledgement", notificationDTO));
+		Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.anyString(), Mockito.eq(HttpMethod.GET),
+				Mockito.any(), Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<TemplateResponseListDTO>>() {
+				}));
+		templateUtil.invalidateTemplates();
+	}
+
+}
@@ -3,8 +3,10 @@ package io.mosip.preregistration.core.util.test;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.junit.Before;
@@ -15,6 +17,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.client.RestTemplate;
+
+import io.mosip.kernel.core.http.ResponseWrapper;
 
 import io.mosip.preregistration.core.code.RequestCodes;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
@@ -34,6 +39,9 @@ public class ValidationUtilTest {
 	@MockBean
 	private RequestValidator validator;
 
+	@MockBean(name = "selfTokenRestTemplate")
+	private RestTemplate restTemplate;
+
 	@Before
 	public void setUp() throws Exception {
 		requestMap = new HashMap<>();
@@ -246,4 +254,25 @@ public class ValidationUtilTest {
 		String langCode = "fraaa";
 		validationUtil.langvalidation(langCode);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void getDocumentTypeNameByTypeCodeCachedTest() {
+		LinkedHashMap<String, Object> document = new LinkedHashMap<>();
+		document.put("code", "DOC001");
+		document.put("name", "Passport");
+		document.put("isActive", true);
+		ArrayList<LinkedHashMap<String, Object>> documents = new ArrayList<>();
+		documents.add(document);
+		LinkedHashMap<String, ArrayList<LinkedHashMap<String, Object>>> response = new LinkedHashMap<>();
+		response.put("documents", documents);
+		ResponseWrapper<LinkedHashMap<String, ArrayList<LinkedHashMap<String, Object>>>> responseBody = new ResponseWrapper<>();
+		responseBody.setResponse(response);
+		Mockito.when(restTemplate.getForObject(Mockito.anyString(), Mockito.eq(ResponseWrapper.class)))
+				.thenReturn(responseBody);
+
+		assertThat(validationUtil.getDocumentTypeNameByTypeCode("eng", "POI").get("DOC001"), is("Passport"));
+		assertThat(validationUtil.getDocumentTypeNameByTypeCode("eng", "POI").get("DOC001"), is("Passport"));
+		Mockito.verify(restTemplate, Mockito.times(1)).getForObject(Mockito.anyString(),
+				Mockito.eq(ResponseWrapper.class));
+	}
+}
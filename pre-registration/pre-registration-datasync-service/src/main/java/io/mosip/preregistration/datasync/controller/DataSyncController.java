@@ -19,6 +19,8 @@ import io.mosip.preregistration.core.common.dto.MainRequestDTO;
 import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 import io.mosip.preregistration.core.config.LoggerConfiguration;
 import io.mosip.preregistration.core.util.ResponseFilter;
+import io.mosip.preregistration.datasync.dto.BulkDataSyncRequestDTO;
+import io.mosip.preregistration.datasync.dto.BulkPreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.DataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.PreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.PreRegistrationIdsDTO;
@@ -117,6 +119,29 @@ public class DataSyncController {
 				.body(dataSyncService.fetchPreRegistrationData(preRegistrationId, machineId));
 	}
 
+	/**
+	 * This POST api use to retrieve the details of several PreRegistrationIds
+	 * for one machine in a single call
+	 *
+	 * @param bulkDataSyncDto
+	 * @return zip files of the pre-registrations
+	 */
+	@PreAuthorize("hasAnyRole(@authorizedRoles.getGetsyncpreregistrationidmachineid())")
+	@ResponseFilter
+	@PostMapping(path = "/sync/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@Operation(summary = "Retrieve Pre-Registrations in bulk", description = "Retrieve Pre-Registrations in bulk", tags = "Data-Sync")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Data Sync records fetched"),
+			@ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+	public ResponseEntity<MainResponseDTO<BulkPreRegArchiveDTO>> retrievePreRegistrations(
+			@RequestBody(required = true) MainRequestDTO<BulkDataSyncRequestDTO> bulkDataSyncDto) {
+		log.info("sessionId", "idType", "id",
+				"In Datasync controller for retreiving pre-registration data in bulk " + bulkDataSyncDto);
+		return ResponseEntity.status(HttpStatus.OK).body(dataSyncService.fetchPreRegistrationData(bulkDataSyncDto));
+	}
+
 	/**
 	 * This POST api is used to retrieve all processed pre-registration ids and
 	 * store in pre-registration database
@@ -0,0 +1,34 @@
+package io.mosip.preregistration.datasync.dto;
+
+import io.mosip.preregistration.core.common.dto.BookingRegistrationDTO;
+import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
+import io.mosip.preregistration.core.common.dto.DocumentsMetaData;
+import lombok.Data;
+
+/**
+ * Emitted when an application is prefetched for the first time. It references
+ * the details already fetched for the packet, nothing is copied.
+ *
+ * @since 1.2.0
+ *
+ */
+@Data
+public class ApplicationPrefetchedEvent {
+
+	private String preRegistrationId;
+
+	/**
+	 * Status of the application when it was fetched, the status is only moved
+	 * to prefetched if it is unchanged
+	 */
+	private String previousStatusCode;
+
+	private DemographicResponseDTO demographicResponse;
+
+	private DocumentsMetaData documentsMetaData;
+
+	private BookingRegistrationDTO bookingRegistration;
+
+	private String userId;
+
+}
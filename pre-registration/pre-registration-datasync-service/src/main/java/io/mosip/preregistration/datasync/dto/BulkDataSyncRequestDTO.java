@@ -0,0 +1,38 @@
+package io.mosip.preregistration.datasync.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Request of the bulk pre-registration fetch of one registration client.
+ *
+ * @since 1.2.0
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class BulkDataSyncRequestDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The machine whose public key encrypts the packets. */
+	@JsonProperty("machineId")
+	@ApiModelProperty(value = "Machine id", position = 1)
+	private String machineId;
+
+	/** The pre-registration ids to fetch. */
+	@JsonProperty("preRegistrationIds")
+	@ApiModelProperty(value = "Pre-Registration ids", position = 2)
+	private List<String> preRegistrationIds;
+
+}
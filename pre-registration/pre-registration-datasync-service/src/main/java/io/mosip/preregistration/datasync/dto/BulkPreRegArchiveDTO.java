@@ -0,0 +1,37 @@
+package io.mosip.preregistration.datasync.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.mosip.preregistration.core.common.dto.ExceptionJSONInfoDTO;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Response of the bulk pre-registration fetch. Packets that could not be built
+ * are reported by pre-registration id instead of failing the whole request.
+ *
+ * @since 1.2.0
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class BulkPreRegArchiveDTO {
+
+	@JsonProperty("pre-registrations")
+	@ApiModelProperty(value = "Pre-Registration packets", position = 1)
+	private List<PreRegArchiveDTO> preRegistrations = new ArrayList<>();
+
+	@JsonProperty("failed-pre-registrations")
+	@ApiModelProperty(value = "Errors by Pre-Registration id", position = 2)
+	private Map<String, ExceptionJSONInfoDTO> failedPreRegistrations = new LinkedHashMap<>();
+
+}
@@ -64,7 +64,17 @@ public enum ErrorMessages {
 	/**
 	 * ErrorMessage for PRG_DATA_SYNC_022
 	 */
-	PRID_CONSUMED("Preregistration-Id has been consumed");
+	PRID_CONSUMED("Preregistration-Id has been consumed"),
+
+	/**
+	 * ErrorMessage for PRG_DATA_SYNC_023
+	 */
+	BULK_PRE_REG_ID_LIMIT_EXCEEDED("Requested pre-registration id list exceeds the bulk fetch limit"),
+
+	/**
+	 * ErrorMessage for PRG_DATA_SYNC_024
+	 */
+	INVALID_MACHINE_ID("Invalid machine id");
 
 	private ErrorMessages(String message) {
 		this.message = message;
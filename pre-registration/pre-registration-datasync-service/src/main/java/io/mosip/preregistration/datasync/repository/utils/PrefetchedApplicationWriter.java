@@ -0,0 +1,141 @@
+package io.mosip.preregistration.datasync.repository.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.analytics.event.anonymous.dto.AnonymousProfileRequestDTO;
+import io.mosip.analytics.event.anonymous.service.AnonymousProfileServiceIntf;
+import io.mosip.preregistration.core.code.StatusCodes;
+import io.mosip.preregistration.datasync.dto.ApplicationPrefetchedEvent;
+
+/**
+ * This class moves prefetched applications to prefetched status with JDBC
+ * batch statements and writes the anonymous profiles of the moved ones through
+ * the batched profile ingest, one transaction per batch of events.
+ *
+ * @since 1.2.0
+ *
+ */
+@Component
+public class PrefetchedApplicationWriter {
+
+	/**
+	 * Only moves the application if its status is still the one it was fetched
+	 * with, so a cancellation made meanwhile is not overwritten
+	 */
+	private static final String UPDATE_DEMOGRAPHIC_STATUS = "UPDATE prereg.applicant_demographic SET status_code = ?, "
+			+ "upd_by = ?, upd_dtimes = ? WHERE prereg_id = ? AND status_code = ?";
+
+	private static final String UPDATE_APPLICATION_STATUS = "UPDATE prereg.applications SET booking_status_code = ?, "
+			+ "upd_by = ?, upd_dtimes = ? WHERE application_id = ? AND EXISTS (SELECT 1 FROM prereg.applicant_demographic "
+			+ "WHERE prereg_id = ? AND status_code = ?)";
+
+	@Autowired
+	private AnonymousProfileServiceIntf anonymousProfileService;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final Counter profileCounter = Metrics.counter("preregistration.datasync.prefetched.written", "operation",
+			"profile");
+
+	private final Counter statusCounter = Metrics.counter("preregistration.datasync.prefetched.written", "operation",
+			"status");
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Updates the status of the given applications and inserts the profiles of
+	 * the ones moved to prefetched, in one transaction. Applications whose status
+	 * changed since they were fetched are left as they are, without a profile.
+	 *
+	 * @param events   the prefetched applications
+	 * @param profiles the anonymous profile JSON of each application, in the same
+	 *                 order
+	 * @return number of applications moved to prefetched
+	 */
+	@Transactional
+	public int write(List<ApplicationPrefetchedEvent> events, List<String> profiles) {
+		LocalDateTime updatedTime = LocalDateTime.now();
+		String prefetched = StatusCodes.PREFETCHED.getCode();
+		int[] updated = jdbcTemplate.batchUpdate(UPDATE_DEMOGRAPHIC_STATUS, new EventSetter(events) {
+			@Override
+			void setValues(PreparedStatement ps, ApplicationPrefetchedEvent event) throws SQLException {
+				ps.setString(1, prefetched);
+				ps.setString(2, event.getUserId());
+				ps.setTimestamp(3, Timestamp.valueOf(updatedTime));
+				ps.setString(4, event.getPreRegistrationId());
+				ps.setString(5, event.getPreviousStatusCode());
+			}
+		});
+		List<ApplicationPrefetchedEvent> movedEvents = new ArrayList<>();
+		Map<String, List<AnonymousProfileRequestDTO>> profilesByUser = new LinkedHashMap<>();
+		for (int index = 0; index < events.size(); index++) {
+			if (updated[index] != 1) {
+				continue;
+			}
+			movedEvents.add(events.get(index));
+			AnonymousProfileRequestDTO profile = new AnonymousProfileRequestDTO();
+			profile.setProfileDetails(profiles.get(index));
+			profilesByUser.computeIfAbsent(events.get(index).getUserId(), userId -> new ArrayList<>()).add(profile);
+		}
+		if (movedEvents.isEmpty()) {
+			return 0;
+		}
+		jdbcTemplate.batchUpdate(UPDATE_APPLICATION_STATUS, new EventSetter(movedEvents) {
+			@Override
+			void setValues(PreparedStatement ps, ApplicationPrefetchedEvent event) throws SQLException {
+				ps.setString(1, prefetched);
+				ps.setString(2, event.getUserId());
+				ps.setTimestamp(3, Timestamp.valueOf(updatedTime));
+				ps.setString(4, event.getPreRegistrationId());
+				ps.setString(5, event.getPreRegistrationId());
+				ps.setString(6, prefetched);
+			}
+		});
+		profilesByUser.forEach((userId, userProfiles) -> anonymousProfileService.saveAnonymousProfiles(userProfiles,
+				userId));
+		profileCounter.increment(movedEvents.size());
+		statusCounter.increment(movedEvents.size());
+		return movedEvents.size();
+	}
+
+	private abstract static class EventSetter implements BatchPreparedStatementSetter {
+
+		private final List<ApplicationPrefetchedEvent> events;
+
+		EventSetter(List<ApplicationPrefetchedEvent> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void setValues(PreparedStatement ps, int index) throws SQLException {
+			setValues(ps, events.get(index));
+		}
+
+		@Override
+		public int getBatchSize() {
+			return events.size();
+		}
+
+		abstract void setValues(PreparedStatement ps, ApplicationPrefetchedEvent event) throws SQLException;
+	}
+}
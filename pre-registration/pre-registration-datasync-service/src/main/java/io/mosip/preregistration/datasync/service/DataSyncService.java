@@ -2,23 +2,32 @@ package io.mosip.preregistration.datasync.service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.mosip.analytics.event.anonymous.exception.AnonymousProfileException;
-import io.mosip.analytics.event.anonymous.util.AnonymousProfileUtil;
 import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
+import io.mosip.kernel.core.exception.BaseUncheckedException;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.mosip.preregistration.core.code.AuditLogVariables;
 import io.mosip.preregistration.core.code.EventId;
@@ -30,6 +39,7 @@ import io.mosip.preregistration.core.common.dto.BookingDataByRegIdDto;
 import io.mosip.preregistration.core.common.dto.BookingRegistrationDTO;
 import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
 import io.mosip.preregistration.core.common.dto.DocumentsMetaData;
+import io.mosip.preregistration.core.common.dto.ExceptionJSONInfoDTO;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
 import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 import io.mosip.preregistration.core.common.dto.SlotTimeDto;
@@ -37,11 +47,16 @@ import io.mosip.preregistration.core.config.LoggerConfiguration;
 import io.mosip.preregistration.core.util.AuditLogUtil;
 import io.mosip.preregistration.core.util.ValidationUtil;
 import io.mosip.preregistration.datasync.dto.ApplicationInfoMetadataDTO;
+import io.mosip.preregistration.datasync.dto.ApplicationPrefetchedEvent;
+import io.mosip.preregistration.datasync.dto.BulkDataSyncRequestDTO;
+import io.mosip.preregistration.datasync.dto.BulkPreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.DataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.PreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.PreRegistrationIdsDTO;
 import io.mosip.preregistration.datasync.dto.ReverseDataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.ReverseDatasyncReponseDTO;
+import io.mosip.preregistration.datasync.errorcodes.ErrorCodes;
+import io.mosip.preregistration.datasync.errorcodes.ErrorMessages;
 import io.mosip.preregistration.datasync.exception.util.DataSyncExceptionCatcher;
 import io.mosip.preregistration.datasync.service.util.DataSyncServiceUtil;
 
@@ -76,10 +91,10 @@ public class DataSyncService {
 	AuditLogUtil auditLogUtil;
 	
 	/**
-	 * Autowired reference for {@link #AnonymousProfileUtil}
+	 * Autowired reference for {@link #PrefetchEventService}
 	 */
 	@Autowired
-	AnonymousProfileUtil anonymousProfileUtil;
+	PrefetchEventService prefetchEventService;
 	
 	/**
 	 * This method acts as a post constructor to initialize the required request
@@ -87,7 +102,18 @@ public class DataSyncService {
 	 */
 	@PostConstruct
 	public void setup() {
-		requiredRequestMap.put("version", version);
+		fetchAllRequiredRequestMap = requiredRequestMap(fetchAllId);
+		storeRequiredRequestMap = requiredRequestMap(storeId);
+		fetchBulkRequiredRequestMap = requiredRequestMap(fetchBulkId);
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datasync-bulk-fetch-");
+		threadFactory.setDaemon(true);
+		bulkFetchExecutor = new DelegatingSecurityContextExecutorService(
+				Executors.newFixedThreadPool(bulkFetchThreadCount, threadFactory));
+	}
+
+	@PreDestroy
+	public void shutdownBulkFetchExecutor() {
+		bulkFetchExecutor.shutdownNow();
 	}
 
 	/**
@@ -109,6 +135,27 @@ public class DataSyncService {
 	@Value("${mosip.id.preregistration.datasync.fetch}")
 	private String fetchId;
 
+	/**
+	 * Reference for ${mosip.id.preregistration.datasync.fetch.bulk} from property
+	 * file
+	 */
+	@Value("${mosip.id.preregistration.datasync.fetch.bulk:mosip.pre-registration.datasync.fetch.bulk}")
+	private String fetchBulkId;
+
+	/**
+	 * Maximum number of pre-registration ids in one bulk fetch
+	 */
+	@Value("${preregistration.datasync.bulk.max-ids:100}")
+	private int bulkMaxPreRegistrationIds;
+
+	/**
+	 * Number of pre-registrations of a bulk fetch that are built in parallel
+	 */
+	@Value("${preregistration.datasync.bulk.thread-count:10}")
+	private int bulkFetchThreadCount;
+
+	private ExecutorService bulkFetchExecutor;
+
 	/**
 	 * Reference for ${ver} from property file
 	 */
@@ -116,13 +163,25 @@ public class DataSyncService {
 	private String version;
 
 	/**
-	 * Request map to store the id and version and this is to be passed to request
-	 * validator method.
+	 * Request maps to store the id and version and this is to be passed to request
+	 * validator method. Built once per operation and shared read-only by all the
+	 * request threads.
 	 */
-	Map<String, String> requiredRequestMap = new HashMap<>();
+	private Map<String, String> fetchAllRequiredRequestMap = Collections.emptyMap();
+
+	private Map<String, String> storeRequiredRequestMap = Collections.emptyMap();
+
+	private Map<String, String> fetchBulkRequiredRequestMap = Collections.emptyMap();
 
 	private Logger log = LoggerConfiguration.logConfig(DataSyncService.class);
 
+	private Map<String, String> requiredRequestMap(String id) {
+		Map<String, String> requestMap = new HashMap<>();
+		requestMap.put("version", version);
+		requestMap.put("id", id);
+		return Collections.unmodifiableMap(requestMap);
+	}
+
 	public AuthUserDetails authUserDetails() {
 		return (AuthUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 	}
@@ -141,10 +200,10 @@ public class DataSyncService {
 		boolean isRetrieveAllSuccess = false;
 		responseDto.setId(fetchAllId);
 		responseDto.setVersion(version);
-		requiredRequestMap.put("id", fetchAllId);
 		try {
 			validationUtil.requestValidator(dataSyncRequest);
-			if (validationUtil.requestValidator(serviceUtil.prepareRequestMap(dataSyncRequest), requiredRequestMap)) {
+			if (validationUtil.requestValidator(serviceUtil.prepareRequestMap(dataSyncRequest),
+					fetchAllRequiredRequestMap)) {
 				serviceUtil.validateDataSyncRequest(dataSyncRequest.getRequest(), responseDto);
 				DataSyncRequestDTO dataSyncRequestDTO = dataSyncRequest.getRequest();
 				if (serviceUtil.isNull(dataSyncRequestDTO.getToDate())) {
@@ -281,20 +340,7 @@ public class DataSyncService {
 			responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
 			responseDto.setResponse(preRegArchiveDTO);
 			isRetrieveSuccess = true;
-			// insert the anonymous profile only if the appointment is being prefetched for the first time
-			if (!preRegistrationDTO.getStatusCode().equals(StatusCodes.BOOKED.getCode())
-					&& !preRegistrationDTO.getStatusCode().equals(StatusCodes.PREFETCHED.getCode())
-					&& !preRegistrationDTO.getStatusCode().equals(StatusCodes.EXPIRED.getCode())
-					&& !preRegistrationDTO.getStatusCode().equals(StatusCodes.CANCELLED.getCode())) {
-				preRegistrationDTO.setStatusCode(StatusCodes.PREFETCHED.getCode());
-				anonymousProfileUtil.saveAnonymousProfile(preRegistrationDTO, documentsMetaData, bookingRegistrationDTO,
-						null);
-				// update status to prefetched
-				serviceUtil.updateApplicationStatusToPreFectched(preId);
-			}
-		} catch (AnonymousProfileException apex) {
-			log.debug("sessionId", "idType", "id" + ExceptionUtils.getStackTrace(apex));
-			log.error("Unable to save AnonymousProfile in getPreRegistrationData method of datasync service -" + apex.getMessage());
+			publishPrefetched(preId.trim(), preRegistrationDTO, documentsMetaData, bookingRegistrationDTO);
 		} catch (Exception ex) {
 			log.debug("sessionId", "idType", "id" + ExceptionUtils.getStackTrace(ex));
 			log.error("In getPreRegistrationData method of datasync service -" + ex.getMessage());
@@ -313,6 +359,118 @@ public class DataSyncService {
 		return responseDto;
 	}
 
+	/**
+	 * This method is used to fetch the packets of several preRegistrationIds for
+	 * one machine. The machine public key is resolved once and the packets are
+	 * built in parallel. A packet that fails is reported against its
+	 * preRegistrationId and does not fail the others.
+	 * 
+	 * @param bulkDataSyncRequest
+	 * @return BulkPreRegArchiveDTO with the zipped packets
+	 */
+	public MainResponseDTO<BulkPreRegArchiveDTO> fetchPreRegistrationData(
+			MainRequestDTO<BulkDataSyncRequestDTO> bulkDataSyncRequest) {
+		MainResponseDTO<BulkPreRegArchiveDTO> responseDto = new MainResponseDTO<>();
+		log.info("sessionId", "idType", "id", "In bulk fetchPreRegistrationData method of datasync service ");
+		boolean isRetrieveSuccess = false;
+		responseDto.setId(fetchBulkId);
+		responseDto.setVersion(version);
+		try {
+			validationUtil.requestValidator(bulkDataSyncRequest);
+			validationUtil.requestValidator(serviceUtil.prepareRequestMap(bulkDataSyncRequest),
+					fetchBulkRequiredRequestMap);
+			BulkDataSyncRequestDTO request = bulkDataSyncRequest.getRequest();
+			serviceUtil.validateBulkDataSyncRequest(request, bulkMaxPreRegistrationIds, responseDto);
+			String encryptionPublickey = serviceUtil.getEncryptionKey(request.getMachineId());
+			List<String> preIds = request.getPreRegistrationIds().stream().map(String::trim).distinct()
+					.collect(Collectors.toList());
+			List<CompletableFuture<PreRegArchiveDTO>> fetches = preIds.stream()
+					.map(preId -> CompletableFuture.supplyAsync(
+							() -> prefetchPreRegistrationData(preId, request.getMachineId(), encryptionPublickey),
+							bulkFetchExecutor))
+					.collect(Collectors.toList());
+			BulkPreRegArchiveDTO bulkPreRegArchiveDTO = new BulkPreRegArchiveDTO();
+			for (int index = 0; index < fetches.size(); index++) {
+				try {
+					bulkPreRegArchiveDTO.getPreRegistrations().add(fetches.get(index).join());
+				} catch (CompletionException ex) {
+					log.error("sessionId", "idType", "id", "In bulk fetchPreRegistrationData method of datasync service "
+							+ preIds.get(index) + " - " + ex.getCause().getMessage());
+					bulkPreRegArchiveDTO.getFailedPreRegistrations().put(preIds.get(index),
+							getErrorInfo(ex.getCause()));
+				}
+			}
+			responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
+			responseDto.setResponse(bulkPreRegArchiveDTO);
+			isRetrieveSuccess = true;
+		} catch (Exception ex) {
+			log.debug("sessionId", "idType", "id" + ExceptionUtils.getStackTrace(ex));
+			log.error("In bulk fetchPreRegistrationData method of datasync service -" + ex.getMessage());
+			new DataSyncExceptionCatcher().handle(ex, responseDto);
+		} finally {
+			if (isRetrieveSuccess) {
+				setAuditValues(EventId.PRE_406.toString(), EventName.SYNC.toString(), EventType.BUSINESS.toString(),
+						"Bulk retrieval of the Preregistration data is successful",
+						AuditLogVariables.MULTIPLE_ID.toString(), authUserDetails().getUserId(),
+						authUserDetails().getUsername(), null);
+			} else {
+				setAuditValues(EventId.PRE_405.toString(), EventName.EXCEPTION.toString(), EventType.SYSTEM.toString(),
+						"Bulk retrieval of the Preregistration data is unsuccessful",
+						AuditLogVariables.NO_ID.toString(), authUserDetails().getUserId(),
+						authUserDetails().getUsername(), null);
+			}
+		}
+		return responseDto;
+	}
+
+	private PreRegArchiveDTO prefetchPreRegistrationData(String preId, String machineId,
+			String encryptionPublickey) {
+		ApplicationInfoMetadataDTO preRegInfo = serviceUtil.getPreRegistrationInfo(preId);
+		DemographicResponseDTO preRegistrationDTO = preRegInfo.getDemographicResponse();
+		DocumentsMetaData documentsMetaData = preRegInfo.getDocumentsMetaData();
+		BookingRegistrationDTO bookingRegistrationDTO = null;
+		if (preRegistrationDTO.getStatusCode().equals(StatusCodes.BOOKED.getCode())
+				|| preRegistrationDTO.getStatusCode().equals(StatusCodes.EXPIRED.getCode())) {
+			bookingRegistrationDTO = serviceUtil.getAppointmentDetails(preId);
+		}
+		PreRegArchiveDTO preRegArchiveDTO = serviceUtil.archivingFilesWithPublicKey(preRegistrationDTO,
+				bookingRegistrationDTO, documentsMetaData, machineId, encryptionPublickey);
+		publishPrefetched(preId, preRegistrationDTO, documentsMetaData, bookingRegistrationDTO);
+		return preRegArchiveDTO;
+	}
+
+	/**
+	 * Publishes the anonymous profile and the prefetched status update of the
+	 * application, only if the appointment is being prefetched for the first
+	 * time. Both are written in the background.
+	 */
+	private void publishPrefetched(String preId, DemographicResponseDTO preRegistrationDTO,
+			DocumentsMetaData documentsMetaData, BookingRegistrationDTO bookingRegistrationDTO) {
+		String statusCode = preRegistrationDTO.getStatusCode();
+		if (!statusCode.equals(StatusCodes.BOOKED.getCode()) && !statusCode.equals(StatusCodes.PREFETCHED.getCode())
+				&& !statusCode.equals(StatusCodes.EXPIRED.getCode())
+				&& !statusCode.equals(StatusCodes.CANCELLED.getCode())) {
+			preRegistrationDTO.setStatusCode(StatusCodes.PREFETCHED.getCode());
+			ApplicationPrefetchedEvent event = new ApplicationPrefetchedEvent();
+			event.setPreRegistrationId(preId);
+			event.setPreviousStatusCode(statusCode);
+			event.setDemographicResponse(preRegistrationDTO);
+			event.setDocumentsMetaData(documentsMetaData);
+			event.setBookingRegistration(bookingRegistrationDTO);
+			event.setUserId(authUserDetails().getUserId());
+			prefetchEventService.publish(event);
+		}
+	}
+
+	private ExceptionJSONInfoDTO getErrorInfo(Throwable ex) {
+		if (ex instanceof BaseUncheckedException) {
+			return new ExceptionJSONInfoDTO(((BaseUncheckedException) ex).getErrorCode(),
+					((BaseUncheckedException) ex).getErrorText());
+		}
+		return new ExceptionJSONInfoDTO(ErrorCodes.PRG_DATA_SYNC_005.getCode(),
+				ErrorMessages.FAILED_TO_CREATE_A_ZIP_FILE.getMessage());
+	}
+
 	/**
 	 * This method is use to store all the consumed preRegistrationId and store it
 	 * in the database
@@ -329,12 +487,11 @@ public class DataSyncService {
 		boolean isSaveSuccess = false;
 		responseDto.setId(storeId);
 		responseDto.setVersion(version);
-		requiredRequestMap.put("id", storeId);
 		try {
 			if (validationUtil.requestValidator(reverseDataSyncRequest)
 					&& serviceUtil.validateReverseDataSyncRequest(reverseDataSyncRequest.getRequest(), responseDto)) {
 				if (validationUtil.requestValidator(serviceUtil.prepareRequestMap(reverseDataSyncRequest),
-						requiredRequestMap)) {
+						storeRequiredRequestMap)) {
 					reverseDatasyncReponse = serviceUtil.reverseDateSyncSave(reverseDataSyncRequest.getRequesttime(),
 							reverseDataSyncRequest.getRequest(), "user");
 					responseDto.setResponse(reverseDatasyncReponse);
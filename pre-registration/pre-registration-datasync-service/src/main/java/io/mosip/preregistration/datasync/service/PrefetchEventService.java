@@ -0,0 +1,174 @@
+package io.mosip.preregistration.datasync.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.analytics.event.anonymous.exception.AnonymousProfileException;
+import io.mosip.analytics.event.anonymous.util.AnonymousProfileUtil;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.mosip.preregistration.core.config.LoggerConfiguration;
+import io.mosip.preregistration.datasync.dto.ApplicationPrefetchedEvent;
+import io.mosip.preregistration.datasync.repository.utils.PrefetchedApplicationWriter;
+
+/**
+ * This service takes the anonymous profile and the prefetched status update
+ * off the packet fetch. The fetch publishes an event to an in-process queue
+ * and a background consumer drains it in batches, creates the profiles and
+ * writes them together with the status updates in one transaction per batch.
+ * <p>
+ * Events are not persisted. An event that is dropped because the queue is
+ * full, or lost on a failed batch or a shutdown, leaves the application in
+ * its old status, so the next fetch of the application publishes it again.
+ *
+ * @since 1.2.0
+ *
+ */
+@Service
+public class PrefetchEventService {
+
+	private Logger log = LoggerConfiguration.logConfig(PrefetchEventService.class);
+
+	@Autowired
+	private AnonymousProfileUtil anonymousProfileUtil;
+
+	@Autowired
+	private PrefetchedApplicationWriter prefetchedApplicationWriter;
+
+	@Value("${preregistration.datasync.prefetch.queue-capacity:10000}")
+	private int queueCapacity;
+
+	/**
+	 * Maximum number of events written in one transaction
+	 */
+	@Value("${preregistration.datasync.prefetch.batch-size:100}")
+	private int batchSize;
+
+	@Value("${preregistration.datasync.prefetch.poll-timeout-ms:500}")
+	private long pollTimeoutMillis;
+
+	/**
+	 * Time given to the consumer to write the queued events on shutdown
+	 */
+	@Value("${preregistration.datasync.prefetch.shutdown-timeout-ms:10000}")
+	private long shutdownTimeoutMillis;
+
+	private BlockingQueue<ApplicationPrefetchedEvent> queue;
+
+	private ExecutorService consumer;
+
+	private volatile boolean running;
+
+	private final Counter droppedCounter = Metrics.counter("preregistration.datasync.prefetch.dropped");
+
+	private final Counter failedCounter = Metrics.counter("preregistration.datasync.prefetch.failed");
+
+	private final Timer batchTimer = Metrics.timer("preregistration.datasync.prefetch.batch");
+
+	@PostConstruct
+	public void setupConsumer() {
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		Metrics.gauge("preregistration.datasync.prefetch.queue", queue, BlockingQueue::size);
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datasync-prefetch-");
+		threadFactory.setDaemon(true);
+		consumer = Executors.newSingleThreadExecutor(threadFactory);
+		running = true;
+		consumer.execute(this::consume);
+	}
+
+	@PreDestroy
+	public void shutdownConsumer() {
+		running = false;
+		consumer.shutdown();
+		try {
+			if (!consumer.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				consumer.shutdownNow();
+			}
+		} catch (InterruptedException ex) {
+			consumer.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty()) {
+			log.warn("sessionId", "idType", "id", "In shutdownConsumer method of PrefetchEventService, " + queue.size()
+					+ " prefetched applications not written");
+		}
+	}
+
+	/**
+	 * Queues the prefetched application without waiting.
+	 *
+	 * @param event the prefetched application
+	 * @return false if the queue is full and the event is dropped
+	 */
+	public boolean publish(ApplicationPrefetchedEvent event) {
+		if (queue.offer(event)) {
+			return true;
+		}
+		droppedCounter.increment();
+		log.warn("sessionId", "idType", "id", "In publish method of PrefetchEventService, queue full, prefetched event"
+				+ " dropped for pre reg id " + event.getPreRegistrationId());
+		return false;
+	}
+
+	private void consume() {
+		List<ApplicationPrefetchedEvent> events = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				ApplicationPrefetchedEvent first = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				events.add(first);
+				queue.drainTo(events, batchSize - 1);
+				batchTimer.record(() -> write(events));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception ex) {
+				failedCounter.increment(events.size());
+				log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+				log.error("sessionId", "idType", "id", "In consume method of PrefetchEventService, unable to write "
+						+ events.size() + " prefetched applications- " + ex.getMessage());
+			} finally {
+				events.clear();
+			}
+		}
+	}
+
+	private void write(List<ApplicationPrefetchedEvent> events) {
+		List<ApplicationPrefetchedEvent> created = new ArrayList<>(events.size());
+		List<String> profiles = new ArrayList<>(events.size());
+		for (ApplicationPrefetchedEvent event : events) {
+			try {
+				profiles.add(anonymousProfileUtil.createAnonymousProfile(event.getDemographicResponse(),
+						event.getDocumentsMetaData(), event.getBookingRegistration(), null));
+				created.add(event);
+			} catch (AnonymousProfileException ex) {
+				failedCounter.increment();
+				log.error("sessionId", "idType", "id", "Unable to create AnonymousProfile in write method of "
+						+ "PrefetchEventService for pre reg id " + event.getPreRegistrationId() + "- " + ex.getMessage());
+			}
+		}
+		if (!created.isEmpty()) {
+			int moved = prefetchedApplicationWriter.write(created, profiles);
+			log.info("sessionId", "idType", "id", "In write method of PrefetchEventService, " + created.size()
+					+ " anonymous profiles saved and " + moved + " applications moved to prefetched");
+		}
+	}
+}
@@ -3,22 +3,38 @@ package io.mosip.preregistration.datasync.service.util;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
+import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -33,6 +49,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -43,6 +60,8 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.mosip.kernel.clientcrypto.dto.TpmCryptoRequestDto;
 import io.mosip.kernel.clientcrypto.dto.TpmCryptoResponseDto;
 import io.mosip.kernel.clientcrypto.service.spi.ClientCryptoManagerService;
@@ -72,10 +91,12 @@ import io.mosip.preregistration.core.config.LoggerConfiguration;
 import io.mosip.preregistration.core.exception.InvalidRequestParameterException;
 import io.mosip.preregistration.core.exception.PreRegistrationException;
 import io.mosip.preregistration.core.exception.TableNotAccessibleException;
+import io.mosip.preregistration.core.util.ExpiringCache;
 import io.mosip.preregistration.core.util.UUIDGeneratorUtil;
 import io.mosip.preregistration.core.util.ValidationUtil;
 import io.mosip.preregistration.datasync.code.RequestCodes;
 import io.mosip.preregistration.datasync.dto.ApplicationInfoMetadataDTO;
+import io.mosip.preregistration.datasync.dto.BulkDataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.ClientPublickeyDTO;
 import io.mosip.preregistration.datasync.dto.DataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.DocumentMetaDataDTO;
@@ -200,6 +221,47 @@ public class DataSyncServiceUtil {
 	@Value("${moispDemographicRequestId:mosip.pre-registration.demographic.retrieve.date}")
 	private String moispDemographicRequestId;
 
+	/**
+	 * Number of threads fetching packet documents from the document service
+	 */
+	@Value("${preregistration.datasync.document.fetch.thread-count:10}")
+	private int documentFetchThreadCount;
+
+	/**
+	 * Packet zip size above which the zip is written to a temp file
+	 */
+	@Value("${preregistration.datasync.zip.memory-threshold-bytes:10485760}")
+	private int zipMemoryThreshold;
+
+	/**
+	 * Time after which a cached machine encryption public key is refreshed
+	 */
+	@Value("${preregistration.datasync.publickey.cache.ttl-seconds:86400}")
+	private long encryptionKeyCacheTtlSeconds;
+
+	/**
+	 * Time after which a cached machine encryption public key is never served,
+	 * even while its refresh keeps failing
+	 */
+	@Value("${preregistration.datasync.publickey.cache.max-age-seconds:172800}")
+	private long encryptionKeyCacheMaxAgeSeconds;
+
+	@Value("${preregistration.datasync.publickey.cache.max-size:5000}")
+	private int encryptionKeyCacheMaxSize;
+
+	private ExecutorService documentFetchExecutor;
+
+	private ExecutorService encryptionKeyRefreshExecutor;
+
+	/** Machine encryption public key by machine id. */
+	private ExpiringCache<String, String> encryptionKeyCache;
+
+	private Timer fetchTimer;
+
+	private Timer zipTimer;
+
+	private Timer encryptTimer;
+
 	/**
 	 * Autowired reference for {@link #ValidationUtil}
 	 */
@@ -215,6 +277,24 @@ public class DataSyncServiceUtil {
     public void init() {
 		mapper = JsonMapper.builder().addModule(new AfterburnerModule()).build();
 		mapper.registerModule(new JavaTimeModule());
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datasync-doc-fetch-");
+		threadFactory.setDaemon(true);
+		documentFetchExecutor = Executors.newFixedThreadPool(documentFetchThreadCount, threadFactory);
+		CustomizableThreadFactory refreshThreadFactory = new CustomizableThreadFactory("datasync-publickey-cache-");
+		refreshThreadFactory.setDaemon(true);
+		encryptionKeyRefreshExecutor = Executors.newSingleThreadExecutor(refreshThreadFactory);
+		encryptionKeyCache = new ExpiringCache<>("datasync.publickey", Duration.ofSeconds(encryptionKeyCacheTtlSeconds),
+				encryptionKeyCacheMaxSize, this::fetchEncryptionKey, encryptionKeyRefreshExecutor)
+						.withMaxAge(Duration.ofSeconds(encryptionKeyCacheMaxAgeSeconds)).evictOnRefreshFailure();
+		fetchTimer = Metrics.timer("preregistration.datasync.packet", "stage", "fetch");
+		zipTimer = Metrics.timer("preregistration.datasync.packet", "stage", "zip");
+		encryptTimer = Metrics.timer("preregistration.datasync.packet", "stage", "encrypt");
+	}
+
+	@PreDestroy
+	public void shutdownDocumentFetchExecutor() {
+		documentFetchExecutor.shutdownNow();
+		encryptionKeyRefreshExecutor.shutdownNow();
 	}
 
 	/**
@@ -278,6 +358,32 @@ public class DataSyncServiceUtil {
 		return true;
 	}
 
+	/**
+	 * This method is used to validate bulk data sync request parameters
+	 * 
+	 * @param bulkDataSyncRequest
+	 * @param maxPreRegistrationIds
+	 * @param mainResponseDTO
+	 * @return true or false
+	 */
+	public boolean validateBulkDataSyncRequest(BulkDataSyncRequestDTO bulkDataSyncRequest, int maxPreRegistrationIds,
+			MainResponseDTO<?> mainResponseDTO) {
+		log.info("sessionId", "idType", "id", "In validateBulkDataSyncRequest method of datasync service util");
+		if (bulkDataSyncRequest == null || isNull(bulkDataSyncRequest.getPreRegistrationIds())
+				|| bulkDataSyncRequest.getPreRegistrationIds().stream()
+						.anyMatch(preId -> preId == null || preId.trim().isEmpty())) {
+			throw new InvalidRequestParameterException(ErrorCodes.PRG_DATA_SYNC_011.getCode(),
+					ErrorMessages.INVALID_REQUESTED_PRE_REG_ID_LIST.getMessage(), mainResponseDTO);
+		} else if (bulkDataSyncRequest.getPreRegistrationIds().size() > maxPreRegistrationIds) {
+			throw new InvalidRequestParameterException(ErrorCodes.PRG_DATA_SYNC_023.getCode(),
+					ErrorMessages.BULK_PRE_REG_ID_LIMIT_EXCEEDED.getMessage(), mainResponseDTO);
+		} else if (isNull(bulkDataSyncRequest.getMachineId())) {
+			throw new InvalidRequestParameterException(ErrorCodes.PRG_DATA_SYNC_024.getCode(),
+					ErrorMessages.INVALID_MACHINE_ID.getMessage(), mainResponseDTO);
+		}
+		return true;
+	}
+
 	/**
 	 * This method invokes booking API through rest template to fetch the list of
 	 * preIds for the date range and reg center Id
@@ -563,27 +669,63 @@ public class DataSyncServiceUtil {
 	 * @param preRegistrationDTO
 	 * @param bookingRegistrationDTO
 	 * @param documentEntityList
+	 * @param machineId
 	 * @return preRegArchiveDTO
 	 */
 	public PreRegArchiveDTO archivingFiles(DemographicResponseDTO preRegistrationDTO,
 			BookingRegistrationDTO bookingRegistrationDTO, DocumentsMetaData documentEntityList, String machineId) {
+		return buildArchive(preRegistrationDTO, bookingRegistrationDTO, documentEntityList, machineId,
+				() -> getEncryptionKey(machineId));
+	}
+
+	/**
+	 * This method is used to form the final PreRegArchiveDTO with an already
+	 * resolved machine encryption public key.
+	 *
+	 * @param preRegistrationDTO
+	 * @param bookingRegistrationDTO
+	 * @param documentEntityList
+	 * @param machineId
+	 * @param encryptionPublickey
+	 * @return preRegArchiveDTO
+	 */
+	public PreRegArchiveDTO archivingFilesWithPublicKey(DemographicResponseDTO preRegistrationDTO,
+			BookingRegistrationDTO bookingRegistrationDTO, DocumentsMetaData documentEntityList, String machineId,
+			String encryptionPublickey) {
+		return buildArchive(preRegistrationDTO, bookingRegistrationDTO, documentEntityList, machineId,
+				() -> encryptionPublickey);
+	}
+
+	private PreRegArchiveDTO buildArchive(DemographicResponseDTO preRegistrationDTO,
+			BookingRegistrationDTO bookingRegistrationDTO, DocumentsMetaData documentEntityList, String machineId,
+			Supplier<String> encryptionPublickeySupplier) {
 		log.info("sessionId", "idType", "id", "In archivingFiles method of datasync service util");
 		PreRegArchiveDTO preRegArchiveDTO = null;
 		try {
 			preRegArchiveDTO = preparePreRegArchiveDTO(preRegistrationDTO, bookingRegistrationDTO);
-			Map<String, byte[]> inputFile = new HashMap<>();
+			Map<String, String> documentIds = new LinkedHashMap<>();
 			JSONObject identityJson = getIdJSONValue(
 					JsonUtils.javaObjectToJsonString(preRegistrationDTO.getDemographicDetails()));
 			Map<String, Object> identityMap = JsonUtils
 					.jsonStringToJavaMap(JsonUtils.javaObjectToJsonString(identityJson));
-			Map<String, Object> finalMap = prepareIdentityMap(documentEntityList, inputFile, identityMap,
-					preRegistrationDTO.getPreRegistrationId());
+			Map<String, Object> finalMap = prepareIdentityMap(documentEntityList, documentIds, identityMap);
 			log.info("sessionId", "idType", "id",
 					"In archivingFiles method of datasync service util, Json file content - "
 							+ new JSONObject(finalMap).toJSONString());
-			String encryptionPublickey = getEncryptionKey(machineId);
-			inputFile.put("ID.json", mapper.writeValueAsBytes(finalMap));
-			preRegArchiveDTO.setZipBytes(encryptFile(getCompressed(inputFile), encryptionPublickey));
+			String encryptionPublickey = encryptionPublickeySupplier.get();
+			byte[] idJson = mapper.writeValueAsBytes(finalMap);
+			DeferredFileOutputStream zipFile = zipTimer
+					.record(() -> getCompressed(idJson, documentIds, preRegistrationDTO.getPreRegistrationId()));
+			try {
+				preRegArchiveDTO.setZipBytes(encryptTimer.record(() -> encryptZip(zipFile, encryptionPublickey)));
+			} catch (RuntimeException ex) {
+				invalidateEncryptionKey(machineId);
+				throw ex;
+			} finally {
+				if (!zipFile.isInMemory()) {
+					zipFile.getFile().delete();
+				}
+			}
 			preRegArchiveDTO.setFileName(preRegistrationDTO.getPreRegistrationId());
 
 		} catch (Exception ex) {
@@ -597,16 +739,16 @@ public class DataSyncServiceUtil {
 	}
 
 	/**
-	 * This method is used to prepare the final Identity Map
+	 * This method is used to prepare the final Identity Map and collects the
+	 * document id of each packet file.
 	 * 
 	 * @param documentsMetaData
-	 * @param inputFile
+	 * @param documentIds       document id by packet file name
 	 * @param jsonObject
-	 * @param preId
 	 * @return identiyMap
 	 */
-	private Map<String, Object> prepareIdentityMap(DocumentsMetaData documentsMetaData, Map<String, byte[]> inputFile,
-			Map<String, Object> jsonObject, String preId) {
+	private Map<String, Object> prepareIdentityMap(DocumentsMetaData documentsMetaData, Map<String, String> documentIds,
+			Map<String, Object> jsonObject) {
 		Map<String, Object> identiyMap = new HashMap<>();
 		if (!isNull(documentsMetaData) && !isNull(documentsMetaData.getDocumentsMetaData())) {
 			for (DocumentMultipartResponseDTO documentMultipartResponseDTO : documentsMetaData.getDocumentsMetaData()) {
@@ -620,11 +762,8 @@ public class DataSyncServiceUtil {
 						|| documentMultipartResponseDTO.getDocCatCode().equals(RequestCodes.POB.getCode())) {
 					jsonObject.put(podUrl, prepareDocumentMetaData(documentMultipartResponseDTO));
 				}
-				DocumentDTO documentDTO = getDocBytesDetails(documentMultipartResponseDTO.getDocumentId(), preId);
-				if (documentDTO != null && documentDTO.getDocument() != null) {
-					inputFile.put(documentMultipartResponseDTO.getDocCatCode().concat("_")
-							.concat(documentMultipartResponseDTO.getDocName()), documentDTO.getDocument());
-				}
+				documentIds.put(documentMultipartResponseDTO.getDocCatCode().concat("_")
+						.concat(documentMultipartResponseDTO.getDocName()), documentMultipartResponseDTO.getDocumentId());
 			}
 		}
 		identiyMap.put(RequestCodes.IDENTITY.getCode(), jsonObject);
@@ -683,31 +822,96 @@ public class DataSyncServiceUtil {
 	}
 
 	/**
-	 * This method is used to zip the input files and convert into byteArray
+	 * This method is used to zip the ID json and the documents. The documents are
+	 * fetched concurrently and each one is written to the zip as soon as it
+	 * arrives. Zips above the memory threshold are spilled to a temp file, which
+	 * the caller deletes once the zip is encrypted.
 	 * 
-	 * @param inputFIle
-	 * @return byteArray
+	 * @param idJson      the ID json
+	 * @param documentIds document id by packet file name
+	 * @param preId
+	 * @return the closed zip
 	 */
-	private static byte[] getCompressed(Map<String, byte[]> inputFIle) {
+	private DeferredFileOutputStream getCompressed(byte[] idJson, Map<String, String> documentIds, String preId) {
 		log.info("sessionId", "idType", "id", "In getCompressed method of datasync service util");
-		byte[] byteArray = null;
+		CompletionService<Map.Entry<String, DocumentDTO>> fetchService = new ExecutorCompletionService<>(
+				documentFetchExecutor);
+		List<Future<Map.Entry<String, DocumentDTO>>> fetches = new ArrayList<>(documentIds.size());
+		documentIds.forEach((fileName, documentId) -> fetches.add(fetchService.submit(() -> fetchTimer
+				.record(() -> new SimpleImmutableEntry<>(fileName, getDocBytesDetails(documentId, preId))))));
+		DeferredFileOutputStream zipFile = new DeferredFileOutputStream(zipMemoryThreshold, "prereg-packet-", ".zip",
+				null);
+		boolean compressed = false;
 		try {
-			ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-			ZipOutputStream zipOutputStream = new ZipOutputStream(byteArrayOutputStream);
-
-			for (Map.Entry<String, byte[]> entry : inputFIle.entrySet()) {
-				zipping(entry.getKey(), entry.getValue(), zipOutputStream);
+			try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipFile)) {
+				zipping("ID.json", idJson, zipOutputStream);
+				for (int index = 0; index < fetches.size(); index++) {
+					Map.Entry<String, DocumentDTO> document = fetchService.take().get();
+					if (document.getValue() != null && document.getValue().getDocument() != null) {
+						zipping(document.getKey(), document.getValue().getDocument(), zipOutputStream);
+					}
+				}
 			}
-			zipOutputStream.close();
-			byteArray = byteArrayOutputStream.toByteArray();
+			compressed = true;
+			return zipFile;
 		} catch (IOException ex) {
 			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
 			log.error("sessionId", "idType", "id",
 					"In getCompressed method of datasync service util for FileNotFoundException - " + ex.getMessage());
 			throw new SystemFileIOException(ErrorCodes.PRG_DATA_SYNC_014.getCode(),
 					ErrorMessages.FILE_IO_EXCEPTION.getMessage(), null);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SystemFileIOException(ErrorCodes.PRG_DATA_SYNC_014.getCode(),
+					ErrorMessages.FILE_IO_EXCEPTION.getMessage(), null);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new DocumentGetDetailsException(ErrorCodes.PRG_DATA_SYNC_006.getCode(),
+					ErrorMessages.FAILED_TO_FETCH_DOCUMENT.getMessage(), null);
+		} finally {
+			fetches.forEach(fetch -> fetch.cancel(true));
+			if (!compressed && !zipFile.isInMemory()) {
+				zipFile.getFile().delete();
+			}
+		}
+	}
+
+	/**
+	 * Encrypts the zip. A zip spilled to a temp file is base64 encoded straight
+	 * from the file into the encrypt request, without reading it into memory
+	 * first.
+	 * 
+	 * @param zipFile             the closed zip
+	 * @param encryptionPublickey the public key of the machine, null to leave the
+	 *                            zip unencrypted
+	 * @return the encrypted zip
+	 */
+	private byte[] encryptZip(DeferredFileOutputStream zipFile, String encryptionPublickey) {
+		try {
+			if (zipFile.isInMemory()) {
+				return encryptFile(zipFile.getData(), encryptionPublickey);
+			}
+			Path zipPath = zipFile.getFile().toPath();
+			if (encryptionPublickey == null) {
+				return Files.readAllBytes(zipPath);
+			}
+			long zipSize = Files.size(zipPath);
+			// URL safe base64 without padding, as CryptoUtil.encodeToURLSafeBase64
+			ByteArrayOutputStream encoded = new ByteArrayOutputStream((int) ((zipSize * 4 + 2) / 3));
+			try (InputStream zip = Files.newInputStream(zipPath);
+					OutputStream encoder = Base64.getUrlEncoder().withoutPadding().wrap(encoded)) {
+				zip.transferTo(encoder);
+			}
+			return encrypt(encoded.toString(StandardCharsets.US_ASCII.name()), encryptionPublickey);
+		} catch (IOException ex) {
+			log.debug("sessionId", "idType", "id", ExceptionUtils.getStackTrace(ex));
+			log.error("sessionId", "idType", "id",
+					"In encryptZip method of datasync service util for IOException - " + ex.getMessage());
+			throw new SystemFileIOException(ErrorCodes.PRG_DATA_SYNC_014.getCode(),
+					ErrorMessages.FILE_IO_EXCEPTION.getMessage(), null);
 		}
-		return byteArray;
 	}
 
 	/**
@@ -906,34 +1110,58 @@ public class DataSyncServiceUtil {
 		return extension;
 	}
 
+	/**
+	 * This method returns the encryption public key of the machine, served from
+	 * the public key cache.
+	 * 
+	 * @param machineId
+	 * @return encryption public key, or null if the machine has none
+	 */
 	public String getEncryptionKey(String machineId) {
+		if (machineId == null) {
+			return null;
+		}
+		return encryptionKeyCache.get(machineId);
+	}
+
+	/**
+	 * This method drops the cached public key of the machine, so the next fetch
+	 * loads it again from syncdata.
+	 * 
+	 * @param machineId
+	 */
+	public void invalidateEncryptionKey(String machineId) {
+		if (machineId != null) {
+			encryptionKeyCache.invalidate(machineId);
+		}
+	}
+
+	private String fetchEncryptionKey(String machineId) {
 		log.info("sessionId", "idType", "id", "In callGetMachinePublickey  method of datasync service util");
 		String encryptionPublickey = null;
 		try {
-			if (machineId != null) {
-				UriComponentsBuilder builder = UriComponentsBuilder
-						.fromHttpUrl(syncdataResourceUrl + "/tpm/publickey/" + machineId);
-				HttpHeaders headers = new HttpHeaders();
-				headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
-				HttpEntity<MainResponseDTO<ClientPublickeyDTO>> httpEntity = new HttpEntity<>(headers);
-				String uriBuilder = builder.build().encode().toUriString();
-				log.info("sessionId", "idType", "id", "In callGetMachinePublickey method URL-{} " + uriBuilder);
-				ResponseEntity<MainResponseDTO<ClientPublickeyDTO>> respEntity = selfTokenRestTemplate.exchange(uriBuilder,
-						HttpMethod.GET, httpEntity,
-						new ParameterizedTypeReference<MainResponseDTO<ClientPublickeyDTO>>() {
-						});
-				MainResponseDTO<ClientPublickeyDTO> body = respEntity.getBody();
-				if (body != null) {
-					if (body.getErrors() != null) {
-						log.info("sessionId", "idType", "id",
-								"In callGetMachinePublickey method of datasync service util - unable to get envryption publickey for the machineID");
-					} else {
-						if (body.getResponse() != null) {
-							encryptionPublickey = body.getResponse().getEncryptionPublicKey();	
-						}
+			UriComponentsBuilder builder = UriComponentsBuilder
+					.fromHttpUrl(syncdataResourceUrl + "/tpm/publickey/" + machineId);
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+			HttpEntity<MainResponseDTO<ClientPublickeyDTO>> httpEntity = new HttpEntity<>(headers);
+			String uriBuilder = builder.build().encode().toUriString();
+			log.info("sessionId", "idType", "id", "In callGetMachinePublickey method URL-{} " + uriBuilder);
+			ResponseEntity<MainResponseDTO<ClientPublickeyDTO>> respEntity = selfTokenRestTemplate.exchange(uriBuilder,
+					HttpMethod.GET, httpEntity,
+					new ParameterizedTypeReference<MainResponseDTO<ClientPublickeyDTO>>() {
+					});
+			MainResponseDTO<ClientPublickeyDTO> body = respEntity.getBody();
+			if (body != null) {
+				if (body.getErrors() != null) {
+					log.info("sessionId", "idType", "id",
+							"In callGetMachinePublickey method of datasync service util - unable to get envryption publickey for the machineID");
+				} else {
+					if (body.getResponse() != null) {
+						encryptionPublickey = body.getResponse().getEncryptionPublicKey();	
 					}
-				}	
-			}
+				}
+			}	
 
 		} catch (RestClientException ex) {
 			log.debug("{}", ExceptionUtils.getStackTrace(ex));
@@ -950,16 +1178,20 @@ public class DataSyncServiceUtil {
 	public byte[] encryptFile(byte[] data, String encryptionPublickey) {
 
 		if (encryptionPublickey != null) {
-			TpmCryptoRequestDto tpmCryptoRequestDto = new TpmCryptoRequestDto();
-			tpmCryptoRequestDto.setValue(CryptoUtil.encodeToURLSafeBase64(data));
-			tpmCryptoRequestDto.setPublicKey(encryptionPublickey);
-			tpmCryptoRequestDto.setTpm(false);
-			TpmCryptoResponseDto tpmCryptoResponseDto = clientCryptoManagerService.csEncrypt(tpmCryptoRequestDto);
-			return CryptoUtil.decodeURLSafeBase64(tpmCryptoResponseDto.getValue());
+			return encrypt(CryptoUtil.encodeToURLSafeBase64(data), encryptionPublickey);
 		} else
 			return data;
 	}
 
+	private byte[] encrypt(String encodedData, String encryptionPublickey) {
+		TpmCryptoRequestDto tpmCryptoRequestDto = new TpmCryptoRequestDto();
+		tpmCryptoRequestDto.setValue(encodedData);
+		tpmCryptoRequestDto.setPublicKey(encryptionPublickey);
+		tpmCryptoRequestDto.setTpm(false);
+		TpmCryptoResponseDto tpmCryptoResponseDto = clientCryptoManagerService.csEncrypt(tpmCryptoRequestDto);
+		return CryptoUtil.decodeURLSafeBase64(tpmCryptoResponseDto.getValue());
+	}
+
 	public ApplicationInfoMetadataDTO getPreRegistrationInfo(String prid) {
 		log.info("In getPreRegistrationInfo  method of datasync service util");
 		ApplicationInfoMetadataDTO applicationInfo = null;
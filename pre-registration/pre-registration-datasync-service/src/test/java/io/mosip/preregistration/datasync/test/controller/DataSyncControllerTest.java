@@ -38,6 +38,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import io.mosip.analytics.event.anonymous.service.AnonymousProfileServiceIntf;
 import io.mosip.kernel.clientcrypto.service.spi.ClientCryptoManagerService;
 import io.mosip.kernel.core.signatureutil.model.SignatureResponse;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
@@ -51,6 +52,7 @@ import io.mosip.preregistration.datasync.dto.ReverseDataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.ReverseDatasyncReponseDTO;
 import io.mosip.preregistration.datasync.errorcodes.ErrorMessages;
 import io.mosip.preregistration.datasync.service.DataSyncService;
+import io.mosip.preregistration.datasync.service.PrefetchEventService;
 
 @SpringBootTest(classes = { DataSyncApplicationTest.class })
 @RunWith(SpringRunner.class)
@@ -68,6 +70,12 @@ public class DataSyncControllerTest {
 
 	@MockBean
 	private DataSyncService dataSyncService;
+
+	@MockBean
+	private PrefetchEventService prefetchEventService;
+
+	@MockBean
+	private AnonymousProfileServiceIntf anonymousProfileService;
 	
 	@MockBean
 	ClientCryptoManagerService clientCryptoManagerService;
@@ -9,6 +9,7 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +18,7 @@ import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -32,6 +34,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import io.mosip.analytics.event.anonymous.service.AnonymousProfileServiceIntf;
 import io.mosip.analytics.event.anonymous.util.AnonymousProfileUtil;
 import io.mosip.kernel.clientcrypto.service.spi.ClientCryptoManagerService;
 import io.mosip.kernel.core.authmanager.authadapter.model.AuthUserDetails;
@@ -47,10 +50,14 @@ import io.mosip.preregistration.core.common.dto.ExceptionJSONInfoDTO;
 import io.mosip.preregistration.core.common.dto.MainRequestDTO;
 import io.mosip.preregistration.core.common.dto.MainResponseDTO;
 import io.mosip.preregistration.core.common.dto.SlotTimeDto;
+import io.mosip.preregistration.core.exception.InvalidRequestException;
 import io.mosip.preregistration.core.exception.InvalidRequestParameterException;
 import io.mosip.preregistration.core.util.AuditLogUtil;
 import io.mosip.preregistration.datasync.DataSyncApplicationTest;
 import io.mosip.preregistration.datasync.dto.ApplicationInfoMetadataDTO;
+import io.mosip.preregistration.datasync.dto.ApplicationPrefetchedEvent;
+import io.mosip.preregistration.datasync.dto.BulkDataSyncRequestDTO;
+import io.mosip.preregistration.datasync.dto.BulkPreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.DataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.PreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.PreRegistrationIdsDTO;
@@ -59,9 +66,11 @@ import io.mosip.preregistration.datasync.dto.ReverseDatasyncReponseDTO;
 import io.mosip.preregistration.datasync.errorcodes.ErrorCodes;
 import io.mosip.preregistration.datasync.errorcodes.ErrorMessages;
 import io.mosip.preregistration.datasync.exception.DemographicGetDetailsException;
+import io.mosip.preregistration.datasync.exception.DocumentGetDetailsException;
 import io.mosip.preregistration.datasync.repository.InterfaceDataSyncRepo;
 import io.mosip.preregistration.datasync.repository.ProcessedDataSyncRepo;
 import io.mosip.preregistration.datasync.service.DataSyncService;
+import io.mosip.preregistration.datasync.service.PrefetchEventService;
 import io.mosip.preregistration.datasync.service.util.DataSyncServiceUtil;
 
 @RunWith(SpringRunner.class)
@@ -87,6 +96,12 @@ public class DataSyncServiceTest {
 	@MockBean
 	AnonymousProfileUtil profileUtil;
 
+	@MockBean
+	AnonymousProfileServiceIntf anonymousProfileService;
+
+	@MockBean
+	PrefetchEventService prefetchEventService;
+
 	/**
 	 * Autowired reference for $link{DataSyncServiceUtil}
 	 */
@@ -129,6 +144,9 @@ public class DataSyncServiceTest {
 	/**
 	 * Reference for ${ver} from property file
 	 */
+	@Value("${mosip.id.preregistration.datasync.fetch.bulk}")
+	private String fetchBulkId;
+
 	@Value("${version}")
 	private String version;
 
@@ -361,6 +379,64 @@ public class DataSyncServiceTest {
 				.thenReturn(archiveDTO);
 		MainResponseDTO<PreRegArchiveDTO> response = dataSyncService.fetchPreRegistrationData(preregId, machineId);
 		assertEquals(mainResponseDTO.getId().length(), response.getId().length());
+		ArgumentCaptor<ApplicationPrefetchedEvent> captor = ArgumentCaptor.forClass(ApplicationPrefetchedEvent.class);
+		Mockito.verify(prefetchEventService).publish(captor.capture());
+		assertEquals(preregId, captor.getValue().getPreRegistrationId());
+		assertEquals("Pending", captor.getValue().getPreviousStatusCode());
+		Mockito.verify(serviceUtil, Mockito.never()).updateApplicationStatusToPreFectched(Mockito.any());
+	}
+
+	@Test
+	public void fetchBulkPreRegistrationDataTest() {
+		String failedPreId = "98765432101234";
+		BulkDataSyncRequestDTO bulkDataSyncRequestDTO = new BulkDataSyncRequestDTO();
+		bulkDataSyncRequestDTO.setMachineId(machineId);
+		bulkDataSyncRequestDTO.setPreRegistrationIds(Arrays.asList(preid, failedPreId));
+		MainRequestDTO<BulkDataSyncRequestDTO> bulkRequest = new MainRequestDTO<>();
+		bulkRequest.setId(fetchBulkId);
+		bulkRequest.setVersion(version);
+		bulkRequest.setRequesttime(new Timestamp(System.currentTimeMillis()));
+		bulkRequest.setRequest(bulkDataSyncRequestDTO);
+		preRegInfo.setDemographicResponse(demography);
+		preRegInfo.setDocumentsMetaData(documentsMetaData);
+		Mockito.when(serviceUtil.validateBulkDataSyncRequest(Mockito.any(), Mockito.anyInt(), Mockito.any()))
+				.thenReturn(true);
+		Mockito.when(serviceUtil.getEncryptionKey(machineId)).thenReturn("publickey");
+		Mockito.when(serviceUtil.getPreRegistrationInfo(preid)).thenReturn(preRegInfo);
+		Mockito.when(serviceUtil.getPreRegistrationInfo(failedPreId)).thenThrow(new DocumentGetDetailsException(
+				ErrorCodes.PRG_DATA_SYNC_006.getCode(), ErrorMessages.FAILED_TO_FETCH_DOCUMENT.getMessage(), null));
+		Mockito.when(
+				serviceUtil.archivingFilesWithPublicKey(demography, null, documentsMetaData, machineId, "publickey"))
+				.thenReturn(archiveDTO);
+
+		MainResponseDTO<BulkPreRegArchiveDTO> response = dataSyncService.fetchPreRegistrationData(bulkRequest);
+
+		assertEquals(1, response.getResponse().getPreRegistrations().size());
+		assertEquals(ErrorCodes.PRG_DATA_SYNC_006.getCode(),
+				response.getResponse().getFailedPreRegistrations().get(failedPreId).getErrorCode());
+		Mockito.verify(serviceUtil, Mockito.times(1)).getEncryptionKey(machineId);
+	}
+
+	@Test(expected = InvalidRequestException.class)
+	public void fetchBulkPreRegistrationDataInvalidIdTest() {
+		BulkDataSyncRequestDTO bulkDataSyncRequestDTO = new BulkDataSyncRequestDTO();
+		bulkDataSyncRequestDTO.setMachineId(machineId);
+		bulkDataSyncRequestDTO.setPreRegistrationIds(Arrays.asList(preid));
+		MainRequestDTO<BulkDataSyncRequestDTO> bulkRequest = new MainRequestDTO<>();
+		bulkRequest.setId(fetchId);
+		bulkRequest.setVersion(version);
+		bulkRequest.setRequesttime(new Timestamp(System.currentTimeMillis()));
+		bulkRequest.setRequest(bulkDataSyncRequestDTO);
+		Map<String, String> bulkRequestMap = new HashMap<>();
+		bulkRequestMap.put("id", fetchId);
+		bulkRequestMap.put("version", version);
+		Mockito.when(serviceUtil.prepareRequestMap(bulkRequest)).thenReturn(bulkRequestMap);
+
+		try {
+			dataSyncService.fetchPreRegistrationData(bulkRequest);
+		} finally {
+			Mockito.verify(serviceUtil, Mockito.never()).getEncryptionKey(Mockito.any());
+		}
 	}
 
 }
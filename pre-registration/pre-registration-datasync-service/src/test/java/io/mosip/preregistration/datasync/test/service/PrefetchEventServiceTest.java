@@ -0,0 +1,96 @@
+package io.mosip.preregistration.datasync.test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.analytics.event.anonymous.exception.AnonymousProfileException;
+import io.mosip.analytics.event.anonymous.util.AnonymousProfileUtil;
+import io.mosip.preregistration.core.common.dto.DemographicResponseDTO;
+import io.mosip.preregistration.datasync.dto.ApplicationPrefetchedEvent;
+import io.mosip.preregistration.datasync.repository.utils.PrefetchedApplicationWriter;
+import io.mosip.preregistration.datasync.service.PrefetchEventService;
+
+@RunWith(JUnit4.class)
+public class PrefetchEventServiceTest {
+
+	@InjectMocks
+	private PrefetchEventService prefetchEventService;
+
+	@Mock
+	private AnonymousProfileUtil anonymousProfileUtil;
+
+	@Mock
+	private PrefetchedApplicationWriter prefetchedApplicationWriter;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(prefetchEventService, "queueCapacity", 2);
+		ReflectionTestUtils.setField(prefetchEventService, "batchSize", 10);
+		ReflectionTestUtils.setField(prefetchEventService, "pollTimeoutMillis", 50L);
+		ReflectionTestUtils.setField(prefetchEventService, "shutdownTimeoutMillis", 5000L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void consumeWritesCreatedProfilesTest() throws Exception {
+		ApplicationPrefetchedEvent created = event("1");
+		ApplicationPrefetchedEvent failed = event("2");
+		Mockito.when(anonymousProfileUtil.createAnonymousProfile(created.getDemographicResponse(), null, null, null))
+				.thenReturn("{}");
+		Mockito.when(anonymousProfileUtil.createAnonymousProfile(failed.getDemographicResponse(), null, null, null))
+				.thenThrow(new AnonymousProfileException("PRG_ANO_001", "Unable to save"));
+		// no consumer running, the queue fills up and is drained once
+		ReflectionTestUtils.setField(prefetchEventService, "queue", new LinkedBlockingQueue<>(2));
+		assertTrue(prefetchEventService.publish(created));
+		assertTrue(prefetchEventService.publish(failed));
+		assertFalse(prefetchEventService.publish(event("3")));
+
+		ReflectionTestUtils.invokeMethod(prefetchEventService, "consume");
+
+		ArgumentCaptor<List<ApplicationPrefetchedEvent>> events = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<List<String>> profiles = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(prefetchedApplicationWriter).write(events.capture(), profiles.capture());
+		assertEquals(1, events.getValue().size());
+		assertEquals("1", events.getValue().get(0).getPreRegistrationId());
+		assertEquals("{}", profiles.getValue().get(0));
+	}
+
+	@Test
+	public void publishWrittenInBackgroundTest() throws Exception {
+		Mockito.when(anonymousProfileUtil.createAnonymousProfile(Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any())).thenReturn("{}");
+		prefetchEventService.setupConsumer();
+
+		assertTrue(prefetchEventService.publish(event("1")));
+
+		Mockito.verify(prefetchedApplicationWriter, Mockito.timeout(5000)).write(Mockito.any(), Mockito.any());
+		prefetchEventService.shutdownConsumer();
+	}
+
+	private ApplicationPrefetchedEvent event(String preId) {
+		DemographicResponseDTO demographicResponse = new DemographicResponseDTO();
+		demographicResponse.setPreRegistrationId(preId);
+		ApplicationPrefetchedEvent event = new ApplicationPrefetchedEvent();
+		event.setPreRegistrationId(preId);
+		event.setPreviousStatusCode("Pending_Appointment");
+		event.setDemographicResponse(demographicResponse);
+		event.setUserId("user");
+		return event;
+	}
+}
@@ -0,0 +1,84 @@
+package io.mosip.preregistration.datasync.test.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.analytics.event.anonymous.dto.AnonymousProfileRequestDTO;
+import io.mosip.analytics.event.anonymous.service.AnonymousProfileServiceIntf;
+import io.mosip.preregistration.datasync.dto.ApplicationPrefetchedEvent;
+import io.mosip.preregistration.datasync.repository.utils.PrefetchedApplicationWriter;
+
+@RunWith(JUnit4.class)
+public class PrefetchedApplicationWriterTest {
+
+	@InjectMocks
+	private PrefetchedApplicationWriter prefetchedApplicationWriter;
+
+	@Mock
+	private AnonymousProfileServiceIntf anonymousProfileService;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(prefetchedApplicationWriter, "jdbcTemplate", jdbcTemplate);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void writeSavesProfilesOfMovedApplicationsTest() {
+		Mockito.when(jdbcTemplate.batchUpdate(Mockito.startsWith("UPDATE prereg.applicant_demographic"),
+				Mockito.any(BatchPreparedStatementSetter.class))).thenReturn(new int[] { 1, 0, 1 });
+		Mockito.when(jdbcTemplate.batchUpdate(Mockito.startsWith("UPDATE prereg.applications"),
+				Mockito.any(BatchPreparedStatementSetter.class))).thenReturn(new int[] { 1, 1 });
+
+		int moved = prefetchedApplicationWriter.write(Arrays.asList(event("1"), event("2"), event("3")),
+				Arrays.asList("{\"id\":1}", "{\"id\":2}", "{\"id\":3}"));
+
+		assertEquals(2, moved);
+		ArgumentCaptor<BatchPreparedStatementSetter> applications = ArgumentCaptor
+				.forClass(BatchPreparedStatementSetter.class);
+		Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("UPDATE prereg.applications"),
+				applications.capture());
+		assertEquals(2, applications.getValue().getBatchSize());
+		ArgumentCaptor<List<AnonymousProfileRequestDTO>> profiles = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(anonymousProfileService).saveAnonymousProfiles(profiles.capture(), Mockito.eq("user"));
+		assertEquals(2, profiles.getValue().size());
+		assertEquals("{\"id\":1}", profiles.getValue().get(0).getProfileDetails());
+		assertEquals("{\"id\":3}", profiles.getValue().get(1).getProfileDetails());
+	}
+
+	@Test
+	public void writeWithoutMovedApplicationsTest() {
+		Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.any(BatchPreparedStatementSetter.class)))
+				.thenReturn(new int[] { 0 });
+
+		assertEquals(0, prefetchedApplicationWriter.write(Arrays.asList(event("1")), Arrays.asList("{}")));
+		Mockito.verifyZeroInteractions(anonymousProfileService);
+	}
+
+	private ApplicationPrefetchedEvent event(String preId) {
+		ApplicationPrefetchedEvent event = new ApplicationPrefetchedEvent();
+		event.setPreRegistrationId(preId);
+		event.setPreviousStatusCode("Pending_Appointment");
+		event.setUserId("user");
+		return event;
+	}
+}
@@ -2,6 +2,7 @@ package io.mosip.preregistration.datasync.test.service.util;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
@@ -13,11 +14,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.ZipInputStream;
 
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -36,9 +39,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import io.mosip.analytics.event.anonymous.service.AnonymousProfileServiceIntf;
 import io.mosip.analytics.event.anonymous.util.AnonymousProfileUtil;
+import io.mosip.kernel.clientcrypto.dto.TpmCryptoRequestDto;
+import io.mosip.kernel.clientcrypto.dto.TpmCryptoResponseDto;
 import io.mosip.kernel.clientcrypto.service.spi.ClientCryptoManagerService;
 import io.mosip.preregistration.core.common.dto.BookingDataByRegIdDto;
 import io.mosip.preregistration.core.common.dto.BookingRegistrationDTO;
@@ -56,6 +63,8 @@ import io.mosip.preregistration.core.exception.InvalidRequestParameterException;
 import io.mosip.preregistration.core.util.AuditLogUtil;
 import io.mosip.preregistration.core.util.ValidationUtil;
 import io.mosip.preregistration.datasync.DataSyncApplicationTest;
+import io.mosip.preregistration.datasync.dto.BulkDataSyncRequestDTO;
+import io.mosip.preregistration.datasync.dto.ClientPublickeyDTO;
 import io.mosip.preregistration.datasync.dto.DataSyncRequestDTO;
 import io.mosip.preregistration.datasync.dto.PreRegArchiveDTO;
 import io.mosip.preregistration.datasync.dto.ReverseDataSyncRequestDTO;
@@ -108,6 +117,9 @@ public class DataSyncServiceUtilTest {
 	@MockBean
 	AnonymousProfileUtil profileUtil;
 
+	@MockBean
+	AnonymousProfileServiceIntf anonymousProfileService;
+
 	/**
 	 * Reference for ${mosip.id.preregistration.datasync.fetch.ids} from property
 	 * file
@@ -252,6 +264,22 @@ public class DataSyncServiceUtilTest {
 
 	}
 
+	@Test
+	public void validateBulkDataSyncRequestTest() {
+		BulkDataSyncRequestDTO bulkDataSyncRequest = new BulkDataSyncRequestDTO();
+		bulkDataSyncRequest.setMachineId("10001");
+		bulkDataSyncRequest.setPreRegistrationIds(Arrays.asList("23587986034785", " 23587986034786 "));
+		assertEquals(true, serviceUtil.validateBulkDataSyncRequest(bulkDataSyncRequest, 100, null));
+	}
+
+	@Test(expected = InvalidRequestParameterException.class)
+	public void validateBulkDataSyncRequestNullPreIdTest() {
+		BulkDataSyncRequestDTO bulkDataSyncRequest = new BulkDataSyncRequestDTO();
+		bulkDataSyncRequest.setMachineId("10001");
+		bulkDataSyncRequest.setPreRegistrationIds(Arrays.asList("23587986034785", null));
+		serviceUtil.validateBulkDataSyncRequest(bulkDataSyncRequest, 100, null);
+	}
+
 	@Test
 	public void callGetPreIdsRestServiceTest() {
 		Map<String, Map<LocalDate, SlotTimeDto>> idsWithAppointmentDate = new HashMap<>();
@@ -522,6 +550,33 @@ public class DataSyncServiceUtilTest {
 
 	@Test
 	public void archivingFilesTest() throws FileNotFoundException, IOException, ParseException {
+		prepareArchive();
+		PreRegArchiveDTO archiveDTO = serviceUtil.archivingFiles(demographicResponseDTO, bookingRegistrationDTO,
+				documentsMetaData, null);
+		assertEquals(5, countEntries(archiveDTO.getZipBytes()));
+	}
+
+	@Test
+	public void archivingFilesSpilledZipTest() throws FileNotFoundException, IOException, ParseException {
+		prepareArchive();
+		Mockito.when(clientCryptoManagerService.csEncrypt(Mockito.any())).thenAnswer(invocation -> {
+			TpmCryptoResponseDto tpmCryptoResponseDto = new TpmCryptoResponseDto();
+			tpmCryptoResponseDto.setValue(invocation.<TpmCryptoRequestDto>getArgument(0).getValue());
+			return tpmCryptoResponseDto;
+		});
+		Object zipMemoryThreshold = ReflectionTestUtils.getField(serviceUtil, "zipMemoryThreshold");
+		ReflectionTestUtils.setField(serviceUtil, "zipMemoryThreshold", 1);
+		try {
+			PreRegArchiveDTO archiveDTO = serviceUtil.archivingFilesWithPublicKey(demographicResponseDTO,
+					bookingRegistrationDTO, documentsMetaData, "10011", "publickey");
+			// the crypto stub echoes the encoded zip
+			assertEquals(5, countEntries(archiveDTO.getZipBytes()));
+		} finally {
+			ReflectionTestUtils.setField(serviceUtil, "zipMemoryThreshold", zipMemoryThreshold);
+		}
+	}
+
+	private void prepareArchive() throws FileNotFoundException, IOException, ParseException {
 		parser = new JSONParser();
 
 		ClassLoader classLoader = getClass().getClassLoader();
@@ -574,7 +629,16 @@ public class DataSyncServiceUtilTest {
 		Map<String, String> documentTypeMap = new HashMap<>();
 		Mockito.when(validationUtil.getDocumentTypeNameByTypeCode(Mockito.anyString(), Mockito.anyString()))
 				.thenReturn(documentTypeMap);
-		serviceUtil.archivingFiles(demographicResponseDTO, bookingRegistrationDTO, documentsMetaData,null);
+	}
+
+	private int countEntries(byte[] zipBytes) throws IOException {
+		int entries = 0;
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
+			while (zipInputStream.getNextEntry() != null) {
+				entries++;
+			}
+		}
+		return entries;
 	}
 
 	@Test
@@ -710,4 +774,25 @@ public class DataSyncServiceUtilTest {
 		assertEquals("1", reponse.getCountOfStoredPreRegIds());
 	}
 
+	@Test
+	public void getEncryptionKeyCachedTest() {
+		String machineId = "10011";
+		ClientPublickeyDTO clientPublickeyDTO = new ClientPublickeyDTO();
+		clientPublickeyDTO.setEncryptionPublicKey("publickey");
+		MainResponseDTO<ClientPublickeyDTO> mainResponseDTO = new MainResponseDTO<>();
+		mainResponseDTO.setResponse(clientPublickeyDTO);
+		Mockito.when(restTemplate.exchange(Mockito.contains("/tpm/publickey/" + machineId), Mockito.eq(HttpMethod.GET),
+				Mockito.any(), Mockito.eq(new ParameterizedTypeReference<MainResponseDTO<ClientPublickeyDTO>>() {
+				}))).thenReturn(new ResponseEntity<>(mainResponseDTO, HttpStatus.OK));
+
+		assertEquals("publickey", serviceUtil.getEncryptionKey(machineId));
+		assertEquals("publickey", serviceUtil.getEncryptionKey(machineId));
+		serviceUtil.invalidateEncryptionKey(machineId);
+		assertEquals("publickey", serviceUtil.getEncryptionKey(machineId));
+		Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.contains("/tpm/publickey/" + machineId),
+				Mockito.eq(HttpMethod.GET), Mockito.any(),
+				Mockito.eq(new ParameterizedTypeReference<MainResponseDTO<ClientPublickeyDTO>>() {
+				}));
+	}
+
 }